@@ -0,0 +1,346 @@
+package de.tum.in.www1.artemis.aop.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+/**
+ * Aspect for measuring the latency of repository methods, websocket sends and scheduled jobs with Micrometer timers and for logging slow operations.
+ * The number of rows returned by repository methods is recorded as distribution summary.
+ * REST endpoints are already measured by Spring Boot in the http.server.requests timer, therefore only slow REST calls are logged and counted here.
+ * The meters are created once per tag combination and then reused, percentile histograms are only published for the meters configured in {@link #distributionFilter}.
+ */
+@Aspect
+public class PerformanceMetricsAspect {
+
+    private final Logger log = LoggerFactory.getLogger(PerformanceMetricsAspect.class);
+
+    public static final String REPOSITORY_DURATION_METRIC = "artemis.repository.duration";
+
+    public static final String REPOSITORY_ROWS_METRIC = "artemis.repository.rows";
+
+    public static final String WEBSOCKET_SEND_DURATION_METRIC = "artemis.websocket.send.duration";
+
+    public static final String SCHEDULED_JOB_DURATION_METRIC = "artemis.scheduled.duration";
+
+    public static final String SLOW_OPERATIONS_METRIC = "artemis.slow.operations";
+
+    private static final Set<String> PERFORMANCE_METRICS = Set.of(REPOSITORY_DURATION_METRIC, REPOSITORY_ROWS_METRIC, WEBSOCKET_SEND_DURATION_METRIC,
+            SCHEDULED_JOB_DURATION_METRIC);
+
+    private static final List<String> CATEGORIES = List.of("rest", "repository", "websocket", "scheduled");
+
+    private final MeterRegistry meterRegistry;
+
+    private final SlowOperationThresholds thresholds;
+
+    /**
+     * Repository proxy class -> simple name of the Artemis repository interface, because the declaring type of inherited methods (e.g. findById) is a Spring Data interface
+     */
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    /**
+     * [metric, tag values...] -> timer, so that the timer is only built and registered for the first call of a method with the given outcome
+     */
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * [repository, method] -> distribution summary of the returned rows
+     */
+    private final Map<List<String>, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    /**
+     * category -> counter of slow operations, registered upfront so that the counters are also exported before the first slow operation
+     */
+    private final Map<String, Counter> slowOperationCounters = new HashMap<>();
+
+    public PerformanceMetricsAspect(MeterRegistry meterRegistry, SlowOperationThresholds thresholds) {
+        this.meterRegistry = meterRegistry;
+        this.thresholds = thresholds;
+        for (String category : CATEGORIES) {
+            slowOperationCounters.put(category, Counter.builder(SLOW_OPERATIONS_METRIC).description("Number of operations exceeding the slow operation threshold")
+                    .tag("category", category).register(meterRegistry));
+        }
+    }
+
+    /**
+     * Creates the filter which decides about the histograms of the meters of this aspect.
+     * Percentile histograms result in a large number of series per tag combination, therefore they are only published for the given metrics. All other meters of this
+     * aspect only get a service level objective bucket at the slow operation threshold of their category and no client side percentiles.
+     *
+     * @param histogramMetrics the names of the metrics for which percentile histograms should be published
+     * @param thresholds the slow operation thresholds which are used as service level objectives
+     * @return the meter filter, which has to be applied after the filter for the management.metrics.distribution properties
+     */
+    public static MeterFilter distributionFilter(Collection<String> histogramMetrics, SlowOperationThresholds thresholds) {
+        return new MeterFilter() {
+
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!PERFORMANCE_METRICS.contains(id.getName())) {
+                    return config;
+                }
+                if (histogramMetrics.contains(id.getName())) {
+                    return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+                }
+                DistributionStatisticConfig.Builder builder = DistributionStatisticConfig.builder().percentilesHistogram(false).percentiles();
+                long thresholdInMs = thresholds.getForMetric(id.getName());
+                if (thresholdInMs > 0) {
+                    builder.serviceLevelObjectives(TimeUnit.MILLISECONDS.toNanos(thresholdInMs));
+                }
+                return builder.build().merge(config);
+            }
+        };
+    }
+
+    /**
+     * Pointcut that matches all methods of Spring Data repositories.
+     */
+    @Pointcut("this(org.springframework.data.repository.Repository)")
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Web REST endpoints of Artemis.
+     */
+    @Pointcut("within(@org.springframework.web.bind.annotation.RestController *) && within(de.tum.in.www1.artemis.web.rest..*)")
+    public void restControllerPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all messages sent to websocket destinations.
+     */
+    @Pointcut("execution(* org.springframework.messaging.simp.SimpMessageSendingOperations+.convertAndSend*(..))")
+    public void websocketSendPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all scheduled jobs.
+     */
+    @Pointcut("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public void scheduledJobPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that measures repository methods and the number of rows they return.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable if the repository method throws.
+     */
+    @Around("repositoryPointcut()")
+    public Object measureRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        final String repository = repositoryNames.computeIfAbsent(joinPoint.getTarget().getClass(), proxyClass -> resolveRepositoryName(joinPoint));
+        final String method = joinPoint.getSignature().getName();
+        final long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            Integer rows = countRows(result);
+            if (rows != null) {
+                rowSummaries.computeIfAbsent(List.of(repository, method), key -> DistributionSummary.builder(REPOSITORY_ROWS_METRIC)
+                        .description("Number of rows returned by repository methods").tag("repository", repository).tag("method", method).register(meterRegistry))
+                        .record(rows);
+            }
+            return result;
+        }
+        finally {
+            record(start, REPOSITORY_DURATION_METRIC, "repository", repository, "method", method, "outcome", outcome);
+            logIfSlow(start, "repository", repository + "." + method + "()", thresholds.getRepository());
+        }
+    }
+
+    /**
+     * Advice that logs and counts slow REST calls.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable if the REST endpoint throws.
+     */
+    @Around("restControllerPointcut()")
+    public Object measureRestCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        final long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        }
+        finally {
+            logIfSlow(start, "rest", joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName() + "()", thresholds.getRest());
+        }
+    }
+
+    /**
+     * Advice that measures messages sent to websocket destinations.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable if the message could not be sent.
+     */
+    @Around("websocketSendPointcut()")
+    public Object measureWebsocketSend(ProceedingJoinPoint joinPoint) throws Throwable {
+        final long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        }
+        finally {
+            // the destination contains ids, so it is only logged for slow sends but not used as tag
+            record(start, WEBSOCKET_SEND_DURATION_METRIC, "method", joinPoint.getSignature().getName(), "outcome", outcome);
+            logIfSlow(start, "websocket", joinPoint.getSignature().getName() + "()" + describeDestination(joinPoint), thresholds.getWebsocket());
+        }
+    }
+
+    /**
+     * Advice that measures scheduled jobs.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable if the scheduled job throws.
+     */
+    @Around("scheduledJobPointcut()")
+    public Object measureScheduledJob(ProceedingJoinPoint joinPoint) throws Throwable {
+        final long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        }
+        finally {
+            final String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            final String method = joinPoint.getSignature().getName();
+            record(start, SCHEDULED_JOB_DURATION_METRIC, "class", type, "method", method, "outcome", outcome);
+            logIfSlow(start, "scheduled", type + "." + method + "()", thresholds.getScheduled());
+        }
+    }
+
+    /**
+     * Records the duration since start in the timer with the given name and tags (alternating keys and values), which is registered for the first call only
+     */
+    private void record(long start, String metric, String... tags) {
+        final List<String> key = new ArrayList<>(tags.length / 2 + 1);
+        key.add(metric);
+        for (int i = 1; i < tags.length; i += 2) {
+            key.add(tags[i]);
+        }
+        timers.computeIfAbsent(key, ignored -> Timer.builder(metric).tags(tags).register(meterRegistry)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void logIfSlow(long start, String category, String operation, long thresholdInMs) {
+        if (thresholdInMs > 0 && System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(thresholdInMs)) {
+            log.warn("Slow {} operation {} took {} (threshold {}ms)", category, operation, TimeLogUtil.formatDurationFrom(start), thresholdInMs);
+            slowOperationCounters.get(category).increment();
+        }
+    }
+
+    private static String resolveRepositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> repositoryInterface : AopProxyUtils.proxiedUserInterfaces(joinPoint.getTarget())) {
+            if (repositoryInterface.getName().startsWith("de.tum.in.www1.artemis")) {
+                return repositoryInterface.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    /**
+     * convertAndSend has the destination as first argument, convertAndSendToUser has the user as first and the destination as second argument
+     */
+    private static String describeDestination(ProceedingJoinPoint joinPoint) {
+        final Object[] args = joinPoint.getArgs();
+        if (joinPoint.getSignature().getName().endsWith("ToUser") && args.length > 1) {
+            return " to user " + args[0] + " and destination " + args[1];
+        }
+        return args.length > 0 ? " to destination " + args[0] : "";
+    }
+
+    private static Integer countRows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean) {
+            // counts, existence checks and void modifying queries do not return rows
+            return null;
+        }
+        return 1;
+    }
+
+    /**
+     * Thresholds in milliseconds above which operations are logged as slow, 0 disables the slow operation log for the category
+     */
+    public static class SlowOperationThresholds {
+
+        private final long rest;
+
+        private final long repository;
+
+        private final long websocket;
+
+        private final long scheduled;
+
+        public SlowOperationThresholds(long rest, long repository, long websocket, long scheduled) {
+            this.rest = rest;
+            this.repository = repository;
+            this.websocket = websocket;
+            this.scheduled = scheduled;
+        }
+
+        public long getRest() {
+            return rest;
+        }
+
+        public long getRepository() {
+            return repository;
+        }
+
+        public long getWebsocket() {
+            return websocket;
+        }
+
+        public long getScheduled() {
+            return scheduled;
+        }
+
+        /**
+         * @param metric the name of a metric of the aspect
+         * @return the threshold of the category which is measured by the metric, 0 for metrics which are not measuring durations
+         */
+        long getForMetric(String metric) {
+            return switch (metric) {
+                case REPOSITORY_DURATION_METRIC -> repository;
+                case WEBSOCKET_SEND_DURATION_METRIC -> websocket;
+                case SCHEDULED_JOB_DURATION_METRIC -> scheduled;
+                default -> 0;
+            };
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package de.tum.in.www1.artemis.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,6 +25,8 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
+    private static final int EXPORT_QUEUE_CAPACITY = 100;
+
     private final TaskExecutionProperties taskExecutionProperties;
 
     public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
@@ -41,6 +45,26 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor shared by all streamed exports, which read or render the next entries of the zip file while the previous entries are written to the response.
+     * The threads and the queue are bounded for all exports together. If both are exhausted, the request thread of the export reads the entry itself.
+     *
+     * @param exportThreads the number of threads shared by all exports
+     * @return the executor for streamed exports
+     */
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor getExportExecutor(@Value("${artemis.export-threads:8}") int exportThreads) {
+        log.debug("Creating Export Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportThreads);
+        executor.setMaxPoolSize(exportThreads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(EXPORT_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("export-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -1,17 +1,25 @@
 package de.tum.in.www1.artemis.config;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.messaging.simp.user.SimpUserRegistry;
 
+import de.tum.in.www1.artemis.aop.metrics.PerformanceMetricsAspect;
 import de.tum.in.www1.artemis.web.rest.CustomMetricsExtension;
 import io.github.jhipster.config.metric.JHipsterMetricsEndpoint;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
 
 /**
  * CustomMetricsExtensionConfiguration.
@@ -38,4 +46,48 @@ public class CustomMetricsExtensionConfiguration {
             return new CustomMetricsExtension(jHipsterMetricsEndpoint, simpUserRegistry);
         }
     }
+
+    /**
+     * Configuration of the latency metrics and the slow operation log (see {@link PerformanceMetricsAspect}), which can be disabled with
+     * artemis.metrics.performance.enabled=false
+     */
+    @Configuration
+    @EnableAspectJAutoProxy
+    @ConditionalOnProperty(name = "artemis.metrics.performance.enabled", havingValue = "true", matchIfMissing = true)
+    public static class PerformanceMetricsConfiguration {
+
+        @Value("${artemis.metrics.slow-operation-threshold-in-ms.rest:1000}")
+        private long restThreshold;
+
+        @Value("${artemis.metrics.slow-operation-threshold-in-ms.repository:200}")
+        private long repositoryThreshold;
+
+        @Value("${artemis.metrics.slow-operation-threshold-in-ms.websocket:100}")
+        private long websocketThreshold;
+
+        @Value("${artemis.metrics.slow-operation-threshold-in-ms.scheduled:5000}")
+        private long scheduledThreshold;
+
+        @Value("${artemis.metrics.performance.histograms:artemis.websocket.send.duration,artemis.scheduled.duration}")
+        private List<String> histogramMetrics;
+
+        private PerformanceMetricsAspect.SlowOperationThresholds slowOperationThresholds() {
+            return new PerformanceMetricsAspect.SlowOperationThresholds(restThreshold, repositoryThreshold, websocketThreshold, scheduledThreshold);
+        }
+
+        @Bean
+        public PerformanceMetricsAspect performanceMetricsAspect(MeterRegistry meterRegistry) {
+            return new PerformanceMetricsAspect(meterRegistry, slowOperationThresholds());
+        }
+
+        /**
+         * The filter is not ordered and therefore applied after the filter for the management.metrics.distribution properties, which enable histograms for all meters
+         *
+         * @return the filter restricting the percentile histograms of the performance metrics to the configured metrics
+         */
+        @Bean
+        public MeterFilter performanceMetricsDistributionFilter() {
+            return PerformanceMetricsAspect.distributionFilter(histogramMetrics, slowOperationThresholds());
+        }
+    }
 }
@@ -1,73 +1,137 @@
 package de.tum.in.www1.artemis.config;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
 import de.tum.in.www1.artemis.config.auth.JiraAuthorizationInterceptor;
+import de.tum.in.www1.artemis.config.connector.ConnectorBulkheadInterceptor;
 import de.tum.in.www1.artemis.service.connectors.bamboo.BambooAuthorizationInterceptor;
 import de.tum.in.www1.artemis.service.connectors.bitbucket.BitbucketAuthorizationInterceptor;
 import de.tum.in.www1.artemis.service.connectors.gitlab.GitLabAuthorizationInterceptor;
 import de.tum.in.www1.artemis.service.connectors.jenkins.JenkinsAuthorizationInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
- * For now only provides a basic {@link org.springframework.web.client.RestTemplate RestTemplate} bean. Can be extended
- * to further customize how requests to other REST APIs are handled
+ * Provides the {@link org.springframework.web.client.RestTemplate RestTemplate} beans for the connectors to external systems. Each connector has its own pool of keep-alive
+ * connections with connect and read timeouts and is guarded by a {@link ConnectorBulkheadInterceptor}, so that a slow system cannot block the requests to the others.
+ * The settings in artemis.http-client can be overridden per connector, e.g. artemis.http-client.bitbucket.read-timeout-in-seconds.
  */
 @Configuration
 public class RestTemplateConfiguration {
 
+    private final Logger log = LoggerFactory.getLogger(RestTemplateConfiguration.class);
+
+    private static final String PROPERTY_PREFIX = "artemis.http-client.";
+
+    public static final String CONNECTION_POOL_METRIC = "artemis.connector.pool.connections";
+
+    private final Environment environment;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<CloseableHttpClient> httpClients = new CopyOnWriteArrayList<>();
+
+    public RestTemplateConfiguration(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    public void closeHttpClients() {
+        for (CloseableHttpClient httpClient : httpClients) {
+            try {
+                httpClient.close();
+            }
+            catch (Exception ex) {
+                log.warn("Could not close HTTP client: {}", ex.getMessage());
+            }
+        }
+    }
+
     @Bean
     @Profile("gitlab")
     @Autowired
     public RestTemplate gitlabRestTemplate(GitLabAuthorizationInterceptor gitlabInterceptor) {
-        return initializeRestTemplateWithInterceptors(gitlabInterceptor);
+        return initializeRestTemplateWithInterceptors("gitlab", gitlabInterceptor);
     }
 
     @Bean
     @Profile("jenkins")
     @Autowired
     public RestTemplate jenkinsRestTemplate(JenkinsAuthorizationInterceptor jenkinsInterceptor) {
-        return initializeRestTemplateWithInterceptors(jenkinsInterceptor);
+        return initializeRestTemplateWithInterceptors("jenkins", jenkinsInterceptor);
     }
 
     @Bean
     @Profile("jira")
     @Autowired
     public RestTemplate jiraRestTemplate(JiraAuthorizationInterceptor jiraAuthorizationInterceptor) {
-        return initializeRestTemplateWithInterceptors(jiraAuthorizationInterceptor);
+        return initializeRestTemplateWithInterceptors("jira", jiraAuthorizationInterceptor);
     }
 
     @Bean
     @Profile("bitbucket")
     public RestTemplate bitbucketRestTemplate(BitbucketAuthorizationInterceptor bitbucketAuthorizationInterceptor) {
-        return initializeRestTemplateWithInterceptors(bitbucketAuthorizationInterceptor);
+        return initializeRestTemplateWithInterceptors("bitbucket", bitbucketAuthorizationInterceptor);
     }
 
     @Bean
     @Profile("bamboo")
     public RestTemplate bambooRestTemplate(BambooAuthorizationInterceptor bambooAuthorizationInterceptor) {
-        return initializeRestTemplateWithInterceptors(bambooAuthorizationInterceptor);
+        return initializeRestTemplateWithInterceptors("bamboo", bambooAuthorizationInterceptor);
+    }
+
+    /**
+     * The remote Artemis services (e.g. Athene) are called through {@link de.tum.in.www1.artemis.service.connectors.RemoteArtemisServiceConnector}, which sends JSON only
+     *
+     * @return the RestTemplate for the remote Artemis services
+     */
+    @Bean
+    @Profile("athene")
+    public RestTemplate atheneRestTemplate() {
+        return initializeRestTemplateWithInterceptors("athene", null);
     }
 
     @NotNull
-    private RestTemplate initializeRestTemplateWithInterceptors(ClientHttpRequestInterceptor interceptor) {
-        final var restTemplate = new RestTemplate();
+    private RestTemplate initializeRestTemplateWithInterceptors(String connector, ClientHttpRequestInterceptor interceptor) {
+        final var restTemplate = new RestTemplate(createPooledRequestFactory(connector));
         var interceptors = restTemplate.getInterceptors();
         if (interceptors.isEmpty()) {
             interceptors = new ArrayList<>();
         }
-        interceptors.add(interceptor);
+        // the bulkhead is the outermost interceptor, so that it also limits and measures the time spent in the other interceptors
+        interceptors.add(new ConnectorBulkheadInterceptor(connector, meterRegistry, getProperty(connector, "max-concurrent-requests", 50),
+                getProperty(connector, "max-wait-for-request-in-ms", 10_000), getProperty(connector, "circuit-breaker.failure-threshold", 5),
+                TimeUnit.SECONDS.toMillis(getProperty(connector, "circuit-breaker.open-duration-in-seconds", 30))));
+        if (interceptor != null) {
+            interceptors.add(interceptor);
+        }
         restTemplate.setInterceptors(interceptors);
 
         // we do not want to use MappingJackson2XmlHttpMessageConverter here because it would lead to problems with the tests
@@ -83,6 +147,45 @@ public class RestTemplateConfiguration {
         return restTemplate;
     }
 
+    /**
+     * Creates a request factory with a pool of keep-alive connections to the external system of the connector. All requests of a connector go to the same host, therefore
+     * the pool size also limits the connections per host.
+     */
+    private HttpComponentsClientHttpRequestFactory createPooledRequestFactory(String connector) {
+        final var connectionManager = new PoolingHttpClientConnectionManager();
+        final int maxConnections = getProperty(connector, "max-connections", 50);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        // check connections that have been idle for a while before reusing them, the external system might have closed them in the meantime
+        connectionManager.setValidateAfterInactivity(2_000);
+
+        final var requestConfig = RequestConfig.custom().setConnectTimeout((int) TimeUnit.SECONDS.toMillis(getProperty(connector, "connect-timeout-in-seconds", 10)))
+                .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(getProperty(connector, "read-timeout-in-seconds", 120)))
+                .setConnectionRequestTimeout(getProperty(connector, "max-wait-for-request-in-ms", 10_000)).build();
+        final CloseableHttpClient httpClient = HttpClientBuilder.create().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(getProperty(connector, "max-idle-time-in-seconds", 30), TimeUnit.SECONDS).evictExpiredConnections().disableCookieManagement().build();
+        httpClients.add(httpClient);
+
+        registerPoolGauge(connector, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(connector, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(connector, connectionManager, "pending", PoolStats::getPending);
+        registerPoolGauge(connector, connectionManager, "max", PoolStats::getMax);
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private void registerPoolGauge(String connector, PoolingHttpClientConnectionManager connectionManager, String state, ToIntFunction<PoolStats> value) {
+        Gauge.builder(CONNECTION_POOL_METRIC, connectionManager, manager -> value.applyAsInt(manager.getTotalStats())).tag("connector", connector).tag("state", state)
+                .description("Number of pooled connections to the external system").register(meterRegistry);
+    }
+
+    /**
+     * Returns the value of the connector specific property, e.g. artemis.http-client.bitbucket.max-connections, or of the property for all connectors
+     */
+    private int getProperty(String connector, String name, int defaultValue) {
+        final Integer value = environment.getProperty(PROPERTY_PREFIX + name, Integer.class, defaultValue);
+        return environment.getProperty(PROPERTY_PREFIX + connector + "." + name, Integer.class, value);
+    }
+
     @Bean
     @Primary
     public RestTemplate restTemplate() {
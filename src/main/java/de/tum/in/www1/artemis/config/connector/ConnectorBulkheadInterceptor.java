@@ -0,0 +1,206 @@
+package de.tum.in.www1.artemis.config.connector;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import de.tum.in.www1.artemis.exception.ConnectorUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Isolates Artemis from a slow or unreachable external system (e.g. Bitbucket), so that it cannot block all request threads:
+ * <ul>
+ * <li>Bulkhead: at most maxConcurrentRequests requests to the system run at the same time, further requests wait for a limited time and are then rejected.</li>
+ * <li>Circuit breaker: after failureThreshold consecutive I/O errors (e.g. connect or read timeouts), all requests are rejected immediately for openDuration. Afterwards, a
+ * single trial request decides whether the circuit is closed again. Error responses of the system do not count as failures, the system is reachable in this case.</li>
+ * </ul>
+ * The latency of the requests, the number of running and rejected requests and the circuit state are published as metrics tagged with the connector name.
+ */
+public class ConnectorBulkheadInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Logger log = LoggerFactory.getLogger(ConnectorBulkheadInterceptor.class);
+
+    public static final String REQUEST_DURATION_METRIC = "artemis.connector.requests";
+
+    public static final String ACTIVE_REQUESTS_METRIC = "artemis.connector.requests.active";
+
+    public static final String REJECTED_REQUESTS_METRIC = "artemis.connector.requests.rejected";
+
+    public static final String CIRCUIT_OPEN_METRIC = "artemis.connector.circuit.open";
+
+    private static final String BULKHEAD_REJECTION = "bulkhead";
+
+    private static final String CIRCUIT_OPEN_REJECTION = "circuit-open";
+
+    private final String connector;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Semaphore permits;
+
+    private final long maxWaitInMillis;
+
+    private final int failureThreshold;
+
+    private final long openDurationInNanos;
+
+    /**
+     * [method, outcome] -> timer, so that the timer is only built and registered for the first request with the given method and outcome
+     */
+    private final Map<List<String>, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    /**
+     * reason -> counter of the rejected requests, registered upfront so that the counters are also exported before the first rejection
+     */
+    private final Map<String, Counter> rejectedRequestCounters;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicBoolean trialRequestRunning = new AtomicBoolean();
+
+    private volatile boolean circuitOpen;
+
+    /**
+     * The value of System.nanoTime() until which requests are rejected while the circuit is open
+     */
+    private volatile long circuitOpenUntil;
+
+    /**
+     * @param connector             the name of the connector used in logs and metrics, e.g. bitbucket
+     * @param meterRegistry         the registry for the metrics
+     * @param maxConcurrentRequests the maximum number of requests running at the same time
+     * @param maxWaitInMillis       how long a request waits for one of the running requests to finish before it is rejected
+     * @param failureThreshold      the number of consecutive I/O errors which open the circuit, 0 disables the circuit breaker
+     * @param openDurationInMillis  how long requests are rejected after the circuit was opened
+     */
+    public ConnectorBulkheadInterceptor(String connector, MeterRegistry meterRegistry, int maxConcurrentRequests, long maxWaitInMillis, int failureThreshold,
+            long openDurationInMillis) {
+        this.connector = connector;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxWaitInMillis = maxWaitInMillis;
+        this.failureThreshold = failureThreshold;
+        this.openDurationInNanos = TimeUnit.MILLISECONDS.toNanos(openDurationInMillis);
+        Gauge.builder(ACTIVE_REQUESTS_METRIC, permits, semaphore -> maxConcurrentRequests - semaphore.availablePermits()).tag("connector", connector)
+                .description("Number of running requests to the external system").register(meterRegistry);
+        Gauge.builder(CIRCUIT_OPEN_METRIC, this, interceptor -> interceptor.circuitOpen ? 1 : 0).tag("connector", connector)
+                .description("Whether requests to the external system are rejected because it failed repeatedly").register(meterRegistry);
+        this.rejectedRequestCounters = Map.of(BULKHEAD_REJECTION, rejectedRequestCounter(BULKHEAD_REJECTION), CIRCUIT_OPEN_REJECTION,
+                rejectedRequestCounter(CIRCUIT_OPEN_REJECTION));
+    }
+
+    private Counter rejectedRequestCounter(String reason) {
+        return Counter.builder(REJECTED_REQUESTS_METRIC).tag("connector", connector).tag("reason", reason)
+                .description("Number of requests to the external system that were not sent").register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        final boolean trialRequest = acquireCircuit(request);
+        try {
+            acquirePermit(request);
+        }
+        catch (IOException ex) {
+            if (trialRequest) {
+                trialRequestRunning.set(false);
+            }
+            throw ex;
+        }
+
+        final long start = System.nanoTime();
+        String outcome = "UNKNOWN";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            HttpStatus.Series series = HttpStatus.Series.resolve(response.getRawStatusCode());
+            outcome = series != null ? series.name() : outcome;
+            onSuccess();
+            return response;
+        }
+        catch (IOException ex) {
+            outcome = "IO_ERROR";
+            onFailure(trialRequest, ex);
+            throw ex;
+        }
+        finally {
+            permits.release();
+            if (trialRequest) {
+                trialRequestRunning.set(false);
+            }
+            final String method = request.getMethodValue();
+            final String finalOutcome = outcome;
+            requestTimers.computeIfAbsent(List.of(method, outcome), key -> Timer.builder(REQUEST_DURATION_METRIC).tag("connector", connector).tag("method", method)
+                    .tag("outcome", finalOutcome).publishPercentileHistogram().register(meterRegistry)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Rejects the request while the circuit is open. Once the open duration has passed, only one trial request is let through at a time.
+     *
+     * @return whether the request is the trial request of an open circuit
+     */
+    private boolean acquireCircuit(HttpRequest request) throws ConnectorUnavailableException {
+        if (!circuitOpen) {
+            return false;
+        }
+        if (System.nanoTime() - circuitOpenUntil < 0 || !trialRequestRunning.compareAndSet(false, true)) {
+            throw reject(request, CIRCUIT_OPEN_REJECTION, "the circuit breaker is open after repeated failures");
+        }
+        return true;
+    }
+
+    private void acquirePermit(HttpRequest request) throws IOException {
+        try {
+            if (!permits.tryAcquire(maxWaitInMillis, TimeUnit.MILLISECONDS)) {
+                throw reject(request, BULKHEAD_REJECTION, "too many requests are running");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to send a request to " + connector);
+        }
+    }
+
+    private ConnectorUnavailableException reject(HttpRequest request, String reason, String description) {
+        rejectedRequestCounters.get(reason).increment();
+        return new ConnectorUnavailableException("Rejected the request " + request.getMethodValue() + " " + request.getURI() + " to " + connector + ": " + description);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (circuitOpen) {
+            circuitOpen = false;
+            log.info("Closed the circuit breaker of {}, the trial request succeeded", connector);
+        }
+    }
+
+    private void onFailure(boolean trialRequest, IOException ex) {
+        if (failureThreshold <= 0 || ex instanceof ConnectorUnavailableException) {
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || trialRequest) {
+            circuitOpenUntil = System.nanoTime() + openDurationInNanos;
+            if (!circuitOpen) {
+                circuitOpen = true;
+                log.warn("Opened the circuit breaker of {} for {} ms after {} consecutive failures, last failure: {}", connector,
+                        TimeUnit.NANOSECONDS.toMillis(openDurationInNanos), consecutiveFailures.get(), ex.getMessage());
+            }
+        }
+    }
+}
@@ -19,7 +19,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.core.env.Environment;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
@@ -49,14 +48,14 @@ import org.springframework.web.socket.sockjs.transport.handler.WebSocketTranspor
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Iterables;
 
-import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.security.AuthoritiesConstants;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
-import de.tum.in.www1.artemis.service.ExerciseService;
 import de.tum.in.www1.artemis.service.ParticipationService;
 import de.tum.in.www1.artemis.service.UserService;
+import de.tum.in.www1.artemis.service.metadata.ExerciseMetadata;
+import de.tum.in.www1.artemis.service.metadata.MetadataCacheService;
 import de.tum.in.www1.artemis.validation.InetSocketAddressValidator;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
@@ -82,7 +81,7 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
 
     private UserService userService;
 
-    private ExerciseService exerciseService;
+    private MetadataCacheService metadataCacheService;
 
     private static final int LOGGING_DELAY_SECONDS = 10;
 
@@ -97,13 +96,13 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
     private String brokerPassword;
 
     public WebsocketConfiguration(Environment env, MappingJackson2HttpMessageConverter springMvcJacksonConverter, TaskScheduler messageBrokerTaskScheduler,
-            TaskScheduler taskScheduler, AuthorizationCheckService authorizationCheckService, @Lazy ExerciseService exerciseService, UserService userService) {
+            TaskScheduler taskScheduler, AuthorizationCheckService authorizationCheckService, MetadataCacheService metadataCacheService, UserService userService) {
         this.env = env;
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
         this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
         this.taskScheduler = taskScheduler;
         this.authorizationCheckService = authorizationCheckService;
-        this.exerciseService = exerciseService;
+        this.metadataCacheService = metadataCacheService;
         this.userService = userService;
     }
 
@@ -298,12 +297,13 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
                 Long exerciseId = getExerciseIdFromResultDestination(destination);
 
                 // TODO: Is it right that TAs are not allowed to subscribe to exam exercises?
-                Exercise exercise = exerciseService.findOne(exerciseId);
-                if (exercise.hasExerciseGroup()) {
-                    return isUserInstructorOrHigherForExercise(principal, exercise);
+                ExerciseMetadata exercise = metadataCacheService.getExercise(exerciseId);
+                User user = userService.getUserWithGroupsAndAuthorities(principal.getName());
+                if (exercise.isExamExercise()) {
+                    return authorizationCheckService.isAtLeastInstructorForExercise(exerciseId, user);
                 }
                 else {
-                    return isUserTAOrHigherForExercise(principal, exercise);
+                    return authorizationCheckService.isAtLeastTeachingAssistantForExercise(exerciseId, user);
                 }
             }
             return true;
@@ -323,14 +323,4 @@ public class WebsocketConfiguration extends DelegatingWebSocketMessageBrokerConf
         StudentParticipation participation = participationService.findOneStudentParticipation(participationId);
         return participation.isOwnedBy(principal.getName());
     }
-
-    private boolean isUserInstructorOrHigherForExercise(Principal principal, Exercise exercise) {
-        User user = userService.getUserWithGroupsAndAuthorities(principal.getName());
-        return authorizationCheckService.isAtLeastInstructorInCourse(exercise.getCourseViaExerciseGroupOrCourseMember(), user);
-    }
-
-    private boolean isUserTAOrHigherForExercise(Principal principal, Exercise exercise) {
-        User user = userService.getUserWithGroupsAndAuthorities(principal.getName());
-        return authorizationCheckService.isAtLeastTeachingAssistantForExercise(exercise, user);
-    }
 }
@@ -12,6 +12,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 
 /**
  * Created by Josias Montag on 11.11.16.
+ * <p>
+ * A line of a build log. Build logs are stored as {@link CompressedBuildLog}, the rows of this table are only read to migrate build logs stored by previous versions.
  */
 @Entity
 @Table(name = "build_log_entry")
@@ -19,9 +21,6 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class BuildLogEntry extends DomainObject {
 
-    // Maximum characters for the attribute log as defined in the database model
-    private static final int MAX_LOG_LENGTH = 255;
-
     @Column(name = "time")
     private ZonedDateTime time;
 
@@ -71,15 +70,6 @@ public class BuildLogEntry extends DomainObject {
         this.programmingSubmission = programmingSubmission;
     }
 
-    /**
-     * Truncates the log to the maximum size allowed by the database model
-     */
-    public void truncateLogToMaxLength() {
-        if (log != null && log.length() > MAX_LOG_LENGTH) {
-            log = log.substring(0, MAX_LOG_LENGTH);
-        }
-    }
-
     @Override
     public String toString() {
         return "BuildLogEntry{" + "time=" + time + ", log='" + log + '\'' + '}';
@@ -0,0 +1,85 @@
+package de.tum.in.www1.artemis.domain;
+
+import javax.persistence.*;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The complete build log of a programming submission, stored as a single compressed blob instead of one {@link BuildLogEntry} row per line.
+ * <p>
+ * The lines are split into chunks of linesPerChunk lines which are compressed independently. The chunk offsets are the positions of the chunks within the data, so that a
+ * page of the log can be read by only decompressing the chunks that contain it. The encoding is implemented in the BuildLogService.
+ */
+@Entity
+@Table(name = "compressed_build_log")
+public class CompressedBuildLog extends DomainObject {
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "programming_submission_id", unique = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private ProgrammingSubmission programmingSubmission;
+
+    @Column(name = "number_of_lines")
+    private int numberOfLines;
+
+    @Column(name = "lines_per_chunk")
+    private int linesPerChunk;
+
+    @Lob
+    @Column(name = "chunk_offsets")
+    private byte[] chunkOffsets;
+
+    @Lob
+    @Column(name = "data")
+    private byte[] data;
+
+    public ProgrammingSubmission getProgrammingSubmission() {
+        return programmingSubmission;
+    }
+
+    public void setProgrammingSubmission(ProgrammingSubmission programmingSubmission) {
+        this.programmingSubmission = programmingSubmission;
+    }
+
+    public int getNumberOfLines() {
+        return numberOfLines;
+    }
+
+    public void setNumberOfLines(int numberOfLines) {
+        this.numberOfLines = numberOfLines;
+    }
+
+    public int getLinesPerChunk() {
+        return linesPerChunk;
+    }
+
+    public void setLinesPerChunk(int linesPerChunk) {
+        this.linesPerChunk = linesPerChunk;
+    }
+
+    public byte[] getChunkOffsets() {
+        return chunkOffsets;
+    }
+
+    public void setChunkOffsets(byte[] chunkOffsets) {
+        this.chunkOffsets = chunkOffsets;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedBuildLog{" + "id=" + getId() + ", numberOfLines=" + numberOfLines + ", linesPerChunk=" + linesPerChunk + ", size=" + (data != null ? data.length : 0)
+                + '}';
+    }
+}
@@ -5,6 +5,7 @@ import javax.persistence.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 /**
@@ -22,6 +23,14 @@ public class LtiOutcomeUrl extends DomainObject {
     @Column(name = "sourced_id")
     private String sourcedId;
 
+    /**
+     * The latest score that has not been reported to the LTI consumer yet, null if all scores have been reported. It is only changed by the dedicated queries in
+     * {@link de.tum.in.www1.artemis.repository.LtiOutcomeUrlRepository}, so that saving the outcome url does not overwrite a score which is stored in the meantime.
+     */
+    @Column(name = "pending_score", insertable = false, updatable = false)
+    @JsonIgnore
+    private String pendingScore;
+
     @ManyToOne
     private User user;
 
@@ -44,6 +53,10 @@ public class LtiOutcomeUrl extends DomainObject {
         this.sourcedId = sourcedId;
     }
 
+    public String getPendingScore() {
+        return pendingScore;
+    }
+
     public User getUser() {
         return user;
     }
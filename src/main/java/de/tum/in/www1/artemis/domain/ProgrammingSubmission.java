@@ -28,7 +28,7 @@ public class ProgrammingSubmission extends Submission {
     @Column(name = "build_artifact")
     private boolean buildArtifact;
 
-    // Only present if buildFailed == true
+    // Only present if buildFailed == true and the build log has not been migrated to a CompressedBuildLog yet
     @OneToMany(mappedBy = "programmingSubmission", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderColumn
     @JsonIgnoreProperties(value = "programmingSubmission", allowSetters = true)
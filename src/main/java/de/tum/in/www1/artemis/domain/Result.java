@@ -26,6 +26,7 @@ import de.tum.in.www1.artemis.domain.participation.Participation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 
 /**
@@ -455,14 +456,25 @@ public class Result extends DomainObject {
      */
     public void evaluateSubmission() {
         if (submission instanceof QuizSubmission) {
-            QuizSubmission quizSubmission = (QuizSubmission) submission;
             // get the exercise this result belongs to
             StudentParticipation studentParticipation = (StudentParticipation) getParticipation();
             QuizExercise quizExercise = (QuizExercise) studentParticipation.getExercise();
+            evaluateSubmission(QuizScoringPlan.compile(quizExercise));
+        }
+    }
+
+    /**
+     * Updates the attributes "score" and "successful" by evaluating its submission with the given scoring plan, which avoids compiling the plan again for each result
+     *
+     * @param scoringPlan the compiled scoring plan of the quiz exercise this result belongs to
+     */
+    public void evaluateSubmission(QuizScoringPlan scoringPlan) {
+        if (submission instanceof QuizSubmission) {
+            double scoreInPoints = scoringPlan.getScoreInPointsForSubmission((QuizSubmission) submission);
             // update score
-            setScore(quizExercise.getScoreForSubmission(quizSubmission));
+            setScore(Math.round(100.0 * scoreInPoints / scoringPlan.getMaxTotalScore()));
             // update result string
-            setResultString(quizExercise.getScoreInPointsForSubmission(quizSubmission), quizExercise.getMaxTotalScore().doubleValue());
+            setResultString(scoreInPoints, scoringPlan.getMaxTotalScore());
         }
     }
 
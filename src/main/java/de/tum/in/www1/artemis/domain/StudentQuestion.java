@@ -32,7 +32,11 @@ public class StudentQuestion extends DomainObject {
     @Column(name = "visible_for_students")
     private Boolean visibleForStudents;
 
-    @Column(name = "votes", columnDefinition = "integer default 0")
+    /**
+     * The sum of the {@link StudentQuestionVote}s, which is only changed by the update query of the StudentQuestionRepository, so that saving a question does not overwrite
+     * concurrent votes.
+     */
+    @Column(name = "votes", columnDefinition = "integer default 0", updatable = false)
     private Integer votes = 0;
 
     @OneToMany(mappedBy = "question", cascade = CascadeType.REMOVE, orphanRemoval = true, fetch = FetchType.EAGER)
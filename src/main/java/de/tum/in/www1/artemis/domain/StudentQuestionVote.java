@@ -0,0 +1,79 @@
+package de.tum.in.www1.artemis.domain;
+
+import javax.persistence.*;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The vote of a user for a student question. Each user has at most one vote per question, which is either positive (+1) or negative (-1).
+ * <p>
+ * The votes of a question are summed up in {@link StudentQuestion#getVotes()}, which is only changed together with the votes of the users.
+ */
+@Entity
+@Table(name = "student_question_vote", uniqueConstraints = @UniqueConstraint(columnNames = { "student_question_id", "user_id" }))
+public class StudentQuestionVote extends DomainObject {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_question_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private StudentQuestion studentQuestion;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private User user;
+
+    @Column(name = "positive", nullable = false)
+    private boolean positive;
+
+    public StudentQuestionVote() {
+        // needed for Hibernate
+    }
+
+    public StudentQuestionVote(StudentQuestion studentQuestion, User user, boolean positive) {
+        this.studentQuestion = studentQuestion;
+        this.user = user;
+        this.positive = positive;
+    }
+
+    public StudentQuestion getStudentQuestion() {
+        return studentQuestion;
+    }
+
+    public void setStudentQuestion(StudentQuestion studentQuestion) {
+        this.studentQuestion = studentQuestion;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public boolean isPositive() {
+        return positive;
+    }
+
+    public void setPositive(boolean positive) {
+        this.positive = positive;
+    }
+
+    /**
+     * @return the value of the vote, i.e. 1 for a positive and -1 for a negative vote
+     */
+    public int getValue() {
+        return positive ? 1 : -1;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentQuestionVote{" + "id=" + getId() + ", positive=" + positive + '}';
+    }
+}
@@ -39,6 +39,12 @@ public class TextCluster extends DomainObject {
     @JsonIgnore
     private TextExercise exercise;
 
+    /**
+     * The decoded distance matrix, so that it is only decoded once and not for every distance between two blocks
+     */
+    @Transient
+    private double[][] decodedDistanceMatrix;
+
     public double[] getProbabilities() {
         return castFromBinary(probabilities);
     }
@@ -48,7 +54,10 @@ public class TextCluster extends DomainObject {
     }
 
     public double[][] getDistanceMatrix() {
-        return castFromBinary(distanceMatrix);
+        if (decodedDistanceMatrix == null && distanceMatrix != null) {
+            decodedDistanceMatrix = castFromBinary(distanceMatrix);
+        }
+        return decodedDistanceMatrix;
     }
 
     public TextCluster distanceMatrix(double[][] distanceMatrix) {
@@ -58,6 +67,7 @@ public class TextCluster extends DomainObject {
 
     public void setDistanceMatrix(double[][] distanceMatrix) {
         this.distanceMatrix = castToBinary(distanceMatrix);
+        this.decodedDistanceMatrix = null;
     }
 
     private int getBlockIndex(TextBlock textBlock) {
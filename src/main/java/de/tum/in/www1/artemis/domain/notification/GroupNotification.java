@@ -4,6 +4,7 @@ import java.time.ZonedDateTime;
 
 import javax.persistence.*;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.google.gson.JsonObject;
@@ -27,6 +28,14 @@ public class GroupNotification extends Notification {
     @JsonIgnoreProperties("groupNotifications")
     private Course course;
 
+    /**
+     * The group of the course that receives the notification according to its type. It is materialized so that the notifications of a user can be found by the user's groups
+     * using an index, without joining the courses.
+     */
+    @Column(name = "recipient_group")
+    @JsonIgnore
+    private String recipientGroup;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
 
     public GroupNotificationType getType() {
@@ -67,6 +76,14 @@ public class GroupNotification extends Notification {
         this.course = course;
     }
 
+    public String getRecipientGroup() {
+        return recipientGroup;
+    }
+
+    public void setRecipientGroup(String recipientGroup) {
+        this.recipientGroup = recipientGroup;
+    }
+
     public String getExerciseCreatedTarget(Exercise exercise) {
         return getExerciseTarget(exercise, "exerciseCreated");
     }
@@ -13,6 +13,7 @@ import com.fasterxml.jackson.annotation.JsonView;
 
 import de.tum.in.www1.artemis.domain.Submission;
 import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 
 /**
@@ -106,16 +107,16 @@ public class QuizSubmission extends Submission {
      * @param quizExercise the quiz this submission belongs to (is needed to have values for isCorrect in answer options)
      */
     public void calculateAndUpdateScores(QuizExercise quizExercise) {
-        // set scores for all questions
-        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
-            // search for submitted answer for this quizQuestion
-            SubmittedAnswer submittedAnswer = getSubmittedAnswerForQuestion(quizQuestion);
-            if (submittedAnswer != null) {
-                submittedAnswer.setScoreInPoints(quizQuestion.scoreForAnswer(submittedAnswer));
-            }
-        }
-        // set total score
-        setScoreInPoints(quizExercise.getScoreInPointsForSubmission(this));
+        calculateAndUpdateScores(QuizScoringPlan.compile(quizExercise));
+    }
+
+    /**
+     * calculates the scores for this submission and all its submitted answers with the given scoring plan and saves them in scoreInPoints
+     *
+     * @param scoringPlan the compiled scoring plan of the quiz this submission belongs to, it should be compiled once when many submissions are scored
+     */
+    public void calculateAndUpdateScores(QuizScoringPlan scoringPlan) {
+        scoringPlan.calculateAndUpdateScores(this);
     }
 
     @Override
@@ -0,0 +1,504 @@
+package de.tum.in.www1.artemis.domain.quiz.scoring;
+
+import java.util.*;
+
+import me.xdrop.fuzzywuzzy.FuzzySearch;
+
+import de.tum.in.www1.artemis.domain.DomainObject;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * Immutable, precompiled form of the scoring strategies of all questions of a quiz exercise. The entity graph of the quiz is walked once when the plan is compiled: answer
+ * options, drop locations, drag items, spots and solutions are mapped to array indices, the correct options and mappings are stored as bit sets and the solution texts are
+ * normalized. Scoring a submission then only needs id lookups and bit set operations instead of walking the quiz for each submitted answer.
+ *
+ * The plan yields the same scores as the {@link ScoringStrategy} implementations. Questions that cannot be compiled (e.g. because elements are not yet saved and therefore have
+ * no id) fall back to {@link QuizQuestion#scoreForAnswer(SubmittedAnswer)}.
+ * A plan does not reflect later changes to the quiz exercise, it has to be compiled again after the quiz was changed (e.g. re-evaluated).
+ */
+public final class QuizScoringPlan {
+
+    /**
+     * Index for a drag item that is not part of the question
+     */
+    private static final int UNKNOWN_INDEX = -1;
+
+    /**
+     * Index for an empty drop location or a spot without submitted text
+     */
+    private static final int NO_INDEX = -2;
+
+    /**
+     * The minimal fuzzy ratio of a submitted text and a solution to be considered correct, see {@link ShortAnswerSubmittedText#isSubmittedTextCorrect(String, String)}
+     */
+    private static final int SHORT_ANSWER_SIMILARITY_THRESHOLD = 85;
+
+    private final QuestionPlan[] questionPlans;
+
+    /**
+     * question id -> index in questionPlans
+     */
+    private final Map<Long, Integer> questionIndexById;
+
+    private final double maxTotalScore;
+
+    private QuizScoringPlan(QuestionPlan[] questionPlans, double maxTotalScore) {
+        this.questionPlans = questionPlans;
+        this.maxTotalScore = maxTotalScore;
+        this.questionIndexById = new HashMap<>();
+        for (int i = 0; i < questionPlans.length; i++) {
+            if (questionPlans[i].question.getId() != null) {
+                questionIndexById.putIfAbsent(questionPlans[i].question.getId(), i);
+            }
+        }
+    }
+
+    /**
+     * Compiles the scoring plan for the given quiz exercise
+     *
+     * @param quizExercise the quiz exercise, its questions including all answer options, drag items, drop locations, spots, solutions and correct mappings have to be loaded
+     * @return the compiled scoring plan
+     */
+    public static QuizScoringPlan compile(QuizExercise quizExercise) {
+        List<QuizQuestion> quizQuestions = quizExercise.getQuizQuestions();
+        QuestionPlan[] questionPlans = new QuestionPlan[quizQuestions.size()];
+        for (int i = 0; i < questionPlans.length; i++) {
+            questionPlans[i] = compileQuestion(quizQuestions.get(i));
+        }
+        return new QuizScoringPlan(questionPlans, quizExercise.getMaxTotalScore());
+    }
+
+    /**
+     * Calculates the scores of the given submission and all its submitted answers and saves them in scoreInPoints, see {@link QuizSubmission#calculateAndUpdateScores}
+     *
+     * @param quizSubmission the submission that should be scored
+     */
+    public void calculateAndUpdateScores(QuizSubmission quizSubmission) {
+        quizSubmission.setScoreInPoints(score(quizSubmission, true));
+    }
+
+    /**
+     * Get the score for the given submission as the number of points without updating the submission
+     *
+     * @param quizSubmission the submission that should be evaluated
+     * @return the resulting score
+     */
+    public double getScoreInPointsForSubmission(QuizSubmission quizSubmission) {
+        return score(quizSubmission, false);
+    }
+
+    /**
+     * Get the score for the given submission as a number from 0 to 100 (100 being the best possible result)
+     *
+     * @param quizSubmission the submission that should be evaluated
+     * @return the resulting score
+     */
+    public long getScoreForSubmission(QuizSubmission quizSubmission) {
+        return Math.round(100.0 * getScoreInPointsForSubmission(quizSubmission) / maxTotalScore);
+    }
+
+    public double getMaxTotalScore() {
+        return maxTotalScore;
+    }
+
+    private double score(QuizSubmission quizSubmission, boolean updateSubmittedAnswers) {
+        // like QuizSubmission.getSubmittedAnswerForQuestion, the first submitted answer for a question is used
+        SubmittedAnswer[] submittedAnswers = new SubmittedAnswer[questionPlans.length];
+        for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+            int questionIndex = indexOfQuestion(submittedAnswer.getQuizQuestion());
+            if (questionIndex >= 0 && submittedAnswers[questionIndex] == null) {
+                submittedAnswers[questionIndex] = submittedAnswer;
+            }
+        }
+        double score = 0.0;
+        for (int i = 0; i < questionPlans.length; i++) {
+            if (submittedAnswers[i] != null) {
+                double scoreForAnswer = questionPlans[i].score(submittedAnswers[i]);
+                if (updateSubmittedAnswers) {
+                    submittedAnswers[i].setScoreInPoints(scoreForAnswer);
+                }
+                score += scoreForAnswer;
+            }
+        }
+        return score;
+    }
+
+    private int indexOfQuestion(QuizQuestion quizQuestion) {
+        if (quizQuestion == null) {
+            return NO_INDEX;
+        }
+        if (quizQuestion.getId() == null) {
+            // questions without id are only equal to themselves
+            for (int i = 0; i < questionPlans.length; i++) {
+                if (questionPlans[i].question == quizQuestion) {
+                    return i;
+                }
+            }
+            return NO_INDEX;
+        }
+        Integer questionIndex = questionIndexById.get(quizQuestion.getId());
+        return questionIndex != null && questionPlans[questionIndex].question.equals(quizQuestion) ? questionIndex : NO_INDEX;
+    }
+
+    private static QuestionPlan compileQuestion(QuizQuestion quizQuestion) {
+        if (quizQuestion.getScore() == null || quizQuestion.getScoringType() == null) {
+            return new UncompiledQuestionPlan(quizQuestion);
+        }
+        boolean allOrNothing = quizQuestion.getScoringType() == ScoringType.ALL_OR_NOTHING;
+        if (!allOrNothing && quizQuestion.getScoringType() != ScoringType.PROPORTIONAL_WITH_PENALTY) {
+            return new UncompiledQuestionPlan(quizQuestion);
+        }
+        if (quizQuestion instanceof MultipleChoiceQuestion && hasIds(((MultipleChoiceQuestion) quizQuestion).getAnswerOptions())) {
+            return new MultipleChoiceQuestionPlan((MultipleChoiceQuestion) quizQuestion, allOrNothing);
+        }
+        if (quizQuestion instanceof DragAndDropQuestion) {
+            DragAndDropQuestion dndQuestion = (DragAndDropQuestion) quizQuestion;
+            if (hasIds(dndQuestion.getDropLocations()) && hasIds(dndQuestion.getDragItems())) {
+                return new DragAndDropQuestionPlan(dndQuestion, allOrNothing);
+            }
+        }
+        if (quizQuestion instanceof ShortAnswerQuestion) {
+            ShortAnswerQuestion shortAnswerQuestion = (ShortAnswerQuestion) quizQuestion;
+            if (hasIds(shortAnswerQuestion.getSpots()) && hasIds(shortAnswerQuestion.getSolutions())) {
+                return new ShortAnswerQuestionPlan(shortAnswerQuestion, allOrNothing);
+            }
+        }
+        return new UncompiledQuestionPlan(quizQuestion);
+    }
+
+    private static boolean hasIds(List<? extends DomainObject> elements) {
+        return elements != null && elements.stream().allMatch(element -> element != null && element.getId() != null);
+    }
+
+    /**
+     * Maps the ids of the given elements to their index in the list, for duplicated ids the first index is used
+     */
+    private static Map<Long, Integer> indexById(List<? extends DomainObject> elements) {
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < elements.size(); i++) {
+            indexById.putIfAbsent(elements.get(i).getId(), i);
+        }
+        return indexById;
+    }
+
+    private static int indexOf(Map<Long, Integer> indexById, DomainObject element) {
+        if (element == null) {
+            return NO_INDEX;
+        }
+        Integer index = element.getId() == null ? null : indexById.get(element.getId());
+        return index == null ? UNKNOWN_INDEX : index;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase().trim();
+    }
+
+    /**
+     * Computes the score of a proportional with penalty strategy in the same way as the {@link ScoringStrategy} implementations
+     */
+    private static double proportionalScore(double score, double correct, double incorrect, double total) {
+        double fraction = ((correct / total) - (incorrect / total));
+        return Math.max(0, score * fraction);
+    }
+
+    private abstract static class QuestionPlan {
+
+        final QuizQuestion question;
+
+        final double score;
+
+        QuestionPlan(QuizQuestion question) {
+            this.question = question;
+            this.score = question.getScore() == null ? 0.0 : question.getScore();
+        }
+
+        /**
+         * @param submittedAnswer the answer for this question
+         * @return the score of the answer
+         */
+        abstract double score(SubmittedAnswer submittedAnswer);
+    }
+
+    private static final class UncompiledQuestionPlan extends QuestionPlan {
+
+        UncompiledQuestionPlan(QuizQuestion question) {
+            super(question);
+        }
+
+        @Override
+        double score(SubmittedAnswer submittedAnswer) {
+            return question.scoreForAnswer(submittedAnswer);
+        }
+    }
+
+    private static final class MultipleChoiceQuestionPlan extends QuestionPlan {
+
+        private final boolean invalid;
+
+        private final boolean allOrNothing;
+
+        private final int numberOfOptions;
+
+        private final Map<Long, Integer> optionIndexById;
+
+        private final BitSet correctOptions = new BitSet();
+
+        private final BitSet validOptions = new BitSet();
+
+        MultipleChoiceQuestionPlan(MultipleChoiceQuestion question, boolean allOrNothing) {
+            super(question);
+            this.invalid = question.isInvalid();
+            this.allOrNothing = allOrNothing;
+            List<AnswerOption> answerOptions = question.getAnswerOptions();
+            this.numberOfOptions = answerOptions.size();
+            this.optionIndexById = indexById(answerOptions);
+            for (int i = 0; i < numberOfOptions; i++) {
+                correctOptions.set(i, Boolean.TRUE.equals(answerOptions.get(i).isIsCorrect()));
+                validOptions.set(i, !answerOptions.get(i).isInvalid());
+            }
+        }
+
+        @Override
+        double score(SubmittedAnswer submittedAnswer) {
+            if (invalid) {
+                return score;
+            }
+            if (!(submittedAnswer instanceof MultipleChoiceSubmittedAnswer)) {
+                return 0.0;
+            }
+            BitSet wrongOptions = new BitSet(numberOfOptions);
+            for (AnswerOption selectedOption : ((MultipleChoiceSubmittedAnswer) submittedAnswer).getSelectedOptions()) {
+                // selected options which are not part of the question are ignored
+                Integer optionIndex = selectedOption.getId() == null ? null : optionIndexById.get(selectedOption.getId());
+                if (optionIndex != null) {
+                    wrongOptions.set(optionIndex);
+                }
+            }
+            // an option is answered wrong if its selection differs from its correctness, invalid options are always answered correctly
+            wrongOptions.xor(correctOptions);
+            wrongOptions.and(validOptions);
+            if (allOrNothing) {
+                return wrongOptions.isEmpty() ? score : 0.0;
+            }
+            int incorrectSelections = wrongOptions.cardinality();
+            return proportionalScore(score, numberOfOptions - incorrectSelections, incorrectSelections, numberOfOptions);
+        }
+    }
+
+    private static final class DragAndDropQuestionPlan extends QuestionPlan {
+
+        private final boolean invalid;
+
+        private final boolean allOrNothing;
+
+        private final Map<Long, Integer> dropLocationIndexById;
+
+        private final Map<Long, Integer> dragItemIndexById;
+
+        private final boolean[] invalidDropLocations;
+
+        private final boolean[] invalidDragItems;
+
+        /**
+         * drop location index -> indices of the drag items which are correct for the drop location
+         */
+        private final BitSet[] correctDragItems;
+
+        /**
+         * The number of drop locations that were meant to not stay empty
+         */
+        private final int mappedDropLocations;
+
+        DragAndDropQuestionPlan(DragAndDropQuestion question, boolean allOrNothing) {
+            super(question);
+            this.invalid = question.isInvalid();
+            this.allOrNothing = allOrNothing;
+            List<DropLocation> dropLocations = question.getDropLocations();
+            List<DragItem> dragItems = question.getDragItems();
+            this.dropLocationIndexById = indexById(dropLocations);
+            this.dragItemIndexById = indexById(dragItems);
+            this.invalidDropLocations = new boolean[dropLocations.size()];
+            this.invalidDragItems = new boolean[dragItems.size()];
+            this.correctDragItems = new BitSet[dropLocations.size()];
+            for (int i = 0; i < dropLocations.size(); i++) {
+                invalidDropLocations[i] = dropLocations.get(i).isInvalid();
+                correctDragItems[i] = new BitSet();
+            }
+            for (int i = 0; i < dragItems.size(); i++) {
+                invalidDragItems[i] = dragItems.get(i).isInvalid();
+            }
+            for (DragAndDropMapping correctMapping : question.getCorrectMappings()) {
+                int dropLocationIndex = indexOf(dropLocationIndexById, correctMapping.getDropLocation());
+                int dragItemIndex = indexOf(dragItemIndexById, correctMapping.getDragItem());
+                if (dropLocationIndex >= 0 && dragItemIndex >= 0) {
+                    correctDragItems[dropLocationIndex].set(dragItemIndex);
+                }
+            }
+            this.mappedDropLocations = (int) Arrays.stream(correctDragItems).filter(dragItemsForDropLocation -> !dragItemsForDropLocation.isEmpty()).count();
+        }
+
+        @Override
+        double score(SubmittedAnswer submittedAnswer) {
+            if (invalid) {
+                return score;
+            }
+            if (!(submittedAnswer instanceof DragAndDropSubmittedAnswer)) {
+                return 0.0;
+            }
+            // drop location index -> index of the selected drag item, like DragAndDropSubmittedAnswer.getSelectedDragItemForDropLocation the first mapping is used
+            int[] selectedDragItems = new int[invalidDropLocations.length];
+            boolean[] mapped = new boolean[invalidDropLocations.length];
+            Arrays.fill(selectedDragItems, NO_INDEX);
+            for (DragAndDropMapping mapping : ((DragAndDropSubmittedAnswer) submittedAnswer).getMappings()) {
+                int dropLocationIndex = indexOf(dropLocationIndexById, mapping.getDropLocation());
+                if (dropLocationIndex >= 0 && !mapped[dropLocationIndex]) {
+                    mapped[dropLocationIndex] = true;
+                    selectedDragItems[dropLocationIndex] = indexOf(dragItemIndexById, mapping.getDragItem());
+                }
+            }
+
+            double correctMappings = 0;
+            double incorrectMappings = 0;
+            for (int i = 0; i < invalidDropLocations.length; i++) {
+                int selectedDragItem = selectedDragItems[i];
+                boolean meantToBeMapped = !correctDragItems[i].isEmpty();
+                // invalid drop location or invalid drag item => always correct
+                if (invalidDropLocations[i] || (selectedDragItem >= 0 && invalidDragItems[selectedDragItem])) {
+                    if (meantToBeMapped) {
+                        correctMappings++;
+                    }
+                }
+                else if ((!meantToBeMapped && selectedDragItem == NO_INDEX) || (selectedDragItem >= 0 && correctDragItems[i].get(selectedDragItem))) {
+                    if (meantToBeMapped) {
+                        correctMappings++;
+                    }
+                }
+                else if (allOrNothing) {
+                    return 0.0;
+                }
+                else {
+                    incorrectMappings++;
+                }
+            }
+            if (allOrNothing) {
+                return score;
+            }
+            return proportionalScore(score, correctMappings, incorrectMappings, mappedDropLocations);
+        }
+    }
+
+    private static final class ShortAnswerQuestionPlan extends QuestionPlan {
+
+        private final boolean invalid;
+
+        private final boolean allOrNothing;
+
+        private final Map<Long, Integer> spotIndexById;
+
+        private final boolean[] invalidSpots;
+
+        /**
+         * The solution texts in lower case and without surrounding whitespace
+         */
+        private final String[] normalizedSolutions;
+
+        /**
+         * spot index -> indices of the solutions which are correct for the spot, ordered by the solution ids like in ScoringStrategyShortAnswerUtil
+         */
+        private final int[][] correctSolutions;
+
+        ShortAnswerQuestionPlan(ShortAnswerQuestion question, boolean allOrNothing) {
+            super(question);
+            this.invalid = question.isInvalid();
+            this.allOrNothing = allOrNothing;
+            List<ShortAnswerSpot> spots = question.getSpots();
+            List<ShortAnswerSolution> solutions = question.getSolutions();
+            this.spotIndexById = indexById(spots);
+            Map<Long, Integer> solutionIndexById = indexById(solutions);
+            this.invalidSpots = new boolean[spots.size()];
+            for (int i = 0; i < spots.size(); i++) {
+                invalidSpots[i] = spots.get(i).isInvalid();
+            }
+            this.normalizedSolutions = new String[solutions.size()];
+            for (int i = 0; i < solutions.size(); i++) {
+                normalizedSolutions[i] = solutions.get(i).getText() == null ? null : normalize(solutions.get(i).getText());
+            }
+            List<Set<Integer>> correctSolutionsForSpots = new ArrayList<>();
+            for (int i = 0; i < spots.size(); i++) {
+                correctSolutionsForSpots.add(new LinkedHashSet<>());
+            }
+            for (ShortAnswerMapping correctMapping : question.getCorrectMappings()) {
+                int spotIndex = indexOf(spotIndexById, correctMapping.getSpot());
+                int solutionIndex = indexOf(solutionIndexById, correctMapping.getSolution());
+                if (spotIndex >= 0 && solutionIndex >= 0 && normalizedSolutions[solutionIndex] != null) {
+                    correctSolutionsForSpots.get(spotIndex).add(solutionIndex);
+                }
+            }
+            // the solutions are tried in the same order as by the scoring strategy, so that the same solutions are used up when a solution is correct for several spots
+            this.correctSolutions = correctSolutionsForSpots.stream()
+                    .map(solutionIndices -> solutionIndices.stream().sorted(Comparator.comparing(index -> solutions.get(index).getId())).mapToInt(Integer::intValue).toArray())
+                    .toArray(int[][]::new);
+        }
+
+        @Override
+        double score(SubmittedAnswer submittedAnswer) {
+            if (invalid) {
+                return score;
+            }
+            if (!(submittedAnswer instanceof ShortAnswerSubmittedAnswer)) {
+                return 0.0;
+            }
+            // spot index -> submitted text, like ShortAnswerSubmittedAnswer.getSubmittedTextForSpot the first submitted text is used
+            ShortAnswerSubmittedText[] submittedTexts = new ShortAnswerSubmittedText[invalidSpots.length];
+            for (ShortAnswerSubmittedText submittedText : ((ShortAnswerSubmittedAnswer) submittedAnswer).getSubmittedTexts()) {
+                int spotIndex = indexOf(spotIndexById, submittedText.getSpot());
+                if (spotIndex >= 0 && submittedTexts[spotIndex] == null) {
+                    submittedTexts[spotIndex] = submittedText;
+                }
+            }
+
+            // every solution can only be used for one spot
+            BitSet usedSolutions = new BitSet(normalizedSolutions.length);
+            int correctSolutionsCount = 0;
+            int incorrectSolutionsCount = 0;
+            for (int i = 0; i < invalidSpots.length; i++) {
+                if (invalidSpots[i]) {
+                    correctSolutionsCount++;
+                    continue;
+                }
+                ShortAnswerSubmittedText submittedText = submittedTexts[i];
+                if (submittedText == null) {
+                    continue;
+                }
+                submittedText.setIsCorrect(false);
+                String normalizedText = submittedText.getText() == null ? null : normalize(submittedText.getText());
+                boolean foundCorrectSolution = false;
+                for (int solutionIndex : correctSolutions[i]) {
+                    if (normalizedText != null && !usedSolutions.get(solutionIndex) && isSimilar(normalizedText, normalizedSolutions[solutionIndex])) {
+                        usedSolutions.set(solutionIndex);
+                        submittedText.setIsCorrect(true);
+                        correctSolutionsCount++;
+                        foundCorrectSolution = true;
+                        break;
+                    }
+                }
+                if (!foundCorrectSolution) {
+                    incorrectSolutionsCount++;
+                }
+            }
+            if (allOrNothing) {
+                return correctSolutionsCount == invalidSpots.length ? score : 0.0;
+            }
+            return proportionalScore(score, correctSolutionsCount, incorrectSolutionsCount, invalidSpots.length);
+        }
+
+        private static boolean isSimilar(String normalizedText, String normalizedSolution) {
+            // identical texts always have the maximal ratio, only empty texts have a ratio of 0
+            if (!normalizedText.isEmpty() && normalizedText.equals(normalizedSolution)) {
+                return true;
+            }
+            return FuzzySearch.ratio(normalizedText, normalizedSolution) > SHORT_ANSWER_SIMILARITY_THRESHOLD;
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package de.tum.in.www1.artemis.domain.quiz.scoring;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 import de.tum.in.www1.artemis.domain.quiz.*;
 
@@ -28,7 +29,9 @@ public class ScoringStrategyShortAnswerUtil {
                 continue;
             }
 
-            Set<ShortAnswerSolution> solutionsForSpot = shortAnswerQuestion.getCorrectSolutionForSpot(spot);
+            // try the solutions ordered by their ids, so that the same solutions are used up in every evaluation when a solution is correct for several spots
+            List<ShortAnswerSolution> solutionsForSpot = shortAnswerQuestion.getCorrectSolutionForSpot(spot).stream()
+                    .sorted(Comparator.comparing(ShortAnswerSolution::getId, Comparator.nullsLast(Comparator.naturalOrder()))).collect(Collectors.toList());
             ShortAnswerSubmittedText submittedTextForSpot = shortAnswerAnswer.getSubmittedTextForSpot(spot);
             foundCorrectSolution = false;
 
@@ -0,0 +1,14 @@
+package de.tum.in.www1.artemis.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown if a request to an external system is rejected without being sent, because too many requests to the system are running or its circuit breaker is open.
+ * It is an I/O error, so that the RestTemplate reports it as ResourceAccessException like an unreachable server.
+ */
+public class ConnectorUnavailableException extends IOException {
+
+    public ConnectorUnavailableException(String message) {
+        super(message);
+    }
+}
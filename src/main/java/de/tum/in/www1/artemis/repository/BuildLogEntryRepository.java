@@ -0,0 +1,23 @@
+package de.tum.in.www1.artemis.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+
+/**
+ * Spring Data JPA repository for the BuildLogEntry entity. New build logs are stored as {@link de.tum.in.www1.artemis.domain.CompressedBuildLog}, the entries are only
+ * read to migrate existing build logs.
+ */
+@Repository
+public interface BuildLogEntryRepository extends JpaRepository<BuildLogEntry, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from BuildLogEntry buildLogEntry where buildLogEntry.programmingSubmission.id = :#{#programmingSubmissionId}")
+    void deleteByProgrammingSubmissionId(@Param("programmingSubmissionId") Long programmingSubmissionId);
+}
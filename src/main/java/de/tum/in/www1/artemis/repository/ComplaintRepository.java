@@ -4,6 +4,7 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -88,6 +89,27 @@ public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
     @Query("SELECT COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id = :#{#exerciseId} AND EXISTS (Select s FROM p.submissions s where s.result Is not null and exists (select c from Complaint c where c.result.id = s.result.id and c.complaintType = :#{#complaintType})) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id)")
     long countByResultParticipationExerciseIdAndComplaintTypeIgnoreTestRuns(Long exerciseId, ComplaintType complaintType);
 
+    /**
+     * Grouped variant of {@link ComplaintRepository#countByResult_Participation_Exercise_IdAndComplaintType} which counts the complaints of multiple exercises in one query
+     *
+     * @param exerciseIds - the ids of the exercises we want to filter by
+     * @param complaintType - complaint type we want to filter by
+     * @return pairs of exercise id and number of complaints associated to the exercise, exercises without complaints are not contained
+     */
+    @Query("SELECT c.result.participation.exercise.id, COUNT (c) FROM Complaint c WHERE c.result.participation.exercise.id IN :#{#exerciseIds} AND c.complaintType = :#{#complaintType} GROUP BY c.result.participation.exercise.id")
+    List<long[]> countByExerciseIdsAndComplaintType(@Param("exerciseIds") Set<Long> exerciseIds, @Param("complaintType") ComplaintType complaintType);
+
+    /**
+     * Grouped variant of {@link ComplaintRepository#countByResultParticipationExerciseIdAndComplaintTypeIgnoreTestRuns} which counts the complaints of multiple exercises in one
+     * query
+     *
+     * @param exerciseIds - the ids of the exercises we want to filter by
+     * @param complaintType - complaint type we want to filter by
+     * @return pairs of exercise id and number of complaints associated to the exercise without test runs, exercises without complaints are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (Select s FROM p.submissions s where s.result Is not null and exists (select c from Complaint c where c.result.id = s.result.id and c.complaintType = :#{#complaintType})) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id) GROUP BY p.exercise.id")
+    List<long[]> countByExerciseIdsAndComplaintTypeIgnoreTestRuns(@Param("exerciseIds") Set<Long> exerciseIds, @Param("complaintType") ComplaintType complaintType);
+
     /**
      * This magic method counts the number of complaints associated to a exercise id and to the results assessed by a specific user, identified by a tutor id
      *
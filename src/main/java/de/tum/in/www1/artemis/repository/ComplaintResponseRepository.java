@@ -1,9 +1,12 @@
 package de.tum.in.www1.artemis.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.ComplaintResponse;
@@ -45,6 +48,28 @@ public interface ComplaintResponseRepository extends JpaRepository<ComplaintResp
     @Query("SELECT COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id = :#{#exerciseId} AND EXISTS (Select s FROM p.submissions s where s.result Is not null and exists (select c from Complaint c where c.result.id = s.result.id and c.complaintType = :#{#complaintType} and exists (select cr from ComplaintResponse cr where cr.complaint.id = c.id))) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id)")
     long countByComplaintResultParticipationExerciseIdAndComplaintComplaintTypeIgnoreTestRuns(long exerciseId, ComplaintType complaintType);
 
+    /**
+     * Grouped variant of {@link ComplaintResponseRepository#countByComplaint_Result_Participation_Exercise_Id_AndComplaint_ComplaintType} which counts the complaint responses
+     * of multiple exercises in one query
+     *
+     * @param exerciseIds - the ids of the exercises we want to filter by
+     * @param complaintType - complaint type we want to filter by
+     * @return pairs of exercise id and number of complaint responses associated to the exercise, exercises without complaint responses are not contained
+     */
+    @Query("SELECT cr.complaint.result.participation.exercise.id, COUNT (cr) FROM ComplaintResponse cr WHERE cr.complaint.result.participation.exercise.id IN :#{#exerciseIds} AND cr.complaint.complaintType = :#{#complaintType} GROUP BY cr.complaint.result.participation.exercise.id")
+    List<long[]> countByExerciseIdsAndComplaintType(@Param("exerciseIds") Set<Long> exerciseIds, @Param("complaintType") ComplaintType complaintType);
+
+    /**
+     * Grouped variant of {@link ComplaintResponseRepository#countByComplaintResultParticipationExerciseIdAndComplaintComplaintTypeIgnoreTestRuns} which counts the complaint
+     * responses of multiple exercises in one query
+     *
+     * @param exerciseIds - the ids of the exercises we want to filter by
+     * @param complaintType - complaint type we want to filter by
+     * @return pairs of exercise id and number of complaint responses associated to the exercise without test runs, exercises without complaint responses are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (Select s FROM p.submissions s where s.result Is not null and exists (select c from Complaint c where c.result.id = s.result.id and c.complaintType = :#{#complaintType} and exists (select cr from ComplaintResponse cr where cr.complaint.id = c.id))) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id) GROUP BY p.exercise.id")
+    List<long[]> countByExerciseIdsAndComplaintTypeIgnoreTestRuns(@Param("exerciseIds") Set<Long> exerciseIds, @Param("complaintType") ComplaintType complaintType);
+
     /**
      * Delete all complaint responses that belong to complaints of submission results of a given participation
      * @param participationId the Id of the participation where the complaint response should be deleted
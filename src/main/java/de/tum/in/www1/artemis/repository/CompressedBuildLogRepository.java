@@ -0,0 +1,17 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.CompressedBuildLog;
+
+/**
+ * Spring Data JPA repository for the CompressedBuildLog entity.
+ */
+@Repository
+public interface CompressedBuildLogRepository extends JpaRepository<CompressedBuildLog, Long> {
+
+    Optional<CompressedBuildLog> findByProgrammingSubmissionId(Long programmingSubmissionId);
+}
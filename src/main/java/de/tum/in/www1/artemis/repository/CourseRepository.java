@@ -14,6 +14,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.service.metadata.CourseMetadata;
 
 /**
  * Spring Data JPA repository for the Course entity.
@@ -63,4 +64,7 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findAllByShortName(String shortName);
 
     Optional<Course> findById(long courseId);
+
+    @Query("select new de.tum.in.www1.artemis.service.metadata.CourseMetadata(course.id, course.title, course.studentGroupName, course.teachingAssistantGroupName, course.instructorGroupName, course.startDate, course.endDate) from Course course where course.id = :#{#courseId}")
+    Optional<CourseMetadata> findMetadataById(@Param("courseId") Long courseId);
 }
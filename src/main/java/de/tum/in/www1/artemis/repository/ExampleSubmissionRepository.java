@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +22,15 @@ public interface ExampleSubmissionRepository extends JpaRepository<ExampleSubmis
 
     List<ExampleSubmission> findAllByExerciseId(long exerciseId);
 
+    /**
+     * Loads the example submissions of multiple exercises in one query, e.g. for the assessment dashboard
+     *
+     * @param exerciseIds the ids of the exercises
+     * @return all example submissions of the exercises with their exercise, submission and the result of the submission
+     */
+    @Query("SELECT DISTINCT exampleSubmission FROM ExampleSubmission exampleSubmission LEFT JOIN FETCH exampleSubmission.exercise LEFT JOIN FETCH exampleSubmission.submission submission LEFT JOIN FETCH submission.result WHERE exampleSubmission.exercise.id IN :#{#exerciseIds}")
+    List<ExampleSubmission> findAllWithSubmissionAndResultByExerciseIds(@Param("exerciseIds") Set<Long> exerciseIds);
+
     List<ExampleSubmission> findAllByExerciseIdAndUsedForTutorial(Long exercise_id, Boolean usedForTutorial);
 
     @Query("select distinct exampleSubmission from ExampleSubmission exampleSubmission left join fetch exampleSubmission.tutorParticipations where exampleSubmission.id = :#{#exampleSubmissionId}")
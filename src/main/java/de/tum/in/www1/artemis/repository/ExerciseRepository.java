@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.service.metadata.ExerciseMetadata;
 
 /**
  * Spring Data JPA repository for the Exercise entity.
@@ -52,4 +53,7 @@ public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
 
     @EntityGraph(type = LOAD, attributePaths = { "studentParticipations", "studentParticipations.student", "studentParticipations.submissions" })
     Optional<Exercise> findWithEagerStudentParticipationsStudentAndSubmissionsById(Long exerciseId);
+
+    @Query("select new de.tum.in.www1.artemis.service.metadata.ExerciseMetadata(exercise.id, exercise.title, coalesce(course.id, exam.course.id), exerciseGroup.id, exam.id, exercise.releaseDate, exercise.dueDate, exercise.assessmentDueDate) from Exercise exercise left join exercise.course course left join exercise.exerciseGroup exerciseGroup left join exerciseGroup.exam exam where exercise.id = :#{#exerciseId}")
+    Optional<ExerciseMetadata> findMetadataById(@Param("exerciseId") Long exerciseId);
 }
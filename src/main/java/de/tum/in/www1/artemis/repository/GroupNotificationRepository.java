@@ -1,10 +1,18 @@
 package de.tum.in.www1.artemis.repository;
 
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import de.tum.in.www1.artemis.domain.enumeration.GroupNotificationType;
 import de.tum.in.www1.artemis.domain.notification.GroupNotification;
 import de.tum.in.www1.artemis.domain.notification.Notification;
 
@@ -14,4 +22,16 @@ import de.tum.in.www1.artemis.domain.notification.Notification;
 public interface GroupNotificationRepository extends JpaRepository<Notification, Long> {
 
     List<GroupNotification> findAllByCourseId(Long courseId);
+
+    @Query("select notification from GroupNotification notification where notification.recipientGroup in :#{#groups} and notification.notificationDate is not null "
+            + "and notification.id < :#{#beforeId} order by notification.id desc")
+    List<GroupNotification> findAllByRecipientGroupInAndIdLessThan(@Param("groups") Set<String> groups, @Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("select count(notification) from GroupNotification notification where notification.recipientGroup in :#{#groups} and notification.notificationDate > :#{#since}")
+    long countByRecipientGroupInAndNotificationDateAfter(@Param("groups") Set<String> groups, @Param("since") ZonedDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("update GroupNotification notification set notification.recipientGroup = :#{#recipientGroup} where notification.course.id = :#{#courseId} and notification.type = :#{#type}")
+    void updateRecipientGroup(@Param("courseId") Long courseId, @Param("type") GroupNotificationType type, @Param("recipientGroup") String recipientGroup);
 }
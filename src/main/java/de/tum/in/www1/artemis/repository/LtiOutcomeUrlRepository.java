@@ -4,8 +4,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.LtiOutcomeUrl;
@@ -24,4 +26,31 @@ public interface LtiOutcomeUrlRepository extends JpaRepository<LtiOutcomeUrl, Lo
     Optional<LtiOutcomeUrl> findByUserIsCurrentUserAndExercise(@Param("exercise") Exercise exercise);
 
     Optional<LtiOutcomeUrl> findByUserAndExercise(User user, Exercise exercise);
+
+    @Query("select ltiOutcomeUrl.id from LtiOutcomeUrl ltiOutcomeUrl where ltiOutcomeUrl.pendingScore is not null")
+    List<Long> findAllIdsWithPendingScore();
+
+    /**
+     * Stores the score as pending score of the outcome url, which replaces a previous score that has not been reported yet. This is the only way to set the pending score,
+     * it is not written when the outcome url is saved.
+     *
+     * @param ltiOutcomeUrlId the id of the outcome url
+     * @param score           the score that should be reported
+     */
+    @Transactional
+    @Modifying
+    @Query("update LtiOutcomeUrl ltiOutcomeUrl set ltiOutcomeUrl.pendingScore = :#{#score} where ltiOutcomeUrl.id = :#{#ltiOutcomeUrlId}")
+    void updatePendingScore(@Param("ltiOutcomeUrlId") Long ltiOutcomeUrlId, @Param("score") String score);
+
+    /**
+     * Removes the pending score after it has been reported, unless a newer score has been stored in the meantime
+     *
+     * @param ltiOutcomeUrlId the id of the outcome url
+     * @param score           the reported score
+     * @return 1 if the pending score was removed, 0 if it has changed
+     */
+    @Transactional
+    @Modifying
+    @Query("update LtiOutcomeUrl ltiOutcomeUrl set ltiOutcomeUrl.pendingScore = null where ltiOutcomeUrl.id = :#{#ltiOutcomeUrlId} and ltiOutcomeUrl.pendingScore = :#{#score}")
+    int removePendingScore(@Param("ltiOutcomeUrlId") Long ltiOutcomeUrlId, @Param("score") String score);
 }
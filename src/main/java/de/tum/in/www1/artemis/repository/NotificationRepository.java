@@ -17,11 +17,8 @@ import de.tum.in.www1.artemis.domain.notification.Notification;
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    @Query("select notification from Notification notification left join notification.course left join notification.recipient "
-            + "where notification.notificationDate is not null and (type(notification) = GroupNotification "
-            + "and ((notification.course.instructorGroupName in :#{#currentGroups} and notification.type = 'INSTRUCTOR') "
-            + "or (notification.course.teachingAssistantGroupName in :#{#currentGroups} and notification.type = 'TA') "
-            + "or (notification.course.studentGroupName in :#{#currentGroups} and notification.type = 'STUDENT')))"
-            + "or type(notification) = SingleUserNotification and notification.recipient.login = :#{#login}")
+    @Query("select notification from Notification notification left join notification.recipient recipient where (type(notification) = GroupNotification "
+            + "and notification.recipientGroup in :#{#currentGroups} and notification.notificationDate is not null) "
+            + "or (type(notification) = SingleUserNotification and recipient.login = :#{#login})")
     Page<Notification> findAllNotificationsForRecipientWithLogin(@Param("currentGroups") Set<String> currentUserGroups, @Param("login") String login, Pageable pageable);
 }
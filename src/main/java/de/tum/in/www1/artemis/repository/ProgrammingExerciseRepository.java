@@ -155,6 +155,42 @@ public interface ProgrammingExerciseRepository extends JpaRepository<Programming
     @Query("SELECT COUNT (DISTINCT p) FROM ProgrammingExerciseStudentParticipation p WHERE p.exercise.id = :#{#exerciseId} AND EXISTS (SELECT s FROM ProgrammingSubmission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND s.result.assessor IS NOT NULL AND s.result.completionDate IS NOT NULL) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id)")
     long countAssessmentsByExerciseIdSubmittedIgnoreTestRunSubmissions(@Param("exerciseId") Long exerciseId);
 
+    /**
+     * Grouped variant of {@link #countSubmissionsByExerciseIdSubmitted(Long)} which counts the submissions of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of distinct submissions belonging to the exercise, exercises without submissions are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM ProgrammingExerciseStudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM ProgrammingSubmission s WHERE s.participation.id = p.id AND s.submitted = TRUE) GROUP BY p.exercise.id")
+    List<long[]> countSubmissionsByExerciseIdsSubmitted(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    /**
+     * Grouped variant of {@link #countSubmissionsByExerciseIdSubmittedIgnoreTestRunSubmissions(Long)} which counts the submissions of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of distinct submissions belonging to the exercise, exercises without submissions are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM ProgrammingExerciseStudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM ProgrammingSubmission s WHERE s.participation.id = p.id AND s.submitted = TRUE) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id) GROUP BY p.exercise.id")
+    List<long[]> countSubmissionsByExerciseIdsSubmittedIgnoreTestRunSubmissions(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    /**
+     * Grouped variant of {@link #countAssessmentsByExerciseIdSubmitted(Long)} which counts the assessments of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of distinct assessed submissions belonging to the exercise, exercises without assessments are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM ProgrammingExerciseStudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM ProgrammingSubmission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND s.result.assessor IS NOT NULL AND s.result.completionDate IS NOT NULL) GROUP BY p.exercise.id")
+    List<long[]> countAssessmentsByExerciseIdsSubmitted(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    /**
+     * Grouped variant of {@link #countAssessmentsByExerciseIdSubmittedIgnoreTestRunSubmissions(Long)} which counts the assessments of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of distinct assessed submissions belonging to the exercise, exercises without assessments are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM ProgrammingExerciseStudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM ProgrammingSubmission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND s.result.assessor IS NOT NULL AND s.result.completionDate IS NOT NULL) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id) GROUP BY p.exercise.id")
+    List<long[]> countAssessmentsByExerciseIdsSubmittedIgnoreTestRunSubmissions(@Param("exerciseIds") Set<Long> exerciseIds);
+
     /**
      * In distinction to other exercise types, students can have multiple submissions in a programming exercise.
      * We therefore have to check here if any submission of the student was submitted before the deadline.
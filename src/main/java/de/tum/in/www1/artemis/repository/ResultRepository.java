@@ -4,6 +4,7 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -92,6 +93,15 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     @Query("SELECT COUNT(DISTINCT p) FROM StudentParticipation p left join p.results r WHERE p.exercise.id = :exerciseId AND r.assessor IS NOT NULL AND r.rated = FALSE AND r.completionDate IS NOT NULL AND p.exercise.dueDate IS NOT NULL AND r.submission.submissionDate > p.exercise.dueDate")
     long countNumberOfFinishedLateAssessmentsForExercise(@Param("exerciseId") Long exerciseId);
 
+    @Query("SELECT p.exercise.id, COUNT(DISTINCT p) FROM StudentParticipation p left join p.results r WHERE p.exercise.id IN :#{#exerciseIds} AND r.assessor IS NOT NULL AND r.rated = TRUE AND r.completionDate IS NOT NULL AND (p.exercise.dueDate IS NULL OR r.submission.submissionDate <= p.exercise.dueDate) GROUP BY p.exercise.id")
+    List<long[]> countNumberOfFinishedAssessmentsForExercises(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    @Query("SELECT p.exercise.id, COUNT(DISTINCT p) FROM StudentParticipation p left join p.results r WHERE p.exercise.id IN :#{#exerciseIds} AND r.assessor IS NOT NULL AND r.rated = TRUE AND r.completionDate IS NOT NULL AND (p.exercise.dueDate IS NULL OR r.submission.submissionDate <= p.exercise.dueDate) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id) GROUP BY p.exercise.id")
+    List<long[]> countNumberOfFinishedAssessmentsForExercisesIgnoreTestRuns(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    @Query("SELECT p.exercise.id, COUNT(DISTINCT p) FROM StudentParticipation p left join p.results r WHERE p.exercise.id IN :#{#exerciseIds} AND r.assessor IS NOT NULL AND r.rated = FALSE AND r.completionDate IS NOT NULL AND p.exercise.dueDate IS NOT NULL AND r.submission.submissionDate > p.exercise.dueDate GROUP BY p.exercise.id")
+    List<long[]> countNumberOfFinishedLateAssessmentsForExercises(@Param("exerciseIds") Set<Long> exerciseIds);
+
     @EntityGraph(type = LOAD, attributePaths = { "feedbacks" })
     List<Result> findAllWithEagerFeedbackByAssessorIsNotNullAndParticipation_ExerciseIdAndCompletionDateIsNotNull(Long exerciseId);
 
@@ -1,9 +1,16 @@
 package de.tum.in.www1.artemis.repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.notification.Notification;
+import de.tum.in.www1.artemis.domain.notification.SingleUserNotification;
 
 /**
  * Spring Data repository for the Notification entity.
@@ -11,4 +18,11 @@ import de.tum.in.www1.artemis.domain.notification.Notification;
 @SuppressWarnings("unused")
 @Repository
 public interface SingleUserNotificationRepository extends JpaRepository<Notification, Long> {
+
+    @Query("select notification from SingleUserNotification notification where notification.recipient.id = :#{#recipientId} and notification.id < :#{#beforeId} "
+            + "order by notification.id desc")
+    List<SingleUserNotification> findAllByRecipientIdAndIdLessThan(@Param("recipientId") Long recipientId, @Param("beforeId") long beforeId, Pageable pageable);
+
+    @Query("select count(notification) from SingleUserNotification notification where notification.recipient.id = :#{#recipientId} and notification.notificationDate > :#{#since}")
+    long countByRecipientIdAndNotificationDateAfter(@Param("recipientId") Long recipientId, @Param("since") ZonedDateTime since);
 }
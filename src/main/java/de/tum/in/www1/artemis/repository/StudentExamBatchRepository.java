@@ -0,0 +1,132 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import de.tum.in.www1.artemis.config.Constants;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExamSession;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+
+/**
+ * Deletes and inserts the student exams of an exam with set-based SQL and JDBC batches.
+ * <p>
+ * Spring Data deletes every student exam with its exam sessions one by one and inserts every student exam and every exercise of it one by one. Generating the student
+ * exams of an exam replaces the student exams of all registered students at once. Test runs are never affected.
+ */
+@Repository
+public class StudentExamBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String DELETE_EXAM_SESSIONS_SQL = "DELETE FROM exam_session WHERE student_exam_id IN "
+            + "(SELECT id FROM student_exam WHERE exam_id = ? AND test_run = FALSE)";
+
+    private static final String DELETE_EXERCISES_SQL = "DELETE FROM student_exam_exercise WHERE student_exam_id IN "
+            + "(SELECT id FROM student_exam WHERE exam_id = ? AND test_run = FALSE)";
+
+    private static final String DELETE_STUDENT_EXAMS_SQL = "DELETE FROM student_exam WHERE exam_id = ? AND test_run = FALSE";
+
+    private static final String INSERT_STUDENT_EXAM_SQL = "INSERT INTO student_exam (exam_id, user_id, working_time, submitted, test_run, created_by, created_date, last_modified_by, "
+            + "last_modified_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_STUDENT_EXAM_IDS_SQL = "SELECT id, user_id FROM student_exam WHERE exam_id = ? AND test_run = FALSE ORDER BY id";
+
+    private static final String INSERT_EXERCISE_SQL = "INSERT INTO student_exam_exercise (student_exam_id, exercise_id, exercise_order) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final AuditorAware<String> auditorAware;
+
+    public StudentExamBatchRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory, AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * Deletes all student exams of the exam, including their exam sessions and the assignments of their exercises. The participations of the students are not deleted.
+     *
+     * @param examId the id of the exam
+     * @return the number of deleted student exams
+     */
+    @Transactional
+    public int deleteAllByExamId(long examId) {
+        jdbcTemplate.update(DELETE_EXAM_SESSIONS_SQL, examId);
+        jdbcTemplate.update(DELETE_EXERCISES_SQL, examId);
+        int deletedStudentExams = jdbcTemplate.update(DELETE_STUDENT_EXAMS_SQL, examId);
+        evictFromCache();
+        return deletedStudentExams;
+    }
+
+    /**
+     * Inserts the student exams with their exercises in one transaction and sets their ids. The student exams must belong to the same exam, must not be test runs and
+     * there must not be another student exam of their users in the exam.
+     *
+     * @param studentExams the new student exams of an exam
+     */
+    @Transactional
+    public void insertAll(List<StudentExam> studentExams) {
+        if (studentExams.isEmpty()) {
+            return;
+        }
+        final String auditor = auditorAware.getCurrentAuditor().orElse(Constants.SYSTEM_ACCOUNT);
+        final Timestamp now = Timestamp.from(Instant.now());
+        // Hibernate stores dates in UTC (see hibernate.jdbc.time_zone)
+        final Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_STUDENT_EXAM_SQL, studentExams, BATCH_SIZE, (statement, studentExam) -> {
+            statement.setLong(1, studentExam.getExam().getId());
+            statement.setLong(2, studentExam.getUser().getId());
+            statement.setInt(3, studentExam.getWorkingTime());
+            statement.setBoolean(4, Boolean.TRUE.equals(studentExam.isSubmitted()));
+            statement.setBoolean(5, false);
+            statement.setString(6, auditor);
+            statement.setTimestamp(7, now, utc);
+            statement.setString(8, auditor);
+            statement.setTimestamp(9, now, utc);
+        });
+
+        // The generated ids cannot be retrieved from batches with every database, but the user identifies the student exam within the exam
+        final Map<Long, Long> studentExamIdsByUserId = new HashMap<>();
+        jdbcTemplate.query(SELECT_STUDENT_EXAM_IDS_SQL, resultSet -> {
+            studentExamIdsByUserId.put(resultSet.getLong("user_id"), resultSet.getLong("id"));
+        }, studentExams.get(0).getExam().getId());
+        studentExams.forEach(studentExam -> studentExam.setId(studentExamIdsByUserId.get(studentExam.getUser().getId())));
+
+        final List<Object[]> exerciseRows = new ArrayList<>();
+        for (StudentExam studentExam : studentExams) {
+            for (int order = 0; order < studentExam.getExercises().size(); order++) {
+                exerciseRows.add(new Object[] { studentExam.getId(), studentExam.getExercises().get(order).getId(), order });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_EXERCISE_SQL, exerciseRows, BATCH_SIZE, (statement, exerciseRow) -> {
+            statement.setLong(1, (Long) exerciseRow[0]);
+            statement.setLong(2, (Long) exerciseRow[1]);
+            statement.setInt(3, (Integer) exerciseRow[2]);
+        });
+        evictFromCache();
+    }
+
+    /**
+     * The statements bypass Hibernate, so the cached student exams, exam sessions and the cached collections containing them have to be removed from the second level cache
+     */
+    private void evictFromCache() {
+        final var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(StudentExam.class);
+        cache.evictEntityData(ExamSession.class);
+        cache.evictCollectionData(StudentExam.class.getName() + ".exercises");
+        cache.evictCollectionData(StudentExam.class.getName() + ".examSessions");
+        cache.evictCollectionData(Exam.class.getName() + ".studentExams");
+    }
+}
@@ -5,6 +5,7 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -15,6 +16,7 @@ import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.service.dto.CourseScoreDTO;
 
 /**
  * Spring Data JPA repository for the Participation entity.
@@ -30,6 +32,19 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
     @Query("select distinct participation from StudentParticipation participation left join fetch participation.results r where participation.exercise.course.id = :#{#courseId} and (r.rated is null or r.rated = true)")
     List<StudentParticipation> findByCourseIdWithEagerRatedResults(@Param("courseId") Long courseId);
 
+    /**
+     * Selects the latest rated result with completion date and score of each student and team participation in the exercises of the given course as projection, i.e. without
+     * loading any entities. The participations are returned ordered by their id, so that the whole course can be read page by page by passing the id of the last participation
+     * of the previous page.
+     *
+     * @param courseId the id of the course
+     * @param lastParticipationId the id of the last participation of the previous page, 0 for the first page
+     * @param pageable the size of the page, the page number should always be 0
+     * @return the latest rated score of each participation with an id greater than lastParticipationId
+     */
+    @Query("select new de.tum.in.www1.artemis.service.dto.CourseScoreDTO(participation.id, exercise.id, exercise.title, exercise.maxScore, student.login, student.firstName, student.lastName, student.registrationNumber, team.shortName, team.name, result.score, result.completionDate) from StudentParticipation participation join participation.exercise exercise join participation.results result left join participation.student student left join participation.team team where exercise.course.id = :#{#courseId} and participation.id > :#{#lastParticipationId} and (student.id is not null or team.id is not null) and (result.rated is null or result.rated = true) and result.completionDate is not null and result.score is not null and not exists (select newerResult from Result newerResult where newerResult.participation.id = participation.id and (newerResult.rated is null or newerResult.rated = true) and newerResult.completionDate is not null and newerResult.score is not null and (newerResult.completionDate > result.completionDate or (newerResult.completionDate = result.completionDate and newerResult.id > result.id))) order by participation.id")
+    List<CourseScoreDTO> findLatestRatedScoresByCourseId(@Param("courseId") Long courseId, @Param("lastParticipationId") Long lastParticipationId, Pageable pageable);
+
     @Query("select distinct participation from StudentParticipation participation left join fetch participation.submissions s left join fetch s.result r where participation.exercise.exerciseGroup.exam.id = :#{#examId} and r.rated = true")
     List<StudentParticipation> findByExamIdWithEagerSubmissionsRatedResults(@Param("examId") Long examId);
 
@@ -107,30 +122,6 @@ public interface StudentParticipationRepository extends JpaRepository<StudentPar
     @Query("select distinct participation from StudentParticipation participation left join fetch participation.results as par left join fetch par.feedbacks where participation.exercise.id = :#{#exerciseId} and participation.team.id = :#{#teamId} and (par.id = (select max(id) from participation.results) or par.id = null)")
     Optional<StudentParticipation> findByExerciseIdAndTeamIdWithLatestResult(@Param("exerciseId") Long exerciseId, @Param("teamId") Long teamId);
 
-    /**
-     * Find all participations of submissions that are submitted and do not already have a manual result and do not belong to test runs.
-     * No manual result means that no user has started an assessment for the corresponding submission yet.
-     *
-     * If a student can have multiple submissions per exercise type, the latest submission (by id) will be returned.
-     *
-     * @param exerciseId the exercise id the participations should belong to
-     * @return a list of participations including their submitted submissions that do not have a manual result
-     */
-    @Query("select distinct participation from StudentParticipation participation left join fetch participation.submissions submission left join fetch submission.result result where participation.exercise.id = :#{#exerciseId} and not exists (select prs from participation.results prs where prs.assessor.id = participation.student.id) and not exists (select prs from participation.results prs where prs.assessmentType IN ('MANUAL', 'SEMI_AUTOMATIC')) and submission.submitted = true and submission.id = (select max(id) from participation.submissions)")
-    List<StudentParticipation> findByExerciseIdWithLatestSubmissionWithoutManualResultsAndNoTestRunParticipation(@Param("exerciseId") Long exerciseId);
-
-    /**
-     * Find all participations of submissions that are submitted and do not already have a manual result. No manual result means that no user has started an assessment for the
-     * corresponding submission yet.
-     *
-     * If a student can have multiple submissions per exercise type, the latest submission (by id) will be returned.
-     *
-     * @param exerciseId the exercise id the participations should belong to
-     * @return a list of participations including their submitted submissions that do not have a manual result
-     */
-    @Query("select distinct participation from Participation participation left join fetch participation.submissions submission left join fetch submission.result result where participation.exercise.id = :#{#exerciseId} and not exists (select prs from participation.results prs where prs.assessmentType IN ('MANUAL', 'SEMI_AUTOMATIC')) and submission.submitted = true and submission.id = (select max(id) from participation.submissions)")
-    List<StudentParticipation> findByExerciseIdWithLatestSubmissionWithoutManualResults(@Param("exerciseId") Long exerciseId);
-
     @Query("select distinct participation from StudentParticipation participation left join fetch participation.results where participation.id = :#{#participationId}")
     Optional<StudentParticipation> findByIdWithEagerResults(@Param("participationId") Long participationId);
 
@@ -1,13 +1,16 @@
 package de.tum.in.www1.artemis.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.StudentQuestion;
+import de.tum.in.www1.artemis.service.dto.StudentQuestionVotesDTO;
 
 /**
  * Spring Data repository for the StudentQuestion entity.
@@ -28,4 +31,13 @@ public interface StudentQuestionRepository extends JpaRepository<StudentQuestion
     @Query("select distinct student_question from StudentQuestion student_question left join student_question.lecture lecture left join student_question.exercise exercise where ( lecture.course.id = :#{#courseId} or exercise.course.id = :#{#courseId} )")
     List<StudentQuestion> findStudentQuestionsForCourse(@Param("courseId") Long courseId);
 
+    @Modifying
+    @Query("update StudentQuestion student_question set student_question.votes = coalesce(student_question.votes, 0) + :#{#voteChange} where student_question.id = :#{#questionId}")
+    void addVotes(@Param("questionId") Long questionId, @Param("voteChange") int voteChange);
+
+    @Query("select student_question.votes from StudentQuestion student_question where student_question.id = :#{#questionId}")
+    Integer findVotesById(@Param("questionId") Long questionId);
+
+    @Query("select new de.tum.in.www1.artemis.service.dto.StudentQuestionVotesDTO(student_question.id, coalesce(lecture.course.id, exercise.course.id), student_question.votes) from StudentQuestion student_question left join student_question.lecture lecture left join student_question.exercise exercise where student_question.id in :#{#questionIds}")
+    List<StudentQuestionVotesDTO> findVotesByIdIn(@Param("questionIds") Collection<Long> questionIds);
 }
@@ -0,0 +1,43 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.StudentQuestionVote;
+
+/**
+ * Spring Data repository for the StudentQuestionVote entity.
+ */
+@Repository
+public interface StudentQuestionVoteRepository extends JpaRepository<StudentQuestionVote, Long> {
+
+    Optional<StudentQuestionVote> findByStudentQuestionIdAndUserId(Long studentQuestionId, Long userId);
+
+    /**
+     * Changes the vote only if it has not been changed in the meantime
+     *
+     * @param voteId      the id of the vote
+     * @param wasPositive the value of the vote that has been read
+     * @param positive    the new value of the vote
+     * @return the number of changed votes, i.e. 0 if the vote has been changed or deleted in the meantime
+     */
+    @Modifying
+    @Query("update StudentQuestionVote vote set vote.positive = :#{#positive} where vote.id = :#{#voteId} and vote.positive = :#{#wasPositive}")
+    int updateVote(@Param("voteId") Long voteId, @Param("wasPositive") boolean wasPositive, @Param("positive") boolean positive);
+
+    /**
+     * Deletes the vote only if it has not been changed in the meantime
+     *
+     * @param voteId      the id of the vote
+     * @param wasPositive the value of the vote that has been read
+     * @return the number of deleted votes, i.e. 0 if the vote has been changed or deleted in the meantime
+     */
+    @Modifying
+    @Query("delete from StudentQuestionVote vote where vote.id = :#{#voteId} and vote.positive = :#{#wasPositive}")
+    int deleteVote(@Param("voteId") Long voteId, @Param("wasPositive") boolean wasPositive);
+}
@@ -4,7 +4,9 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -23,6 +25,35 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @EntityGraph(type = LOAD, attributePaths = { "result", "result.assessor" })
     Optional<Submission> findWithEagerResultById(Long submissionId);
 
+    /**
+     * Get the ids of the latest submitted submissions of the participations of an exercise that do not have a manual result yet, ordered by id.
+     * This is used as a queue of submissions which still need an assessment, it only loads one page of ids after the given id instead of all participations with their
+     * submissions.
+     *
+     * @param exerciseId the id of the exercise the submissions should belong to
+     * @param inTimeOnly only include submissions which were submitted before the due date of the exercise (or if there is no due date)
+     * @param afterId only include submissions with a greater id, i.e. the last id of the previous page
+     * @param pageable the maximum number of candidates which should be loaded
+     * @return the ids of submissions which still need an assessment
+     */
+    @Query("select submission.id from StudentParticipation participation join participation.submissions submission where participation.exercise.id = :#{#exerciseId} and submission.submitted = true and submission.id > :#{#afterId} and submission.id = (select max(id) from participation.submissions) and not exists (select prs from participation.results prs where prs.assessmentType IN ('MANUAL', 'SEMI_AUTOMATIC')) and (:#{#inTimeOnly} = false or participation.exercise.dueDate is null or submission.submissionDate <= participation.exercise.dueDate) order by submission.id")
+    List<Long> findIdsOfLatestSubmissionsWithoutManualResult(@Param("exerciseId") long exerciseId, @Param("inTimeOnly") boolean inTimeOnly,
+            @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Same as {@link #findIdsOfLatestSubmissionsWithoutManualResult(long, boolean, long, Pageable)}, but ignores the submissions of test run participations.
+     * Should be used for exam exercises.
+     *
+     * @param exerciseId the id of the exercise the submissions should belong to
+     * @param inTimeOnly only include submissions which were submitted before the due date of the exercise (or if there is no due date)
+     * @param afterId only include submissions with a greater id, i.e. the last id of the previous page
+     * @param pageable the maximum number of candidates which should be loaded
+     * @return the ids of submissions which still need an assessment
+     */
+    @Query("select submission.id from StudentParticipation participation join participation.submissions submission where participation.exercise.id = :#{#exerciseId} and submission.submitted = true and submission.id > :#{#afterId} and submission.id = (select max(id) from participation.submissions) and not exists (select prs from participation.results prs where prs.assessor.id = participation.student.id) and not exists (select prs from participation.results prs where prs.assessmentType IN ('MANUAL', 'SEMI_AUTOMATIC')) and (:#{#inTimeOnly} = false or participation.exercise.dueDate is null or submission.submissionDate <= participation.exercise.dueDate) order by submission.id")
+    List<Long> findIdsOfLatestSubmissionsWithoutManualResultIgnoreTestRuns(@Param("exerciseId") long exerciseId, @Param("inTimeOnly") boolean inTimeOnly,
+            @Param("afterId") long afterId, Pageable pageable);
+
     @Query("select distinct submission from Submission submission left join fetch submission.result r left join fetch r.feedbacks where submission.exampleSubmission = true and submission.id = :#{#submissionId}")
     Optional<Submission> findExampleSubmissionByIdWithEagerResult(long submissionId);
 
@@ -102,6 +133,33 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Query("SELECT COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id = :#{#exerciseId} AND EXISTS (SELECT s FROM Submission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND (p.exercise.dueDate IS NOT NULL AND s.submissionDate > p.exercise.dueDate))")
     long countByExerciseIdSubmittedAfterDueDate(@Param("exerciseId") long exerciseId);
 
+    /**
+     * Grouped variant of {@link #countByExerciseIdSubmittedBeforeDueDate(long)} which counts the submissions of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of submissions before the due date, exercises without such submissions are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM Submission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND (p.exercise.dueDate IS NULL OR s.submissionDate <= p.exercise.dueDate)) GROUP BY p.exercise.id")
+    List<long[]> countByExerciseIdsSubmittedBeforeDueDate(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    /**
+     * Grouped variant of {@link #countByExerciseIdSubmittedBeforeDueDateIgnoreTestRuns(long)} which counts the submissions of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of submissions before the due date, exercises without such submissions are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM Submission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND (p.exercise.dueDate IS NULL OR s.submissionDate <= p.exercise.dueDate)) AND NOT EXISTS (select prs from p.results prs where prs.assessor.id = p.student.id) GROUP BY p.exercise.id")
+    List<long[]> countByExerciseIdsSubmittedBeforeDueDateIgnoreTestRuns(@Param("exerciseIds") Set<Long> exerciseIds);
+
+    /**
+     * Grouped variant of {@link #countByExerciseIdSubmittedAfterDueDate(long)} which counts the submissions of multiple exercises in one query
+     *
+     * @param exerciseIds the exercise ids we are interested in
+     * @return pairs of exercise id and the number of submissions after the due date, exercises without such submissions are not contained
+     */
+    @Query("SELECT p.exercise.id, COUNT (DISTINCT p) FROM StudentParticipation p WHERE p.exercise.id IN :#{#exerciseIds} AND EXISTS (SELECT s FROM Submission s WHERE s.participation.id = p.id AND s.submitted = TRUE AND (p.exercise.dueDate IS NOT NULL AND s.submissionDate > p.exercise.dueDate)) GROUP BY p.exercise.id")
+    List<long[]> countByExerciseIdsSubmittedAfterDueDate(@Param("exerciseIds") Set<Long> exerciseIds);
+
     /**
      *
      * @param exerciseId the exercise id we are interested in
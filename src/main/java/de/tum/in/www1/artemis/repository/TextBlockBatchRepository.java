@@ -0,0 +1,86 @@
+package de.tum.in.www1.artemis.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import de.tum.in.www1.artemis.domain.TextBlock;
+
+/**
+ * Inserts and updates many text blocks with JDBC batches.
+ * <p>
+ * Saving text blocks with Spring Data merges them one by one, i.e. every block with its assigned id is selected before it is inserted or updated. The results of Athene
+ * contain all text blocks of an exercise, so only the blocks that have changed are written here, without selecting them first.
+ */
+@Repository
+public class TextBlockBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO text_block (id, text, start_index, end_index, type, submission_id, cluster_id, position_in_cluster, added_distance) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE text_block SET type = ?, cluster_id = ?, position_in_cluster = ?, added_distance = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public TextBlockBatchRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Inserts the text blocks, which must not be stored yet. Their submissions and clusters must already be saved.
+     *
+     * @param textBlocks the new text blocks
+     */
+    public void insertAll(List<TextBlock> textBlocks) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, textBlocks, BATCH_SIZE, (statement, textBlock) -> {
+            statement.setString(1, textBlock.getId());
+            statement.setString(2, textBlock.getText());
+            statement.setInt(3, textBlock.getStartIndex());
+            statement.setInt(4, textBlock.getEndIndex());
+            statement.setString(5, textBlock.getType().name());
+            statement.setLong(6, textBlock.getSubmission().getId());
+            setClusterState(statement, 7, textBlock);
+        });
+    }
+
+    /**
+     * Updates the type and the cluster (with the position in the cluster and the added distance) of the stored text blocks. The text of a block cannot change, as it is
+     * part of the id.
+     *
+     * @param textBlocks the changed text blocks
+     */
+    public void updateAll(List<TextBlock> textBlocks) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, textBlocks, BATCH_SIZE, (statement, textBlock) -> {
+            statement.setString(1, textBlock.getType().name());
+            setClusterState(statement, 2, textBlock);
+            statement.setString(5, textBlock.getId());
+        });
+        evictFromCache(textBlocks);
+    }
+
+    private static void setClusterState(PreparedStatement statement, int firstIndex, TextBlock textBlock) throws SQLException {
+        statement.setObject(firstIndex, textBlock.getCluster() != null ? textBlock.getCluster().getId() : null, Types.BIGINT);
+        statement.setObject(firstIndex + 1, textBlock.getPositionInCluster(), Types.INTEGER);
+        statement.setObject(firstIndex + 2, textBlock.getAddedDistance(), Types.DOUBLE);
+    }
+
+    /**
+     * The updates bypass Hibernate, so the cached text blocks have to be removed from the second level cache
+     */
+    private void evictFromCache(Collection<TextBlock> textBlocks) {
+        final var cache = entityManagerFactory.getCache();
+        textBlocks.forEach(textBlock -> cache.evict(TextBlock.class, textBlock.getId()));
+    }
+}
@@ -2,15 +2,19 @@ package de.tum.in.www1.artemis.repository;
 
 import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphType.LOAD;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import de.tum.in.www1.artemis.domain.TextBlock;
 import de.tum.in.www1.artemis.domain.TextCluster;
+import de.tum.in.www1.artemis.service.dto.TextBlockStateDTO;
 
 /**
  * Spring Data repository for the TextBlock entity.
@@ -28,4 +32,7 @@ public interface TextBlockRepository extends JpaRepository<TextBlock, String> {
 
     @EntityGraph(type = LOAD, attributePaths = { "submission" })
     Set<TextBlock> findAllBySubmissionIdIn(Set<Long> submissionIdList);
+
+    @Query("select new de.tum.in.www1.artemis.service.dto.TextBlockStateDTO(block.id, cluster.id, block.positionInCluster, block.addedDistance, block.type) from TextBlock block left join block.cluster cluster where block.submission.participation.exercise.id = :#{#exerciseId}")
+    List<TextBlockStateDTO> findAllStatesByExerciseId(@Param("exerciseId") Long exerciseId);
 }
@@ -7,9 +7,11 @@ import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import de.tum.in.www1.artemis.domain.TextCluster;
 import de.tum.in.www1.artemis.domain.TextExercise;
@@ -27,4 +29,8 @@ public interface TextClusterRepository extends JpaRepository<TextCluster, Long>
     @Query("SELECT distinct cluster FROM TextCluster cluster LEFT JOIN FETCH cluster.blocks WHERE cluster.id IN :#{#clusterIds}")
     List<TextCluster> findAllByIdsWithEagerTextBlocks(@Param("clusterIds") Set<Long> clusterIds);
 
+    @Transactional
+    @Modifying
+    @Query("delete from TextCluster cluster where cluster.id in :#{#clusterIds}")
+    void deleteAllByIdIn(@Param("clusterIds") Set<Long> clusterIds);
 }
@@ -4,6 +4,7 @@ import static org.springframework.data.jpa.repository.EntityGraph.EntityGraphTyp
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -56,4 +57,12 @@ public interface TextSubmissionRepository extends JpaRepository<TextSubmission,
      * @return List of Text Submissions
      */
     List<TextSubmission> findByParticipation_ExerciseIdAndSubmittedIsTrueAndLanguage(Long exerciseId, Language language);
+
+    /**
+     * Gets the ids of all TextSubmissions which are submitted, without loading the submissions
+     * @param exerciseId the Id of the exercise
+     * @return Set of submission ids
+     */
+    @Query("select submission.id from TextSubmission submission where submission.participation.exercise.id = :#{#exerciseId} and submission.submitted = true")
+    Set<Long> findIdsByParticipation_ExerciseIdAndSubmittedIsTrue(@Param("exerciseId") Long exerciseId);
 }
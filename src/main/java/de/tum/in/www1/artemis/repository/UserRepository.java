@@ -37,6 +37,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
     Optional<User> findOneWithGroupsAndAuthoritiesByRegistrationNumber(String registrationNumber);
 
+    /**
+     * Finds all users with one of the given registration numbers in one query, e.g. to register many students for an exam at once
+     * @param registrationNumbers the registration numbers (= Matrikelnummer) of the users
+     * @return all users with a matching registration number including their groups and authorities
+     */
+    @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
+    @Query("select distinct user from User user where user.registrationNumber in :#{#registrationNumbers}")
+    List<User> findAllWithGroupsAndAuthoritiesByRegistrationNumbers(@Param("registrationNumbers") Set<String> registrationNumbers);
+
+    /**
+     * Finds all users with one of the given logins in one query, e.g. to add many users to a course group at once
+     * @param logins the logins of the users
+     * @return all users with a matching login including their groups and authorities
+     */
+    @EntityGraph(type = LOAD, attributePaths = { "groups", "authorities" })
+    @Query("select distinct user from User user where user.login in :#{#logins}")
+    List<User> findAllWithGroupsAndAuthoritiesByLogins(@Param("logins") Set<String> logins);
+
     @EntityGraph(type = LOAD, attributePaths = { "groups" })
     Optional<User> findOneWithGroupsByLogin(String login);
 
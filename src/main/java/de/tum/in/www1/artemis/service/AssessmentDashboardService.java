@@ -1,9 +1,8 @@
 package de.tum.in.www1.artemis.service;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,9 +11,10 @@ import org.springframework.stereotype.Service;
 import de.tum.in.www1.artemis.domain.ExampleSubmission;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
+import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
 import de.tum.in.www1.artemis.domain.enumeration.TutorParticipationStatus;
 import de.tum.in.www1.artemis.domain.participation.TutorParticipation;
-import de.tum.in.www1.artemis.repository.ExampleSubmissionRepository;
+import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.web.rest.dto.DueDateStat;
 
 /**
@@ -25,64 +25,136 @@ public class AssessmentDashboardService {
 
     private final Logger log = LoggerFactory.getLogger(ExamService.class);
 
-    private final ExerciseService exerciseService;
+    private final ProgrammingExerciseRepository programmingExerciseRepository;
 
-    private final ProgrammingExerciseService programmingExerciseService;
+    private final SubmissionRepository submissionRepository;
 
-    private final SubmissionService submissionService;
+    private final ResultRepository resultRepository;
 
-    private final ResultService resultService;
+    private final ComplaintRepository complaintRepository;
+
+    private final ComplaintResponseRepository complaintResponseRepository;
 
     private final ExampleSubmissionRepository exampleSubmissionRepository;
 
-    public AssessmentDashboardService(ExerciseService exerciseService, ProgrammingExerciseService programmingExerciseService, SubmissionService submissionService,
-            ResultService resultService, ExampleSubmissionRepository exampleSubmissionRepository) {
-        this.exerciseService = exerciseService;
-        this.programmingExerciseService = programmingExerciseService;
-        this.submissionService = submissionService;
-        this.resultService = resultService;
+    public AssessmentDashboardService(ProgrammingExerciseRepository programmingExerciseRepository, SubmissionRepository submissionRepository, ResultRepository resultRepository,
+            ComplaintRepository complaintRepository, ComplaintResponseRepository complaintResponseRepository, ExampleSubmissionRepository exampleSubmissionRepository) {
+        this.programmingExerciseRepository = programmingExerciseRepository;
+        this.submissionRepository = submissionRepository;
+        this.resultRepository = resultRepository;
+        this.complaintRepository = complaintRepository;
+        this.complaintResponseRepository = complaintResponseRepository;
         this.exampleSubmissionRepository = exampleSubmissionRepository;
     }
 
     /**
-     * Prepares the exercises for the assessment dashboard by setting the tutor participations and statistics
+     * Prepares the exercises for the assessment dashboard by setting the tutor participations and statistics.
+     * All statistics are loaded with grouped queries for all exercises at once, so that the number of database queries does not depend on the number of exercises.
      *
      * @param exercises exercises to be prepared for the assessment dashboard
      * @param tutorParticipations participations of the tutors
      * @param examMode flag should be set for exam dashboard
      */
     public void prepareExercisesForAssessmentDashboard(Set<Exercise> exercises, List<TutorParticipation> tutorParticipations, boolean examMode) {
-        for (Exercise exercise : exercises) {
+        if (exercises.isEmpty()) {
+            return;
+        }
+        final Set<Long> exerciseIds = exercises.stream().map(Exercise::getId).collect(Collectors.toSet());
+        final Set<Long> programmingExerciseIds = exercises.stream().filter(exercise -> exercise instanceof ProgrammingExercise).map(Exercise::getId).collect(Collectors.toSet());
+        final Set<Long> otherExerciseIds = exercises.stream().filter(exercise -> !(exercise instanceof ProgrammingExercise)).map(Exercise::getId).collect(Collectors.toSet());
+
+        final Map<Long, Long> programmingSubmissions;
+        final Map<Long, Long> programmingAssessments;
+        final Map<Long, Long> submissionsInTime;
+        final Map<Long, Long> lateSubmissions;
+        final Map<Long, Long> assessmentsInTime;
+        final Map<Long, Long> lateAssessments;
+        if (examMode) {
+            programmingSubmissions = countByExerciseIds(programmingExerciseIds, programmingExerciseRepository::countSubmissionsByExerciseIdsSubmittedIgnoreTestRunSubmissions);
+            programmingAssessments = countByExerciseIds(programmingExerciseIds, programmingExerciseRepository::countAssessmentsByExerciseIdsSubmittedIgnoreTestRunSubmissions);
+            submissionsInTime = countByExerciseIds(otherExerciseIds, submissionRepository::countByExerciseIdsSubmittedBeforeDueDateIgnoreTestRuns);
+            lateSubmissions = Map.of();
+            assessmentsInTime = countByExerciseIds(otherExerciseIds, resultRepository::countNumberOfFinishedAssessmentsForExercisesIgnoreTestRuns);
+            lateAssessments = Map.of();
+        }
+        else {
+            programmingSubmissions = countByExerciseIds(programmingExerciseIds, programmingExerciseRepository::countSubmissionsByExerciseIdsSubmitted);
+            programmingAssessments = countByExerciseIds(programmingExerciseIds, programmingExerciseRepository::countAssessmentsByExerciseIdsSubmitted);
+            submissionsInTime = countByExerciseIds(otherExerciseIds, submissionRepository::countByExerciseIdsSubmittedBeforeDueDate);
+            lateSubmissions = countByExerciseIds(otherExerciseIds, submissionRepository::countByExerciseIdsSubmittedAfterDueDate);
+            assessmentsInTime = countByExerciseIds(otherExerciseIds, resultRepository::countNumberOfFinishedAssessmentsForExercises);
+            lateAssessments = countByExerciseIds(otherExerciseIds, resultRepository::countNumberOfFinishedLateAssessmentsForExercises);
+        }
 
-            DueDateStat numberOfSubmissions;
-            DueDateStat numberOfAssessments;
+        final Map<Long, Long> complaints;
+        final Map<Long, Long> complaintResponses;
+        final Map<Long, Long> moreFeedbackRequests;
+        final Map<Long, Long> moreFeedbackResponses;
+        if (examMode) {
+            complaints = countByExerciseIds(exerciseIds, ids -> complaintRepository.countByExerciseIdsAndComplaintTypeIgnoreTestRuns(ids, ComplaintType.COMPLAINT));
+            complaintResponses = countByExerciseIds(exerciseIds, ids -> complaintResponseRepository.countByExerciseIdsAndComplaintTypeIgnoreTestRuns(ids, ComplaintType.COMPLAINT));
+            moreFeedbackRequests = Map.of();
+            moreFeedbackResponses = Map.of();
+        }
+        else {
+            complaints = countByExerciseIds(exerciseIds, ids -> complaintRepository.countByExerciseIdsAndComplaintType(ids, ComplaintType.COMPLAINT));
+            complaintResponses = countByExerciseIds(exerciseIds, ids -> complaintResponseRepository.countByExerciseIdsAndComplaintType(ids, ComplaintType.COMPLAINT));
+            moreFeedbackRequests = countByExerciseIds(exerciseIds, ids -> complaintRepository.countByExerciseIdsAndComplaintType(ids, ComplaintType.MORE_FEEDBACK));
+            moreFeedbackResponses = countByExerciseIds(exerciseIds, ids -> complaintResponseRepository.countByExerciseIdsAndComplaintType(ids, ComplaintType.MORE_FEEDBACK));
+        }
+
+        // Do not provide example submissions without any assessment
+        final Map<Long, Set<ExampleSubmission>> exampleSubmissionsByExerciseId = exampleSubmissionRepository.findAllWithSubmissionAndResultByExerciseIds(exerciseIds).stream()
+                .filter(exampleSubmission -> exampleSubmission.getSubmission() != null && exampleSubmission.getSubmission().getResult() != null)
+                .collect(Collectors.groupingBy(exampleSubmission -> exampleSubmission.getExercise().getId(), Collectors.toSet()));
+
+        final Map<Long, TutorParticipation> tutorParticipationByExerciseId = new HashMap<>();
+        for (TutorParticipation participation : tutorParticipations) {
+            // if a tutor has multiple participations for the same exercise, the first one is used
+            tutorParticipationByExerciseId.putIfAbsent(participation.getAssessedExercise().getId(), participation);
+        }
 
+        for (Exercise exercise : exercises) {
+            final Long exerciseId = exercise.getId();
             if (exercise instanceof ProgrammingExercise) {
-                numberOfSubmissions = new DueDateStat(programmingExerciseService.countSubmissionsByExerciseIdSubmitted(exercise.getId(), examMode), 0L);
-                numberOfAssessments = new DueDateStat(programmingExerciseService.countAssessmentsByExerciseIdSubmitted(exercise.getId(), examMode), 0L);
+                exercise.setNumberOfSubmissions(new DueDateStat(programmingSubmissions.getOrDefault(exerciseId, 0L), 0L));
+                exercise.setNumberOfAssessments(new DueDateStat(programmingAssessments.getOrDefault(exerciseId, 0L), 0L));
             }
             else {
-                numberOfSubmissions = submissionService.countSubmissionsForExercise(exercise.getId(), examMode);
-                numberOfAssessments = resultService.countNumberOfFinishedAssessmentsForExercise(exercise.getId(), examMode);
+                exercise.setNumberOfSubmissions(new DueDateStat(submissionsInTime.getOrDefault(exerciseId, 0L), lateSubmissions.getOrDefault(exerciseId, 0L)));
+                exercise.setNumberOfAssessments(new DueDateStat(assessmentsInTime.getOrDefault(exerciseId, 0L), lateAssessments.getOrDefault(exerciseId, 0L)));
             }
 
-            exercise.setNumberOfSubmissions(numberOfSubmissions);
-            exercise.setNumberOfAssessments(numberOfAssessments);
-
-            exerciseService.calculateNrOfOpenComplaints(exercise, examMode);
+            final long numberOfComplaints = complaints.getOrDefault(exerciseId, 0L);
+            final long numberOfMoreFeedbackRequests = moreFeedbackRequests.getOrDefault(exerciseId, 0L);
+            exercise.setNumberOfOpenComplaints(numberOfComplaints - complaintResponses.getOrDefault(exerciseId, 0L));
+            exercise.setNumberOfComplaints(numberOfComplaints);
+            exercise.setNumberOfOpenMoreFeedbackRequests(numberOfMoreFeedbackRequests - moreFeedbackResponses.getOrDefault(exerciseId, 0L));
+            exercise.setNumberOfMoreFeedbackRequests(numberOfMoreFeedbackRequests);
 
-            List<ExampleSubmission> exampleSubmissions = this.exampleSubmissionRepository.findAllByExerciseId(exercise.getId());
-            // Do not provide example submissions without any assessment
-            exampleSubmissions.removeIf(exampleSubmission -> exampleSubmission.getSubmission() == null || exampleSubmission.getSubmission().getResult() == null);
-            exercise.setExampleSubmissions(new HashSet<>(exampleSubmissions));
+            exercise.setExampleSubmissions(exampleSubmissionsByExerciseId.getOrDefault(exerciseId, new HashSet<>()));
 
-            TutorParticipation tutorParticipation = tutorParticipations.stream().filter(participation -> participation.getAssessedExercise().getId().equals(exercise.getId()))
-                    .findFirst().orElseGet(() -> {
-                        TutorParticipation emptyTutorParticipation = new TutorParticipation();
-                        emptyTutorParticipation.setStatus(TutorParticipationStatus.NOT_PARTICIPATED);
-                        return emptyTutorParticipation;
-                    });
+            TutorParticipation tutorParticipation = tutorParticipationByExerciseId.get(exerciseId);
+            if (tutorParticipation == null) {
+                tutorParticipation = new TutorParticipation();
+                tutorParticipation.setStatus(TutorParticipationStatus.NOT_PARTICIPATED);
+            }
             exercise.setTutorParticipations(Collections.singleton(tutorParticipation));
         }
     }
+
+    /**
+     * Executes the given grouped count query and converts the result List<[exerciseId, count]> into Map<exerciseId -> count>.
+     * For an empty set of exercise ids, we do not query the database, because Hibernate builds an invalid query with empty lists
+     *
+     * @param exerciseIds the ids of the exercises for which the count query should be executed
+     * @param countQuery the grouped count query returning pairs of exercise id and count
+     * @return map of exercise id to count, exercises without a count are not contained
+     */
+    private Map<Long, Long> countByExerciseIds(Set<Long> exerciseIds, Function<Set<Long>, List<long[]>> countQuery) {
+        if (exerciseIds.isEmpty()) {
+            return Map.of();
+        }
+        return countQuery.apply(exerciseIds).stream().collect(Collectors.toMap(exerciseIdAndCount -> exerciseIdAndCount[0], exerciseIdAndCount -> exerciseIdAndCount[1]));
+    }
 }
@@ -0,0 +1,140 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.repository.SubmissionRepository;
+
+/**
+ * Hands out the submissions of an exercise that still need a manual assessment to the tutors.
+ * The candidates are read in the order of their ids with an indexed keyset query and a tutor who starts an assessment atomically claims one candidate in a distributed map, so
+ * that concurrent tutors do not receive the same submission. A claim is a lease: it expires automatically after a timeout, so that abandoned submissions become available
+ * again. Once the submission is locked with a manual result, it is no longer a candidate and the claim is released. Tutors who only look at the next submission do not claim it.
+ */
+@Service
+public class AssessmentQueueService {
+
+    private final Logger log = LoggerFactory.getLogger(AssessmentQueueService.class);
+
+    private static final String HAZELCAST_ASSESSMENT_CLAIMS = "assessment-claims";
+
+    /**
+     * The number of candidate submission ids loaded with one query
+     */
+    private static final int CANDIDATE_PAGE_SIZE = 20;
+
+    @Value("${artemis.assessment.claim-lease-in-seconds:600}")
+    private long claimLeaseInSeconds;
+
+    private final SubmissionRepository submissionRepository;
+
+    /**
+     * submission id -> id of the tutor who claimed the submission
+     */
+    private final IMap<Long, Long> claims;
+
+    public AssessmentQueueService(SubmissionRepository submissionRepository, HazelcastInstance hazelcastInstance) {
+        this.submissionRepository = submissionRepository;
+        this.claims = hazelcastInstance.getMap(HAZELCAST_ASSESSMENT_CLAIMS);
+    }
+
+    /**
+     * Finds the next submission of the given exercise which still needs a manual assessment and is not claimed by another tutor, without claiming it. This is used when a
+     * tutor only looks at the next submission, e.g. on the assessment dashboard. Submissions submitted before the due date are returned first.
+     *
+     * @param exercise the exercise for which a submission should be found
+     * @param examMode flag to determine if test run submissions should be ignored. This should be set to true for exam exercises
+     * @param tutor the tutor who wants to see the next submission
+     * @return the id of the next submission or an empty Optional if all submissions are assessed or claimed by other tutors
+     */
+    public Optional<Long> findNextSubmissionId(Exercise exercise, boolean examMode, User tutor) {
+        return findFirstAvailableSubmissionId(exercise.getId(), examMode, tutor.getId(), false);
+    }
+
+    /**
+     * Claims the next submission of the given exercise which still needs a manual assessment for the given tutor. Submissions submitted before the due date are handed out
+     * first, late submissions are only handed out if no submission before the due date is available. If the tutor already holds a claim on a candidate, e.g. because locking
+     * it failed, this claim is renewed and returned again. This should only be used when the tutor starts the assessment, i.e. when the submission is locked.
+     *
+     * @param exercise the exercise for which a submission should be claimed
+     * @param examMode flag to determine if test run submissions should be ignored. This should be set to true for exam exercises
+     * @param tutor the tutor who wants to assess a submission
+     * @return the id of the claimed submission or an empty Optional if all submissions are assessed or claimed by other tutors
+     */
+    public Optional<Long> claimNextSubmissionId(Exercise exercise, boolean examMode, User tutor) {
+        return findFirstAvailableSubmissionId(exercise.getId(), examMode, tutor.getId(), true);
+    }
+
+    /**
+     * Releases the claim on the given submission, e.g. because the submission was locked with a manual result or the assessment was cancelled
+     *
+     * @param submissionId the id of the submission which should be available for other tutors again
+     */
+    public void releaseClaim(long submissionId) {
+        claims.delete(submissionId);
+    }
+
+    private Optional<Long> findFirstAvailableSubmissionId(long exerciseId, boolean examMode, long tutorId, boolean claim) {
+        Optional<Long> submissionId = findFirstAvailableSubmissionId(exerciseId, examMode, true, tutorId, claim);
+        if (submissionId.isEmpty()) {
+            submissionId = findFirstAvailableSubmissionId(exerciseId, examMode, false, tutorId, claim);
+        }
+        return submissionId;
+    }
+
+    /**
+     * Reads the candidates page by page after the last candidate id of the previous page. Candidates are locked by other tutors while they are read, so the pages must not be
+     * addressed by their offset, which would skip candidates.
+     */
+    private Optional<Long> findFirstAvailableSubmissionId(long exerciseId, boolean examMode, boolean inTimeOnly, long tutorId, boolean claim) {
+        final var pageRequest = PageRequest.of(0, CANDIDATE_PAGE_SIZE);
+        long lastCandidateId = 0;
+        List<Long> candidateIds;
+        do {
+            if (examMode) {
+                candidateIds = submissionRepository.findIdsOfLatestSubmissionsWithoutManualResultIgnoreTestRuns(exerciseId, inTimeOnly, lastCandidateId, pageRequest);
+            }
+            else {
+                candidateIds = submissionRepository.findIdsOfLatestSubmissionsWithoutManualResult(exerciseId, inTimeOnly, lastCandidateId, pageRequest);
+            }
+            for (Long candidateId : candidateIds) {
+                if (claim ? tryClaim(candidateId, tutorId) : isAvailable(candidateId, tutorId)) {
+                    return Optional.of(candidateId);
+                }
+                lastCandidateId = candidateId;
+            }
+        }
+        while (candidateIds.size() == CANDIDATE_PAGE_SIZE);
+        return Optional.empty();
+    }
+
+    private boolean isAvailable(long submissionId, long tutorId) {
+        Long owner = claims.get(submissionId);
+        return owner == null || owner.equals(tutorId);
+    }
+
+    private boolean tryClaim(long submissionId, long tutorId) {
+        Long owner = claims.putIfAbsent(submissionId, tutorId, claimLeaseInSeconds, TimeUnit.SECONDS);
+        if (owner != null && !owner.equals(tutorId)) {
+            return false;
+        }
+        if (owner != null) {
+            // renew the lease of the existing claim
+            claims.set(submissionId, tutorId, claimLeaseInSeconds, TimeUnit.SECONDS);
+        }
+        log.debug("Tutor {} claimed submission {} for assessment", tutorId, submissionId);
+        return true;
+    }
+}
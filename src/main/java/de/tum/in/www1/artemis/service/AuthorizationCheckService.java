@@ -16,6 +16,8 @@ import de.tum.in.www1.artemis.domain.lecture.LectureUnit;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.security.AuthoritiesConstants;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.metadata.CourseMetadata;
+import de.tum.in.www1.artemis.service.metadata.MetadataCacheService;
 
 /**
  * Service used to check whether user is authorized to perform actions on the entity.
@@ -27,8 +29,11 @@ public class AuthorizationCheckService {
 
     private final UserService userService;
 
-    public AuthorizationCheckService(UserService userService) {
+    private final MetadataCacheService metadataCacheService;
+
+    public AuthorizationCheckService(UserService userService, MetadataCacheService metadataCacheService) {
         this.userService = userService;
+        this.metadataCacheService = metadataCacheService;
     }
 
     /**
@@ -72,6 +77,40 @@ public class AuthorizationCheckService {
         return isAtLeastTeachingAssistantInCourse(exercise.getCourseViaExerciseGroupOrCourseMember(), user);
     }
 
+    /**
+     * checks if the passed user is at least a teaching assistant in the course of the exercise with the given id.
+     * The group names of the course are read from the {@link MetadataCacheService}, so that the exercise and course do not have to be loaded.
+     *
+     * @param exerciseId the id of the exercise that needs to be checked
+     * @param user the user whose permissions should be checked
+     * @return true if the passed user is at least a teaching assistant (also if the user is instructor or admin), false otherwise
+     */
+    public boolean isAtLeastTeachingAssistantForExercise(long exerciseId, User user) {
+        if (user == null || user.getGroups() == null) {
+            // only retrieve the user and the groups if the user is null or the groups are missing (to save performance)
+            user = userService.getUserWithGroupsAndAuthorities();
+        }
+        CourseMetadata course = metadataCacheService.getCourseOfExercise(exerciseId);
+        return user.getGroups().contains(course.getInstructorGroupName()) || user.getGroups().contains(course.getTeachingAssistantGroupName()) || isAdmin(user);
+    }
+
+    /**
+     * checks if the passed user is at least an instructor in the course of the exercise with the given id.
+     * The group names of the course are read from the {@link MetadataCacheService}, so that the exercise and course do not have to be loaded.
+     *
+     * @param exerciseId the id of the exercise that needs to be checked
+     * @param user the user whose permissions should be checked
+     * @return true if the passed user is at least an instructor (or admin), false otherwise
+     */
+    public boolean isAtLeastInstructorForExercise(long exerciseId, User user) {
+        if (user == null || user.getGroups() == null) {
+            // only retrieve the user and the groups if the user is null or the groups are missing (to save performance)
+            user = userService.getUserWithGroupsAndAuthorities();
+        }
+        CourseMetadata course = metadataCacheService.getCourseOfExercise(exerciseId);
+        return user.getGroups().contains(course.getInstructorGroupName()) || isAdmin(user);
+    }
+
     /**
      * checks if the currently logged in user is at least a student in the course of the given exercise.
      *
@@ -1,12 +1,9 @@
 package de.tum.in.www1.artemis.service;
 
-import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 import javax.validation.constraints.NotNull;
 
@@ -47,37 +44,47 @@ public class AutomaticTextFeedbackService {
         final var blocks = textBlockRepository.findAllWithEagerClusterBySubmissionId(textSubmission.getId());
         textSubmission.setBlocks(blocks);
 
-        final List<Feedback> suggestedFeedback = blocks.stream().map(block -> {
-            final TextCluster cluster = block.getCluster();
+        // Find all Feedbacks for the Blocks in the clusters of the submission at once, instead of once per Block
+        final Set<TextCluster> clusters = blocks.stream().map(TextBlock::getCluster).filter(Objects::nonNull).collect(toSet());
+        final Map<String, Feedback> feedbackForTextExerciseInClusters = feedbackService.getFeedbackForTextExerciseInClusters(clusters);
 
-            // if TextBlock is part of a cluster, we try to find an existing Feedback Element
-            if (cluster != null) {
-                // Find all Feedbacks for other Blocks in Cluster.
-                final List<TextBlock> allBlocksInCluster = cluster.getBlocks().parallelStream().filter(elem -> !elem.equals(block)).collect(toList());
-                final Map<String, Feedback> feedbackForTextExerciseInCluster = feedbackService.getFeedbackForTextExerciseInCluster(cluster);
+        final List<Feedback> suggestedFeedback = blocks.stream().map(block -> findMostSimilarBlockWithFeedback(block, feedbackForTextExerciseInClusters).map(similarBlock -> {
+            final Feedback similarFeedback = feedbackForTextExerciseInClusters.get(similarBlock.getId());
+            return new Feedback().reference(block.getId()).credits(similarFeedback.getCredits()).detailText(similarFeedback.getDetailText()).type(FeedbackType.AUTOMATIC);
+        })).flatMap(Optional::stream).collect(toList());
 
-                if (feedbackForTextExerciseInCluster.size() != 0) {
-                    final Optional<TextBlock> mostSimilarBlockInClusterWithFeedback = allBlocksInCluster.parallelStream()
-
-                            // Filter all other blocks in the cluster for those with Feedback
-                            .filter(element -> feedbackForTextExerciseInCluster.containsKey(element.getId()))
-
-                            // Find the closest block
-                            .min(comparing(element -> cluster.distanceBetweenBlocks(block, element)));
+        result.setFeedbacks(suggestedFeedback);
+    }
 
-                    if (mostSimilarBlockInClusterWithFeedback.isPresent()
-                            && cluster.distanceBetweenBlocks(block, mostSimilarBlockInClusterWithFeedback.get()) < DISTANCE_THRESHOLD) {
-                        final Feedback similarFeedback = feedbackForTextExerciseInCluster.get(mostSimilarBlockInClusterWithFeedback.get().getId());
-                        return new Feedback().reference(block.getId()).credits(similarFeedback.getCredits()).detailText(similarFeedback.getDetailText())
-                                .type(FeedbackType.AUTOMATIC);
-                    }
-                }
+    /**
+     * Finds the closest other Block with Feedback in the cluster of the Block, if it is closer than the distance threshold.
+     * The distances to the other Blocks are the row of the Block in the distance matrix of the cluster, which is only decoded once per cluster.
+     *
+     * @param block the Block to find a similar Block for
+     * @param feedbackForTextExerciseInClusters the existing Feedbacks by the ids of the Blocks they reference
+     * @return the most similar Block with Feedback, or an empty Optional if the Block is not part of a cluster or no similar Block has Feedback
+     */
+    private Optional<TextBlock> findMostSimilarBlockWithFeedback(TextBlock block, Map<String, Feedback> feedbackForTextExerciseInClusters) {
+        final TextCluster cluster = block.getCluster();
+        if (cluster == null || feedbackForTextExerciseInClusters.isEmpty()) {
+            return Optional.empty();
+        }
+        final List<TextBlock> blocksInCluster = cluster.getBlocks();
+        final int blockIndex = blocksInCluster.indexOf(block);
+        if (blockIndex == -1) {
+            return Optional.empty();
+        }
+
+        final double[] distances = cluster.getDistanceMatrix()[blockIndex];
+        TextBlock mostSimilarBlock = null;
+        double minimumDistance = DISTANCE_THRESHOLD;
+        for (int index = 0; index < blocksInCluster.size(); index++) {
+            if (index != blockIndex && distances[index] < minimumDistance && feedbackForTextExerciseInClusters.containsKey(blocksInCluster.get(index).getId())) {
+                mostSimilarBlock = blocksInCluster.get(index);
+                minimumDistance = distances[index];
             }
-
-            return null;
-        }).filter(Objects::nonNull).collect(toList());
-
-        result.setFeedbacks(suggestedFeedback);
+        }
+        return Optional.ofNullable(mostSimilarBlock);
     }
 
 }
@@ -0,0 +1,245 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.domain.BuildLogEntry;
+import de.tum.in.www1.artemis.domain.CompressedBuildLog;
+import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
+import de.tum.in.www1.artemis.repository.BuildLogEntryRepository;
+import de.tum.in.www1.artemis.repository.CompressedBuildLogRepository;
+import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+
+/**
+ * Stores the build logs of programming submissions as {@link CompressedBuildLog} and reads them back page by page.
+ * <p>
+ * Build logs that were stored as one {@link BuildLogEntry} row per line are migrated to a compressed build log when they are read for the first time.
+ */
+@Service
+public class BuildLogService {
+
+    private final Logger log = LoggerFactory.getLogger(BuildLogService.class);
+
+    /**
+     * The number of lines that are compressed together. Reading a page of the log only requires decompressing the chunks that contain the page.
+     */
+    private static final int LINES_PER_CHUNK = 200;
+
+    private final CompressedBuildLogRepository compressedBuildLogRepository;
+
+    private final BuildLogEntryRepository buildLogEntryRepository;
+
+    private final ProgrammingSubmissionRepository programmingSubmissionRepository;
+
+    public BuildLogService(CompressedBuildLogRepository compressedBuildLogRepository, BuildLogEntryRepository buildLogEntryRepository,
+            ProgrammingSubmissionRepository programmingSubmissionRepository) {
+        this.compressedBuildLogRepository = compressedBuildLogRepository;
+        this.buildLogEntryRepository = buildLogEntryRepository;
+        this.programmingSubmissionRepository = programmingSubmissionRepository;
+    }
+
+    /**
+     * Compresses and stores the complete build log of the submission, which replaces a previously stored build log of the submission.
+     *
+     * @param programmingSubmission the submission that has been built, it must already be saved
+     * @param buildLogEntries       the lines of the build log, they are not truncated
+     * @return the stored build log
+     */
+    public CompressedBuildLog saveBuildLogs(ProgrammingSubmission programmingSubmission, List<BuildLogEntry> buildLogEntries) {
+        CompressedBuildLog buildLog = compressedBuildLogRepository.findByProgrammingSubmissionId(programmingSubmission.getId()).orElseGet(CompressedBuildLog::new);
+        buildLog.setProgrammingSubmission(programmingSubmission);
+        try {
+            encode(buildLog, buildLogEntries);
+        }
+        catch (IOException ex) {
+            // cannot happen, the log is compressed in memory
+            throw new UncheckedIOException(ex);
+        }
+        return compressedBuildLogRepository.save(buildLog);
+    }
+
+    /**
+     * Finds the stored build log of the submission. Build log entries stored by previous versions of Artemis are migrated to a compressed build log.
+     *
+     * @param programmingSubmission the submission whose build log should be found
+     * @return the build log, or an empty Optional if no build log or an empty build log is stored for the submission
+     */
+    public Optional<CompressedBuildLog> findBuildLog(ProgrammingSubmission programmingSubmission) {
+        Optional<CompressedBuildLog> buildLog = compressedBuildLogRepository.findByProgrammingSubmissionId(programmingSubmission.getId());
+        if (buildLog.isEmpty()) {
+            buildLog = migrateBuildLogEntries(programmingSubmission);
+        }
+        // an empty log is retrieved from the continuous integration server again, like a missing one
+        return buildLog.filter(storedBuildLog -> storedBuildLog.getNumberOfLines() > 0);
+    }
+
+    /**
+     * Reads a page of the build log. Only the chunks containing the page are decompressed, unless the lines are filtered.
+     *
+     * @param buildLog the stored build log
+     * @param pageable the requested page, or {@link Pageable#unpaged()} for all lines
+     * @param filter   if not empty, only the lines containing this text (ignoring the case) are returned
+     * @return the requested lines and the total number of (matching) lines
+     */
+    public Page<BuildLogEntry> readBuildLogs(CompressedBuildLog buildLog, Pageable pageable, String filter) {
+        try {
+            if (filter != null && !filter.isBlank()) {
+                return readFilteredBuildLogs(buildLog, pageable, filter.toLowerCase(Locale.ROOT));
+            }
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(readLines(buildLog, 0, buildLog.getNumberOfLines()));
+            }
+            int from = (int) Math.min(pageable.getOffset(), buildLog.getNumberOfLines());
+            int to = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), buildLog.getNumberOfLines());
+            return new PageImpl<>(readLines(buildLog, from, to), pageable, buildLog.getNumberOfLines());
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Could not decompress the build log " + buildLog.getId(), ex);
+        }
+    }
+
+    private Page<BuildLogEntry> readFilteredBuildLogs(CompressedBuildLog buildLog, Pageable pageable, String lowerCaseFilter) throws IOException {
+        List<BuildLogEntry> page = new ArrayList<>();
+        long numberOfMatchingLines = 0;
+        // the lines have to be decompressed chunk by chunk to count all matching lines
+        for (int chunk = 0; chunk * buildLog.getLinesPerChunk() < buildLog.getNumberOfLines(); chunk++) {
+            for (BuildLogEntry entry : readChunk(buildLog, chunk)) {
+                if (entry.getLog() == null || !entry.getLog().toLowerCase(Locale.ROOT).contains(lowerCaseFilter)) {
+                    continue;
+                }
+                if (pageable.isUnpaged() || (numberOfMatchingLines >= pageable.getOffset() && numberOfMatchingLines < pageable.getOffset() + pageable.getPageSize())) {
+                    page.add(entry);
+                }
+                numberOfMatchingLines++;
+            }
+        }
+        return pageable.isUnpaged() ? new PageImpl<>(page) : new PageImpl<>(page, pageable, numberOfMatchingLines);
+    }
+
+    /**
+     * Converts the build log entries of the submission into a compressed build log and deletes them
+     */
+    private Optional<CompressedBuildLog> migrateBuildLogEntries(ProgrammingSubmission programmingSubmission) {
+        List<BuildLogEntry> buildLogEntries = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId())
+                .map(ProgrammingSubmission::getBuildLogEntries).orElse(List.of()).stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (buildLogEntries.isEmpty()) {
+            return Optional.empty();
+        }
+        CompressedBuildLog buildLog;
+        try {
+            buildLog = saveBuildLogs(programmingSubmission, buildLogEntries);
+        }
+        catch (DataIntegrityViolationException ex) {
+            // another request has migrated the build log in the meantime
+            return compressedBuildLogRepository.findByProgrammingSubmissionId(programmingSubmission.getId());
+        }
+        buildLogEntryRepository.deleteByProgrammingSubmissionId(programmingSubmission.getId());
+        log.debug("Migrated {} build log entries of submission {} to a compressed build log of {} bytes", buildLogEntries.size(), programmingSubmission.getId(),
+                buildLog.getData().length);
+        return Optional.of(buildLog);
+    }
+
+    /**
+     * Each chunk is compressed separately and contains the lines in the format: hasTime (boolean), [epochSecond (long), nano (int), offsetSeconds (int)],
+     * length (int, -1 for null), UTF-8 bytes
+     */
+    private static void encode(CompressedBuildLog buildLog, List<BuildLogEntry> buildLogEntries) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int numberOfChunks = (buildLogEntries.size() + LINES_PER_CHUNK - 1) / LINES_PER_CHUNK;
+        ByteBuffer chunkOffsets = ByteBuffer.allocate(numberOfChunks * Integer.BYTES);
+        for (int chunkStart = 0; chunkStart < buildLogEntries.size(); chunkStart += LINES_PER_CHUNK) {
+            chunkOffsets.putInt(data.size());
+            // closing the streams finishes the compressed chunk, closing the ByteArrayOutputStream has no effect
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(data))) {
+                for (BuildLogEntry entry : buildLogEntries.subList(chunkStart, Math.min(chunkStart + LINES_PER_CHUNK, buildLogEntries.size()))) {
+                    writeLine(out, entry);
+                }
+            }
+        }
+        buildLog.setNumberOfLines(buildLogEntries.size());
+        buildLog.setLinesPerChunk(LINES_PER_CHUNK);
+        buildLog.setChunkOffsets(chunkOffsets.array());
+        buildLog.setData(data.toByteArray());
+    }
+
+    private static void writeLine(DataOutputStream out, BuildLogEntry entry) throws IOException {
+        out.writeBoolean(entry.getTime() != null);
+        if (entry.getTime() != null) {
+            out.writeLong(entry.getTime().toEpochSecond());
+            out.writeInt(entry.getTime().getNano());
+            out.writeInt(entry.getTime().getOffset().getTotalSeconds());
+        }
+        if (entry.getLog() == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = entry.getLog().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the lines with the indices from (inclusive) to (exclusive)
+     */
+    private static List<BuildLogEntry> readLines(CompressedBuildLog buildLog, int from, int to) throws IOException {
+        List<BuildLogEntry> lines = new ArrayList<>(Math.max(to - from, 0));
+        int linesPerChunk = buildLog.getLinesPerChunk();
+        for (int chunk = from / linesPerChunk; chunk * linesPerChunk < to; chunk++) {
+            List<BuildLogEntry> chunkLines = readChunk(buildLog, chunk);
+            int chunkStart = chunk * linesPerChunk;
+            lines.addAll(chunkLines.subList(Math.max(from - chunkStart, 0), Math.min(to - chunkStart, chunkLines.size())));
+        }
+        return lines;
+    }
+
+    private static List<BuildLogEntry> readChunk(CompressedBuildLog buildLog, int chunk) throws IOException {
+        ByteBuffer chunkOffsets = ByteBuffer.wrap(buildLog.getChunkOffsets());
+        int start = chunkOffsets.getInt(chunk * Integer.BYTES);
+        int end = (chunk + 1) * Integer.BYTES < chunkOffsets.capacity() ? chunkOffsets.getInt((chunk + 1) * Integer.BYTES) : buildLog.getData().length;
+        int numberOfLines = Math.min(buildLog.getLinesPerChunk(), buildLog.getNumberOfLines() - chunk * buildLog.getLinesPerChunk());
+        List<BuildLogEntry> lines = new ArrayList<>(numberOfLines);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(buildLog.getData(), start, end - start)))) {
+            for (int line = 0; line < numberOfLines; line++) {
+                lines.add(readLine(in));
+            }
+        }
+        return lines;
+    }
+
+    private static BuildLogEntry readLine(DataInputStream in) throws IOException {
+        ZonedDateTime time = null;
+        if (in.readBoolean()) {
+            Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            // the time is restored with the offset it was stored with, e.g. the one reported by the CI server, independent of the time zone of the server reading it
+            time = ZonedDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(in.readInt()));
+        }
+        String text = null;
+        int length = in.readInt();
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new BuildLogEntry(time, text);
+    }
+}
@@ -0,0 +1,135 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.service.dto.CourseScoreDTO;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
+
+/**
+ * Exports the latest rated score of every participant in every exercise of a course.
+ * The scores are read page by page as projections and written to the output immediately, so that the memory needed for the export does not depend on the size of the course.
+ */
+@Service
+public class CourseScoreExportService {
+
+    private final Logger log = LoggerFactory.getLogger(CourseScoreExportService.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final String CSV_HEADER = "ParticipationId,ExerciseId,ExerciseTitle,MaxScore,Participant,Name,RegistrationNumber,Score,CompletionDate";
+
+    private final StudentParticipationRepository studentParticipationRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public CourseScoreExportService(StudentParticipationRepository studentParticipationRepository, ObjectMapper objectMapper) {
+        this.studentParticipationRepository = studentParticipationRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes the scores of the given course as CSV with one line per participation to the given writer
+     *
+     * @param courseId the id of the course
+     * @param writer the writer to which the CSV is written, it is flushed after each page but not closed
+     * @throws IOException if the scores could not be written
+     */
+    public void writeScoresAsCsv(Long courseId, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        forEachPage(courseId, page -> {
+            try {
+                for (CourseScoreDTO score : page) {
+                    writer.write(toCsvLine(score));
+                    writer.write('\n');
+                }
+                writer.flush();
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Writes the scores of the given course as JSON array with one object per participation to the given output stream
+     *
+     * @param courseId the id of the course
+     * @param outputStream the stream to which the JSON is written, it is flushed after each page but not closed
+     * @throws IOException if the scores could not be written
+     */
+    public void writeScoresAsJson(Long courseId, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        forEachPage(courseId, page -> {
+            try {
+                for (CourseScoreDTO score : page) {
+                    generator.writeObject(score);
+                }
+                generator.flush();
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    /**
+     * Reads the scores of the course with keyset pagination over the participation ids and passes each page to the given consumer
+     */
+    private void forEachPage(Long courseId, Consumer<List<CourseScoreDTO>> pageConsumer) throws IOException {
+        long start = System.nanoTime();
+        long numberOfScores = 0;
+        long lastParticipationId = 0;
+        List<CourseScoreDTO> page;
+        try {
+            do {
+                page = studentParticipationRepository.findLatestRatedScoresByCourseId(courseId, lastParticipationId, PageRequest.of(0, PAGE_SIZE));
+                if (!page.isEmpty()) {
+                    pageConsumer.accept(page);
+                    lastParticipationId = page.get(page.size() - 1).getParticipationId();
+                    numberOfScores += page.size();
+                }
+            }
+            while (page.size() == PAGE_SIZE);
+        }
+        catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        log.info("Exported {} scores of course {} in {}", numberOfScores, courseId, TimeLogUtil.formatDurationFrom(start));
+    }
+
+    private static String toCsvLine(CourseScoreDTO score) {
+        return String.join(",", String.valueOf(score.getParticipationId()), String.valueOf(score.getExerciseId()), escapeCsv(score.getExerciseTitle()),
+                score.getMaxScore() == null ? "" : String.valueOf(score.getMaxScore()), escapeCsv(score.getParticipantIdentifier()), escapeCsv(score.getParticipantName()),
+                escapeCsv(score.getRegistrationNumber()), String.valueOf(score.getScore()), String.valueOf(score.getCompletionDate()));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -31,9 +31,11 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.repository.ExamRepository;
+import de.tum.in.www1.artemis.repository.StudentExamBatchRepository;
 import de.tum.in.www1.artemis.repository.StudentExamRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
+import de.tum.in.www1.artemis.service.dto.StudentRegistrationReportDTO;
 import de.tum.in.www1.artemis.service.messaging.InstanceMessageSendService;
 import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.dto.ExamScoresDTO;
@@ -48,6 +50,11 @@ public class ExamService {
 
     private final Logger log = LoggerFactory.getLogger(ExamService.class);
 
+    /**
+     * The number of student exams that are saved together with their exercises in one transaction
+     */
+    private static final int STUDENT_EXAMS_PER_CHUNK = 500;
+
     private CourseService courseService;
 
     private final UserService userService;
@@ -58,6 +65,8 @@ public class ExamService {
 
     private final StudentExamRepository studentExamRepository;
 
+    private final StudentExamBatchRepository studentExamBatchRepository;
+
     private final ParticipationService participationService;
 
     private final ProgrammingExerciseService programmingExerciseService;
@@ -70,9 +79,10 @@ public class ExamService {
 
     public ExamService(ExamRepository examRepository, StudentExamRepository studentExamRepository, UserService userService, ParticipationService participationService,
             ProgrammingExerciseService programmingExerciseService, ExamQuizService examQuizService, ExerciseService exerciseService,
-            InstanceMessageSendService instanceMessageSendService, QuizExerciseService quizExerciseService) {
+            InstanceMessageSendService instanceMessageSendService, QuizExerciseService quizExerciseService, StudentExamBatchRepository studentExamBatchRepository) {
         this.examRepository = examRepository;
         this.studentExamRepository = studentExamRepository;
+        this.studentExamBatchRepository = studentExamBatchRepository;
         this.userService = userService;
         this.participationService = participationService;
         this.programmingExerciseService = programmingExerciseService;
@@ -377,26 +387,24 @@ public class ExamService {
      * @return the list of student exams with their corresponding users
      */
     public List<StudentExam> generateStudentExams(Long examId) {
-        // Delete all existing student exams via orphan removal (ignore test runs)
-        Exam examWithExistingStudentExams = findWithStudentExamsById(examId);
+        Exam exam = examRepository.findWithRegisteredUsersAndExerciseGroupsAndExercisesById(examId)
+                .orElseThrow(() -> new EntityNotFoundException("Exam with id " + examId + " does not exist"));
 
         // TODO: the validation checks should happen in the resource, before this method is even being called!
-        if (examWithExistingStudentExams.getNumberOfExercisesInExam() == null) {
+        if (exam.getNumberOfExercisesInExam() == null) {
             throw new BadRequestAlertException("The number of exercises must be set for the exam", "Exam", "artemisApp.exam.validation.numberOfExercisesMustBeSet");
         }
 
-        // https://jira.spring.io/browse/DATAJPA-1367 deleteInBatch does not work, because it does not cascade the deletion of existing exam sessions, therefore use deleteAll
-        studentExamRepository.deleteAll(examWithExistingStudentExams.getStudentExams());
-
-        // now fetch the exam with additional information
-        Exam exam = examRepository.findWithRegisteredUsersAndExerciseGroupsAndExercisesById(examId).get();
-
         List<ExerciseGroup> exerciseGroups = exam.getExerciseGroups();
         long numberOfOptionalExercises = exam.getNumberOfExercisesInExam() - exerciseGroups.stream().filter(ExerciseGroup::getIsMandatory).count();
 
         // Validate settings of the exam
         validateStudentExamGeneration(exam, numberOfOptionalExercises);
 
+        // Delete all existing student exams (ignore test runs) including their exam sessions with set-based statements instead of one by one
+        int numberOfDeletedStudentExams = studentExamBatchRepository.deleteAllByExamId(examId);
+        log.debug("Deleted {} existing student exams of exam {}", numberOfDeletedStudentExams, examId);
+
         // StudentExams are saved in the called method
         List<StudentExam> studentExams = createRandomStudentExams(exam, exam.getRegisteredUsers(), numberOfOptionalExercises);
         return studentExams;
@@ -479,6 +487,9 @@ public class ExamService {
 
     /**
      * Generates random exams for each user in the given users set and saves them.
+     * The exercises are drawn in parallel with a random number generator per user, which is derived from a seed for the whole generation and the id of the user. The
+     * seed is logged, so that the drawn exercises can be reproduced. The student exams are saved in chunks, each chunk together with the exercises of its student exams,
+     * so that the missing student exams can be generated again if the generation is interrupted.
      *
      * @param exam exam for which the individual student exams will be generated
      * @param users users for which the individual exams will be generated
@@ -486,8 +497,8 @@ public class ExamService {
      * @return List of StudentExams generated for the given users
      */
     private List<StudentExam> createRandomStudentExams(Exam exam, Set<User> users, long numberOfOptionalExercises) {
-        List<StudentExam> studentExams = new ArrayList<>();
-        SecureRandom random = new SecureRandom();
+        final long seed = new SecureRandom().nextLong();
+        log.info("Generating {} student exams for exam {} with the seed {}", users.size(), exam.getId(), seed);
 
         // Determine the default working time by computing the duration between start and end date of the exam
         Integer defaultWorkingTime = Math.toIntExact(Duration.between(exam.getStartDate(), exam.getEndDate()).toSeconds());
@@ -504,7 +515,15 @@ public class ExamService {
             }
         }
 
-        for (User user : users) {
+        // Order the exercises of each exercise group by id, so that the same seed always selects the same exercises
+        List<List<Exercise>> exercisesOfExerciseGroups = exam.getExerciseGroups().stream()
+                .map(exerciseGroup -> exerciseGroup.getExercises().stream().sorted(Comparator.comparing(Exercise::getId)).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+
+        List<StudentExam> studentExams = users.parallelStream().map(user -> {
+            // The seed of the user is mixed by SplittableRandom, the seeds of users with consecutive ids would lead to similar random numbers otherwise
+            Random random = new Random(new SplittableRandom(seed + user.getId()).nextLong());
+
             // Create one student exam per user
             StudentExam studentExam = new StudentExam();
             studentExam.setWorkingTime(defaultWorkingTime);
@@ -514,20 +533,23 @@ public class ExamService {
             studentExam.setTestRun(false);
 
             // Add a random exercise for each exercise group if the index of the exercise group is in assembledIndices
-            List<Integer> assembledIndices = assembleIndicesListWithRandomSelection(indicesOfMandatoryExerciseGroups, indicesOfOptionalExerciseGroups, numberOfOptionalExercises);
+            List<Integer> assembledIndices = assembleIndicesListWithRandomSelection(indicesOfMandatoryExerciseGroups, indicesOfOptionalExerciseGroups, numberOfOptionalExercises,
+                    random);
             for (Integer index : assembledIndices) {
                 // We get one random exercise from all preselected exercise groups
-                studentExam.addExercise(selectRandomExercise(random, exam.getExerciseGroups().get(index)));
+                studentExam.addExercise(selectRandomExercise(random, exercisesOfExerciseGroups.get(index)));
             }
 
             // Apply random exercise order
             if (Boolean.TRUE.equals(exam.getRandomizeExerciseOrder())) {
-                Collections.shuffle(studentExam.getExercises());
+                Collections.shuffle(studentExam.getExercises(), random);
             }
+            return studentExam;
+        }).collect(Collectors.toList());
 
-            studentExams.add(studentExam);
+        for (int chunkStart = 0; chunkStart < studentExams.size(); chunkStart += STUDENT_EXAMS_PER_CHUNK) {
+            studentExamBatchRepository.insertAll(studentExams.subList(chunkStart, Math.min(chunkStart + STUDENT_EXAMS_PER_CHUNK, studentExams.size())));
         }
-        studentExams = studentExamRepository.saveAll(studentExams);
         return studentExams;
     }
 
@@ -536,8 +558,8 @@ public class ExamService {
      * The passed list of UserDTOs must include the registration number (the other entries are currently ignored and can be left out)
      * Note: registration based on other user attributes (e.g. email, name, login) is currently NOT supported
      *
-     * This method first tries to find the student in the internal Artemis user database (because the user is most probably already using Artemis).
-     * In case the user cannot be found, we additionally search the (TUM) LDAP in case it is configured properly.
+     * This method first tries to find the students in the internal Artemis user database (because the users are most probably already using Artemis).
+     * In case some users cannot be found, we additionally search the (TUM) LDAP in case it is configured properly.
      *
      * @param courseId      the id of the course
      * @param examId        the id of the exam
@@ -545,44 +567,80 @@ public class ExamService {
      * @return the list of students who could not be registered for the exam, because they could NOT be found in the Artemis database and could NOT be found in the TUM LDAP
      */
     public List<StudentDTO> registerStudentsForExam(Long courseId, Long examId, List<StudentDTO> studentDtos) {
+        return registerStudentsForExamInBulk(courseId, examId, studentDtos).stream()
+                .filter(report -> report.getStatus() == StudentRegistrationReportDTO.RegistrationStatus.NOT_FOUND).map(StudentRegistrationReportDTO::getStudent)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Add multiple users to the students of the exam so that they can access the exam and report the outcome for each passed student.
+     * The passed list of UserDTOs must include the registration number (the other entries are currently ignored and can be left out)
+     *
+     * All registration numbers are resolved with one query against the Artemis user database. The remaining registration numbers are searched in batches in the (TUM) LDAP
+     * and the found users are created in Artemis. Finally, all students who are not yet part of the course are added to the student group of the course at once.
+     *
+     * @param courseId      the id of the course
+     * @param examId        the id of the exam
+     * @param studentDtos   the list of students (with at least registration number) who should get access to the exam
+     * @return one report per passed student (in the same order) describing whether the student could be registered
+     */
+    public List<StudentRegistrationReportDTO> registerStudentsForExamInBulk(Long courseId, Long examId, List<StudentDTO> studentDtos) {
         var course = courseService.findOne(courseId);
         var exam = findOneWithRegisteredUsers(examId);
-        List<StudentDTO> notFoundStudentsDtos = new ArrayList<>();
+        final var studentGroupName = course.getStudentGroupName();
+        final Set<String> registrationNumbers = studentDtos.stream().map(StudentDTO::getRegistrationNumber).filter(Objects::nonNull).collect(Collectors.toSet());
+
+        // 1) we use the registration numbers and try to find the students in the Artemis user database with one query
+        final Map<String, User> studentsByRegistrationNumber = new HashMap<>();
+        userService.findAllWithGroupsAndAuthoritiesByRegistrationNumbers(registrationNumbers)
+                .forEach(student -> studentsByRegistrationNumber.put(student.getRegistrationNumber(), student));
+
+        // 2) for all students we cannot find, we search the (TUM) LDAP in batches, create them in the Artemis DB and in a potential external user management system
+        final Set<String> unknownRegistrationNumbers = registrationNumbers.stream().filter(number -> !studentsByRegistrationNumber.containsKey(number))
+                .collect(Collectors.toSet());
+        final Set<String> createdRegistrationNumbers = new HashSet<>();
+        try {
+            userService.createUsersFromLdap(unknownRegistrationNumbers).forEach(student -> {
+                studentsByRegistrationNumber.put(student.getRegistrationNumber(), student);
+                createdRegistrationNumbers.add(student.getRegistrationNumber());
+            });
+        }
+        catch (Exception ex) {
+            log.warn("Error while searching " + unknownRegistrationNumbers.size() + " registration numbers in the (TUM) LDAP: " + ex.getMessage(), ex);
+        }
+
+        final List<StudentRegistrationReportDTO> reports = new ArrayList<>();
+        final Set<User> studentsWithoutCourseAccess = new HashSet<>();
         for (var studentDto : studentDtos) {
             var registrationNumber = studentDto.getRegistrationNumber();
-            try {
-                // 1) we use the registration number and try to find the student in the Artemis user database
-                Optional<User> optionalStudent = userService.findUserWithGroupsAndAuthoritiesByRegistrationNumber(registrationNumber);
-                if (optionalStudent.isPresent()) {
-                    var student = optionalStudent.get();
-                    // we only need to add the student to the course group, if the student is not yet part of it, otherwise the student cannot access the exam (within the course)
-                    if (!student.getGroups().contains(course.getStudentGroupName())) {
-                        userService.addUserToGroup(student, course.getStudentGroupName());
-                    }
-                    exam.addRegisteredUser(student);
-                    continue;
-                }
-                // 2) if we cannot find the student, we use the registration number and try to find the student in the (TUM) LDAP, create it in the Artemis DB and in a potential
-                // external user management system
-                optionalStudent = userService.createUserFromLdap(registrationNumber);
-                if (optionalStudent.isPresent()) {
-                    var student = optionalStudent.get();
-                    // the newly created student needs to get the rights to access the course, otherwise the student cannot access the exam (within the course)
-                    userService.addUserToGroup(student, course.getStudentGroupName());
-                    exam.addRegisteredUser(student);
-                    continue;
-                }
+            var student = registrationNumber != null ? studentsByRegistrationNumber.get(registrationNumber) : null;
+            if (student == null) {
                 // 3) if we cannot find the user in the (TUM) LDAP, we report this to the client
                 log.warn("User with registration number " + registrationNumber + " not found in Artemis user database and not found in (TUM) LDAP");
+                reports.add(new StudentRegistrationReportDTO(studentDto, null, StudentRegistrationReportDTO.RegistrationStatus.NOT_FOUND));
+                continue;
             }
-            catch (Exception ex) {
-                log.warn("Error while processing user with registration number " + registrationNumber + ": " + ex.getMessage(), ex);
+            StudentRegistrationReportDTO.RegistrationStatus status;
+            if (createdRegistrationNumbers.contains(registrationNumber)) {
+                status = StudentRegistrationReportDTO.RegistrationStatus.CREATED_AND_REGISTERED;
             }
-
-            notFoundStudentsDtos.add(studentDto);
+            else if (exam.getRegisteredUsers().contains(student)) {
+                status = StudentRegistrationReportDTO.RegistrationStatus.ALREADY_REGISTERED;
+            }
+            else {
+                status = StudentRegistrationReportDTO.RegistrationStatus.REGISTERED;
+            }
+            // the student needs to be part of the course group, otherwise the student cannot access the exam (within the course)
+            if (!student.getGroups().contains(studentGroupName)) {
+                studentsWithoutCourseAccess.add(student);
+            }
+            exam.addRegisteredUser(student);
+            reports.add(new StudentRegistrationReportDTO(studentDto, student.getLogin(), status));
         }
+
+        userService.addUsersToGroup(studentsWithoutCourseAccess, studentGroupName);
         examRepository.save(exam);
-        return notFoundStudentsDtos;
+        return reports;
     }
 
     /**
@@ -597,18 +655,6 @@ public class ExamService {
         exams.forEach(exam -> exam.setNumberOfRegisteredUsers(registeredUsersCountMap.get(exam.getId()).longValue()));
     }
 
-    /**
-     * Finds an exam based on the id with all student exams which are not marked as test runs.
-     * @param examId the id of the exam
-     * @return the exam with student exams loaded
-     */
-    private Exam findWithStudentExamsById(long examId) {
-        Exam exam = examRepository.findWithStudentExamsById(examId).orElseThrow(() -> new EntityNotFoundException("Exam with id " + examId + " does not exist"));
-        // drop all test runs and set the remaining student exams to the exam
-        exam.setStudentExams(exam.getStudentExams().stream().dropWhile(StudentExam::getTestRun).collect(Collectors.toSet()));
-        return exam;
-    }
-
     /**
      * Converts List<[examId, registeredUsersCount]> into Map<examId -> registeredUsersCount>
      *
@@ -621,14 +667,16 @@ public class ExamService {
         ));
     }
 
-    private List<Integer> assembleIndicesListWithRandomSelection(List<Integer> mandatoryIndices, List<Integer> optionalIndices, Long numberOfOptionalExercises) {
+    private List<Integer> assembleIndicesListWithRandomSelection(List<Integer> mandatoryIndices, List<Integer> optionalIndices, Long numberOfOptionalExercises,
+            Random random) {
         // Add all mandatory indices
         List<Integer> indices = new ArrayList<>(mandatoryIndices);
 
-        // Add as many optional indices as numberOfOptionalExercises
+        // Add as many optional indices as numberOfOptionalExercises, the optional indices are shared between the users and therefore copied before shuffling
         if (numberOfOptionalExercises > 0) {
-            Collections.shuffle(optionalIndices);
-            indices = Stream.concat(indices.stream(), optionalIndices.stream().limit(numberOfOptionalExercises)).collect(Collectors.toList());
+            List<Integer> shuffledOptionalIndices = new ArrayList<>(optionalIndices);
+            Collections.shuffle(shuffledOptionalIndices, random);
+            indices = Stream.concat(indices.stream(), shuffledOptionalIndices.stream().limit(numberOfOptionalExercises)).collect(Collectors.toList());
         }
 
         // Sort the indices to preserve the original order
@@ -636,8 +684,7 @@ public class ExamService {
         return indices;
     }
 
-    private Exercise selectRandomExercise(SecureRandom random, ExerciseGroup exerciseGroup) {
-        List<Exercise> exercises = new ArrayList<>(exerciseGroup.getExercises());
+    private Exercise selectRandomExercise(Random random, List<Exercise> exercises) {
         int randomIndex = random.nextInt(exercises.size());
         return exercises.get(randomIndex);
     }
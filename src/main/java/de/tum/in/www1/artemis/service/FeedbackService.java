@@ -5,6 +5,7 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -49,16 +50,19 @@ public class FeedbackService {
     }
 
     /**
-     * Find all existing Feedback Elements referencing a text block part of a TextCluster.
+     * Find all existing Feedback Elements referencing a text block part of one of the TextClusters. The clusters must belong to the same exercise.
      *
-     * @param cluster TextCluster requesting existing Feedbacks for.
+     * @param clusters TextClusters requesting existing Feedbacks for.
      * @return Map<TextBlockId, Feedback>
      */
-    public Map<String, Feedback> getFeedbackForTextExerciseInCluster(TextCluster cluster) {
-        final List<String> references = cluster.getBlocks().stream().map(TextBlock::getId).collect(toList());
-        final TextExercise exercise = cluster.getExercise();
-        return feedbackRepository.findByReferenceInAndResult_Submission_Participation_Exercise(references, exercise).parallelStream()
-                .collect(toMap(Feedback::getReference, feedback -> feedback));
+    public Map<String, Feedback> getFeedbackForTextExerciseInClusters(Collection<TextCluster> clusters) {
+        if (clusters.isEmpty()) {
+            return Map.of();
+        }
+        final List<String> references = clusters.stream().flatMap(cluster -> cluster.getBlocks().stream()).map(TextBlock::getId).collect(toList());
+        final TextExercise exercise = clusters.iterator().next().getExercise();
+        return feedbackRepository.findByReferenceInAndResult_Submission_Participation_Exercise(references, exercise).stream()
+                .collect(toMap(Feedback::getReference, feedback -> feedback, (feedback, otherFeedback) -> feedback));
     }
 
     /**
@@ -6,11 +6,15 @@ import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.ZonedDateTime;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
@@ -25,7 +29,9 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
@@ -45,6 +51,19 @@ public class FileService implements DisposableBean {
 
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
 
+    @Value("${artemis.file-cache.max-file-size-in-kb:512}")
+    private long maxCachedFileSizeInKb;
+
+    @Value("${artemis.file-cache.max-size-in-mb:64}")
+    private long maxCacheSizeInMb;
+
+    /**
+     * path -> cached file, in the order of the last access. The cache is local to each instance, so that files are not replicated across the cluster
+     */
+    private final Map<Path, CachedFileResource> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedFilesSize = 0;
+
     @Override
     public void destroy() {
         futures.values().forEach(future -> future.cancel(true));
@@ -52,21 +71,82 @@ public class FileService implements DisposableBean {
     }
 
     /**
-     * Get the file for the given path as a byte[]
+     * Get the file for the given path as a resource which can be streamed to the client. Small files are served from an in-memory cache, which evicts the least recently used
+     * files once the total size of the cached files exceeds its limit. Larger files are never cached, but streamed from the file system on each request.
      *
      * @param path the path for the file to load
-     * @return file contents as a byte[], or null, if the file doesn't exist
+     * @return the file as resource with its size and last modification date, or null, if the file doesn't exist
      * @throws IOException if the file can't be accessed.
      */
-    @Cacheable(value = "files", unless = "#result == null")
-    public byte[] getFileForPath(String path) throws IOException {
-        File file = new File(path);
-        if (file.exists()) {
-            return Files.readAllBytes(file.toPath());
+    public Resource getResourceForPath(String path) throws IOException {
+        final Path filePath = Path.of(path);
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException ex) {
+            return null;
         }
-        else {
+        if (!attributes.isRegularFile()) {
             return null;
         }
+        if (attributes.size() > maxCachedFileSizeInKb * 1024) {
+            return new FileSystemResource(filePath);
+        }
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        synchronized (cachedFiles) {
+            CachedFileResource cachedFile = cachedFiles.get(filePath);
+            // the file might have been replaced since it was cached
+            if (cachedFile != null && cachedFile.lastModified() == lastModified && cachedFile.contentLength() == attributes.size()) {
+                return cachedFile;
+            }
+        }
+        final CachedFileResource file = new CachedFileResource(Files.readAllBytes(filePath), lastModified);
+        synchronized (cachedFiles) {
+            CachedFileResource previousFile = cachedFiles.put(filePath, file);
+            if (previousFile != null) {
+                cachedFilesSize -= previousFile.contentLength();
+            }
+            cachedFilesSize += file.contentLength();
+            Iterator<CachedFileResource> leastRecentlyUsedFiles = cachedFiles.values().iterator();
+            while (cachedFilesSize > maxCacheSizeInMb * 1024 * 1024 && leastRecentlyUsedFiles.hasNext()) {
+                cachedFilesSize -= leastRecentlyUsedFiles.next().contentLength();
+                leastRecentlyUsedFiles.remove();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Removes the file with the given path from the in-memory cache, e.g. because it was replaced or deleted
+     *
+     * @param path the path of the file
+     */
+    public void evictCachedFile(String path) {
+        synchronized (cachedFiles) {
+            CachedFileResource cachedFile = cachedFiles.remove(Path.of(path));
+            if (cachedFile != null) {
+                cachedFilesSize -= cachedFile.contentLength();
+            }
+        }
+    }
+
+    /**
+     * The content of a small file kept in memory together with its last modification date, which is used for the Last-Modified and ETag headers
+     */
+    private static class CachedFileResource extends ByteArrayResource {
+
+        private final long lastModified;
+
+        private CachedFileResource(byte[] content, long lastModified) {
+            super(content);
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
     }
 
     /**
@@ -1,10 +1,11 @@
 package de.tum.in.www1.artemis.service;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Exercise;
@@ -15,12 +16,19 @@ import de.tum.in.www1.artemis.repository.ExerciseRepository;
 @Service
 public class FileUploadSubmissionExportService extends SubmissionExportService {
 
-    public FileUploadSubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService) {
-        super(exerciseRepository, zipFileService, fileService);
+    /**
+     * File endings of uploaded files which are already compressed, they are stored in the zip file without compressing them again
+     */
+    private static final Set<String> COMPRESSED_FILE_ENDINGS = Set.of(".pdf", ".png", ".jpg", ".jpeg", ".gif", ".zip", ".gz", ".7z", ".rar", ".docx", ".xlsx", ".pptx",
+            ".odt", ".ods", ".odp", ".mp3", ".mp4");
+
+    public FileUploadSubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService,
+            @Qualifier("exportExecutor") AsyncTaskExecutor exportExecutor) {
+        super(exerciseRepository, zipFileService, fileService, exportExecutor);
     }
 
     @Override
-    protected void saveSubmissionToFile(Exercise exercise, Submission submission, File file) throws IOException {
+    protected SubmissionContent getSubmissionContent(Exercise exercise, Submission submission) throws IOException {
 
         if (((FileUploadSubmission) submission).getFilePath() == null) {
             throw new IOException("Could not find uploaded file for submission.");
@@ -36,13 +44,14 @@ public class FileUploadSubmissionExportService extends SubmissionExportService {
             throw new IOException("Could not find uploaded file for submission.");
         }
 
-        Files.copy(submissionPath, file.toPath());
+        String fileEnding = getFileEndingForSubmission(submission).toLowerCase();
+        return SubmissionContent.ofFile(submissionPath, COMPRESSED_FILE_ENDINGS.contains(fileEnding));
     }
 
     @Override
     protected String getFileEndingForSubmission(Submission submission) {
         if (((FileUploadSubmission) submission).getFilePath() == null) {
-            return ""; // submission will be ignored by saveSubmissionToFile
+            return ""; // submission will be ignored by getSubmissionContent
         }
         else {
             String[] parts = ((FileUploadSubmission) submission).getFilePath().split("/");
@@ -0,0 +1,262 @@
+package de.tum.in.www1.artemis.service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.exception.ArtemisAuthenticationException;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.security.ArtemisAuthenticationProvider;
+import de.tum.in.www1.artemis.service.connectors.VcsUserManagementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Synchronizes changed group memberships of users with the external user management (e.g. JIRA, which also provides the groups of Bitbucket and Bamboo) and the version
+ * control system (e.g. GitLab).
+ * <p>
+ * By default, the synchronization is deferred until the transaction that changed the groups in the Artemis database has been committed and runs on a bounded pool of worker
+ * threads. Changes for a user that has not been synchronized yet are coalesced, e.g. adding and removing a group again only results in the removal. Synchronizations that
+ * failed because the external system was not reachable are retried with an exponential backoff.
+ */
+@Service
+public class GroupMembershipSynchronizationService {
+
+    private final Logger log = LoggerFactory.getLogger(GroupMembershipSynchronizationService.class);
+
+    /**
+     * Changes for the same user that arrive within this delay are synchronized together
+     */
+    private static final long COALESCING_DELAY_IN_MILLIS = 500;
+
+    private final UserRepository userRepository;
+
+    private final boolean deferred;
+
+    private final int maxAttempts;
+
+    private final ScheduledExecutorService syncExecutor;
+
+    @Value("${artemis.user-management.group-sync.initial-retry-delay-in-millis:5000}")
+    private long initialRetryDelayInMillis;
+
+    /**
+     * The changes that have not been synchronized yet by user login
+     */
+    private final Map<String, GroupMembershipChanges> pendingChanges = new ConcurrentHashMap<>();
+
+    private Optional<VcsUserManagementService> optionalVcsUserManagementService;
+
+    private ArtemisAuthenticationProvider artemisAuthenticationProvider;
+
+    public GroupMembershipSynchronizationService(UserRepository userRepository, MeterRegistry meterRegistry,
+            @Value("${artemis.user-management.group-sync.deferred:true}") boolean deferred, @Value("${artemis.user-management.group-sync.threads:4}") int threads,
+            @Value("${artemis.user-management.group-sync.max-attempts:5}") int maxAttempts) {
+        this.userRepository = userRepository;
+        this.deferred = deferred;
+        this.maxAttempts = maxAttempts;
+        // the number of threads limits the concurrent requests to the external systems, e.g. when all students of a large course are added at once
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, new CustomizableThreadFactory("group-sync-"));
+        executor.setRemoveOnCancelPolicy(true);
+        this.syncExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "group-sync");
+    }
+
+    @Autowired
+    // break the dependency cycle
+    public void setOptionalVcsUserManagementService(Optional<VcsUserManagementService> optionalVcsUserManagementService) {
+        this.optionalVcsUserManagementService = optionalVcsUserManagementService;
+    }
+
+    @Autowired
+    // break the dependency cycle
+    public void setArtemisAuthenticationProvider(ArtemisAuthenticationProvider artemisAuthenticationProvider) {
+        this.artemisAuthenticationProvider = artemisAuthenticationProvider;
+    }
+
+    @PreDestroy
+    public void shutdownSyncExecutor() {
+        if (!pendingChanges.isEmpty()) {
+            log.warn("Group memberships of {} users have not been synchronized before the shutdown: {}", pendingChanges.size(), pendingChanges.keySet());
+        }
+        syncExecutor.shutdownNow();
+    }
+
+    /**
+     * Synchronizes the given group changes of the users, which have already been applied to the users in the Artemis database
+     *
+     * @param users         the users whose groups have changed
+     * @param removedGroups the groups the users were removed from
+     * @param addedGroups   the groups the users were added to
+     */
+    public void synchronizeGroupChanges(Collection<User> users, Set<String> removedGroups, Set<String> addedGroups) {
+        if (users.isEmpty() || (removedGroups.isEmpty() && addedGroups.isEmpty())) {
+            return;
+        }
+        var changes = new GroupMembershipChanges(removedGroups, addedGroups, 0);
+        if (!deferred) {
+            // errors are thrown to the caller, like they would have been when the external systems were called directly
+            users.forEach(user -> synchronize(user, changes, false));
+            return;
+        }
+        List<String> logins = users.stream().map(User::getLogin).collect(Collectors.toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the changes must not be synchronized before they are visible in the database, and not at all if the transaction is rolled back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    logins.forEach(login -> enqueue(login, changes));
+                }
+            });
+        }
+        else {
+            logins.forEach(login -> enqueue(login, changes));
+        }
+    }
+
+    /**
+     * Returns the number of users whose group changes have not been synchronized yet
+     *
+     * @return the number of pending users
+     */
+    public int getNumberOfPendingUsers() {
+        return pendingChanges.size();
+    }
+
+    /**
+     * Adds the changes to the pending changes of the user and schedules the synchronization, unless the user already has pending changes which will be synchronized
+     */
+    private void enqueue(String login, GroupMembershipChanges changes) {
+        var merged = pendingChanges.merge(login, changes, GroupMembershipChanges::followedBy);
+        if (merged == changes) {
+            schedule(login, COALESCING_DELAY_IN_MILLIS);
+        }
+    }
+
+    private void schedule(String login, long delayInMillis) {
+        syncExecutor.schedule(() -> synchronizePendingChanges(login), delayInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Synchronizes the pending changes of the user. The changes stay pending until they are synchronized, so that at most one synchronization per user runs at a time and
+     * changes made in the meantime are merged into them and synchronized afterwards.
+     */
+    private void synchronizePendingChanges(String login) {
+        var changes = pendingChanges.get(login);
+        if (changes == null) {
+            return;
+        }
+        Optional<User> user = userRepository.findOneWithGroupsAndAuthoritiesByLogin(login);
+        if (user.isEmpty()) {
+            log.info("User {} has been deleted before the group changes {} could be synchronized", login, changes);
+        }
+        else {
+            try {
+                synchronize(user.get(), changes, true);
+            }
+            catch (RuntimeException ex) {
+                int attempt = changes.attempt + 1;
+                if (attempt < maxAttempts) {
+                    long delay = initialRetryDelayInMillis << (attempt - 1);
+                    log.warn("Could not synchronize the group changes {} of user {}, retrying in {} ms: {}", changes, login, delay, ex.getMessage());
+                    // changes made in the meantime have been merged into the queued entry, which keeps the number of failed attempts for the retry
+                    pendingChanges.computeIfPresent(login, (key, queuedChanges) -> queuedChanges.withAttempt(attempt));
+                    schedule(login, delay);
+                    return;
+                }
+                log.error("Could not synchronize the group changes {} of user {} after {} attempts", changes, login, attempt, ex);
+            }
+        }
+        // changes made in the meantime have been merged into the queued entry and have to be synchronized again, with new attempts as they have not been tried yet
+        var remainingChanges = pendingChanges.computeIfPresent(login, (key, queuedChanges) -> queuedChanges == changes ? null : queuedChanges.withAttempt(0));
+        if (remainingChanges != null) {
+            schedule(login, COALESCING_DELAY_IN_MILLIS);
+        }
+    }
+
+    /**
+     * Applies the changes in the external user management and the version control system. Errors which are reported by the external user management when adding a group (e.g.
+     * because the group does not exist there) are only logged, all other exceptions (e.g. because the server is not reachable) are thrown so that the changes can be retried.
+     *
+     * @param ignoreRemovalErrors whether errors reported by the external user management when removing a group are only logged instead of thrown
+     */
+    private void synchronize(User user, GroupMembershipChanges changes, boolean ignoreRemovalErrors) {
+        for (String group : changes.addedGroups) {
+            try {
+                artemisAuthenticationProvider.addUserToGroup(user, group);  // e.g. JIRA
+            }
+            catch (ArtemisAuthenticationException | IllegalArgumentException e) {
+                // This might throw exceptions, for example if the group does not exist on the authentication service. We can safely ignore it
+                log.debug("Could not add user {} to group {}: {}", user.getLogin(), group, e.getMessage());
+            }
+        }
+        for (String group : changes.removedGroups) {
+            try {
+                artemisAuthenticationProvider.removeUserFromGroup(user, group);  // e.g. JIRA
+            }
+            catch (ArtemisAuthenticationException e) {
+                if (!ignoreRemovalErrors) {
+                    throw e;
+                }
+                log.warn("Could not remove user {} from group {}: {}", user.getLogin(), group, e.getMessage());
+            }
+        }
+        // e.g. Gitlab
+        optionalVcsUserManagementService.ifPresent(vcsUserManagementService -> vcsUserManagementService.updateUser(user, changes.removedGroups, changes.addedGroups, false));
+    }
+
+    /**
+     * The groups a user was added to and removed from since the last synchronization, a group is never contained in both sets
+     */
+    private static final class GroupMembershipChanges {
+
+        private final Set<String> removedGroups;
+
+        private final Set<String> addedGroups;
+
+        /**
+         * The number of failed attempts to synchronize the changes
+         */
+        private final int attempt;
+
+        private GroupMembershipChanges(Set<String> removedGroups, Set<String> addedGroups, int attempt) {
+            this.removedGroups = Set.copyOf(removedGroups);
+            this.addedGroups = Set.copyOf(addedGroups);
+            this.attempt = attempt;
+        }
+
+        private GroupMembershipChanges withAttempt(int attempt) {
+            return new GroupMembershipChanges(removedGroups, addedGroups, attempt);
+        }
+
+        /**
+         * Combines these changes with the given, more recent changes, for each group the most recent change wins
+         */
+        private GroupMembershipChanges followedBy(GroupMembershipChanges newerChanges) {
+            Set<String> removed = new HashSet<>(removedGroups);
+            Set<String> added = new HashSet<>(addedGroups);
+            removed.removeAll(newerChanges.addedGroups);
+            added.removeAll(newerChanges.removedGroups);
+            removed.addAll(newerChanges.removedGroups);
+            added.addAll(newerChanges.addedGroups);
+            return new GroupMembershipChanges(removed, added, Math.max(attempt, newerChanges.attempt));
+        }
+
+        @Override
+        public String toString() {
+            return "[removed=" + removedGroups + ", added=" + addedGroups + "]";
+        }
+    }
+}
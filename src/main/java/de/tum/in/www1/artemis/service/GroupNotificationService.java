@@ -8,6 +8,7 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Attachment;
+import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.StudentQuestion;
 import de.tum.in.www1.artemis.domain.StudentQuestionAnswer;
@@ -15,7 +16,9 @@ import de.tum.in.www1.artemis.domain.enumeration.GroupNotificationType;
 import de.tum.in.www1.artemis.domain.enumeration.NotificationType;
 import de.tum.in.www1.artemis.domain.notification.GroupNotification;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.repository.CourseRepository;
 import de.tum.in.www1.artemis.repository.GroupNotificationRepository;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 
 @Service
 public class GroupNotificationService {
@@ -26,10 +29,14 @@ public class GroupNotificationService {
 
     private final UserService userService;
 
-    public GroupNotificationService(GroupNotificationRepository groupNotificationRepository, SimpMessageSendingOperations messagingTemplate, UserService userService) {
+    private final CourseRepository courseRepository;
+
+    public GroupNotificationService(GroupNotificationRepository groupNotificationRepository, SimpMessageSendingOperations messagingTemplate, UserService userService,
+            CourseRepository courseRepository) {
         this.groupNotificationRepository = groupNotificationRepository;
         this.messagingTemplate = messagingTemplate;
         this.userService = userService;
+        this.courseRepository = courseRepository;
     }
 
     /**
@@ -62,7 +69,7 @@ public class GroupNotificationService {
      * @param quizExercise that has been started
      */
     public void notifyStudentGroupAboutQuizExerciseStart(QuizExercise quizExercise) {
-        groupNotificationRepository.save(createNotification(quizExercise, null, GroupNotificationType.STUDENT, NotificationType.QUIZ_EXERCISE_STARTED, null));
+        save(createNotification(quizExercise, null, GroupNotificationType.STUDENT, NotificationType.QUIZ_EXERCISE_STARTED, null));
     }
 
     /**
@@ -145,7 +152,32 @@ public class GroupNotificationService {
      * @param notification that should be saved and sent
      */
     private void saveAndSend(GroupNotification notification) {
-        groupNotificationRepository.save(notification);
+        save(notification);
         messagingTemplate.convertAndSend(notification.getTopic(), notification);
     }
+
+    /**
+     * Saves the given notification in database. The recipient group is determined from the stored course and not from the course of the notification, which might
+     * come from a request body.
+     *
+     * @param notification that should be saved
+     * @return the saved notification
+     */
+    public GroupNotification save(GroupNotification notification) {
+        notification.setRecipientGroup(getRecipientGroup(notification));
+        return groupNotificationRepository.save(notification);
+    }
+
+    private String getRecipientGroup(GroupNotification notification) {
+        if (notification.getCourse() == null || notification.getCourse().getId() == null || notification.getType() == null) {
+            return null;
+        }
+        final Long courseId = notification.getCourse().getId();
+        Course course = courseRepository.findById(courseId).orElseThrow(() -> new EntityNotFoundException("Course with id: \"" + courseId + "\" does not exist"));
+        return switch (notification.getType()) {
+            case INSTRUCTOR -> course.getInstructorGroupName();
+            case TA -> course.getTeachingAssistantGroupName();
+            case STUDENT -> course.getStudentGroupName();
+        };
+    }
 }
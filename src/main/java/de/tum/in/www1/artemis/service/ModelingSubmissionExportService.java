@@ -1,10 +1,7 @@
 package de.tum.in.www1.artemis.service;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Exercise;
@@ -15,22 +12,14 @@ import de.tum.in.www1.artemis.repository.ExerciseRepository;
 @Service
 public class ModelingSubmissionExportService extends SubmissionExportService {
 
-    public ModelingSubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService) {
-        super(exerciseRepository, zipFileService, fileService);
+    public ModelingSubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService,
+            @Qualifier("exportExecutor") AsyncTaskExecutor exportExecutor) {
+        super(exerciseRepository, zipFileService, fileService, exportExecutor);
     }
 
     @Override
-    protected void saveSubmissionToFile(Exercise exercise, Submission submission, File file) throws IOException {
-        if (((ModelingSubmission) submission).getModel() == null) {
-            if (!file.exists()) {
-                file.createNewFile(); // create empty file if submission is empty
-            }
-        }
-        else {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            writer.write(((ModelingSubmission) submission).getModel()); // TODO: save explanation text
-            writer.close();
-        }
+    protected SubmissionContent getSubmissionContent(Exercise exercise, Submission submission) {
+        return SubmissionContent.ofText(((ModelingSubmission) submission).getModel()); // empty file if submission is empty, TODO: save explanation text
     }
 
     @Override
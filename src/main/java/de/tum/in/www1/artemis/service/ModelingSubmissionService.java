@@ -44,8 +44,10 @@ public class ModelingSubmissionService extends SubmissionService {
 
     public ModelingSubmissionService(ModelingSubmissionRepository modelingSubmissionRepository, SubmissionRepository submissionRepository, ResultRepository resultRepository,
             CompassService compassService, UserService userService, SubmissionVersionService submissionVersionService, ParticipationService participationService,
-            StudentParticipationRepository studentParticipationRepository, AuthorizationCheckService authCheckService, CourseService courseService, ExamService examService) {
-        super(submissionRepository, userService, authCheckService, courseService, resultRepository, examService, studentParticipationRepository, participationService);
+            StudentParticipationRepository studentParticipationRepository, AuthorizationCheckService authCheckService, CourseService courseService, ExamService examService,
+            AssessmentQueueService assessmentQueueService) {
+        super(submissionRepository, userService, authCheckService, courseService, resultRepository, examService, studentParticipationRepository, participationService,
+                assessmentQueueService);
         this.modelingSubmissionRepository = modelingSubmissionRepository;
         this.resultRepository = resultRepository;
         this.compassService = compassService;
@@ -116,7 +118,7 @@ public class ModelingSubmissionService extends SubmissionService {
      */
     @Transactional
     public ModelingSubmission lockModelingSubmissionWithoutResult(ModelingExercise modelingExercise, boolean removeTestRunParticipations) {
-        ModelingSubmission modelingSubmission = getRandomModelingSubmissionEligibleForNewAssessment(modelingExercise, removeTestRunParticipations)
+        ModelingSubmission modelingSubmission = getModelingSubmissionEligibleForNewAssessment(modelingExercise, removeTestRunParticipations, true)
                 .orElseThrow(() -> new EntityNotFoundException("Modeling submission for exercise " + modelingExercise.getId() + " could not be found"));
         modelingSubmission = assignAutomaticResultToSubmission(modelingSubmission);
         lockSubmission(modelingSubmission, modelingExercise);
@@ -126,7 +128,7 @@ public class ModelingSubmissionService extends SubmissionService {
     /**
      * Given an exercise, find a modeling submission for that exercise which still doesn't have a manual result. If the diagram type is supported by Compass we get the next optimal
      * submission from Compass, i.e. the submission for which an assessment means the most knowledge gain for the automatic assessment mechanism. If it's not supported by Compass
-     * we just get a random submission without assessment. If there is no submission without manual result we return an empty optional. Note, that we cannot use a readonly
+     * we just get the next submission without assessment. If there is no submission without manual result we return an empty optional. Note, that we cannot use a readonly
      * transaction here as it is making problems when initially loading the calculation engine and assessing all submissions automatically: we would get an sql exception
      * "Connection is read-only" from hibernate when saving the result in CompassService#assessAutomatically.
      *
@@ -135,7 +137,14 @@ public class ModelingSubmissionService extends SubmissionService {
      * @return a modeling submission without any result
      */
     @Transactional
-    public Optional<ModelingSubmission> getRandomModelingSubmissionEligibleForNewAssessment(ModelingExercise modelingExercise, boolean examMode) {
+    public Optional<ModelingSubmission> getNextModelingSubmissionEligibleForNewAssessment(ModelingExercise modelingExercise, boolean examMode) {
+        return getModelingSubmissionEligibleForNewAssessment(modelingExercise, examMode, false);
+    }
+
+    /**
+     * @param claim true if a submission of the assessment queue should be claimed for the current user, because it is locked afterwards
+     */
+    private Optional<ModelingSubmission> getModelingSubmissionEligibleForNewAssessment(ModelingExercise modelingExercise, boolean examMode, boolean claim) {
         // if the diagram type is supported by Compass, ask Compass for optimal (i.e. most knowledge gain for automatic assessments) submissions to assess next
         if (compassService.isSupported(modelingExercise)) {
             List<Long> modelsWaitingForAssessment = compassService.getModelsWaitingForAssessment(modelingExercise.getId());
@@ -154,7 +163,8 @@ public class ModelingSubmissionService extends SubmissionService {
             }
         }
 
-        var submissionWithoutResult = super.getRandomSubmissionEligibleForNewAssessment(modelingExercise, examMode);
+        var submissionWithoutResult = claim ? super.claimSubmissionEligibleForNewAssessment(modelingExercise, examMode)
+                : super.getSubmissionEligibleForNewAssessment(modelingExercise, examMode);
         if (submissionWithoutResult.isPresent()) {
             ModelingSubmission modelingSubmission = (ModelingSubmission) submissionWithoutResult.get();
             return Optional.of(modelingSubmission);
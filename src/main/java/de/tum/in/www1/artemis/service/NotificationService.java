@@ -1,17 +1,25 @@
 package de.tum.in.www1.artemis.service;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.GroupNotificationType;
 import de.tum.in.www1.artemis.domain.notification.GroupNotification;
 import de.tum.in.www1.artemis.domain.notification.Notification;
 import de.tum.in.www1.artemis.repository.GroupNotificationRepository;
 import de.tum.in.www1.artemis.repository.NotificationRepository;
+import de.tum.in.www1.artemis.repository.SingleUserNotificationRepository;
 
 @Service
 public class NotificationService {
@@ -20,9 +28,13 @@ public class NotificationService {
 
     private final GroupNotificationRepository groupNotificationRepository;
 
-    public NotificationService(NotificationRepository notificationRepository, GroupNotificationRepository groupNotificationRepository) {
+    private final SingleUserNotificationRepository singleUserNotificationRepository;
+
+    public NotificationService(NotificationRepository notificationRepository, GroupNotificationRepository groupNotificationRepository,
+            SingleUserNotificationRepository singleUserNotificationRepository) {
         this.notificationRepository = notificationRepository;
         this.groupNotificationRepository = groupNotificationRepository;
+        this.singleUserNotificationRepository = singleUserNotificationRepository;
     }
 
     /**
@@ -35,6 +47,55 @@ public class NotificationService {
         return notificationRepository.findAllNotificationsForRecipientWithLogin(currentUser.getGroups(), currentUser.getLogin(), pageable);
     }
 
+    /**
+     * Get the notifications of the current user that are older than the given notification, newest first (keyset pagination). The group notifications and the single user
+     * notifications are each read with an index on the recipient and merged, so that loading a page does not depend on the total number of notifications.
+     *
+     * @param currentUser the current user with the groups they belong to
+     * @param beforeId    the id of the last notification of the previous page, or null for the first page
+     * @param size        the maximum number of notifications
+     * @return the notifications ordered by their id descending
+     */
+    public List<Notification> findNotificationFeed(User currentUser, Long beforeId, int size) {
+        final long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        final Pageable limit = PageRequest.of(0, size);
+        List<Notification> notifications = new ArrayList<>();
+        if (!currentUser.getGroups().isEmpty()) {
+            notifications.addAll(groupNotificationRepository.findAllByRecipientGroupInAndIdLessThan(currentUser.getGroups(), before, limit));
+        }
+        notifications.addAll(singleUserNotificationRepository.findAllByRecipientIdAndIdLessThan(currentUser.getId(), before, limit));
+        notifications.sort(Comparator.comparing(Notification::getId, Comparator.reverseOrder()));
+        return notifications.size() > size ? notifications.subList(0, size) : notifications;
+    }
+
+    /**
+     * Get the number of notifications the user received since they read their notifications the last time. The notifications are counted with the indexes on their
+     * recipient and date, so that creating a notification does not have to update all users who receive it.
+     *
+     * @param user the user with the groups they belong to
+     * @return the number of unread notifications
+     */
+    public long getNumberOfUnreadNotifications(User user) {
+        final ZonedDateTime since = user.getLastNotificationRead() != null ? user.getLastNotificationRead() : Instant.EPOCH.atZone(ZoneOffset.UTC);
+        long unreadNotifications = singleUserNotificationRepository.countByRecipientIdAndNotificationDateAfter(user.getId(), since);
+        // Hibernate does not support empty collections in "in" clauses
+        if (!user.getGroups().isEmpty()) {
+            unreadNotifications += groupNotificationRepository.countByRecipientGroupInAndNotificationDateAfter(user.getGroups(), since);
+        }
+        return unreadNotifications;
+    }
+
+    /**
+     * Updates the recipient groups of the group notifications of the course after its group names have been changed.
+     *
+     * @param course the course with the changed group names
+     */
+    public void updateRecipientGroups(Course course) {
+        groupNotificationRepository.updateRecipientGroup(course.getId(), GroupNotificationType.INSTRUCTOR, course.getInstructorGroupName());
+        groupNotificationRepository.updateRecipientGroup(course.getId(), GroupNotificationType.TA, course.getTeachingAssistantGroupName());
+        groupNotificationRepository.updateRecipientGroup(course.getId(), GroupNotificationType.STUDENT, course.getStudentGroupName());
+    }
+
     /**
      * Get all group notifications for a specific course.
      * @param course the course for which notifications should be retrieved
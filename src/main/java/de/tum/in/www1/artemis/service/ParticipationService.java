@@ -986,28 +986,6 @@ public class ParticipationService {
         return studentParticipationRepository.findByExerciseIdAndTeamIdWithEagerResultsAndSubmissions(exercise.getId(), team.getId());
     }
 
-    /**
-     * Get all participations of submissions that are submitted and do not already have a manual result or belong to test run submissions.
-     * No manual result means that no user has started an assessment for the corresponding submission yet.
-     *
-     * @param exerciseId the id of the exercise the participations should belong to
-     * @return a list of participations including their submitted submissions that do not have a manual result
-     */
-    public List<StudentParticipation> findByExerciseIdWithLatestSubmissionWithoutManualResultsAndNoTestRun(Long exerciseId) {
-        return studentParticipationRepository.findByExerciseIdWithLatestSubmissionWithoutManualResultsAndNoTestRunParticipation(exerciseId);
-    }
-
-    /**
-     * Get all participations of submissions that are submitted and do not already have a manual result. No manual result means that no user has started an assessment for the
-     * corresponding submission yet.
-     *
-     * @param exerciseId the id of the exercise the participations should belong to
-     * @return a list of participations including their submitted submissions that do not have a manual result
-     */
-    public List<StudentParticipation> findByExerciseIdWithLatestSubmissionWithoutManualResults(Long exerciseId) {
-        return studentParticipationRepository.findByExerciseIdWithLatestSubmissionWithoutManualResults(exerciseId);
-    }
-
     /**
      * Get all participations belonging to exam with submissions and their relevant results.
      *
@@ -1039,11 +1017,12 @@ public class ParticipationService {
     private List<StudentParticipation> filterParticipationsWithRelevantResults(List<StudentParticipation> participations, boolean resultInSubmission) {
         // if exam exercise
         if (!participations.isEmpty() && participations.get(0).getExercise().getExerciseGroup() != null) {
-            List<User> instructors = userService.getInstructors(participations.get(0).getExercise().getExerciseGroup().getExam().getCourse());
+            Set<Long> instructorIds = userService.getInstructors(participations.get(0).getExercise().getExerciseGroup().getExam().getCourse()).stream().map(User::getId)
+                    .collect(Collectors.toSet());
             // filter out the participations of test runs which can only be made by instructors
             participations = participations.stream().filter(studentParticipation -> {
                 if (studentParticipation.getStudent().isPresent()) {
-                    return !instructors.contains(studentParticipation.getStudent().get());
+                    return !instructorIds.contains(studentParticipation.getStudent().get().getId());
                 }
                 return true;
             }).collect(Collectors.toList());
@@ -1057,8 +1036,6 @@ public class ParticipationService {
 
                 // filter all irrelevant results, i.e. rated = false or no completion date or no score
                 .peek(participation -> {
-                    List<Result> relevantResults = new ArrayList<Result>();
-
                     // Get the results over the participation or over submissions
                     Set<Result> resultsOfParticipation;
                     if (resultInSubmission) {
@@ -1067,28 +1044,27 @@ public class ParticipationService {
                     else {
                         resultsOfParticipation = participation.getResults();
                     }
-                    // search for the relevant result by filtering out irrelevant results using the continue keyword
-                    // this for loop is optimized for performance and thus not very easy to understand ;)
+                    // search for the latest relevant result in one pass by filtering out irrelevant results using the continue keyword
+                    Result latestRelevantResult = null;
                     for (Result result : resultsOfParticipation) {
                         // this should not happen because the database call above only retrieves rated results
-                        if (Boolean.FALSE.equals(result.isRated())) {
+                        if (result == null || Boolean.FALSE.equals(result.isRated())) {
                             continue;
                         }
                         if (result.getCompletionDate() == null || result.getScore() == null) {
                             // we are only interested in results with completion date and with score
                             continue;
                         }
-                        relevantResults.add(result);
+                        if (latestRelevantResult == null || result.getCompletionDate().isAfter(latestRelevantResult.getCompletionDate())) {
+                            latestRelevantResult = result;
+                        }
                     }
                     // we take the last rated result
-                    if (!relevantResults.isEmpty()) {
-                        // make sure to take the latest result
-                        relevantResults.sort((r1, r2) -> r2.getCompletionDate().compareTo(r1.getCompletionDate()));
-                        Result correctResult = relevantResults.get(0);
-                        relevantResults.clear();
-                        relevantResults.add(correctResult);
+                    Set<Result> relevantResults = new HashSet<>();
+                    if (latestRelevantResult != null) {
+                        relevantResults.add(latestRelevantResult);
                     }
-                    participation.setResults(new HashSet<>(relevantResults));
+                    participation.setResults(relevantResults);
                 }).collect(Collectors.toList());
     }
 
@@ -2,14 +2,20 @@ package de.tum.in.www1.artemis.service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipOutputStream;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -28,9 +34,12 @@ import jplag.Program;
 import jplag.options.CommandLineOptions;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 import org.w3c.dom.Document;
@@ -66,19 +75,25 @@ public class ProgrammingExerciseExportService {
 
     private final UrlService urlService;
 
+    private final AsyncTaskExecutor exportExecutor;
+
     public ProgrammingExerciseExportService(ProgrammingExerciseRepository programmingExerciseRepository, FileService fileService, GitService gitService,
-            ZipFileService zipFileService, UrlService urlService) {
+            ZipFileService zipFileService, UrlService urlService, @Qualifier("exportExecutor") AsyncTaskExecutor exportExecutor) {
         this.programmingExerciseRepository = programmingExerciseRepository;
         this.fileService = fileService;
         this.gitService = gitService;
         this.zipFileService = zipFileService;
         this.urlService = urlService;
+        this.exportExecutor = exportExecutor;
     }
 
     // The downloaded repos should be cloned into another path in order to not interfere with the repo used by the student
     @Value("${artemis.repo-download-clone-path}")
     private String REPO_DOWNLOAD_CLONE_PATH;
 
+    @Value("${artemis.repo-export-reader-threads:4}")
+    private int exportReaderThreads;
+
     /**
      * Get participations of programming exercises of a requested list of students packed together in one zip file.
      *
@@ -139,6 +154,137 @@ public class ProgrammingExerciseExportService {
         return null;
     }
 
+    /**
+     * Writes the repositories of the given participations as one zip file to the given output stream. In contrast to {@link #exportStudentRepositories}, the repositories are
+     * neither reset nor zipped individually: the files of the exported commit are read directly from the git objects and written into the zip stream while it is sent.
+     * A bounded number of readers of the shared export executor clone the next repositories in parallel, while the calling thread writes them in the order of the
+     * participations, so that only a few repositories are stored on disk at the same time. The zip file only contains the files of the exported commit without the git
+     * history, therefore the options to combine the student commits, to add the participant name and to normalize the code style are not supported.
+     *
+     * @param programmingExercise the programming exercise
+     * @param participations participations that should be exported
+     * @param repositoryExportOptions the options that should be used for the export
+     * @param outputStream the stream to which the zip file is written, it is finished but not closed
+     * @return the number of exported repositories
+     * @throws IOException if the zip file could not be written to the output stream
+     */
+    public int streamStudentRepositories(ProgrammingExercise programmingExercise, @NotNull List<ProgrammingExerciseStudentParticipation> participations,
+            RepositoryExportOptionsDTO repositoryExportOptions, OutputStream outputStream) throws IOException {
+        log.info("Request to stream the repositories of {} participations of programming exercise {} with title '{}'", participations.size(), programmingExercise.getId(),
+                programmingExercise.getTitle());
+        // the readers run outside of the persistence context of the request, therefore the template repository is resolved before they are started
+        final var exerciseWithTemplateParticipation = programmingExerciseRepository.findWithTemplateParticipationAndSolutionParticipationById(programmingExercise.getId()).get();
+        final URL templateRepoUrl = getTemplateRepositoryUrl(exerciseWithTemplateParticipation);
+        final Deque<Future<StreamedRepository>> readRepositories = new ArrayDeque<>();
+        final Iterator<ProgrammingExerciseStudentParticipation> remainingParticipations = participations.iterator();
+        int numberOfExportedRepositories = 0;
+        try {
+            final ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+            while (remainingParticipations.hasNext() || !readRepositories.isEmpty()) {
+                // keep the readers busy, but do not read more repositories ahead than there are readers
+                while (remainingParticipations.hasNext() && readRepositories.size() < exportReaderThreads) {
+                    final var participation = remainingParticipations.next();
+                    readRepositories.add(exportExecutor.submit(() -> readRepositoryForStreaming(programmingExercise, templateRepoUrl, participation, repositoryExportOptions)));
+                }
+                final StreamedRepository streamedRepository = awaitStreamedRepository(readRepositories.poll());
+                if (streamedRepository == null) {
+                    continue;
+                }
+                try {
+                    gitService.writeCommitToZip(streamedRepository.repository, streamedRepository.commitId, streamedRepository.folderName, zipOutputStream);
+                    zipOutputStream.flush();
+                    numberOfExportedRepositories++;
+                }
+                finally {
+                    deleteTempLocalRepository(streamedRepository.participation, streamedRepository.repository);
+                }
+            }
+            zipOutputStream.finish();
+        }
+        finally {
+            // the export was aborted if there are still read repositories, e.g. because the client closed the connection
+            readRepositories.forEach(readRepository -> readRepository.cancel(false));
+            for (Future<StreamedRepository> readRepository : readRepositories) {
+                final StreamedRepository streamedRepository = awaitStreamedRepository(readRepository);
+                if (streamedRepository != null) {
+                    deleteTempLocalRepository(streamedRepository.participation, streamedRepository.repository);
+                }
+            }
+        }
+        return numberOfExportedRepositories;
+    }
+
+    /**
+     * Checks out the repository of the given participation and resolves the commit which should be exported
+     *
+     * @return the repository with the commit to export or null if the repository could not be read, the participation is then skipped
+     */
+    private StreamedRepository readRepositoryForStreaming(ProgrammingExercise programmingExercise, @Nullable URL templateRepoUrl,
+            ProgrammingExerciseStudentParticipation participation, RepositoryExportOptionsDTO repositoryExportOptions) {
+        if (participation.getRepositoryUrlAsUrl() == null) {
+            log.warn("Ignore participation " + participation.getId() + " for export, because its repository URL is null");
+            return null;
+        }
+        Repository repository = null;
+        try {
+            repository = gitService.getOrCheckoutRepositoryWithSharedObjects(participation, templateRepoUrl, REPO_DOWNLOAD_CLONE_PATH);
+            ZonedDateTime submissionDate = repositoryExportOptions.isFilterLateSubmissions() ? repositoryExportOptions.getFilterLateSubmissionsDate() : null;
+            Optional<Submission> lastValidSubmission = submissionDate == null ? Optional.empty() : findLastValidSubmission(submissionDate, participation);
+            Optional<ObjectId> commitId = gitService.resolveCommitForExport(repository, lastValidSubmission, submissionDate);
+            if (commitId.isEmpty()) {
+                log.warn("Ignore participation " + participation.getId() + " for export, because its repository does not contain a commit to export");
+                deleteTempLocalRepository(participation, repository);
+                return null;
+            }
+            String folderName = gitService.getExportName(participation, repositoryExportOptions.isHideStudentNameInZippedFolder());
+            return new StreamedRepository(participation, repository, commitId.get(), folderName);
+        }
+        catch (IOException | GitException | GitAPIException | InterruptedException ex) {
+            log.error("export student repository " + participation.getRepositoryUrlAsUrl() + " in exercise '" + programmingExercise.getTitle() + "' did not work as expected: "
+                    + ex.getMessage());
+            deleteTempLocalRepository(participation, repository);
+            return null;
+        }
+    }
+
+    private StreamedRepository awaitStreamedRepository(Future<StreamedRepository> readRepository) throws InterruptedIOException {
+        try {
+            return readRepository.get();
+        }
+        catch (CancellationException ex) {
+            return null;
+        }
+        catch (ExecutionException ex) {
+            log.error("Reading a repository for the export did not work as expected: " + ex.getCause().getMessage());
+            return null;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The export was interrupted");
+        }
+    }
+
+    /**
+     * A checked out repository together with the commit and the folder under which it is written into the zip file
+     */
+    private static class StreamedRepository {
+
+        private final ProgrammingExerciseStudentParticipation participation;
+
+        private final Repository repository;
+
+        private final ObjectId commitId;
+
+        private final String folderName;
+
+        private StreamedRepository(ProgrammingExerciseStudentParticipation participation, Repository repository, ObjectId commitId, String folderName) {
+            this.participation = participation;
+            this.repository = repository;
+            this.commitId = commitId;
+            this.folderName = folderName;
+        }
+    }
+
     /**
      * Delete all temporary zipped repositories created during export
      *
@@ -249,7 +395,7 @@ public class ProgrammingExerciseExportService {
                     log.warn("Ignore participation " + participation.getId() + " for export, because its repository URL is null");
                     return;
                 }
-                Repository repo = gitService.getOrCheckoutRepository(programmingExerciseParticipation, REPO_DOWNLOAD_CLONE_PATH);
+                Repository repo = getOrCheckoutStudentRepository(programmingExercise, programmingExerciseParticipation);
                 gitService.resetToOriginMaster(repo); // start with clean state
 
                 repo.close();
@@ -273,6 +419,27 @@ public class ProgrammingExerciseExportService {
         }
     }
 
+    /**
+     * Checks out the repository of the given student participation into the download clone path. The objects of the template repository are shared between all student
+     * repositories of the exercise, so that only the objects created by the student are transferred and stored for each participation.
+     *
+     * @param programmingExercise the programming exercise with its template participation
+     * @param participation the student participation whose repository should be checked out
+     * @return the checked out repository
+     * @throws GitAPIException if the repository could not be checked out
+     * @throws InterruptedException if the repository could not be checked out
+     */
+    private Repository getOrCheckoutStudentRepository(ProgrammingExercise programmingExercise, ProgrammingExerciseParticipation participation)
+            throws GitAPIException, InterruptedException {
+        return gitService.getOrCheckoutRepositoryWithSharedObjects(participation, getTemplateRepositoryUrl(programmingExercise), REPO_DOWNLOAD_CLONE_PATH);
+    }
+
+    @Nullable
+    private URL getTemplateRepositoryUrl(ProgrammingExercise programmingExercise) {
+        final var templateParticipation = programmingExercise.getTemplateParticipation();
+        return templateParticipation != null ? templateParticipation.getRepositoryUrlAsUrl() : null;
+    }
+
     /**
      * Checks out the repository fo the given participation, zips it and adds the path to the given list of already
      * zipped repos.
@@ -288,7 +455,7 @@ public class ProgrammingExerciseExportService {
      */
     private Repository zipRepositoryForParticipation(final ProgrammingExercise programmingExercise, final ProgrammingExerciseStudentParticipation participation,
             final RepositoryExportOptionsDTO repositoryExportOptions, List<Path> pathsToZippedRepos) throws GitAPIException, InterruptedException, IOException {
-        final var repository = gitService.getOrCheckoutRepository(participation, REPO_DOWNLOAD_CLONE_PATH);
+        final var repository = getOrCheckoutStudentRepository(programmingExercise, participation);
         gitService.resetToOriginMaster(repository); // start with clean state
 
         if (repositoryExportOptions.isFilterLateSubmissions() && repositoryExportOptions.getFilterLateSubmissionsDate() != null) {
@@ -376,12 +543,16 @@ public class ProgrammingExerciseExportService {
      */
     private void filterLateSubmissions(ZonedDateTime submissionDate, ProgrammingExerciseStudentParticipation participation, Repository repo) {
         log.debug("Filter late submissions for participation {}", participation.toString());
-        Optional<Submission> lastValidSubmission = participation.getSubmissions().stream()
-                .filter(s -> s.getSubmissionDate() != null && s.getSubmissionDate().isBefore(submissionDate)).max(Comparator.comparing(Submission::getSubmissionDate));
+        Optional<Submission> lastValidSubmission = findLastValidSubmission(submissionDate, participation);
 
         gitService.filterLateSubmissions(repo, lastValidSubmission, submissionDate);
     }
 
+    private Optional<Submission> findLastValidSubmission(ZonedDateTime submissionDate, ProgrammingExerciseStudentParticipation participation) {
+        return participation.getSubmissions().stream().filter(s -> s.getSubmissionDate() != null && s.getSubmissionDate().isBefore(submissionDate))
+                .max(Comparator.comparing(Submission::getSubmissionDate));
+    }
+
     /**
      * Adds the participant identifier (student login or team short name) of the given student participation to the project name in all .project (Eclipse)
      * and pom.xml (Maven) files found in the given repository.
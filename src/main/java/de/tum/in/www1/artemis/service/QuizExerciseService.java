@@ -1,5 +1,6 @@
 package de.tum.in.www1.artemis.service;
 
+import java.io.UncheckedIOException;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,15 +16,18 @@ import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
+import de.tum.in.www1.artemis.service.scheduled.quiz.QuizStudentView;
 
 @Service
 public class QuizExerciseService {
@@ -315,6 +319,8 @@ public class QuizExerciseService {
         // change existing results if an answer or and question was deleted
         List<Result> results = resultRepository.findByParticipationExerciseIdOrderByCompletionDateAsc(quizExercise.getId());
         log.debug("Found " + results.size() + " results to update for quiz re-evaluate");
+        // compile the scoring plan only once for all submissions
+        QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
         List<QuizSubmission> submissions = new ArrayList<>();
         for (Result result : results) {
 
@@ -331,11 +337,11 @@ public class QuizExerciseService {
             quizSubmission.getSubmittedAnswers().removeAll(submittedAnswersToDelete);
 
             // recalculate existing score
-            quizSubmission.calculateAndUpdateScores(quizExercise);
+            quizSubmission.calculateAndUpdateScores(scoringPlan);
             // update Successful-Flag in Result
             StudentParticipation studentParticipation = (StudentParticipation) result.getParticipation();
             studentParticipation.setExercise(quizExercise);
-            result.evaluateSubmission();
+            result.evaluateSubmission(scoringPlan);
 
             submissions.add(quizSubmission);
         }
@@ -372,6 +378,31 @@ public class QuizExerciseService {
         }
     }
 
+    /**
+     * Loads the quiz exercise with its questions, filters it for students in its current state and serializes it without the time dependent properties, so that the JSON of an
+     * active quiz exercise can be cached until the quiz exercise changes or ends.
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     * @return the student view of the quiz exercise, or null if the quiz exercise does not exist
+     */
+    public QuizStudentView createStudentView(Long quizExerciseId) {
+        QuizExercise quizExercise = findOneWithQuestions(quizExerciseId);
+        if (quizExercise == null) {
+            return null;
+        }
+        quizExercise.applyAppropriateFilterForStudents();
+        // filter out information depending on quiz state
+        quizExercise.filterForStudentsDuringQuiz();
+        try {
+            ObjectNode json = objectMapper.valueToTree(quizExercise);
+            json.remove(QuizStudentView.TIME_DEPENDENT_PROPERTIES);
+            return new QuizStudentView(objectMapper.writeValueAsBytes(json));
+        }
+        catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Check if the current user has at least TA-level permissions for the given exercise
      *
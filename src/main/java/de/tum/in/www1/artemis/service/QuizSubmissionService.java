@@ -152,18 +152,11 @@ public class QuizSubmissionService {
         // TODO: add one additional check: fetch quizSubmission.getId() with the corresponding participation and check that the user of participation is the
         // same as the user who executes this call. This prevents injecting submissions to other users
 
-        // check if user already submitted for this quiz
-        Participation participation = participationService.participationForQuizWithResult(quizExercise, username);
-        log.debug(logText + "Received participation for user {} in quiz {} in {} µs.", username, exerciseId, (System.nanoTime() - start) / 1000);
-        if (!participation.getResults().isEmpty()) {
-            log.debug("Participation for user {} in quiz {} has results", username, exerciseId);
-            // NOTE: At this point, there can only be one Result because we already checked
-            // if the quiz is active, so there is no way the student could have already practiced
-            Result result = participation.getResults().iterator().next();
-            if (result.getSubmission().isSubmitted()) {
-                throw new QuizSubmissionException("You have already submitted the quiz");
-            }
+        // check if user already submitted for this quiz (only uses the index of submitted users, the participation and submission are not loaded)
+        if (quizScheduleService.hasUserSubmitted(exerciseId, username)) {
+            throw new QuizSubmissionException("You have already submitted the quiz");
         }
+        log.debug(logText + "Checked submitted users for user {} in quiz {} in {} µs.", username, exerciseId, (System.nanoTime() - start) / 1000);
 
         // recreate pointers back to submission in each submitted answer
         for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
@@ -173,6 +166,11 @@ public class QuizSubmissionService {
         // set submission date
         quizSubmission.setSubmissionDate(ZonedDateTime.now());
 
+        // mark the user as submitted before the submission is saved, so that only one of multiple concurrent submits of the same user succeeds
+        if (Boolean.TRUE.equals(quizSubmission.isSubmitted()) && !quizScheduleService.markUserAsSubmitted(exerciseId, username)) {
+            throw new QuizSubmissionException("You have already submitted the quiz");
+        }
+
         // save submission to HashMap
         quizScheduleService.updateSubmission(exerciseId, username, quizSubmission);
 
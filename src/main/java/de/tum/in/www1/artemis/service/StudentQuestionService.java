@@ -1,19 +1,49 @@
 package de.tum.in.www1.artemis.service;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import de.tum.in.www1.artemis.domain.StudentQuestion;
+import de.tum.in.www1.artemis.domain.StudentQuestionVote;
+import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.repository.StudentQuestionRepository;
+import de.tum.in.www1.artemis.repository.StudentQuestionVoteRepository;
+import de.tum.in.www1.artemis.service.dto.StudentQuestionVotesDTO;
 
 @Service
 public class StudentQuestionService {
 
+    private final Logger log = LoggerFactory.getLogger(StudentQuestionService.class);
+
     StudentQuestionRepository studentQuestionRepository;
 
-    public StudentQuestionService(StudentQuestionRepository studentQuestionRepository) {
+    private final StudentQuestionVoteRepository studentQuestionVoteRepository;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    /**
+     * The ids of the questions whose votes have changed since the votes were sent to the clients the last time
+     */
+    private final Set<Long> questionIdsWithChangedVotes = ConcurrentHashMap.newKeySet();
+
+    public StudentQuestionService(StudentQuestionRepository studentQuestionRepository, StudentQuestionVoteRepository studentQuestionVoteRepository,
+            SimpMessageSendingOperations messagingTemplate) {
         this.studentQuestionRepository = studentQuestionRepository;
+        this.studentQuestionVoteRepository = studentQuestionVoteRepository;
+        this.messagingTemplate = messagingTemplate;
     }
 
     public List<StudentQuestion> findStudentQuestionsForExercise(Long exerciseId) {
@@ -27,4 +57,92 @@ public class StudentQuestionService {
     public List<StudentQuestion> findStudentQuestionsForCourse(Long courseId) {
         return studentQuestionRepository.findStudentQuestionsForCourse(courseId);
     }
+
+    /**
+     * Changes the vote of the user for the question by the given value. A user has at most one positive or negative vote per question, i.e. the resulting vote is limited
+     * to -1 and 1. The votes of the question are changed by a single update in the database, so that concurrent votes of different users neither get lost nor have to wait
+     * for each other longer than the update.
+     *
+     * @param studentQuestion the question to vote for
+     * @param user            the user who votes
+     * @param voteChange      the value by which the vote of the user changes, between -2 and 2
+     * @return the votes of the question after the change
+     */
+    @Transactional // ok because the vote of the user and the votes of the question have to be changed together
+    public Integer updateVotes(StudentQuestion studentQuestion, User user, int voteChange) {
+        Optional<StudentQuestionVote> existingVote = studentQuestionVoteRepository.findByStudentQuestionIdAndUserId(studentQuestion.getId(), user.getId());
+        int oldValue = existingVote.map(StudentQuestionVote::getValue).orElse(0);
+        int newValue = Math.max(-1, Math.min(1, oldValue + voteChange));
+        if (newValue != oldValue && changeVote(studentQuestion, user, existingVote, newValue)) {
+            studentQuestionRepository.addVotes(studentQuestion.getId(), newValue - oldValue);
+            onVotesChanged(studentQuestion.getId());
+        }
+        return studentQuestionRepository.findVotesById(studentQuestion.getId());
+    }
+
+    /**
+     * Changes the stored vote of the user
+     *
+     * @return false if the vote has been changed by another request of the user in the meantime
+     */
+    private boolean changeVote(StudentQuestion studentQuestion, User user, Optional<StudentQuestionVote> existingVote, int newValue) {
+        if (existingVote.isEmpty()) {
+            // the unique constraint rejects a vote that has been stored by another request of the user in the meantime
+            studentQuestionVoteRepository.saveAndFlush(new StudentQuestionVote(studentQuestion, user, newValue > 0));
+            return true;
+        }
+        if (newValue == 0) {
+            return studentQuestionVoteRepository.deleteVote(existingVote.get().getId(), existingVote.get().isPositive()) > 0;
+        }
+        return studentQuestionVoteRepository.updateVote(existingVote.get().getId(), existingVote.get().isPositive(), newValue > 0) > 0;
+    }
+
+    /**
+     * Remembers the question, so that its votes are sent to the clients with the next batch after the current transaction has been committed
+     */
+    private void onVotesChanged(Long questionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    questionIdsWithChangedVotes.add(questionId);
+                }
+            });
+        }
+        else {
+            questionIdsWithChangedVotes.add(questionId);
+        }
+    }
+
+    /**
+     * Sends the votes of all questions whose votes have changed since the last execution to the subscribers of the courses, one message per course. During a lecture with
+     * many votes, the clients receive at most one update per second instead of reloading the questions after each vote.
+     */
+    @Scheduled(fixedDelay = 1000) // execute this every second
+    public void sendChangedVotes() {
+        if (questionIdsWithChangedVotes.isEmpty()) {
+            return;
+        }
+        Set<Long> questionIds = new HashSet<>(questionIdsWithChangedVotes);
+        questionIdsWithChangedVotes.removeAll(questionIds);
+        try {
+            var votesByCourse = studentQuestionRepository.findVotesByIdIn(questionIds).stream().filter(votes -> votes.getCourseId() != null)
+                    .collect(Collectors.groupingBy(StudentQuestionVotesDTO::getCourseId));
+            votesByCourse.forEach((courseId, votes) -> messagingTemplate.convertAndSend(getVotesTopic(courseId), votes));
+        }
+        catch (RuntimeException ex) {
+            // the votes are sent with the next batch
+            log.warn("Could not send the changed votes of {} student questions: {}", questionIds.size(), ex.getMessage());
+            questionIdsWithChangedVotes.addAll(questionIds);
+        }
+    }
+
+    /**
+     * @param courseId the id of the course
+     * @return the topic to which the changed votes of the student questions of the course are sent
+     */
+    public static String getVotesTopic(Long courseId) {
+        return "/topic/courses/" + courseId + "/student-question-votes";
+    }
 }
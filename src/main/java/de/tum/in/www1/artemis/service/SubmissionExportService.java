@@ -2,6 +2,9 @@ package de.tum.in.www1.artemis.service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -9,13 +12,20 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Course;
@@ -23,7 +33,9 @@ import de.tum.in.www1.artemis.domain.Exercise;
 import de.tum.in.www1.artemis.domain.Submission;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.service.util.TimeLogUtil;
 import de.tum.in.www1.artemis.web.rest.dto.SubmissionExportOptionsDTO;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 
 @Service
 public abstract class SubmissionExportService {
@@ -36,23 +48,64 @@ public abstract class SubmissionExportService {
 
     private final FileService fileService;
 
-    public SubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService) {
+    private final AsyncTaskExecutor exportExecutor;
+
+    public SubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService, AsyncTaskExecutor exportExecutor) {
         this.exerciseRepository = exerciseRepository;
         this.zipFileService = zipFileService;
         this.fileService = fileService;
+        this.exportExecutor = exportExecutor;
     }
 
     @Value("${artemis.submission-export-path}")
     private String SUBMISSION_EXPORT_PATH;
 
+    @Value("${artemis.submission-export-renderer-threads:4}")
+    private int exportRendererThreads;
+
     /**
      * Exports student submissions to a zip file for an exercise
      * @param exerciseId the id of the exercise to be exported
      * @param submissionExportOptions the options for the expot
-     * @return a reference to the zipped file
+     * @return a reference to the zipped file, empty if no submission could be exported
      * @throws IOException if an error occurred while zipping
      */
     public Optional<File> exportStudentSubmissions(Long exerciseId, SubmissionExportOptionsDTO submissionExportOptions) throws IOException {
+        Optional<SubmissionExport> submissionExport = prepareSubmissionExport(exerciseId, submissionExportOptions);
+        if (submissionExport.isEmpty()) {
+            return Optional.empty();
+        }
+
+        File zippedSubmissionsFolder = Paths.get(SUBMISSION_EXPORT_PATH, "zippedSubmissions").toFile();
+        if (!zippedSubmissionsFolder.exists() && !zippedSubmissionsFolder.mkdirs()) {
+            log.error("Couldn't create dir: " + zippedSubmissionsFolder);
+            return Optional.empty();
+        }
+
+        Path zipFilePath = Paths.get(SUBMISSION_EXPORT_PATH, "zippedSubmissions", submissionExport.get().getZipFileName());
+        int numberOfExportedSubmissions;
+        try (OutputStream outputStream = Files.newOutputStream(zipFilePath)) {
+            numberOfExportedSubmissions = streamStudentSubmissions(submissionExport.get(), outputStream);
+        }
+        if (numberOfExportedSubmissions == 0) {
+            // none of the selected submissions could be rendered, e.g. because their files do not exist anymore
+            Files.deleteIfExists(zipFilePath);
+            return Optional.empty();
+        }
+
+        fileService.scheduleForDeletion(zipFilePath, 5);
+
+        return Optional.of(zipFilePath.toFile());
+    }
+
+    /**
+     * Selects the latest submission of every exported participation of an exercise. The submissions are not rendered yet, this is done while they are streamed.
+     *
+     * @param exerciseId the id of the exercise to be exported
+     * @param submissionExportOptions the options for the export
+     * @return the submissions to export, empty if the exercise does not exist or no submission should be exported
+     */
+    public Optional<SubmissionExport> prepareSubmissionExport(Long exerciseId, SubmissionExportOptionsDTO submissionExportOptions) {
 
         Optional<Exercise> exerciseOpt = exerciseRepository.findWithEagerStudentParticipationsStudentAndSubmissionsById(exerciseId);
 
@@ -89,107 +142,268 @@ public abstract class SubmissionExportService {
             }
         }
 
-        return this.createZipFileFromParticipations(exercise, exportedStudentParticipations, filterLateSubmissionsDate);
-
-    }
+        // the file names are computed here, as the participants and the exercise must not be loaded from the threads that render the submissions
+        Map<String, Submission> submissionsByFileName = new LinkedHashMap<>();
+        for (StudentParticipation participation : exportedStudentParticipations) {
+            Submission latestSubmission = findLatestSubmission(participation, filterLateSubmissionsDate);
+            if (latestSubmission != null) {
+                String submissionFileName = exercise.getTitle() + "-" + participation.getParticipantIdentifier() + "-" + latestSubmission.getId()
+                        + this.getFileEndingForSubmission(latestSubmission);
+                submissionsByFileName.put(submissionFileName, latestSubmission);
+            }
+        }
 
-    /**
-     * Creates a zip file from a list of participations for an exercise
-     * @param exercise the exercise in question
-     * @param participations a list of participations to include
-     * @param lateSubmissionFilter an optional date filter for submissions
-     * @return the zipped file
-     * @throws IOException if an error occurred while zipping
-     */
-    private Optional<File> createZipFileFromParticipations(Exercise exercise, List<StudentParticipation> participations, @Nullable ZonedDateTime lateSubmissionFilter)
-            throws IOException {
+        if (submissionsByFileName.isEmpty()) {
+            return Optional.empty();
+        }
 
         Course course = exercise.getCourseViaExerciseGroupOrCourseMember();
-
         String zipGroupName = course.getTitle() + "-" + exercise.getTitle() + "-submissions";
         String zipFileName = zipGroupName + "-" + ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_INSTANT) + ".zip";
 
-        Path submissionsFolderPath = Paths.get(SUBMISSION_EXPORT_PATH, "zippedSubmissions", zipGroupName);
-        Path zipFilePath = Paths.get(SUBMISSION_EXPORT_PATH, "zippedSubmissions", zipFileName);
+        return Optional.of(new SubmissionExport(exercise, zipFileName, submissionsByFileName));
+    }
 
-        File submissionFolder = submissionsFolderPath.toFile();
-        if (!submissionFolder.exists() && !submissionFolder.mkdirs()) {
-            log.error("Couldn't create dir: " + submissionFolder);
-            return Optional.empty();
+    /**
+     * Writes the latest submissions of the requested participants of an exercise as one zip file to the response. The caller has to check that the user is allowed
+     * to export these submissions.
+     *
+     * @param exerciseId the id of the exercise to get the submissions from
+     * @param submissionExportOptions the options that should be used for the export
+     * @param response the response to which the zip file is written
+     * @param entityName the name of the exercise entity used in the error alert
+     * @throws IOException if the zip file could not be written to the response
+     */
+    public void streamStudentSubmissions(long exerciseId, SubmissionExportOptionsDTO submissionExportOptions, HttpServletResponse response, String entityName)
+            throws IOException {
+        final var submissionExport = prepareSubmissionExport(exerciseId, submissionExportOptions);
+        if (submissionExport.isEmpty()) {
+            throw new BadRequestAlertException("No existing user was specified or no submission exists.", entityName, "nosubmissions");
         }
 
-        // Save all Submissions
-        List<Path> submissionFilePaths = participations.stream().map((participation) -> {
+        long start = System.nanoTime();
+        String filename = submissionExport.get().getZipFileName();
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("filename", filename);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        int numberOfExportedSubmissions = streamStudentSubmissions(submissionExport.get(), response.getOutputStream());
 
-            Set<Submission> submissions = participation.getSubmissions();
-            Submission latestSubmission = null;
+        log.info("Streaming {} of {} submissions of exercise {} with title '{}' was successful in {}.", numberOfExportedSubmissions, submissionExport.get().size(), exerciseId,
+                submissionExport.get().exercise.getTitle(), TimeLogUtil.formatDurationFrom(start));
+    }
 
-            for (Submission submission : submissions) {
-                if (submission.getSubmissionDate() == null) {
-                    // ignore unsubmitted submissions
+    /**
+     * Writes the prepared submissions as one zip file to the given output stream, without storing them in a temporary folder. A bounded number of renderers prepare the
+     * next submissions in parallel, while the calling thread writes them in the order of the export, so that only a few rendered submissions are kept in memory at the same
+     * time. The renderers are threads of the export executor, which is shared by all exports. Submissions which could not be rendered are skipped.
+     *
+     * @param submissionExport the submissions to export
+     * @param outputStream the stream to which the zip file is written, it is finished but not closed
+     * @return the number of exported submissions
+     * @throws IOException if the zip file could not be written to the output stream
+     */
+    public int streamStudentSubmissions(SubmissionExport submissionExport, OutputStream outputStream) throws IOException {
+        log.info("Request to stream {} submissions of exercise {} with title '{}'", submissionExport.size(), submissionExport.exercise.getId(),
+                submissionExport.exercise.getTitle());
+        final Deque<Future<RenderedSubmission>> renderedSubmissions = new ArrayDeque<>();
+        final Iterator<Map.Entry<String, Submission>> remainingSubmissions = submissionExport.submissionsByFileName.entrySet().iterator();
+        int numberOfExportedSubmissions = 0;
+        try {
+            final ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+            while (remainingSubmissions.hasNext() || !renderedSubmissions.isEmpty()) {
+                // keep the renderers busy, but do not render more submissions ahead than there are renderers
+                while (remainingSubmissions.hasNext() && renderedSubmissions.size() < exportRendererThreads) {
+                    final var submission = remainingSubmissions.next();
+                    renderedSubmissions.add(exportExecutor.submit(() -> renderSubmission(submissionExport.exercise, submission.getValue(), submission.getKey())));
+                }
+                final RenderedSubmission renderedSubmission = awaitRenderedSubmission(renderedSubmissions.poll());
+                if (renderedSubmission == null) {
                     continue;
                 }
-                if (lateSubmissionFilter == null || submission.getSubmissionDate().isBefore(lateSubmissionFilter)) {
-                    if (latestSubmission == null || submission.getSubmissionDate().isAfter(latestSubmission.getSubmissionDate())) {
-                        latestSubmission = submission;
-                    }
+                zipOutputStream.putNextEntry(renderedSubmission.zipEntry);
+                if (renderedSubmission.content.getFile() != null) {
+                    Files.copy(renderedSubmission.content.getFile(), zipOutputStream);
                 }
+                else {
+                    zipOutputStream.write(renderedSubmission.content.getBytes());
+                }
+                zipOutputStream.closeEntry();
+                zipOutputStream.flush();
+                numberOfExportedSubmissions++;
             }
+            zipOutputStream.finish();
+        }
+        finally {
+            // the export was aborted if there are still rendered submissions, e.g. because the client closed the connection
+            renderedSubmissions.forEach(renderedSubmission -> renderedSubmission.cancel(false));
+        }
+        return numberOfExportedSubmissions;
+    }
 
-            if (latestSubmission == null) {
-                return Optional.<Path>empty();
-            }
-
-            String submissionFileName = exercise.getTitle() + "-" + participation.getParticipantIdentifier() + "-" + latestSubmission.getId()
-                    + this.getFileEndingForSubmission(latestSubmission);
-            Path submissionFilePath = Paths.get(submissionsFolderPath.toString(), submissionFileName);
+    /**
+     * Finds the latest submitted submission of the participation before the optional late submission filter
+     *
+     * @return the latest submission or null if there is none, the participation is then skipped
+     */
+    private Submission findLatestSubmission(StudentParticipation participation, @Nullable ZonedDateTime lateSubmissionFilter) {
+        Submission latestSubmission = null;
 
-            try {
-                this.saveSubmissionToFile(exercise, latestSubmission, submissionFilePath.toFile());
-                return Optional.of(submissionFilePath);
+        for (Submission submission : participation.getSubmissions()) {
+            if (submission.getSubmissionDate() == null) {
+                // ignore unsubmitted submissions
+                continue;
             }
-            catch (IOException ioException) {
-                log.error("Could not create file " + submissionFilePath.toString() + " for exporting: " + ioException.getMessage());
-                return Optional.<Path>empty();
+            if (lateSubmissionFilter == null || submission.getSubmissionDate().isBefore(lateSubmissionFilter)) {
+                if (latestSubmission == null || submission.getSubmissionDate().isAfter(latestSubmission.getSubmissionDate())) {
+                    latestSubmission = submission;
+                }
             }
+        }
+        return latestSubmission;
+    }
 
-        }).filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
-
-        if (submissionFilePaths.isEmpty()) {
-            return Optional.empty();
+    /**
+     * Renders the submission and creates its zip entry. Stored entries are created here, as their checksum has to be computed before they are written.
+     *
+     * @return the rendered submission or null if the submission could not be rendered, it is then skipped
+     */
+    private RenderedSubmission renderSubmission(Exercise exercise, Submission submission, String submissionFileName) {
+        try {
+            SubmissionContent content = getSubmissionContent(exercise, submission);
+            ZipEntry zipEntry;
+            if (!content.isStored()) {
+                zipEntry = new ZipEntry(submissionFileName);
+            }
+            else if (content.getFile() != null) {
+                zipEntry = zipFileService.createStoredZipEntry(submissionFileName, content.getFile());
+            }
+            else {
+                zipEntry = zipFileService.createStoredZipEntry(submissionFileName, content.getBytes());
+            }
+            return new RenderedSubmission(zipEntry, content);
+        }
+        catch (IOException ioException) {
+            log.error("Could not create file " + submissionFileName + " for exporting: " + ioException.getMessage());
+            return null;
         }
+    }
 
+    private RenderedSubmission awaitRenderedSubmission(Future<RenderedSubmission> renderedSubmission) throws InterruptedIOException {
         try {
-            zipFileService.createZipFile(zipFilePath, submissionFilePaths, submissionsFolderPath);
+            return renderedSubmission.get();
         }
-        finally {
-            deleteTempFiles(submissionFilePaths);
+        catch (CancellationException ex) {
+            return null;
         }
+        catch (ExecutionException ex) {
+            log.error("Rendering a submission for the export did not work as expected: " + ex.getCause().getMessage());
+            return null;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The export was interrupted");
+        }
+    }
 
-        fileService.scheduleForDeletion(zipFilePath, 5);
+    /**
+     * Returns the content of the submission in the export. This method is called in parallel for different submissions of the same export, so it must only access the
+     * given submission, which is already loaded, and must not load any lazy associations.
+     *
+     * @param exercise the exercise of the submission
+     * @param submission the submission that is exported
+     * @return the content of the submission
+     * @throws IOException if the content of the submission could not be read
+     */
+    protected abstract SubmissionContent getSubmissionContent(Exercise exercise, Submission submission) throws IOException;
 
-        return Optional.of(zipFilePath.toFile());
+    protected abstract String getFileEndingForSubmission(Submission submission);
+
+    /**
+     * The latest submissions of the exported participations by their file names in the zip file
+     */
+    public static class SubmissionExport {
+
+        private final Exercise exercise;
+
+        private final String zipFileName;
+
+        private final Map<String, Submission> submissionsByFileName;
+
+        private SubmissionExport(Exercise exercise, String zipFileName, Map<String, Submission> submissionsByFileName) {
+            this.exercise = exercise;
+            this.zipFileName = zipFileName;
+            this.submissionsByFileName = submissionsByFileName;
+        }
+
+        public String getZipFileName() {
+            return zipFileName;
+        }
+
+        public int size() {
+            return submissionsByFileName.size();
+        }
     }
 
-    protected abstract void saveSubmissionToFile(Exercise exercise, Submission submission, File file) throws IOException;
+    /**
+     * The content of an exported submission: either rendered in memory or a file which is copied into the zip file. Content which is already compressed can be stored
+     * without compressing it again.
+     */
+    protected static class SubmissionContent {
 
-    protected abstract String getFileEndingForSubmission(Submission submission);
+        private final byte[] bytes;
+
+        private final Path file;
+
+        private final boolean stored;
+
+        private SubmissionContent(byte[] bytes, Path file, boolean stored) {
+            this.bytes = bytes;
+            this.file = file;
+            this.stored = stored;
+        }
+
+        /**
+         * @param text the text of the submission, null for an empty submission
+         * @return the content of the submission, which is compressed in the zip file
+         */
+        protected static SubmissionContent ofText(@Nullable String text) {
+            return new SubmissionContent(text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8), null, false);
+        }
+
+        /**
+         * @param file the file of the submission
+         * @param stored true if the file is already compressed and should be stored without compression
+         * @return the content of the submission, which is read from the file when it is written into the zip file
+         */
+        protected static SubmissionContent ofFile(Path file, boolean stored) {
+            return new SubmissionContent(null, file, stored);
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public boolean isStored() {
+            return stored;
+        }
+    }
 
     /**
-     * Delete all temporary files created during export
-     *
-     * @param pathsToTempFiles A list of all paths to temporary files, that should be deleted
+     * The content of a submission together with its entry in the zip file
      */
-    private void deleteTempFiles(List<Path> pathsToTempFiles) {
-        log.debug("Delete all temporary files");
-        // delete the temporary zipped repo files
-        for (Path tempFile : pathsToTempFiles) {
-            try {
-                Files.delete(tempFile);
-            }
-            catch (Exception ex) {
-                log.warn("Could not delete file " + tempFile + ". Error message: " + ex.getMessage());
-            }
+    private static class RenderedSubmission {
+
+        private final ZipEntry zipEntry;
+
+        private final SubmissionContent content;
+
+        private RenderedSubmission(ZipEntry zipEntry, SubmissionContent content) {
+            this.zipEntry = zipEntry;
+            this.content = content;
         }
     }
 }
@@ -7,7 +7,6 @@ import static java.util.stream.Collectors.toList;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -48,8 +47,11 @@ public class SubmissionService {
 
     private final CourseService courseService;
 
+    private final AssessmentQueueService assessmentQueueService;
+
     public SubmissionService(SubmissionRepository submissionRepository, UserService userService, AuthorizationCheckService authCheckService, CourseService courseService,
-            ResultRepository resultRepository, ExamService examService, StudentParticipationRepository studentParticipationRepository, ParticipationService participationService) {
+            ResultRepository resultRepository, ExamService examService, StudentParticipationRepository studentParticipationRepository, ParticipationService participationService,
+            AssessmentQueueService assessmentQueueService) {
         this.submissionRepository = submissionRepository;
         this.userService = userService;
         this.courseService = courseService;
@@ -58,6 +60,7 @@ public class SubmissionService {
         this.examService = examService;
         this.studentParticipationRepository = studentParticipationRepository;
         this.participationService = participationService;
+        this.assessmentQueueService = assessmentQueueService;
     }
 
     /**
@@ -159,36 +162,31 @@ public class SubmissionService {
     }
 
     /**
-     * Given an exercise id, find a random submission for that exercise which still doesn't have any manual result.
+     * Given an exercise id, find a submission for that exercise which still doesn't have any manual result.
      * No manual result means that no user has started an assessment for the corresponding submission yet.
      * For exam exercises we should also remove the test run participations as these should not be graded by the tutors.
+     * Submissions claimed by other tutors in the assessment queue are skipped, but the returned submission is not claimed, as the current user only looks at it.
      *
-     * @param fileUploadExercise the exercise for which we want to retrieve a submission without manual result
+     * @param exercise the exercise for which we want to retrieve a submission without manual result
      * @param examMode flag to determine if test runs should be removed. This should be set to true for exam exercises
      * @return a submission without any manual result or an empty Optional if no submission without manual result could be found
      */
     @Transactional(readOnly = true)
-    public Optional<Submission> getRandomSubmissionEligibleForNewAssessment(Exercise fileUploadExercise, boolean examMode) {
-        Random random = new Random();
-        List<StudentParticipation> participations;
-        if (examMode) {
-            participations = participationService.findByExerciseIdWithLatestSubmissionWithoutManualResultsAndNoTestRun(fileUploadExercise.getId());
-        }
-        else {
-            participations = participationService.findByExerciseIdWithLatestSubmissionWithoutManualResults(fileUploadExercise.getId());
-        }
-
-        List<Submission> submissionsWithoutResult = participations.stream().map(StudentParticipation::findLatestSubmission).filter(Optional::isPresent).map(Optional::get)
-                .collect(Collectors.toList());
-
-        if (submissionsWithoutResult.isEmpty()) {
-            return Optional.empty();
-        }
-
-        submissionsWithoutResult = selectOnlySubmissionsBeforeDueDateOrAll(submissionsWithoutResult, fileUploadExercise.getDueDate());
+    public Optional<Submission> getSubmissionEligibleForNewAssessment(Exercise exercise, boolean examMode) {
+        return assessmentQueueService.findNextSubmissionId(exercise, examMode, userService.getUser()).flatMap(submissionRepository::findWithEagerResultById);
+    }
 
-        var submissionWithoutResult = submissionsWithoutResult.get(random.nextInt(submissionsWithoutResult.size()));
-        return Optional.of(submissionWithoutResult);
+    /**
+     * Same as {@link #getSubmissionEligibleForNewAssessment(Exercise, boolean)}, but the submission is claimed for the current user in the assessment queue, so that other
+     * tutors do not receive the same submission concurrently. This should only be used if the submission is locked afterwards.
+     *
+     * @param exercise the exercise for which we want to claim a submission without manual result
+     * @param examMode flag to determine if test runs should be removed. This should be set to true for exam exercises
+     * @return a claimed submission without any manual result or an empty Optional if no submission without manual result could be found
+     */
+    @Transactional(readOnly = true)
+    public Optional<Submission> claimSubmissionEligibleForNewAssessment(Exercise exercise, boolean examMode) {
+        return assessmentQueueService.claimNextSubmissionId(exercise, examMode, userService.getUser()).flatMap(submissionRepository::findWithEagerResultById);
     }
 
     /**
@@ -303,6 +301,8 @@ public class SubmissionService {
 
         result.setAssessmentType(AssessmentType.MANUAL);
         result = resultRepository.save(result);
+        // the submission now has a manual result and is no longer handed out by the assessment queue
+        assessmentQueueService.releaseClaim(submission.getId());
         log.debug("Assessment locked with result id: " + result.getId() + " for assessor: " + result.getAssessor().getName());
         return result;
     }
@@ -326,30 +326,6 @@ public class SubmissionService {
         });
     }
 
-    /**
-     * Filters the submissions to contain only in-time submissions if there are any.
-     * If not, the original list is returned.
-     * @param submissions The submissions to filter
-     * @param dueDate The due-date to filter by
-     * @param <T> Placeholder for subclass of {@link Submission} e.g. {@link TextSubmission}
-     * @return The filtered list of submissions
-     */
-    protected <T extends Submission> List<T> selectOnlySubmissionsBeforeDueDateOrAll(List<T> submissions, ZonedDateTime dueDate) {
-        if (dueDate == null) {
-            // this is an edge case, then basically all submissions are before due date
-            return submissions;
-        }
-
-        boolean hasInTimeSubmissions = submissions.stream().anyMatch(submission -> submission.getSubmissionDate() != null && submission.getSubmissionDate().isBefore(dueDate));
-        if (hasInTimeSubmissions) {
-            return submissions.stream().filter(submission -> submission.getSubmissionDate() != null && submission.getSubmissionDate().isBefore(dueDate))
-                    .collect(Collectors.toList());
-        }
-        else {
-            return submissions;
-        }
-    }
-
     /**
      * Checks if the exercise due date has passed. For exam exercises it checks if the latest possible exam end date has passed.
      * @param exercise course exercise or exam exercise that is checked
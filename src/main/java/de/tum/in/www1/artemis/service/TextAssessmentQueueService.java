@@ -99,8 +99,12 @@ public class TextAssessmentQueueService {
         }
         double[][] distanceMatrix = cluster.getDistanceMatrix();
         int blockID = cluster.getBlocks().indexOf(textBlock);
+        return calculateAddedDistance(distanceMatrix[blockID]);
+    }
+
+    private static double calculateAddedDistance(double[] distances) {
         // subtract 1 because the statement also included the distance to itself, but it should't be included
-        return Arrays.stream(distanceMatrix[blockID]).map(distance -> 1.0 - distance).sum() - 1;
+        return Arrays.stream(distances).map(distance -> 1.0 - distance).sum() - 1;
     }
 
     /**
@@ -116,6 +120,18 @@ public class TextAssessmentQueueService {
         });
     }
 
+    /**
+     * Calculates and sets all AddedDistances to the TextBlocks of a Cluster, without decoding the distance matrix of the Cluster for every TextBlock
+     *
+     * @param textBlockList list of the TextBlocks in the order of the distance matrix
+     * @param distanceMatrix distance matrix of the Cluster
+     */
+    public void setAddedDistances(List<TextBlock> textBlockList, double[][] distanceMatrix) {
+        for (int i = 0; i < textBlockList.size(); i++) {
+            textBlockList.get(i).setAddedDistance(calculateAddedDistance(distanceMatrix[i]));
+        }
+    }
+
     /**
      * Calculates the Percentages of Smaller Clusters for a list of textSubmissions
      * All TextSubmissions must have the same exercise
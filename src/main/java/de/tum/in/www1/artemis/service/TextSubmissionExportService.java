@@ -5,6 +5,8 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Exercise;
@@ -16,22 +18,14 @@ import de.tum.in.www1.artemis.repository.ExerciseRepository;
 @Service
 public class TextSubmissionExportService extends SubmissionExportService {
 
-    public TextSubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService) {
-        super(exerciseRepository, zipFileService, fileService);
+    public TextSubmissionExportService(ExerciseRepository exerciseRepository, ZipFileService zipFileService, FileService fileService,
+            @Qualifier("exportExecutor") AsyncTaskExecutor exportExecutor) {
+        super(exerciseRepository, zipFileService, fileService, exportExecutor);
     }
 
     @Override
-    protected void saveSubmissionToFile(Exercise exercise, Submission submission, File file) throws IOException {
-        if (((TextSubmission) submission).getText() == null) {
-            if (!file.exists()) {
-                file.createNewFile(); // create empty file if submission is empty
-            }
-        }
-        else {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-            writer.write(((TextSubmission) submission).getText());
-            writer.close();
-        }
+    protected SubmissionContent getSubmissionContent(Exercise exercise, Submission submission) {
+        return SubmissionContent.ofText(((TextSubmission) submission).getText()); // empty file if submission is empty
     }
 
     /**
@@ -37,8 +37,9 @@ public class TextSubmissionService extends SubmissionService {
     public TextSubmissionService(TextSubmissionRepository textSubmissionRepository, TextClusterRepository textClusterRepository, SubmissionRepository submissionRepository,
             StudentParticipationRepository studentParticipationRepository, ParticipationService participationService, ResultRepository resultRepository, UserService userService,
             Optional<TextAssessmentQueueService> textAssessmentQueueService, AuthorizationCheckService authCheckService, SubmissionVersionService submissionVersionService,
-            CourseService courseService, ExamService examService) {
-        super(submissionRepository, userService, authCheckService, courseService, resultRepository, examService, studentParticipationRepository, participationService);
+            CourseService courseService, ExamService examService, AssessmentQueueService assessmentQueueService) {
+        super(submissionRepository, userService, authCheckService, courseService, resultRepository, examService, studentParticipationRepository, participationService,
+                assessmentQueueService);
         this.textSubmissionRepository = textSubmissionRepository;
         this.textClusterRepository = textClusterRepository;
         this.resultRepository = resultRepository;
@@ -143,20 +144,20 @@ public class TextSubmissionService extends SubmissionService {
     }
 
     /**
-     * Given an exercise id, find a random text submission for that exercise which still doesn't have any manual result. No manual result means that no user has started an
-     * assessment for the corresponding submission yet.
+     * Given an exercise id, find the next text submission for that exercise which still doesn't have any manual result and is not claimed by another tutor. No manual
+     * result means that no user has started an assessment for the corresponding submission yet.
      *
      * @param textExercise the exercise for which we want to retrieve a submission without manual result
      * @param examMode flag to determine if test runs should be removed. This should be set to true for exam exercises
      * @return a textSubmission without any manual result or an empty Optional if no submission without manual result could be found
      */
-    public Optional<TextSubmission> getRandomTextSubmissionEligibleForNewAssessment(TextExercise textExercise, boolean examMode) {
-        return getRandomTextSubmissionEligibleForNewAssessment(textExercise, false, examMode);
+    public Optional<TextSubmission> getNextTextSubmissionEligibleForNewAssessment(TextExercise textExercise, boolean examMode) {
+        return getNextTextSubmissionEligibleForNewAssessment(textExercise, false, examMode);
     }
 
     /**
-     * Given an exercise id, find a random text submission for that exercise which still doesn't have any manual result. No manual result means that no user has started an
-     * assessment for the corresponding submission yet.
+     * Given an exercise id, find the next text submission for that exercise which still doesn't have any manual result and is not claimed by another tutor. No manual
+     * result means that no user has started an assessment for the corresponding submission yet.
      *
      * @param textExercise the exercise for which we want to retrieve a submission without manual result
      * @param skipAssessmentQueue skip using the assessment queue and do NOT optimize the assessment order (default: false)
@@ -164,11 +165,19 @@ public class TextSubmissionService extends SubmissionService {
      * @return a textSubmission without any manual result or an empty Optional if no submission without manual result could be found
      */
     @Transactional(readOnly = true)
-    public Optional<TextSubmission> getRandomTextSubmissionEligibleForNewAssessment(TextExercise textExercise, boolean skipAssessmentQueue, boolean examMode) {
+    public Optional<TextSubmission> getNextTextSubmissionEligibleForNewAssessment(TextExercise textExercise, boolean skipAssessmentQueue, boolean examMode) {
+        return getTextSubmissionEligibleForNewAssessment(textExercise, skipAssessmentQueue, examMode, false);
+    }
+
+    /**
+     * @param claim true if the submission should be claimed for the current user, because it is locked afterwards
+     */
+    private Optional<TextSubmission> getTextSubmissionEligibleForNewAssessment(TextExercise textExercise, boolean skipAssessmentQueue, boolean examMode, boolean claim) {
         if (textExercise.isAutomaticAssessmentEnabled() && textAssessmentQueueService.isPresent() && !skipAssessmentQueue) {
             return textAssessmentQueueService.get().getProposedTextSubmission(textExercise);
         }
-        var submissionWithoutResult = super.getRandomSubmissionEligibleForNewAssessment(textExercise, examMode);
+        var submissionWithoutResult = claim ? super.claimSubmissionEligibleForNewAssessment(textExercise, examMode)
+                : super.getSubmissionEligibleForNewAssessment(textExercise, examMode);
         if (submissionWithoutResult.isPresent()) {
             TextSubmission textSubmission = (TextSubmission) submissionWithoutResult.get();
             return Optional.of(textSubmission);
@@ -256,6 +265,10 @@ public class TextSubmissionService extends SubmissionService {
         return textSubmissionRepository.findByParticipation_ExerciseIdAndSubmittedIsTrue(exerciseId);
     }
 
+    public Set<Long> getSubmittedTextSubmissionIdsByExerciseId(Long exerciseId) {
+        return textSubmissionRepository.findIdsByParticipation_ExerciseIdAndSubmittedIsTrue(exerciseId);
+    }
+
     public List<TextSubmission> getTextSubmissionsWithTextBlocksByExerciseIdAndLanguage(Long exerciseId, Language language) {
         return textSubmissionRepository.findByParticipation_ExerciseIdAndSubmittedIsTrueAndLanguage(exerciseId, language);
     }
@@ -268,7 +281,7 @@ public class TextSubmissionService extends SubmissionService {
      * @return a locked modeling submission that needs an assessment
      */
     public TextSubmission findAndLockTextSubmissionToBeAssessed(TextExercise textExercise, boolean removeTestRunParticipations) {
-        TextSubmission textSubmission = getRandomTextSubmissionEligibleForNewAssessment(textExercise, removeTestRunParticipations)
+        TextSubmission textSubmission = getTextSubmissionEligibleForNewAssessment(textExercise, false, removeTestRunParticipations, true)
                 .orElseThrow(() -> new EntityNotFoundException("Text submission for exercise " + textExercise.getId() + " could not be found"));
         lockSubmission(textSubmission);
         return textSubmission;
@@ -102,14 +102,18 @@ public class UserService {
 
     private ArtemisAuthenticationProvider artemisAuthenticationProvider;
 
+    private final GroupMembershipSynchronizationService groupMembershipSynchronizationService;
+
     public UserService(UserRepository userRepository, AuthorityRepository authorityRepository, CacheManager cacheManager, Optional<LdapUserService> ldapUserService,
-            GuidedTourSettingsRepository guidedTourSettingsRepository, CourseRepository courseRepository) {
+            GuidedTourSettingsRepository guidedTourSettingsRepository, CourseRepository courseRepository,
+            GroupMembershipSynchronizationService groupMembershipSynchronizationService) {
         this.userRepository = userRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
         this.ldapUserService = ldapUserService;
         this.guidedTourSettingsRepository = guidedTourSettingsRepository;
         this.courseRepository = courseRepository;
+        this.groupMembershipSynchronizationService = groupMembershipSynchronizationService;
     }
 
     @Autowired
@@ -375,6 +379,66 @@ public class UserService {
         return userRepository.findOneWithGroupsAndAuthoritiesByRegistrationNumber(registrationNumber);
     }
 
+    /**
+     * Searches the (optional) LDAP service for all users with the given registration numbers (= Matrikelnummer) and creates new Artemis users for them.
+     * In contrast to {@link #createUserFromLdap(String)}, the LDAP is searched in batches, so that only few LDAP queries are necessary for many registration numbers.
+     * Also creates the users in the external user management (e.g. JIRA), in case this is activated
+     * Note: this method should only be used for registration numbers of users which do not yet exist in the database
+     *
+     * @param registrationNumbers the matriculation numbers of the students
+     * @return the newly created users, registration numbers which could not be found in the LDAP are not contained
+     */
+    public List<User> createUsersFromLdap(Set<String> registrationNumbers) {
+        if (ldapUserService.isEmpty() || registrationNumbers.isEmpty()) {
+            return List.of();
+        }
+        List<User> createdUsers = new ArrayList<>();
+        for (LdapUserDto ldapUser : ldapUserService.get().findAllByRegistrationNumbers(registrationNumbers)) {
+            try {
+                log.info("Ldap User " + ldapUser.getUsername() + " has registration number: " + ldapUser.getRegistrationNumber());
+                // Use empty password, so that we don't store the credentials of Jira users in the Artemis DB
+                User user = createUser(ldapUser.getUsername(), "", ldapUser.getFirstName(), ldapUser.getLastName(), ldapUser.getEmail(), ldapUser.getRegistrationNumber(), null,
+                        "en");
+                if (useExternalUserManagement) {
+                    artemisAuthenticationProvider.createUserInExternalUserManagement(user);
+                }
+                createdUsers.add(user);
+            }
+            catch (Exception ex) {
+                log.warn("Error while creating user with registration number " + ldapUser.getRegistrationNumber() + " from LDAP: " + ex.getMessage(), ex);
+            }
+        }
+        return createdUsers;
+    }
+
+    /**
+     * Finds all users with one of the given logins using one database query
+     *
+     * @param logins the logins of the users
+     * @return all users with a matching login including their groups and authorities
+     */
+    public List<User> findAllWithGroupsAndAuthoritiesByLogins(Set<String> logins) {
+        // For an empty set, we do not query the database, because Hibernate builds an invalid query with empty lists
+        if (logins.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllWithGroupsAndAuthoritiesByLogins(logins);
+    }
+
+    /**
+     * Finds all users with one of the given registration numbers using one database query
+     *
+     * @param registrationNumbers the matriculation numbers of the students
+     * @return all users with a matching registration number including their groups and authorities
+     */
+    public List<User> findAllWithGroupsAndAuthoritiesByRegistrationNumbers(Set<String> registrationNumbers) {
+        // For an empty set, we do not query the database, because Hibernate builds an invalid query with empty lists
+        if (registrationNumbers.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findAllWithGroupsAndAuthoritiesByRegistrationNumbers(registrationNumbers);
+    }
+
     /**
      * Create user only in the internal Artemis database. This is a pure service method without any logic with respect to external systems.
      *
@@ -927,19 +991,38 @@ public class UserService {
     }
 
     /**
-     * add the user to the specified group and update in VCS (like GitLab) if used
+     * add the user to the specified group and update in VCS (like GitLab) if used, the external systems are synchronized in the background
      * @param user the user
      * @param group the group
      */
     public void addUserToGroup(User user, String group) {
         addUserToGroupInternal(user, group); // internal Artemis database
-        try {
-            artemisAuthenticationProvider.addUserToGroup(user, group);  // e.g. JIRA
+        groupMembershipSynchronizationService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of(group)); // e.g. JIRA and Gitlab
+    }
+
+    /**
+     * add all given users to the specified group and update in VCS (like GitLab) if used.
+     * In contrast to {@link #addUserToGroup(User, String)}, the group names of all courses are only loaded once and all users are saved together.
+     * The external systems are synchronized in the background after the transaction has been committed.
+     *
+     * @param users the users which should be added to the group
+     * @param group the group
+     */
+    public void addUsersToGroup(Collection<User> users, String group) {
+        final var usersToUpdate = users.stream().filter(user -> !user.getGroups().contains(group)).collect(Collectors.toList());
+        if (usersToUpdate.isEmpty()) {
+            return;
         }
-        catch (ArtemisAuthenticationException e) {
-            // This might throw exceptions, for example if the group does not exist on the authentication service. We can safely ignore it
+        log.debug("Add " + usersToUpdate.size() + " users to group " + group);
+        final Set<String> instructorGroups = courseRepository.findAllInstructorGroupNames();
+        final Set<String> teachingAssistantGroups = courseRepository.findAllTeachingAssistantGroupNames();
+        for (User user : usersToUpdate) {
+            user.getGroups().add(group);
+            user.setAuthorities(buildAuthorities(user, instructorGroups, teachingAssistantGroups));
+            clearUserCaches(user);
         }
-        optionalVcsUserManagementService.ifPresent(vcsUserManagementService -> vcsUserManagementService.updateUser(user, Set.of(), Set.of(group), false)); // e.g. Gitlab
+        userRepository.saveAll(usersToUpdate); // internal Artemis database
+        groupMembershipSynchronizationService.synchronizeGroupChanges(usersToUpdate, Set.of(), Set.of(group)); // e.g. JIRA and Gitlab
     }
 
     /**
@@ -1010,15 +1093,14 @@ public class UserService {
     }
 
     /**
-     * remove the user from the specified group only in the Artemis database
+     * remove the user from the specified group and update in VCS (like GitLab) if used, the external systems are synchronized in the background
      *
      * @param user the user
      * @param group the group
      */
     public void removeUserFromGroup(User user, String group) {
         removeUserFromGroupInternal(user, group); // internal Artemis database
-        artemisAuthenticationProvider.removeUserFromGroup(user, group); // e.g. JIRA
-        optionalVcsUserManagementService.ifPresent(vcsUserManagementService -> vcsUserManagementService.updateUser(user, Set.of(group), Set.of(), false)); // e.g. Gitlab
+        groupMembershipSynchronizationService.synchronizeGroupChanges(List.of(user), Set.of(group), Set.of()); // e.g. JIRA and Gitlab
     }
 
     /**
@@ -1049,6 +1131,18 @@ public class UserService {
      * @return a set of authorities based on the course configuration and the given groups
      */
     public Set<Authority> buildAuthorities(User user) {
+        return buildAuthorities(user, courseRepository.findAllInstructorGroupNames(), courseRepository.findAllTeachingAssistantGroupNames());
+    }
+
+    /**
+     * Builds the authorities list from the groups based on the already loaded group names of all courses, see {@link #buildAuthorities(User)}
+     *
+     * @param user a user with groups
+     * @param instructorGroups the instructor group names of all courses
+     * @param teachingAssistantGroups the teaching assistant group names of all courses
+     * @return a set of authorities based on the course configuration and the given groups
+     */
+    private Set<Authority> buildAuthorities(User user, Set<String> instructorGroups, Set<String> teachingAssistantGroups) {
         Set<Authority> authorities = new HashSet<>();
         Set<String> groups = user.getGroups();
         if (groups == null) {
@@ -1066,9 +1160,6 @@ public class UserService {
             authorities.add(ADMIN_AUTHORITY);
         }
 
-        Set<String> instructorGroups = courseRepository.findAllInstructorGroupNames();
-        Set<String> teachingAssistantGroups = courseRepository.findAllTeachingAssistantGroupNames();
-
         // Check if user is an instructor in any course
         if (groups.stream().anyMatch(instructorGroups::contains)) {
             authorities.add(new Authority(INSTRUCTOR));
@@ -1,9 +1,12 @@
 package de.tum.in.www1.artemis.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -59,14 +62,61 @@ public class ZipFileService {
      */
     public Path createZipFileWithFolderContent(Path zipFilePath, Path contentRootPath) throws IOException {
         try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(zipFilePath))) {
-            Files.walk(contentRootPath).filter(path -> !Files.isDirectory(path)).forEach(path -> {
-                ZipEntry zipEntry = new ZipEntry(contentRootPath.relativize(path).toString());
-                copyToZipFile(zipOutputStream, path, zipEntry);
-            });
+            try (Stream<Path> paths = Files.walk(contentRootPath)) {
+                paths.filter(path -> !Files.isDirectory(path)).forEach(path -> {
+                    ZipEntry zipEntry = new ZipEntry(contentRootPath.relativize(path).toString());
+                    copyToZipFile(zipOutputStream, path, zipEntry);
+                });
+            }
         }
         return zipFilePath;
     }
 
+    /**
+     * Creates a zip entry for the given content which is stored without compression. The size and the checksum of a stored entry have to be known before it is written.
+     *
+     * @param name the name of the entry in the zip file
+     * @param content the content of the entry
+     * @return the zip entry with the STORED method
+     */
+    public ZipEntry createStoredZipEntry(String name, byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return createStoredZipEntry(name, content.length, crc.getValue());
+    }
+
+    /**
+     * Creates a zip entry for the given file which is stored without compression, e.g. because the file is already compressed. The file is read once to compute its
+     * checksum, which has to be known before the entry is written.
+     *
+     * @param name the name of the entry in the zip file
+     * @param file the file that is written into the entry
+     * @return the zip entry with the STORED method
+     * @throws IOException if the file could not be read
+     */
+    public ZipEntry createStoredZipEntry(String name, Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return createStoredZipEntry(name, size, crc.getValue());
+    }
+
+    private ZipEntry createStoredZipEntry(String name, long size, long crc) {
+        ZipEntry zipEntry = new ZipEntry(name);
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(size);
+        zipEntry.setCompressedSize(size);
+        zipEntry.setCrc(crc);
+        return zipEntry;
+    }
+
     private void copyToZipFile(ZipOutputStream zipOutputStream, Path path, ZipEntry zipEntry) {
         try {
             zipOutputStream.putNextEntry(zipEntry);
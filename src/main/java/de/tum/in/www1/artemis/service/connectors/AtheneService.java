@@ -2,28 +2,31 @@ package de.tum.in.www1.artemis.service.connectors;
 
 import static de.tum.in.www1.artemis.config.Constants.ATHENE_RESULT_API_PATH;
 import static de.tum.in.www1.artemis.service.connectors.RemoteArtemisServiceConnector.authorizationHeaderForSymmetricSecret;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.*;
 
 import java.util.*;
 
 import javax.validation.constraints.NotNull;
 
-import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.RestTemplate;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.Language;
 import de.tum.in.www1.artemis.exception.NetworkingError;
+import de.tum.in.www1.artemis.repository.TextBlockBatchRepository;
 import de.tum.in.www1.artemis.repository.TextBlockRepository;
 import de.tum.in.www1.artemis.repository.TextClusterRepository;
 import de.tum.in.www1.artemis.repository.TextExerciseRepository;
 import de.tum.in.www1.artemis.service.TextAssessmentQueueService;
 import de.tum.in.www1.artemis.service.TextSubmissionService;
+import de.tum.in.www1.artemis.service.dto.TextBlockStateDTO;
 import de.tum.in.www1.artemis.web.rest.dto.AtheneDTO;
 
 @Service
@@ -32,6 +35,8 @@ public class AtheneService {
 
     private final Logger log = LoggerFactory.getLogger(AtheneService.class);
 
+    private static final double ADDED_DISTANCE_TOLERANCE = 1e-5;
+
     @Value("${server.url}")
     private String artemisServerUrl;
 
@@ -45,24 +50,29 @@ public class AtheneService {
 
     private final TextBlockRepository textBlockRepository;
 
+    private final TextBlockBatchRepository textBlockBatchRepository;
+
     private final TextClusterRepository textClusterRepository;
 
     private final TextExerciseRepository textExerciseRepository;
 
     private final TextSubmissionService textSubmissionService;
 
-    private final RemoteArtemisServiceConnector<RequestDTO, ResponseDTO> connector = new RemoteArtemisServiceConnector<>(log, ResponseDTO.class);
+    private final RemoteArtemisServiceConnector<RequestDTO, ResponseDTO> connector;
 
     // Contains tasks submitted to Athene and currently processing
     private final List<Long> runningAtheneTasks = new ArrayList<>();
 
-    public AtheneService(TextSubmissionService textSubmissionService, TextBlockRepository textBlockRepository, TextClusterRepository textClusterRepository,
-            TextExerciseRepository textExerciseRepository, TextAssessmentQueueService textAssessmentQueueService) {
+    public AtheneService(TextSubmissionService textSubmissionService, TextBlockRepository textBlockRepository, TextBlockBatchRepository textBlockBatchRepository,
+            TextClusterRepository textClusterRepository, TextExerciseRepository textExerciseRepository, TextAssessmentQueueService textAssessmentQueueService,
+            @Qualifier("atheneRestTemplate") RestTemplate restTemplate) {
         this.textSubmissionService = textSubmissionService;
         this.textBlockRepository = textBlockRepository;
+        this.textBlockBatchRepository = textBlockBatchRepository;
         this.textClusterRepository = textClusterRepository;
         this.textExerciseRepository = textExerciseRepository;
         this.textAssessmentQueueService = textAssessmentQueueService;
+        this.connector = new RemoteArtemisServiceConnector<>(log, restTemplate, ResponseDTO.class);
     }
 
     // region Request/Response DTOs
@@ -170,21 +180,39 @@ public class AtheneService {
 
     /**
      * Processes results coming back from the Athene system via callbackUrl (see AtheneResource)
+     * <p>
+     * The results contain all text blocks and clusters of the exercise. They are compared with the stored text blocks and clusters by the ids of the text blocks, so that
+     * only new and changed text blocks and clusters are written to the database.
+     *
      * @param clusters the Map of calculated clusters to save to the database
      * @param blocks the list of calculated textBlocks to save to the database
      * @param exerciseId the exercise the automatic feedback suggestions were calculated for
      */
-    public void processResult(Map<Integer, TextCluster> clusters, List<AtheneDTO.TextBlockDTO> blocks, Long exerciseId) {
+    @Transactional // ok because the clusters and text blocks of the results have to be written together
+    public void processResult(Map<Integer, AtheneDTO.TextClusterDTO> clusters, List<AtheneDTO.TextBlockDTO> blocks, Long exerciseId) {
         log.debug("Start processing incoming Athene results for exercise with id {}", exerciseId);
 
+        // Find exercise, which the clusters belong to
+        Optional<TextExercise> optionalTextExercise = textExerciseRepository.findById(exerciseId);
+        if (optionalTextExercise.isEmpty()) {
+            log.error("Error while processing Athene results. Exercise with id " + exerciseId + " not found", new Error());
+            finishTask(exerciseId);
+            return;
+        }
+
         // Parse textBlocks (blocks will come as AtheneDTO.TextBlock with their submissionId and need to be parsed)
-        List<TextBlock> textBlocks = parseTextBlocks(blocks, exerciseId);
+        final Map<String, TextBlock> textBlockMap = parseTextBlocks(blocks, exerciseId).stream()
+                .collect(toMap(TextBlock::getId, block -> block, (block, duplicate) -> block, LinkedHashMap::new));
+
+        // Load the clustering state of the stored blocks, to compare it with the results
+        final Map<String, TextBlockStateDTO> storedBlockMap = textBlockRepository.findAllStatesByExerciseId(exerciseId).stream()
+                .collect(toMap(TextBlockStateDTO::getId, block -> block));
 
-        // Save textBlocks in Database
-        final Map<String, TextBlock> textBlockMap = textBlockRepository.saveAll(textBlocks).stream().collect(toMap(TextBlock::getId, block -> block));
+        // Save new and changed clusters in Database
+        processClusters(clusters, textBlockMap, storedBlockMap, optionalTextExercise.get());
 
-        // Save clusters in Database
-        processClusters(clusters, textBlockMap, exerciseId);
+        // Save new and changed textBlocks in Database
+        saveChangedTextBlocks(textBlockMap, storedBlockMap);
 
         // Notify atheneService of finished task
         finishTask(exerciseId);
@@ -200,25 +228,24 @@ public class AtheneService {
      * @return list of TextBlocks
      */
     public List<TextBlock> parseTextBlocks(List<AtheneDTO.TextBlockDTO> blocks, Long exerciseId) {
-        // Create submissionsMap for lookup
-        List<TextSubmission> submissions = textSubmissionService.getTextSubmissionsWithTextBlocksByExerciseId(exerciseId);
-        Map<Long, TextSubmission> submissionsMap = submissions.stream().collect(toMap(/* Key: */ Submission::getId, /* Value: */ submission -> submission));
+        // Only the ids of the submissions are needed to link the blocks with their submissions
+        final Set<Long> submissionIds = textSubmissionService.getSubmittedTextSubmissionIdsByExerciseId(exerciseId);
 
-        // Map textBlocks to submissions
-        List<TextBlock> textBlocks = new LinkedList();
+        List<TextBlock> textBlocks = new ArrayList<>(blocks.size());
         for (AtheneDTO.TextBlockDTO textBlockDTO : blocks) {
+            if (!submissionIds.contains(textBlockDTO.getSubmissionId())) {
+                log.warn("Ignoring Athene text block {} of unknown submission {}", textBlockDTO.getId(), textBlockDTO.getSubmissionId());
+                continue;
+            }
+
             // Convert DTO-TextBlock (including the submissionId) to TextBlock Entity
             TextBlock newBlock = new TextBlock();
             newBlock.setId(textBlockDTO.getId());
             newBlock.setText(textBlockDTO.getText());
             newBlock.setStartIndex(textBlockDTO.getStartIndex());
             newBlock.setEndIndex(textBlockDTO.getEndIndex());
+            newBlock.setSubmission(new TextSubmission(textBlockDTO.getSubmissionId()));
             newBlock.automatic();
-
-            // take the corresponding TextSubmission and add the text blocks.
-            // The addBlocks method also sets the submission in the textBlock
-            Hibernate.initialize(submissionsMap.get(textBlockDTO.getSubmissionId()).addBlock(newBlock));
-            submissionsMap.get(textBlockDTO.getSubmissionId()).addBlock(newBlock);
             textBlocks.add(newBlock);
         }
 
@@ -226,37 +253,103 @@ public class AtheneService {
     }
 
     /**
-     * Process clusters, link them with text blocks and vice versa, and save all in the database
+     * Process clusters and link them with text blocks and vice versa. A cluster containing the same text blocks as a stored cluster updates the stored cluster, only new
+     * clusters and clusters with changed distances or probabilities are saved in the database.
      *
      * @param clusterMap The map of clusters to process
      * @param textBlockMap The map of textBlocks belonging to the clusters
-     * @param exerciseId The exerciseId of the exercise the blocks belong to
+     * @param storedBlockMap The map of the clustering state of the stored textBlocks of the exercise
+     * @param exercise The exercise the blocks belong to
      */
-    public void processClusters(Map<Integer, TextCluster> clusterMap, Map<String, TextBlock> textBlockMap, Long exerciseId) {
+    public void processClusters(Map<Integer, AtheneDTO.TextClusterDTO> clusterMap, Map<String, TextBlock> textBlockMap, Map<String, TextBlockStateDTO> storedBlockMap,
+            TextExercise exercise) {
         // Remove Cluster with Key "-1" as it is only contains the blocks belonging to no cluster.
         clusterMap.remove(-1);
-        final List<TextCluster> savedClusters = textClusterRepository.saveAll(clusterMap.values());
 
-        // Find exercise, which the clusters belong to
-        Optional<TextExercise> optionalTextExercise = textExerciseRepository.findById(exerciseId);
-        if (optionalTextExercise.isEmpty()) {
-            log.error("Error while processing Athene clusters. Exercise with id " + exerciseId + " not found", new Error());
-            return;
+        // Identify the stored clusters by the ids of their blocks
+        final Map<Set<String>, Long> storedClusterIdMap = storedBlockMap.values().stream().filter(block -> block.getClusterId() != null)
+                .collect(groupingBy(TextBlockStateDTO::getClusterId, mapping(TextBlockStateDTO::getId, toSet()))).entrySet().stream()
+                .collect(toMap(Map.Entry::getValue, Map.Entry::getKey));
+        final Set<Long> matchingClusterIds = clusterMap.values().stream().map(cluster -> storedClusterIdMap.get(getBlockIds(cluster))).filter(Objects::nonNull)
+                .collect(toSet());
+        final Map<Long, TextCluster> storedClusters = textClusterRepository.findAllById(matchingClusterIds).stream().collect(toMap(TextCluster::getId, cluster -> cluster));
+
+        final List<TextCluster> changedClusters = new ArrayList<>();
+        for (AtheneDTO.TextClusterDTO clusterDTO : clusterMap.values()) {
+            final List<TextBlock> blocks = clusterDTO.getBlocks().stream().map(block -> textBlockMap.get(block.getId())).collect(toList());
+            if (blocks.contains(null)) {
+                log.warn("Ignoring Athene cluster with text blocks of unknown submissions in exercise {}", exercise.getId());
+                continue;
+            }
+
+            final TextCluster cluster = Optional.ofNullable(storedClusterIdMap.get(getBlockIds(clusterDTO))).map(storedClusters::get)
+                    .orElseGet(() -> new TextCluster().exercise(exercise));
+            if (cluster.getId() == null || !Arrays.equals(cluster.getProbabilities(), clusterDTO.getProbabilities())
+                    || !Arrays.deepEquals(cluster.getDistanceMatrix(), clusterDTO.getDistanceMatrix())) {
+                cluster.setProbabilities(clusterDTO.getProbabilities());
+                cluster.setDistanceMatrix(clusterDTO.getDistanceMatrix());
+                changedClusters.add(cluster);
+            }
+
+            // Link cluster with blocks, the distance matrix is in the order of the blocks
+            blocks.forEach(block -> block.setCluster(cluster));
+            cluster.setBlocks(blocks);
+            textAssessmentQueueService.setAddedDistances(blocks, clusterDTO.getDistanceMatrix());
         }
-        TextExercise textExercise = optionalTextExercise.get();
-
-        // Link clusters with blocks
-        for (TextCluster cluster : savedClusters) {
-            cluster.setExercise(textExercise);
-            List<TextBlock> updatedBlockReferences = cluster.getBlocks().parallelStream().map(block -> textBlockMap.get(block.getId())).peek(block -> block.setCluster(cluster))
-                    .collect(toList());
-            textAssessmentQueueService.setAddedDistances(updatedBlockReferences, cluster);
-            cluster.setBlocks(updatedBlockReferences);
-            textBlockRepository.saveAll(updatedBlockReferences);
+
+        // Save clusters in Database, new clusters get their ids which are referenced by the blocks
+        textClusterRepository.saveAll(changedClusters);
+        log.debug("Saved {} new or changed clusters of {} clusters for exercise {}", changedClusters.size(), clusterMap.size(), exercise.getId());
+    }
+
+    private static Set<String> getBlockIds(AtheneDTO.TextClusterDTO cluster) {
+        return cluster.getBlocks().stream().map(AtheneDTO.TextBlockDTO::getId).collect(toSet());
+    }
+
+    /**
+     * Inserts the new blocks and updates the blocks whose type or cluster has changed in JDBC batches. Afterwards, the stored clusters no longer containing any blocks are
+     * deleted.
+     */
+    private void saveChangedTextBlocks(Map<String, TextBlock> textBlockMap, Map<String, TextBlockStateDTO> storedBlockMap) {
+        final List<TextBlock> newBlocks = new ArrayList<>();
+        final List<TextBlock> changedBlocks = new ArrayList<>();
+        for (TextBlock textBlock : textBlockMap.values()) {
+            final TextBlockStateDTO storedBlock = storedBlockMap.get(textBlock.getId());
+            if (storedBlock == null) {
+                newBlocks.add(textBlock);
+            }
+            else if (hasChanged(textBlock, storedBlock)) {
+                changedBlocks.add(textBlock);
+            }
         }
+        textBlockBatchRepository.insertAll(newBlocks);
+        textBlockBatchRepository.updateAll(changedBlocks);
+        log.debug("Inserted {} and updated {} of {} text blocks", newBlocks.size(), changedBlocks.size(), textBlockMap.size());
+
+        // Blocks that are not part of the results (e.g. of submissions that are not submitted anymore) keep their cluster
+        final Set<Long> replacedClusterIds = storedBlockMap.values().stream().map(TextBlockStateDTO::getClusterId).filter(Objects::nonNull).collect(toSet());
+        storedBlockMap.values().stream().filter(block -> !textBlockMap.containsKey(block.getId())).map(TextBlockStateDTO::getClusterId).forEach(replacedClusterIds::remove);
+        textBlockMap.values().stream().map(TextBlock::getCluster).filter(Objects::nonNull).map(TextCluster::getId).forEach(replacedClusterIds::remove);
+        if (!replacedClusterIds.isEmpty()) {
+            textClusterRepository.deleteAllByIdIn(replacedClusterIds);
+        }
+    }
+
+    private static boolean hasChanged(TextBlock textBlock, TextBlockStateDTO storedBlock) {
+        final Long clusterId = textBlock.getCluster() != null ? textBlock.getCluster().getId() : null;
+        return textBlock.getType() != storedBlock.getType() || !Objects.equals(clusterId, storedBlock.getClusterId())
+                || !Objects.equals(textBlock.getPositionInCluster(), storedBlock.getPositionInCluster())
+                || !isSameAddedDistance(textBlock.getAddedDistance(), storedBlock.getAddedDistance());
+    }
 
-        // Save clusters in Database
-        textClusterRepository.saveAll(savedClusters);
+    /**
+     * The added distance might be stored with single precision, so it is compared with a relative tolerance
+     */
+    private static boolean isSameAddedDistance(Double addedDistance, Double storedAddedDistance) {
+        if (addedDistance == null || storedAddedDistance == null) {
+            return addedDistance == null && storedAddedDistance == null;
+        }
+        return Math.abs(addedDistance - storedAddedDistance) <= ADDED_DISTANCE_TOLERANCE * Math.max(1.0, Math.abs(addedDistance));
     }
 
 }
@@ -126,7 +126,7 @@ public interface ContinuousIntegrationService {
     boolean checkIfBuildPlanExists(String projectKey, String buildPlanId);
 
     /**
-     * Get the build logs of the latest CI build.
+     * Get the build logs of the latest CI build. The logs are not stored, see BuildLogService.
      *
      * @param programmingSubmission The programming for which the latest build logs should be retrieved
      * @return list of build log entries
@@ -5,17 +5,25 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.HiddenFileFilter;
@@ -26,25 +34,37 @@ import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.JGitInternalException;
 import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
 import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipation;
 import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.exception.GitException;
 import de.tum.in.www1.artemis.service.ZipFileService;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 
 @Service
 public class GitService {
@@ -66,18 +86,97 @@ public class GitService {
     @Value("${artemis.git.email}")
     private String ARTEMIS_GIT_EMAIL;
 
-    private final Map<Path, Repository> cachedRepositories = new ConcurrentHashMap<>();
+    @Value("${artemis.repo-cache.max-size:500}")
+    private int maxCachedRepositories;
+
+    @Value("${artemis.repo-cache.max-idle-time-in-minutes:60}")
+    private long maxIdleTimeInMinutes;
+
+    @Value("${artemis.repo-clone-disk-quota-in-mb:0}")
+    private long repoCloneDiskQuotaInMb;
+
+    /**
+     * Maximum time a caller waits for a clone, including the time the clone waits in the queue of the clone executor and for the lock of the local path
+     */
+    @Value("${artemis.git.clone-timeout-in-seconds:900}")
+    private long cloneTimeoutInSeconds;
+
+    /**
+     * Cache of the opened JGit repositories in access order. The least recently used repository is evicted as soon as the cache exceeds its maximum size. Repositories are
+     * only closed after they have been idle for the maximum idle time and not when they are evicted, because callers might still use an evicted repository object.
+     */
+    private final Map<Path, Repository> cachedRepositories = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Repository> eldest) {
+            if (size() > maxCachedRepositories) {
+                log.debug("Evict the least recently used repository at {} from the cache", eldest.getKey());
+                evictedRepositories.add(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    });
+
+    /**
+     * Repositories which were evicted from the cache because it exceeded its maximum size, they are closed once they are idle
+     */
+    private final Queue<Repository> evictedRepositories = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Time of the last access to each local repository, used to evict idle repositories from the cache and to delete the least recently used repositories from the disk
+     */
+    private final Map<Path, Instant> lastAccessTimes = new ConcurrentHashMap<>();
+
+    /**
+     * local path -> future of the clone operation which is currently in progress for this path, concurrent callers wait for the same clone
+     */
+    private final Map<Path, CompletableFuture<Repository>> cloneInProgressOperations = new ConcurrentHashMap<>();
+
+    private static final String HAZELCAST_CLONE_LOCKS = "git-clone-locks";
+
+    /**
+     * folder in the target path containing the bare repositories whose objects are shared by the clones of the participations, see getOrCheckoutRepositoryWithSharedObjects
+     */
+    private static final String SHARED_OBJECT_STORES_FOLDER = "shared-objects";
+
+    /**
+     * folder in each shared object store containing one file per local repository that references the store, the store is deleted when the last reference is released
+     */
+    private static final String SHARED_OBJECT_STORE_REFERENCES_FOLDER = "referenced-by";
+
+    private static final int CLONE_QUEUE_CAPACITY = 1000;
+
+    private static final long CLONE_LOCK_WAIT_TIME_IN_MINUTES = 5;
+
+    private static final long CLONE_LOCK_LEASE_TIME_IN_MINUTES = 10;
+
+    /**
+     * Locks on the local paths of the repositories, so that the instances of a cluster sharing the clone folder do not clone the same repository at the same time
+     */
+    private final IMap<String, String> cloneLocks;
 
-    private final Map<Path, Path> cloneInProgressOperations = new ConcurrentHashMap<>();
+    private final ExecutorService cloneExecutor;
 
     private final ZipFileService zipFileService;
 
-    public GitService(ZipFileService zipFileService) {
+    public GitService(ZipFileService zipFileService, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry, @Value("${artemis.git.clone-threads:8}") int cloneThreads) {
         log.info("file.encoding=" + System.getProperty("file.encoding"));
         log.info("sun.jnu.encoding=" + System.getProperty("sun.jnu.encoding"));
         log.info("Default Charset=" + Charset.defaultCharset());
         log.info("Default Charset in Use=" + new OutputStreamWriter(new ByteArrayOutputStream()).getEncoding());
         this.zipFileService = zipFileService;
+        this.cloneLocks = hazelcastInstance.getMap(HAZELCAST_CLONE_LOCKS);
+        // clones are I/O bound, a bounded pool prevents that e.g. an exam start with many students opens an unbounded number of connections to the VCS server
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(cloneThreads, cloneThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(CLONE_QUEUE_CAPACITY),
+                new CustomizableThreadFactory("git-clone-"));
+        executor.allowCoreThreadTimeOut(true);
+        this.cloneExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "git-clone");
+    }
+
+    @PreDestroy
+    public void shutdownCloneExecutor() {
+        cloneExecutor.shutdownNow();
     }
 
     /**
@@ -135,9 +234,51 @@ public class GitService {
      * @throws GitAPIException if the repository could not be checked out.
      */
     public Repository getOrCheckoutRepository(URL repoUrl, boolean pullOnGet, String targetPath) throws InterruptedException, GitAPIException {
+        return getOrCheckoutRepository(repoUrl, pullOnGet, targetPath, null);
+    }
+
+    /**
+     * Get the local repository for a given participation. If the local repo does not exist yet, it will be checked out sharing the objects of the given template repository:
+     * The template repository is cloned once per target path into a shared object store, which the clone of the participation references as git alternate. Therefore only the
+     * objects which are not part of the template repository are transferred and stored for each participation. This is useful if many participations of the same exercise are
+     * checked out, e.g. for an export.
+     *
+     * @param participation Participation the remote repository belongs to.
+     * @param templateRepoUrl the url of the template repository, whose objects are shared. If it is null, the repository is cloned completely.
+     * @param targetPath path where the repo is located on disk
+     * @return the repository if it could be checked out
+     * @throws InterruptedException if the repository could not be checked out.
+     * @throws GitAPIException if the repository could not be checked out.
+     */
+    public Repository getOrCheckoutRepositoryWithSharedObjects(ProgrammingExerciseParticipation participation, @Nullable URL templateRepoUrl, String targetPath)
+            throws InterruptedException, GitAPIException {
+        Repository repository = getOrCheckoutRepository(participation.getRepositoryUrlAsUrl(), true, targetPath, templateRepoUrl);
+        repository.setParticipation(participation);
+        return repository;
+    }
+
+    /**
+     * Get the local repository for a given remote repository URL. If the local repo does not exist yet, it will be checked out.
+     *
+     * @param repoUrl   The remote repository.
+     * @param pullOnGet Pull from the remote on the checked out repository, if it does not need to be cloned.
+     * @param targetPath path where the repo is located on disk
+     * @param sharedObjectsRepoUrl the url of a repository whose objects should be shared by the clone (see getOrCheckoutRepositoryWithSharedObjects) or null for a full clone
+     * @return the repository if it could be checked out.
+     * @throws InterruptedException if the repository could not be checked out.
+     * @throws GitAPIException if the repository could not be checked out.
+     */
+    public Repository getOrCheckoutRepository(URL repoUrl, boolean pullOnGet, String targetPath, @Nullable URL sharedObjectsRepoUrl) throws InterruptedException, GitAPIException {
 
         Path localPath = new java.io.File(targetPath + folderNameForRepositoryUrl(repoUrl)).toPath();
 
+        // The folder of a repository which is currently cloned already exists, but the repository must not be used before the clone has finished
+        CompletableFuture<Repository> runningClone = cloneInProgressOperations.get(localPath);
+        if (runningClone != null) {
+            log.debug("Clone of {} is already in progress, wait for it", repoUrl);
+            return awaitClone(localPath, runningClone);
+        }
+
         // First try to just retrieve the git repository from our server, as it might already be checked out.
         Repository repository = getRepositoryByLocalPath(localPath);
         if (repository != null) {
@@ -147,44 +288,287 @@ public class GitService {
             return repository;
         }
         // If the git repository can't be found on our server, clone it from the remote.
-        else {
-            int numberOfAttempts = 5;
-            // Make sure that multiple clone operations for the same repository cannot happen at the same time.
-            while (cloneInProgressOperations.containsKey(localPath)) {
-                log.warn("Clone is already in progress. This will lead to an error. Wait for a second");
-                Thread.sleep(1000);
-                if (numberOfAttempts == 0) {
-                    throw new GitException("Cannot clone the same repository multiple times");
+        // Make sure that multiple clone operations for the same repository cannot happen at the same time: concurrent callers wait for the same clone.
+        CompletableFuture<Repository> newClone = new CompletableFuture<>();
+        CompletableFuture<Repository> cloneInProgress = cloneInProgressOperations.putIfAbsent(localPath, newClone);
+        if (cloneInProgress != null) {
+            log.debug("Clone of {} is already in progress, wait for it", repoUrl);
+            return awaitClone(localPath, cloneInProgress);
+        }
+        try {
+            cloneExecutor.execute(() -> {
+                try {
+                    Path sharedObjectStore = sharedObjectsRepoUrl == null ? null : getOrCreateSharedObjectStore(sharedObjectsRepoUrl, targetPath, localPath);
+                    newClone.complete(cloneRepository(repoUrl, localPath, sharedObjectStore));
                 }
-                else {
-                    numberOfAttempts--;
+                catch (Throwable ex) {
+                    newClone.completeExceptionally(ex);
                 }
+                finally {
+                    // make sure that cloneInProgress is released
+                    cloneInProgressOperations.remove(localPath, newClone);
+                }
+            });
+        }
+        catch (RejectedExecutionException ex) {
+            cloneInProgressOperations.remove(localPath, newClone);
+            throw new GitException("Too many clone operations are queued, cannot clone " + repoUrl, ex);
+        }
+        return awaitClone(localPath, newClone);
+    }
+
+    /**
+     * Clones the repository while holding the cluster wide lock for the local path. If another instance cloned the repository in the meantime, the existing clone is used.
+     *
+     * @param sharedObjectStore the path of a bare repository whose objects should be referenced as alternate instead of being copied, or null for a full clone
+     */
+    private Repository cloneRepository(URL repoUrl, Path localPath, @Nullable Path sharedObjectStore) throws InterruptedException {
+        final String lockKey = localPath.toAbsolutePath().normalize().toString();
+        if (!cloneLocks.tryLock(lockKey, CLONE_LOCK_WAIT_TIME_IN_MINUTES, TimeUnit.MINUTES, CLONE_LOCK_LEASE_TIME_IN_MINUTES, TimeUnit.MINUTES)) {
+            throw new GitException("Cannot clone " + repoUrl + " because another clone of the same repository did not finish in time");
+        }
+        try {
+            Repository repository = getRepositoryByLocalPath(localPath);
+            if (repository != null) {
+                return repository;
             }
-            // Clone repository.
-            try {
+            if (sharedObjectStore != null) {
+                cloneWithAlternates(repoUrl, localPath, sharedObjectStore);
+            }
+            else {
                 log.debug("Cloning from " + repoUrl + " to " + localPath);
-                cloneInProgressOperations.put(localPath, localPath);
                 Git result = Git.cloneRepository().setURI(repoUrl.toString()).setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD))
                         .setDirectory(localPath.toFile()).call();
                 result.close();
             }
-            catch (GitAPIException | RuntimeException e) {
-                log.error("Exception during clone " + e);
-                // cleanup the folder to avoid problems in the future
-                localPath.toFile().delete();
-                throw new GitException(e);
+            return getRepositoryByLocalPath(localPath);
+        }
+        catch (GitAPIException | IOException | RuntimeException e) {
+            log.error("Exception during clone " + e);
+            // cleanup the folder to avoid problems in the future
+            if (sharedObjectStore != null) {
+                releaseSharedObjectStore(sharedObjectStore, localPath);
+            }
+            FileUtils.deleteQuietly(localPath.toFile());
+            throw new GitException(e);
+        }
+        finally {
+            cloneLocks.unlock(lockKey);
+        }
+    }
+
+    /**
+     * Clones the repository into the local path, but instead of transferring all objects, the objects of the shared object store are referenced in objects/info/alternates
+     * (like git clone --reference). The fetch only transfers the objects which are missing in the shared object store, because JGit announces the refs of the alternate
+     * repository as additional haves.
+     */
+    private void cloneWithAlternates(URL repoUrl, Path localPath, Path sharedObjectStore) throws GitAPIException, IOException {
+        log.debug("Cloning from " + repoUrl + " to " + localPath + " referencing the objects in " + sharedObjectStore);
+        try (Git git = Git.init().setDirectory(localPath.toFile()).call()) {
+            Path alternates = localPath.resolve(".git").resolve("objects").resolve("info").resolve("alternates");
+            Files.createDirectories(alternates.getParent());
+            Files.writeString(alternates, sharedObjectStore.resolve("objects").toAbsolutePath().normalize() + "\n");
+            StoredConfig config = git.getRepository().getConfig();
+            config.setString(ConfigConstants.CONFIG_REMOTE_SECTION, "origin", ConfigConstants.CONFIG_KEY_URL, repoUrl.toString());
+            config.setString(ConfigConstants.CONFIG_REMOTE_SECTION, "origin", "fetch", "+refs/heads/*:refs/remotes/origin/*");
+            config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, "master", ConfigConstants.CONFIG_KEY_REMOTE, "origin");
+            config.setString(ConfigConstants.CONFIG_BRANCH_SECTION, "master", ConfigConstants.CONFIG_KEY_MERGE, "refs/heads/master");
+            config.save();
+        }
+        // reopen the repository, so that the alternates are used
+        try (Git git = Git.open(localPath.toFile())) {
+            git.fetch().setRemote("origin").setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD)).call();
+            git.checkout().setCreateBranch(true).setName("master").setStartPoint("origin/master").call();
+        }
+    }
+
+    /**
+     * Returns the shared object store for the given repository in the target path and creates it with a bare clone if it does not exist yet. The local path is registered as
+     * reference of the store, so that the store is kept until all repositories referencing it have been deleted (see releaseSharedObjectStore).
+     * The object store is not updated while it is referenced: objects which are added to the repository later are simply fetched by each clone that references the store.
+     * Once the last reference is released, the store is deleted and the next clone creates it again with the current objects of the repository.
+     *
+     * @param repoUrl the url of the repository whose objects should be shared, usually the template repository of an exercise
+     * @param targetPath the path in which the shared object stores are located
+     * @param localPath the local path of the repository which will reference the store
+     * @return the path of the bare repository containing the shared objects
+     */
+    private Path getOrCreateSharedObjectStore(URL repoUrl, String targetPath, Path localPath) throws InterruptedException {
+        final Path objectStore = Paths.get(targetPath, SHARED_OBJECT_STORES_FOLDER, folderNameForRepositoryUrl(repoUrl) + ".git").toAbsolutePath().normalize();
+        final String lockKey = objectStore.toString();
+        if (!cloneLocks.tryLock(lockKey, CLONE_LOCK_WAIT_TIME_IN_MINUTES, TimeUnit.MINUTES, CLONE_LOCK_LEASE_TIME_IN_MINUTES, TimeUnit.MINUTES)) {
+            throw new GitException("Cannot create the shared object store for " + repoUrl + " because another instance did not finish in time");
+        }
+        try {
+            if (!Files.isDirectory(objectStore.resolve("objects"))) {
+                log.debug("Create shared object store for {} in {}", repoUrl, objectStore);
+                // clone into a temporary folder first, so that other threads never see an incomplete object store
+                final Path tempObjectStore = objectStore.resolveSibling(objectStore.getFileName() + ".tmp");
+                FileUtils.deleteQuietly(tempObjectStore.toFile());
+                Git.cloneRepository().setBare(true).setURI(repoUrl.toString()).setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD))
+                        .setDirectory(tempObjectStore.toFile()).call().close();
+                Files.move(tempObjectStore, objectStore, StandardCopyOption.ATOMIC_MOVE);
+            }
+            final Path reference = getSharedObjectStoreReference(objectStore, localPath);
+            Files.createDirectories(reference.getParent());
+            try {
+                Files.writeString(reference, localPath.toAbsolutePath().normalize().toString(), StandardOpenOption.CREATE_NEW);
             }
-            finally {
-                // make sure that cloneInProgress is released
-                cloneInProgressOperations.remove(localPath);
+            catch (FileAlreadyExistsException ex) {
+                // the repository has been cloned with this store before and was not deleted properly
             }
-            return getRepositoryByLocalPath(localPath);
+            return objectStore;
+        }
+        catch (GitAPIException | IOException ex) {
+            throw new GitException("Cannot create the shared object store for " + repoUrl, ex);
+        }
+        finally {
+            cloneLocks.unlock(lockKey);
+        }
+    }
+
+    /**
+     * Copies all objects of the shared object store of the given repository into the repository itself and removes the reference, so that the repository can be used
+     * independently, e.g. after zipping it. Does nothing if the repository does not use a shared object store.
+     * The pack files and loose objects are copied as they are, which is cheaper than repacking all reachable objects. The packs are named by their content, so files which
+     * already exist in the repository are identical and are skipped.
+     *
+     * @param repo the local repository
+     * @throws IOException if the objects could not be copied
+     */
+    public void dissociateFromSharedObjects(Repository repo) throws IOException {
+        final Path objectsFolder = repo.getObjectDatabase().getDirectory().toPath();
+        final Optional<Path> sharedObjectStore = getSharedObjectStore(repo.getLocalPath());
+        if (sharedObjectStore.isEmpty()) {
+            return;
+        }
+        final Path sharedObjectsFolder = sharedObjectStore.get().resolve("objects");
+        final List<Path> sharedObjectFiles;
+        try (var files = Files.walk(sharedObjectsFolder)) {
+            sharedObjectFiles = files.filter(Files::isRegularFile).map(sharedObjectsFolder::relativize).filter(file -> !file.startsWith("info")).collect(Collectors.toList());
+        }
+        for (Path sharedObjectFile : sharedObjectFiles) {
+            final Path copy = objectsFolder.resolve(sharedObjectFile.toString());
+            if (!Files.exists(copy)) {
+                Files.createDirectories(copy.getParent());
+                Files.copy(sharedObjectsFolder.resolve(sharedObjectFile), copy);
+            }
+        }
+        Files.delete(objectsFolder.resolve("info").resolve("alternates"));
+        repo.getObjectDatabase().close();
+        releaseSharedObjectStore(sharedObjectStore.get(), repo.getLocalPath());
+    }
+
+    /**
+     * @param localPath the path of a local repository
+     * @return the shared object store referenced in the alternates of the repository or an empty Optional if the repository does not use a shared object store
+     */
+    private Optional<Path> getSharedObjectStore(Path localPath) {
+        final Path alternates = localPath.resolve(".git").resolve("objects").resolve("info").resolve("alternates");
+        if (!Files.exists(alternates)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Path.of(Files.readString(alternates).trim()).getParent());
+        }
+        catch (IOException ex) {
+            log.warn("Cannot read the alternates of the repository at {}: {}", localPath, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Path getSharedObjectStoreReference(Path objectStore, Path localPath) {
+        final String referenceName = UUID.nameUUIDFromBytes(localPath.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8)).toString();
+        return objectStore.resolve(SHARED_OBJECT_STORE_REFERENCES_FOLDER).resolve(referenceName);
+    }
+
+    /**
+     * Removes the reference of the local repository from the shared object store and deletes the store if no other repository references it anymore.
+     * References of repositories which no longer use the store, e.g. because they were deleted without releasing the store, are removed as well. A reference which does not
+     * point to a repository using the store is only removed after the lease time of the clone lock, because the repository might still be cloned.
+     *
+     * @param objectStore the shared object store referenced by the repository
+     * @param localPath the path of the repository, which is deleted or no longer uses the store
+     */
+    private void releaseSharedObjectStore(Path objectStore, Path localPath) {
+        final String lockKey = objectStore.toAbsolutePath().normalize().toString();
+        try {
+            if (!cloneLocks.tryLock(lockKey, CLONE_LOCK_WAIT_TIME_IN_MINUTES, TimeUnit.MINUTES, CLONE_LOCK_LEASE_TIME_IN_MINUTES, TimeUnit.MINUTES)) {
+                log.warn("Cannot release the shared object store {} because another instance did not finish in time", objectStore);
+                return;
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            Files.deleteIfExists(getSharedObjectStoreReference(objectStore, localPath));
+            final Path referencesFolder = objectStore.resolve(SHARED_OBJECT_STORE_REFERENCES_FOLDER);
+            final List<Path> references;
+            try (var files = Files.list(referencesFolder)) {
+                references = files.collect(Collectors.toList());
+            }
+            final Instant cloneLeaseThreshold = Instant.now().minus(Duration.ofMinutes(CLONE_LOCK_LEASE_TIME_IN_MINUTES));
+            boolean isReferenced = false;
+            for (Path reference : references) {
+                final Path referencingRepository = Path.of(Files.readString(reference));
+                final boolean isCloning = Files.getLastModifiedTime(reference).toInstant().isAfter(cloneLeaseThreshold);
+                if (isCloning || getSharedObjectStore(referencingRepository).filter(store -> store.equals(objectStore.toAbsolutePath().normalize())).isPresent()) {
+                    isReferenced = true;
+                }
+                else {
+                    Files.delete(reference);
+                }
+            }
+            if (!isReferenced) {
+                FileUtils.deleteDirectory(objectStore.toFile());
+                log.debug("Deleted the shared object store {}, because it is not referenced anymore", objectStore);
+            }
+        }
+        catch (IOException ex) {
+            log.warn("Cannot release the shared object store {}: {}", objectStore, ex.getMessage());
+        }
+        finally {
+            cloneLocks.unlock(lockKey);
+        }
+    }
+
+    /**
+     * Deletes the folder of a local repository and releases the shared object store referenced by the repository
+     *
+     * @param repoPath the path of the local repository
+     * @throws IOException if the folder could not be deleted
+     */
+    private void deleteRepositoryFolder(Path repoPath) throws IOException {
+        final Optional<Path> sharedObjectStore = getSharedObjectStore(repoPath);
+        FileUtils.deleteDirectory(repoPath.toFile());
+        sharedObjectStore.ifPresent(objectStore -> releaseSharedObjectStore(objectStore, repoPath));
+    }
+
+    /**
+     * Waits for the given clone of the local path. If it does not finish in time, it is removed from the clones in progress, so that later callers start a new clone instead
+     * of waiting for the same clone again. A clone which is still running in the background then only completes the future of the callers which are already waiting.
+     */
+    private Repository awaitClone(Path localPath, CompletableFuture<Repository> clone) throws InterruptedException {
+        try {
+            return clone.get(cloneTimeoutInSeconds, TimeUnit.SECONDS);
+        }
+        catch (TimeoutException ex) {
+            cloneInProgressOperations.remove(localPath, clone);
+            throw new GitException("The clone of the repository at " + localPath + " did not finish within " + cloneTimeoutInSeconds + " seconds", ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof GitException) {
+                throw (GitException) ex.getCause();
+            }
+            throw new GitException(ex.getCause());
         }
     }
 
     /**
      * Get a git repository that is checked out on the server. Throws immediately an exception if the localPath does not exist. Will first try to retrieve a cached repository from
-     * cachedRepositories. Side effect: This method caches retrieved repositories in a HashMap, so continuous retrievals can be avoided (reduces load).
+     * cachedRepositories. Side effect: This method caches retrieved repositories in a bounded LRU cache, so continuous retrievals can be avoided (reduces load).
      *
      * @param localPath to git repo on server.
      * @return the git repository in the localPath or null if it does not exist on the server.
@@ -193,9 +577,10 @@ public class GitService {
         // Check if there is a folder with the provided path of the git repository.
         if (!Files.exists(localPath)) {
             // In this case we should remove the repository if cached, because it can't exist anymore.
-            cachedRepositories.remove(localPath);
+            removeCachedRepository(localPath);
             return null;
         }
+        lastAccessTimes.put(localPath, Instant.now());
         // Check if the repository is already cached in the server's session.
         Repository cachedRepository = cachedRepositories.get(localPath);
         if (cachedRepository != null) {
@@ -586,8 +971,9 @@ public class GitService {
     public void deleteLocalRepository(Repository repo) throws IOException {
         Path repoPath = repo.getLocalPath();
         cachedRepositories.remove(repoPath);
+        lastAccessTimes.remove(repoPath);
         repo.close();
-        FileUtils.deleteDirectory(repoPath.toFile());
+        deleteRepositoryFolder(repoPath);
         repo.setContent(null);
         log.debug("Deleted Repository at " + repoPath);
     }
@@ -611,9 +997,9 @@ public class GitService {
      */
     public void deleteLocalRepository(ProgrammingExerciseParticipation participation, String targetPath) throws IOException {
         Path repoPath = new java.io.File(targetPath + folderNameForRepositoryUrl(participation.getRepositoryUrlAsUrl())).toPath();
-        cachedRepositories.remove(repoPath);
+        removeCachedRepository(repoPath);
         if (Files.exists(repoPath)) {
-            FileUtils.deleteDirectory(repoPath.toFile());
+            deleteRepositoryFolder(repoPath);
             log.debug("Deleted Repository at " + repoPath);
         }
     }
@@ -637,10 +1023,10 @@ public class GitService {
      */
     public void deleteLocalRepository(URL repoUrl, String targetPath) {
         Path repoPath = new java.io.File(targetPath + folderNameForRepositoryUrl(repoUrl)).toPath();
-        cachedRepositories.remove(repoPath);
+        removeCachedRepository(repoPath);
         if (Files.exists(repoPath)) {
             try {
-                FileUtils.deleteDirectory(repoPath.toFile());
+                deleteRepositoryFolder(repoPath);
                 log.info("Deleted Repository at " + repoPath);
             }
             catch (IOException e) {
@@ -649,6 +1035,133 @@ public class GitService {
         }
     }
 
+    /**
+     * Removes the repository at the given path from the cache and closes it
+     *
+     * @param localPath the path of the repository on the server
+     */
+    private void removeCachedRepository(Path localPath) {
+        lastAccessTimes.remove(localPath);
+        Repository repository = cachedRepositories.remove(localPath);
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    /**
+     * Evicts and closes all cached repositories which have not been accessed within the maximum idle time. Repositories which were already evicted from the cache
+     * because of its maximum size are closed as well once they are idle.
+     */
+    public void evictIdleRepositories() {
+        final Instant idleThreshold = Instant.now().minus(Duration.ofMinutes(maxIdleTimeInMinutes));
+        final List<Path> idlePaths;
+        synchronized (cachedRepositories) {
+            idlePaths = cachedRepositories.keySet().stream().filter(path -> isIdleSince(path, idleThreshold)).collect(Collectors.toList());
+        }
+        for (Path idlePath : idlePaths) {
+            Repository repository = cachedRepositories.remove(idlePath);
+            if (repository != null) {
+                repository.close();
+            }
+        }
+        evictedRepositories.removeIf(repository -> {
+            if (isIdleSince(repository.getLocalPath(), idleThreshold)) {
+                repository.close();
+                return true;
+            }
+            return false;
+        });
+        if (!idlePaths.isEmpty()) {
+            log.info("Evicted {} idle repositories from the cache, {} repositories remain cached", idlePaths.size(), cachedRepositories.size());
+        }
+    }
+
+    /**
+     * Deletes the least recently used local repositories in the default path until the disk usage of all local repositories is below the configured quota.
+     * Repositories with uncommitted changes, repositories which are currently cloned and repositories which have been used within the maximum idle time are never deleted.
+     * Does nothing if no quota is configured.
+     */
+    public void deleteLeastRecentlyUsedRepositoriesExceedingDiskQuota() {
+        if (repoCloneDiskQuotaInMb <= 0) {
+            return;
+        }
+        final Path clonePath = Paths.get(REPO_CLONE_PATH);
+        if (!Files.isDirectory(clonePath)) {
+            return;
+        }
+        final long quotaInBytes = repoCloneDiskQuotaInMb * FileUtils.ONE_MB;
+        final List<Path> repositoryPaths;
+        // local repositories are stored in <clone path>/<project key>/<repository slug>, see folderNameForRepositoryUrl
+        try (var paths = Files.walk(clonePath, 2)) {
+            repositoryPaths = paths.filter(path -> Files.isDirectory(path.resolve(".git"))).collect(Collectors.toList());
+        }
+        catch (IOException ex) {
+            log.error("Could not list the local repositories in " + clonePath, ex);
+            return;
+        }
+        final Map<Path, Long> repositorySizes = new HashMap<>();
+        long usedBytes = 0;
+        for (Path repositoryPath : repositoryPaths) {
+            long size = FileUtils.sizeOfDirectory(repositoryPath.toFile());
+            repositorySizes.put(repositoryPath, size);
+            usedBytes += size;
+        }
+        if (usedBytes <= quotaInBytes) {
+            return;
+        }
+        log.info("Local repositories use {} MB, which exceeds the quota of {} MB. Delete least recently used repositories", usedBytes / FileUtils.ONE_MB, repoCloneDiskQuotaInMb);
+        final Instant idleThreshold = Instant.now().minus(Duration.ofMinutes(maxIdleTimeInMinutes));
+        repositoryPaths.sort(Comparator.comparing(this::getLastAccessTime));
+        int deletedRepositories = 0;
+        for (Path repositoryPath : repositoryPaths) {
+            if (usedBytes <= quotaInBytes) {
+                break;
+            }
+            // the paths are sorted by the last access time, so all remaining repositories have been used recently
+            if (!isIdleSince(repositoryPath, idleThreshold)) {
+                break;
+            }
+            if (cloneInProgressOperations.containsKey(repositoryPath) || hasUncommittedChanges(repositoryPath)) {
+                continue;
+            }
+            removeCachedRepository(repositoryPath);
+            try {
+                deleteRepositoryFolder(repositoryPath);
+                usedBytes -= repositorySizes.get(repositoryPath);
+                deletedRepositories++;
+            }
+            catch (IOException ex) {
+                log.error("Could not delete the local repository at " + repositoryPath, ex);
+            }
+        }
+        log.info("Deleted {} local repositories, local repositories now use {} MB", deletedRepositories, usedBytes / FileUtils.ONE_MB);
+    }
+
+    private boolean isIdleSince(Path localPath, Instant idleThreshold) {
+        return getLastAccessTime(localPath).isBefore(idleThreshold);
+    }
+
+    /**
+     * Repositories which have not been accessed since the server started, fall back to the last modification of their folder
+     */
+    private Instant getLastAccessTime(Path localPath) {
+        Instant lastAccessTime = lastAccessTimes.get(localPath);
+        if (lastAccessTime != null) {
+            return lastAccessTime;
+        }
+        return Instant.ofEpochMilli(localPath.toFile().lastModified());
+    }
+
+    private boolean hasUncommittedChanges(Path localPath) {
+        try (Git git = Git.open(localPath.toFile())) {
+            return !git.status().call().isClean();
+        }
+        catch (IOException | GitAPIException | JGitInternalException ex) {
+            log.warn("Could not determine the status of the local repository at {}, it will not be deleted: {}", localPath, ex.getMessage());
+            return true;
+        }
+    }
+
     /**
      * Zip the content of a git repository (expected in default path).
      *
@@ -674,25 +1187,103 @@ public class GitService {
          * This will split the repositoryUrl e.g. http://artemis-admin@localhost:7990/scm/TC1SCHEDULER1/tc1scheduler1-artemis-admin.git into a string array e.g. ["http", "",
          * "artemis-admin@localhost:7990", "scm", "TC1SCHEDULER1", "tc1scheduler1-artemis-admin.git"]
          */
-        String[] repositoryUrlComponents = repo.getParticipation().getRepositoryUrl().split(File.separator);
-        ProgrammingExercise exercise = repo.getParticipation().getProgrammingExercise();
-        String courseShortName = exercise.getCourseViaExerciseGroupOrCourseMember().getShortName().replaceAll("\\s", "");
-        String zipRepoName;
-        if (hideStudentName) {
-            // Take the last but one component, which does not contain the students name
-            zipRepoName = courseShortName + "-" + repositoryUrlComponents[repositoryUrlComponents.length - 2].toLowerCase() + "-student-submission.git" + ".zip";
-        }
-        else {
-            // Take the last component, which contains the students name
-            zipRepoName = courseShortName + "-" + repositoryUrlComponents[repositoryUrlComponents.length - 1] + ".zip";
-        }
+        String zipRepoName = getExportName(repo.getParticipation(), hideStudentName) + ".zip";
 
+        // the zipped repository must contain all of its objects
+        dissociateFromSharedObjects(repo);
         Path repoPath = repo.getLocalPath();
         Path zipFilePath = Paths.get(targetPath, "zippedRepos", zipRepoName);
         Files.createDirectories(Paths.get(targetPath, "zippedRepos"));
         return zipFileService.createZipFileWithFolderContent(zipFilePath, repoPath);
     }
 
+    /**
+     * Generates the name under which the repository of the given participation is exported, e.g. the name of its zip file
+     *
+     * @param participation the participation of the exported repository
+     * @param hideStudentName option to hide the student name in the export name
+     * @return the export name without file extension
+     */
+    public String getExportName(ProgrammingExerciseParticipation participation, boolean hideStudentName) {
+        /*
+         * This will split the repositoryUrl e.g. http://artemis-admin@localhost:7990/scm/TC1SCHEDULER1/tc1scheduler1-artemis-admin.git into a string array e.g. ["http", "",
+         * "artemis-admin@localhost:7990", "scm", "TC1SCHEDULER1", "tc1scheduler1-artemis-admin.git"]
+         */
+        String[] repositoryUrlComponents = participation.getRepositoryUrl().split(File.separator);
+        ProgrammingExercise exercise = participation.getProgrammingExercise();
+        String courseShortName = exercise.getCourseViaExerciseGroupOrCourseMember().getShortName().replaceAll("\\s", "");
+        if (hideStudentName) {
+            // Take the last but one component, which does not contain the students name, and the id of the participation to distinguish the repositories of the exercise
+            return courseShortName + "-" + repositoryUrlComponents[repositoryUrlComponents.length - 2].toLowerCase() + "-" + participation.getId() + "-student-submission.git";
+        }
+        // Take the last component, which contains the students name
+        return courseShortName + "-" + repositoryUrlComponents[repositoryUrlComponents.length - 1];
+    }
+
+    /**
+     * Resolves the commit of the given repository that should be exported without changing the working copy: the commit of the last valid submission or the last commit
+     * before the given date if late submissions are filtered (see {@link #filterLateSubmissions}), the latest commit of origin/master otherwise.
+     *
+     * @param repository Local Repository Object.
+     * @param lastValidSubmission The last valid submission from the database or empty, if not found
+     * @param filterLateSubmissionsDate the date after which all submissions should be filtered out or null, if late submissions should not be filtered
+     * @return the id of the commit to export or an empty Optional if the repository does not contain such a commit
+     * @throws IOException if the commits could not be read
+     */
+    public Optional<ObjectId> resolveCommitForExport(Repository repository, Optional<Submission> lastValidSubmission, @Nullable ZonedDateTime filterLateSubmissionsDate)
+            throws IOException {
+        ObjectId head = repository.resolve("refs/remotes/origin/master");
+        if (head == null) {
+            head = repository.resolve(Constants.HEAD);
+        }
+        if (head == null || filterLateSubmissionsDate == null) {
+            return Optional.ofNullable(head);
+        }
+        if (lastValidSubmission.isPresent()) {
+            String commitHash = ((ProgrammingSubmission) lastValidSubmission.get()).getCommitHash();
+            if (commitHash != null) {
+                return Optional.ofNullable(repository.resolve(commitHash));
+            }
+        }
+        // Get last commit before deadline
+        try (RevWalk revWalk = new RevWalk(repository)) {
+            revWalk.markStart(revWalk.parseCommit(head));
+            revWalk.setRevFilter(CommitTimeRevFilter.before(Date.from(filterLateSubmissionsDate.toInstant())));
+            RevCommit latestCommitBeforeDeadline = revWalk.next();
+            return Optional.ofNullable(latestCommitBeforeDeadline);
+        }
+    }
+
+    /**
+     * Writes all files of the given commit into the given zip stream below the given folder. The files are read directly from the object database of the repository, so
+     * that no working copy has to be reset or checked out and no temporary zip file has to be written. Symbolic links and submodules are skipped.
+     *
+     * @param repository Local Repository Object.
+     * @param commitId the id of the commit whose files should be written
+     * @param folderName the folder in the zip file which contains the files of the commit
+     * @param zipOutputStream the zip stream to which the files are written, it is neither finished nor closed
+     * @throws IOException if the objects could not be read or the zip stream could not be written
+     */
+    public void writeCommitToZip(Repository repository, ObjectId commitId, String folderName, ZipOutputStream zipOutputStream) throws IOException {
+        try (RevWalk revWalk = new RevWalk(repository); TreeWalk treeWalk = new TreeWalk(repository)) {
+            RevCommit commit = revWalk.parseCommit(commitId);
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setRecursive(true);
+            final ObjectReader objectReader = treeWalk.getObjectReader();
+            while (treeWalk.next()) {
+                final FileMode fileMode = treeWalk.getFileMode(0);
+                if (fileMode.getObjectType() != Constants.OBJ_BLOB || FileMode.SYMLINK.equals(fileMode)) {
+                    continue;
+                }
+                ZipEntry zipEntry = new ZipEntry(folderName + "/" + treeWalk.getPathString());
+                zipEntry.setTime(commit.getCommitTime() * 1000L);
+                zipOutputStream.putNextEntry(zipEntry);
+                objectReader.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).copyTo(zipOutputStream);
+                zipOutputStream.closeEntry();
+            }
+        }
+    }
+
     /**
      * Generates the unique local folder name for a given remote repository URL.
      *
@@ -0,0 +1,234 @@
+package de.tum.in.www1.artemis.service.connectors;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.imsglobal.pox.IMSPOXRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import de.tum.in.www1.artemis.domain.LtiOutcomeUrl;
+import de.tum.in.www1.artemis.repository.LtiOutcomeUrlRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Reports the scores of LTI users to the LTI consumers (e.g. edX) in the background, so that a slow consumer does not slow down the processing of new results.
+ * <p>
+ * The latest score that has not been reported yet is stored as pending score of the {@link LtiOutcomeUrl}, i.e. multiple new results of a user in an exercise are
+ * coalesced and only the latest score is reported. Pending scores are reported on a bounded pool of worker threads with a pooled HTTP client, failed reports are retried
+ * with an exponential backoff. Scores that are still pending when Artemis is stopped (or could not be reported after all attempts) are reported after the next start.
+ */
+@Service
+public class LtiOutcomeReportingService {
+
+    private final Logger log = LoggerFactory.getLogger(LtiOutcomeReportingService.class);
+
+    /**
+     * New results of a user within this delay (e.g. the results of multiple builds) are reported together
+     */
+    private static final long COALESCING_DELAY_IN_MILLIS = 1_000;
+
+    @Value("${artemis.lti.outcome-reporting.initial-retry-delay-in-millis:10000}")
+    private long initialRetryDelayInMillis;
+
+    @Value("${artemis.lti.oauth-key:#{null}}")
+    private Optional<String> OAUTH_KEY;
+
+    @Value("${artemis.lti.oauth-secret:#{null}}")
+    private Optional<String> OAUTH_SECRET;
+
+    private final LtiOutcomeUrlRepository ltiOutcomeUrlRepository;
+
+    private final int maxAttempts;
+
+    private final ScheduledExecutorService reportExecutor;
+
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * The ids of the outcome urls whose pending score is scheduled to be reported
+     */
+    private final Set<Long> scheduledOutcomeUrlIds = ConcurrentHashMap.newKeySet();
+
+    public LtiOutcomeReportingService(LtiOutcomeUrlRepository ltiOutcomeUrlRepository, MeterRegistry meterRegistry,
+            @Value("${artemis.lti.outcome-reporting.threads:2}") int threads, @Value("${artemis.lti.outcome-reporting.max-attempts:6}") int maxAttempts,
+            @Value("${artemis.lti.outcome-reporting.timeout-in-seconds:30}") int timeoutInSeconds) {
+        this.ltiOutcomeUrlRepository = ltiOutcomeUrlRepository;
+        this.maxAttempts = maxAttempts;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, new CustomizableThreadFactory("lti-outcome-"));
+        executor.setRemoveOnCancelPolicy(true);
+        this.reportExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "lti-outcome");
+
+        // each worker thread uses at most one connection at a time
+        final var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(threads);
+        connectionManager.setDefaultMaxPerRoute(threads);
+        final int timeoutInMillis = (int) TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        final var requestConfig = RequestConfig.custom().setConnectTimeout(timeoutInMillis).setSocketTimeout(timeoutInMillis).setConnectionRequestTimeout(timeoutInMillis).build();
+        this.httpClient = HttpClientBuilder.create().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).evictIdleConnections(60, TimeUnit.SECONDS)
+                .disableCookieManagement().build();
+    }
+
+    /**
+     * Schedules the scores that were still pending when Artemis was stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedulePendingScores() {
+        if (OAUTH_KEY.isEmpty() || OAUTH_SECRET.isEmpty()) {
+            return;
+        }
+        var pendingOutcomeUrlIds = ltiOutcomeUrlRepository.findAllIdsWithPendingScore();
+        if (!pendingOutcomeUrlIds.isEmpty()) {
+            log.info("Scheduling {} pending LTI scores", pendingOutcomeUrlIds.size());
+            pendingOutcomeUrlIds.forEach(this::schedule);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!scheduledOutcomeUrlIds.isEmpty()) {
+            log.info("{} LTI scores are still pending and will be reported after the next start", scheduledOutcomeUrlIds.size());
+        }
+        reportExecutor.shutdownNow();
+        try {
+            httpClient.close();
+        }
+        catch (IOException ex) {
+            log.warn("Could not close the LTI HTTP client: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Stores the score as pending score of the outcome url, which replaces a previous score that has not been reported yet, and schedules the report after the current
+     * transaction has been committed
+     *
+     * @param ltiOutcomeUrl the outcome url of the user and exercise
+     * @param score         the score formatted as String between "0.00" and "1.00"
+     */
+    public void reportScore(LtiOutcomeUrl ltiOutcomeUrl, String score) {
+        ltiOutcomeUrlRepository.updatePendingScore(ltiOutcomeUrl.getId(), score);
+        final Long ltiOutcomeUrlId = ltiOutcomeUrl.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // the worker must not read the pending score before it is committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    schedule(ltiOutcomeUrlId);
+                }
+            });
+        }
+        else {
+            schedule(ltiOutcomeUrlId);
+        }
+    }
+
+    /**
+     * Returns the number of outcome urls whose pending score is scheduled to be reported
+     *
+     * @return the number of scheduled reports
+     */
+    public int getNumberOfScheduledReports() {
+        return scheduledOutcomeUrlIds.size();
+    }
+
+    /**
+     * Schedules the report of the pending score, unless it is already scheduled. The scheduled report reads the pending score when it runs and therefore reports the
+     * latest score.
+     */
+    private void schedule(Long ltiOutcomeUrlId) {
+        if (scheduledOutcomeUrlIds.add(ltiOutcomeUrlId)) {
+            schedule(ltiOutcomeUrlId, 0, COALESCING_DELAY_IN_MILLIS);
+        }
+    }
+
+    private void schedule(Long ltiOutcomeUrlId, int attempt, long delayInMillis) {
+        reportExecutor.schedule(() -> reportPendingScore(ltiOutcomeUrlId, attempt), delayInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void reportPendingScore(Long ltiOutcomeUrlId, int attempt) {
+        final Optional<LtiOutcomeUrl> ltiOutcomeUrl;
+        try {
+            ltiOutcomeUrl = ltiOutcomeUrlRepository.findById(ltiOutcomeUrlId);
+        }
+        catch (RuntimeException ex) {
+            retryOrGiveUp(ltiOutcomeUrlId, attempt, ex);
+            return;
+        }
+        final String score = ltiOutcomeUrl.map(LtiOutcomeUrl::getPendingScore).orElse(null);
+        if (score == null) {
+            // already reported or deleted in the meantime
+            scheduledOutcomeUrlIds.remove(ltiOutcomeUrlId);
+            return;
+        }
+        try {
+            sendScore(ltiOutcomeUrl.get(), score);
+        }
+        catch (Exception ex) {
+            retryOrGiveUp(ltiOutcomeUrlId, attempt, ex);
+            return;
+        }
+        onReportFinished(ltiOutcomeUrlId, score);
+    }
+
+    private void retryOrGiveUp(Long ltiOutcomeUrlId, int attempt, Exception ex) {
+        int nextAttempt = attempt + 1;
+        if (nextAttempt < maxAttempts) {
+            long delay = initialRetryDelayInMillis << attempt;
+            log.warn("Reporting the pending score of LTI outcome url {} failed, retrying in {} ms: {}", ltiOutcomeUrlId, delay, ex.getMessage());
+            schedule(ltiOutcomeUrlId, nextAttempt, delay);
+            return;
+        }
+        // the score stays pending, it is reported again with the next score of the user or after the next start
+        log.error("Reporting the pending score of LTI outcome url {} failed {} times, giving up for now", ltiOutcomeUrlId, nextAttempt, ex);
+        scheduledOutcomeUrlIds.remove(ltiOutcomeUrlId);
+    }
+
+    /**
+     * Removes the reported score, a newer score that has been stored in the meantime is reported again
+     */
+    private void onReportFinished(Long ltiOutcomeUrlId, String score) {
+        // the id is released first, so that a newer score stored from now on schedules a new report
+        scheduledOutcomeUrlIds.remove(ltiOutcomeUrlId);
+        if (ltiOutcomeUrlRepository.removePendingScore(ltiOutcomeUrlId, score) == 0) {
+            schedule(ltiOutcomeUrlId);
+        }
+    }
+
+    /**
+     * Sends the score to the LTI consumer of the outcome url
+     *
+     * @param ltiOutcomeUrl the outcome url of the user and exercise
+     * @param score         the score formatted as String between "0.00" and "1.00"
+     * @throws Exception if the score could not be sent or the LTI consumer responded with an error
+     */
+    public void sendScore(LtiOutcomeUrl ltiOutcomeUrl, String score) throws Exception {
+        log.info("Reporting score {} for user {} to LTI consumer with outcome URL {} using the source id {}", score, ltiOutcomeUrl.getUser().getLogin(), ltiOutcomeUrl.getUrl(),
+                ltiOutcomeUrl.getSourcedId());
+        HttpPost request = IMSPOXRequest.buildReplaceResult(ltiOutcomeUrl.getUrl(), OAUTH_KEY.get(), OAUTH_SECRET.get(), ltiOutcomeUrl.getSourcedId(), score, null, false);
+        // the response handler consumes the response, so that the connection is returned to the pool, and throws an exception for unsuccessful responses
+        String responseString = httpClient.execute(request, new BasicResponseHandler());
+        log.info("Response from LTI consumer: {}", responseString);
+    }
+}
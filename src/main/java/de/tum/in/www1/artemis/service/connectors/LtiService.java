@@ -10,16 +10,10 @@ import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.impl.client.BasicResponseHandler;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.imsglobal.lti.launch.LtiOauthVerifier;
 import org.imsglobal.lti.launch.LtiVerificationException;
 import org.imsglobal.lti.launch.LtiVerificationResult;
 import org.imsglobal.lti.launch.LtiVerifier;
-import org.imsglobal.pox.IMSPOXRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -42,6 +36,7 @@ import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.ArtemisAuthenticationProvider;
 import de.tum.in.www1.artemis.security.AuthoritiesConstants;
 import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.GroupMembershipSynchronizationService;
 import de.tum.in.www1.artemis.service.UserService;
 import de.tum.in.www1.artemis.web.rest.dto.LtiLaunchRequestDTO;
 
@@ -88,10 +83,15 @@ public class LtiService {
     // TODO Although this works, this is a bad design practice and we should move all response related code to the controller
     private final HttpServletResponse response;
 
+    private final GroupMembershipSynchronizationService groupMembershipSynchronizationService;
+
+    private final LtiOutcomeReportingService ltiOutcomeReportingService;
+
     public final Map<String, Pair<LtiLaunchRequestDTO, Exercise>> launchRequestForSession = new HashMap<>();
 
     public LtiService(UserService userService, UserRepository userRepository, LtiOutcomeUrlRepository ltiOutcomeUrlRepository, ResultRepository resultRepository,
-            ArtemisAuthenticationProvider artemisAuthenticationProvider, LtiUserIdRepository ltiUserIdRepository, HttpServletResponse response) {
+            ArtemisAuthenticationProvider artemisAuthenticationProvider, LtiUserIdRepository ltiUserIdRepository, HttpServletResponse response,
+            GroupMembershipSynchronizationService groupMembershipSynchronizationService, LtiOutcomeReportingService ltiOutcomeReportingService) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.ltiOutcomeUrlRepository = ltiOutcomeUrlRepository;
@@ -99,6 +99,8 @@ public class LtiService {
         this.artemisAuthenticationProvider = artemisAuthenticationProvider;
         this.ltiUserIdRepository = ltiUserIdRepository;
         this.response = response;
+        this.groupMembershipSynchronizationService = groupMembershipSynchronizationService;
+        this.ltiOutcomeReportingService = ltiOutcomeReportingService;
     }
 
     /**
@@ -308,13 +310,8 @@ public class LtiService {
             userService.save(user);
 
             if (!user.getLogin().startsWith("edx")) {
-                // try to sync with authentication service for actual users (not for edx users)
-                try {
-                    artemisAuthenticationProvider.addUserToGroup(user, courseStudentGroupName);
-                }
-                catch (ArtemisAuthenticationException e) {
-                    // This might throw exceptions, for example if the group does not exist on the authentication service. We can safely ignore it
-                }
+                // sync with authentication service for actual users (not for edx users) in the background
+                groupMembershipSynchronizationService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of(courseStudentGroupName));
             }
         }
     }
@@ -433,7 +430,7 @@ public class LtiService {
     }
 
     /**
-     * This method is pinged on new programming exercise results. It sends an message to the LTI consumer with the new score.
+     * This method is pinged on new programming exercise results. It schedules a message to the LTI consumer with the new score, which is sent in the background.
      *
      * @param participation The programming exercise participation for which a new build result is available
      */
@@ -452,19 +449,7 @@ public class LtiService {
                     score = String.format(Locale.ROOT, "%.2f", latestResult.get().getScore().floatValue() / 100);
                 }
 
-                try {
-                    log.info("Reporting score {} for participation {} to LTI consumer with outcome URL {} using the source id {}", score, participation, ltiOutcomeUrl.getUrl(),
-                            ltiOutcomeUrl.getSourcedId());
-                    HttpPost request = IMSPOXRequest.buildReplaceResult(ltiOutcomeUrl.getUrl(), OAUTH_KEY.get(), OAUTH_SECRET.get(), ltiOutcomeUrl.getSourcedId(), score, null,
-                            false);
-                    HttpClient client = HttpClientBuilder.create().build();
-                    HttpResponse response = client.execute(request);
-                    String responseString = new BasicResponseHandler().handleResponse(response);
-                    log.info("Response from LTI consumer: {}", responseString);
-                }
-                catch (Exception ex) {
-                    log.error("Reporting to LTI consumer failed: " + ex.getMessage(), ex);
-                }
+                ltiOutcomeReportingService.reportScore(ltiOutcomeUrl, score);
             }));
         }
     }
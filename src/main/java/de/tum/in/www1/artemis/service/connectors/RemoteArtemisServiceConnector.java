@@ -22,12 +22,18 @@ class RemoteArtemisServiceConnector<RequestType, ResponseType> {
 
     private final Logger log;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
 
     private final Class<ResponseType> genericResponseType;
 
-    RemoteArtemisServiceConnector(Logger log, Class<ResponseType> genericResponseType) {
+    /**
+     * @param log                 the logger of the service using this connector
+     * @param restTemplate        the pooled RestTemplate of the remote service, see {@link de.tum.in.www1.artemis.config.RestTemplateConfiguration}
+     * @param genericResponseType DTO class of the response body
+     */
+    RemoteArtemisServiceConnector(Logger log, RestTemplate restTemplate, Class<ResponseType> genericResponseType) {
         this.log = log;
+        this.restTemplate = restTemplate;
         this.genericResponseType = genericResponseType;
     }
 
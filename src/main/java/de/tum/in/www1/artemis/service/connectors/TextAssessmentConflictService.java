@@ -6,9 +6,11 @@ import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 
 import de.tum.in.www1.artemis.exception.NetworkingError;
 import de.tum.in.www1.artemis.service.dto.FeedbackConflictResponseDTO;
@@ -26,7 +28,11 @@ public class TextAssessmentConflictService {
     @Value("${artemis.athene.base64-secret}")
     private String API_SECRET;
 
-    private final RemoteArtemisServiceConnector<Request, Response> connector = new RemoteArtemisServiceConnector<>(log, Response.class);
+    private final RemoteArtemisServiceConnector<Request, Response> connector;
+
+    public TextAssessmentConflictService(@Qualifier("atheneRestTemplate") RestTemplate restTemplate) {
+        this.connector = new RemoteArtemisServiceConnector<>(log, restTemplate, Response.class);
+    }
 
     // region Request/Response DTOs
     private static class Request {
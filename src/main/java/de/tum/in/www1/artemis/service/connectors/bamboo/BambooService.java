@@ -51,6 +51,7 @@ import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseParticipat
 import de.tum.in.www1.artemis.exception.BambooException;
 import de.tum.in.www1.artemis.exception.BitbucketException;
 import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
+import de.tum.in.www1.artemis.service.BuildLogService;
 import de.tum.in.www1.artemis.service.FeedbackService;
 import de.tum.in.www1.artemis.service.UrlService;
 import de.tum.in.www1.artemis.service.connectors.*;
@@ -86,9 +87,12 @@ public class BambooService implements ContinuousIntegrationService {
 
     private final UrlService urlService;
 
+    private final BuildLogService buildLogService;
+
     public BambooService(GitService gitService, ProgrammingSubmissionRepository programmingSubmissionRepository, Optional<VersionControlService> versionControlService,
             Optional<ContinuousIntegrationUpdateService> continuousIntegrationUpdateService, BambooBuildPlanService bambooBuildPlanService, FeedbackService feedbackService,
-            @Qualifier("bambooRestTemplate") RestTemplate restTemplate, ObjectMapper mapper, UrlService urlService) {
+            @Qualifier("bambooRestTemplate") RestTemplate restTemplate, ObjectMapper mapper, UrlService urlService,
+            BuildLogService buildLogService) {
         this.gitService = gitService;
         this.programmingSubmissionRepository = programmingSubmissionRepository;
         this.versionControlService = versionControlService;
@@ -98,6 +102,7 @@ public class BambooService implements ContinuousIntegrationService {
         this.restTemplate = restTemplate;
         this.mapper = mapper;
         this.urlService = urlService;
+        this.buildLogService = buildLogService;
     }
 
     @Override
@@ -294,30 +299,8 @@ public class BambooService implements ContinuousIntegrationService {
 
     @Override
     public List<BuildLogEntry> getLatestBuildLogs(ProgrammingSubmission programmingSubmission) {
-        // Load the logs from the database
-        List<BuildLogEntry> buildLogsFromDatabase = retrieveLatestBuildLogsFromDatabase(programmingSubmission);
-
-        // If there are logs present in the database, return them (they were already filtered when inserted)
-        if (!buildLogsFromDatabase.isEmpty()) {
-            return buildLogsFromDatabase;
-        }
-
-        // Otherwise return the logs from Bamboo (and filter them now)
         ProgrammingExerciseParticipation programmingExerciseParticipation = (ProgrammingExerciseParticipation) programmingSubmission.getParticipation();
-
-        var buildLogEntries = filterBuildLogs(retrieveLatestBuildLogsFromBamboo(programmingExerciseParticipation.getBuildPlanId()));
-
-        // Truncate the logs so that they fit into the database
-        buildLogEntries.forEach(BuildLogEntry::truncateLogToMaxLength);
-
-        // Add reference to ProgrammingSubmission
-        buildLogEntries.forEach(buildLogEntry -> buildLogEntry.setProgrammingSubmission(programmingSubmission));
-
-        // Set the received logs in order to avoid duplicate entries (this removes existing logs) & save them into the database
-        programmingSubmission.setBuildLogEntries(buildLogEntries);
-        programmingSubmissionRepository.save(programmingSubmission);
-
-        return buildLogEntries;
+        return filterBuildLogs(retrieveLatestBuildLogsFromBamboo(programmingExerciseParticipation.getBuildPlanId()));
     }
 
     /**
@@ -559,13 +542,11 @@ public class BambooService implements ContinuousIntegrationService {
             final var hasArtifact = buildResult.getBuild().isArtifact();
             programmingSubmission.setBuildArtifact(hasArtifact);
             programmingSubmission.setBuildFailed(result.getResultString().equals("No tests found"));
-            // Do not remove this save, otherwise Hibernate will throw an order column index null exception on saving the build logs
+            // Do not remove this save, the build logs reference the saved submission
             programmingSubmission = programmingSubmissionRepository.save(programmingSubmission);
 
-            var buildLogs = extractAndPrepareBuildLogs(buildResult, programmingSubmission);
-            // Set the received logs in order to avoid duplicate entries (this removes existing logs)
-            programmingSubmission.setBuildLogEntries(buildLogs);
-            programmingSubmission = programmingSubmissionRepository.save(programmingSubmission);
+            // Store the complete logs as one compressed build log (this replaces existing logs)
+            buildLogService.saveBuildLogs(programmingSubmission, extractAndPrepareBuildLogs(buildResult));
 
             result.setSubmission(programmingSubmission);
             result.setRatedIfNotExceeded(programmingExercise.getDueDate(), programmingSubmission);
@@ -579,14 +560,14 @@ public class BambooService implements ContinuousIntegrationService {
         }
     }
 
-    private List<BuildLogEntry> extractAndPrepareBuildLogs(BambooBuildResultNotificationDTO buildResult, ProgrammingSubmission submission) {
+    private List<BuildLogEntry> extractAndPrepareBuildLogs(BambooBuildResultNotificationDTO buildResult) {
         List<BuildLogEntry> buildLogEntries = new ArrayList<>();
 
-        // Store logs into database. Append logs of multiple jobs.
+        // Append logs of multiple jobs.
         for (var job : buildResult.getBuild().getJobs()) {
             for (var bambooLog : job.getLogs()) {
                 // We have to unescape the HTML as otherwise symbols like '<' are not displayed correctly
-                buildLogEntries.add(new BuildLogEntry(bambooLog.getDate(), StringEscapeUtils.unescapeHtml(bambooLog.getLog()), submission));
+                buildLogEntries.add(new BuildLogEntry(bambooLog.getDate(), StringEscapeUtils.unescapeHtml(bambooLog.getLog())));
             }
         }
 
@@ -595,11 +576,7 @@ public class BambooService implements ContinuousIntegrationService {
         }
 
         // Filter unwanted logs
-        var filteredLogs = filterBuildLogs(buildLogEntries);
-        // Truncate the logs so that they fit into the database
-        filteredLogs.forEach(BuildLogEntry::truncateLogToMaxLength);
-
-        return filteredLogs;
+        return filterBuildLogs(buildLogEntries);
     }
 
     @Override
@@ -801,18 +778,8 @@ public class BambooService implements ContinuousIntegrationService {
         return null;
     }
 
-    private List<BuildLogEntry> retrieveLatestBuildLogsFromDatabase(ProgrammingSubmission programmingSubmission) {
-        Optional<ProgrammingSubmission> optionalProgrammingSubmission = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(programmingSubmission.getId());
-        if (optionalProgrammingSubmission.isPresent()) {
-            return optionalProgrammingSubmission.get().getBuildLogEntries();
-        }
-
-        return List.of();
-    }
-
     /**
-     * Load the build log from the database.
-     * Performs a request to the Bamboo REST API to retrieve the build log of the latest build, if the log is not available in the database.
+     * Performs a request to the Bamboo REST API to retrieve the build log of the latest build.
      *
      * @param planKey to identify the build logs with.
      * @return the list of retrieved build logs.
@@ -0,0 +1,126 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The latest rated score of one participant (student or team) in one exercise of a course, used for the course score export.
+ * Instances are created directly by a JPQL constructor expression, so that no entities have to be loaded for the export.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CourseScoreDTO {
+
+    private Long participationId;
+
+    private Long exerciseId;
+
+    private String exerciseTitle;
+
+    private Double maxScore;
+
+    private String participantIdentifier;
+
+    private String participantName;
+
+    private String registrationNumber;
+
+    private Long score;
+
+    private ZonedDateTime completionDate;
+
+    public CourseScoreDTO() {
+        // needed for Jackson
+    }
+
+    public CourseScoreDTO(Long participationId, Long exerciseId, String exerciseTitle, Double maxScore, String studentLogin, String studentFirstName, String studentLastName,
+            String registrationNumber, String teamShortName, String teamName, Long score, ZonedDateTime completionDate) {
+        this.participationId = participationId;
+        this.exerciseId = exerciseId;
+        this.exerciseTitle = exerciseTitle;
+        this.maxScore = maxScore;
+        if (studentLogin != null) {
+            this.participantIdentifier = studentLogin;
+            this.participantName = studentLastName == null ? studentFirstName : studentFirstName + " " + studentLastName;
+            this.registrationNumber = registrationNumber;
+        }
+        else {
+            this.participantIdentifier = teamShortName;
+            this.participantName = teamName;
+        }
+        this.score = score;
+        this.completionDate = completionDate;
+    }
+
+    public Long getParticipationId() {
+        return participationId;
+    }
+
+    public void setParticipationId(Long participationId) {
+        this.participationId = participationId;
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(Long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public String getExerciseTitle() {
+        return exerciseTitle;
+    }
+
+    public void setExerciseTitle(String exerciseTitle) {
+        this.exerciseTitle = exerciseTitle;
+    }
+
+    public Double getMaxScore() {
+        return maxScore;
+    }
+
+    public void setMaxScore(Double maxScore) {
+        this.maxScore = maxScore;
+    }
+
+    public String getParticipantIdentifier() {
+        return participantIdentifier;
+    }
+
+    public void setParticipantIdentifier(String participantIdentifier) {
+        this.participantIdentifier = participantIdentifier;
+    }
+
+    public String getParticipantName() {
+        return participantName;
+    }
+
+    public void setParticipantName(String participantName) {
+        this.participantName = participantName;
+    }
+
+    public String getRegistrationNumber() {
+        return registrationNumber;
+    }
+
+    public void setRegistrationNumber(String registrationNumber) {
+        this.registrationNumber = registrationNumber;
+    }
+
+    public Long getScore() {
+        return score;
+    }
+
+    public void setScore(Long score) {
+        this.score = score;
+    }
+
+    public ZonedDateTime getCompletionDate() {
+        return completionDate;
+    }
+
+    public void setCompletionDate(ZonedDateTime completionDate) {
+        this.completionDate = completionDate;
+    }
+}
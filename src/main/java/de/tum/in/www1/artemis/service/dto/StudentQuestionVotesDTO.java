@@ -0,0 +1,48 @@
+package de.tum.in.www1.artemis.service.dto;
+
+/**
+ * The current number of votes of a student question, which is pushed to the clients when the votes have changed.
+ * Instances are created directly by a JPQL constructor expression, so that the questions (with their answers) do not have to be loaded.
+ */
+public class StudentQuestionVotesDTO {
+
+    private Long questionId;
+
+    private Long courseId;
+
+    private Integer votes;
+
+    public StudentQuestionVotesDTO() {
+        // needed for Jackson
+    }
+
+    public StudentQuestionVotesDTO(Long questionId, Long courseId, Integer votes) {
+        this.questionId = questionId;
+        this.courseId = courseId;
+        this.votes = votes;
+    }
+
+    public Long getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public Integer getVotes() {
+        return votes;
+    }
+
+    public void setVotes(Integer votes) {
+        this.votes = votes;
+    }
+}
@@ -0,0 +1,66 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Describes the outcome of registering one row of an uploaded student list, e.g. for an exam
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class StudentRegistrationReportDTO {
+
+    public enum RegistrationStatus {
+        /** the student was found in the Artemis database and registered */
+        REGISTERED,
+        /** the student was not found in the Artemis database, but created based on the (TUM) LDAP and registered */
+        CREATED_AND_REGISTERED,
+        /** the student was already registered before */
+        ALREADY_REGISTERED,
+        /** the student could neither be found in the Artemis database nor in the (TUM) LDAP */
+        NOT_FOUND
+    }
+
+    private StudentDTO student;
+
+    private String login;
+
+    private RegistrationStatus status;
+
+    public StudentRegistrationReportDTO() {
+        // default constructor for Jackson
+    }
+
+    public StudentRegistrationReportDTO(StudentDTO student, String login, RegistrationStatus status) {
+        this.student = student;
+        this.login = login;
+        this.status = status;
+    }
+
+    public StudentDTO getStudent() {
+        return student;
+    }
+
+    public void setStudent(StudentDTO student) {
+        this.student = student;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public RegistrationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RegistrationStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentRegistrationReportDTO{" + "student=" + student + ", login='" + login + '\'' + ", status=" + status + '}';
+    }
+}
@@ -0,0 +1,48 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import de.tum.in.www1.artemis.domain.TextBlockType;
+
+/**
+ * The clustering state of a stored text block, which is compared with the results of Athene to only store the text blocks that have changed.
+ * Instances are created directly by a JPQL constructor expression, so that the text blocks (with their submissions and clusters) do not have to be loaded.
+ */
+public class TextBlockStateDTO {
+
+    private String id;
+
+    private Long clusterId;
+
+    private Integer positionInCluster;
+
+    private Double addedDistance;
+
+    private TextBlockType type;
+
+    public TextBlockStateDTO(String id, Long clusterId, Integer positionInCluster, Double addedDistance, TextBlockType type) {
+        this.id = id;
+        this.clusterId = clusterId;
+        this.positionInCluster = positionInCluster;
+        this.addedDistance = addedDistance;
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getClusterId() {
+        return clusterId;
+    }
+
+    public Integer getPositionInCluster() {
+        return positionInCluster;
+    }
+
+    public Double getAddedDistance() {
+        return addedDistance;
+    }
+
+    public TextBlockType getType() {
+        return type;
+    }
+}
@@ -3,11 +3,15 @@ package de.tum.in.www1.artemis.service.ldap;
 import static de.tum.in.www1.artemis.config.Constants.TUM_LDAP_MATRIKEL_NUMBER;
 import static org.springframework.ldap.query.LdapQueryBuilder.query;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.ldap.query.ContainerCriteria;
 import org.springframework.ldap.query.SearchScope;
 import org.springframework.stereotype.Service;
 
@@ -15,6 +19,11 @@ import org.springframework.stereotype.Service;
 @Profile("ldap")
 public class LdapUserService {
 
+    /**
+     * The maximum number of registration numbers combined into one OR filter, so that the LDAP search filter does not get too long
+     */
+    private static final int REGISTRATION_NUMBER_BATCH_SIZE = 100;
+
     @Value("${artemis.user-management.ldap.base}")
     private String ldapBase;
 
@@ -29,4 +38,26 @@ public class LdapUserService {
         return ldapUserRepository
                 .findOne(query().base(ldapBase).searchScope(SearchScope.SUBTREE).attributes(TUM_LDAP_MATRIKEL_NUMBER).where(TUM_LDAP_MATRIKEL_NUMBER).is(registrationNumber));
     }
+
+    /**
+     * Searches the LDAP for all users with one of the given registration numbers. The registration numbers are combined into OR filters, so that only one LDAP search is
+     * necessary per {@link #REGISTRATION_NUMBER_BATCH_SIZE} registration numbers instead of one search per registration number.
+     *
+     * @param registrationNumbers the registration numbers (= Matrikelnummer) to search for
+     * @return all LDAP users that were found, registration numbers without an LDAP user are not contained
+     */
+    public List<LdapUserDto> findAllByRegistrationNumbers(final Collection<String> registrationNumbers) {
+        final List<String> remainingRegistrationNumbers = new ArrayList<>(registrationNumbers);
+        final List<LdapUserDto> ldapUsers = new ArrayList<>();
+        for (int start = 0; start < remainingRegistrationNumbers.size(); start += REGISTRATION_NUMBER_BATCH_SIZE) {
+            final var batch = remainingRegistrationNumbers.subList(start, Math.min(start + REGISTRATION_NUMBER_BATCH_SIZE, remainingRegistrationNumbers.size()));
+            ContainerCriteria filter = query().base(ldapBase).searchScope(SearchScope.SUBTREE).attributes(TUM_LDAP_MATRIKEL_NUMBER).where(TUM_LDAP_MATRIKEL_NUMBER)
+                    .is(batch.get(0));
+            for (String registrationNumber : batch.subList(1, batch.size())) {
+                filter = filter.or(TUM_LDAP_MATRIKEL_NUMBER).is(registrationNumber);
+            }
+            ldapUserRepository.findAll(filter).forEach(ldapUsers::add);
+        }
+        return ldapUsers;
+    }
 }
@@ -0,0 +1,67 @@
+package de.tum.in.www1.artemis.service.metadata;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Immutable snapshot of the fields of a {@link de.tum.in.www1.artemis.domain.Course} that are needed for authorization checks, cached by the {@link MetadataCacheService}.
+ */
+public final class CourseMetadata {
+
+    private final Long id;
+
+    private final String title;
+
+    private final String studentGroupName;
+
+    private final String teachingAssistantGroupName;
+
+    private final String instructorGroupName;
+
+    private final ZonedDateTime startDate;
+
+    private final ZonedDateTime endDate;
+
+    public CourseMetadata(Long id, String title, String studentGroupName, String teachingAssistantGroupName, String instructorGroupName, ZonedDateTime startDate,
+            ZonedDateTime endDate) {
+        this.id = id;
+        this.title = title;
+        this.studentGroupName = studentGroupName;
+        this.teachingAssistantGroupName = teachingAssistantGroupName;
+        this.instructorGroupName = instructorGroupName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getStudentGroupName() {
+        return studentGroupName;
+    }
+
+    public String getTeachingAssistantGroupName() {
+        return teachingAssistantGroupName;
+    }
+
+    public String getInstructorGroupName() {
+        return instructorGroupName;
+    }
+
+    public ZonedDateTime getStartDate() {
+        return startDate;
+    }
+
+    public ZonedDateTime getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseMetadata{" + "id=" + id + ", title='" + title + '\'' + '}';
+    }
+}
@@ -0,0 +1,88 @@
+package de.tum.in.www1.artemis.service.metadata;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Immutable snapshot of the fields of an {@link de.tum.in.www1.artemis.domain.Exercise} that are needed for authorization checks, cached by the {@link MetadataCacheService}.
+ * The course id is the id of the course of the exercise or, for exam exercises, the id of the course of the exam.
+ */
+public final class ExerciseMetadata {
+
+    private final Long id;
+
+    private final String title;
+
+    private final Long courseId;
+
+    private final Long exerciseGroupId;
+
+    private final Long examId;
+
+    private final ZonedDateTime releaseDate;
+
+    private final ZonedDateTime dueDate;
+
+    private final ZonedDateTime assessmentDueDate;
+
+    public ExerciseMetadata(Long id, String title, Long courseId, Long exerciseGroupId, Long examId, ZonedDateTime releaseDate, ZonedDateTime dueDate,
+            ZonedDateTime assessmentDueDate) {
+        this.id = id;
+        this.title = title;
+        this.courseId = courseId;
+        this.exerciseGroupId = exerciseGroupId;
+        this.examId = examId;
+        this.releaseDate = releaseDate;
+        this.dueDate = dueDate;
+        this.assessmentDueDate = assessmentDueDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public Long getExerciseGroupId() {
+        return exerciseGroupId;
+    }
+
+    public Long getExamId() {
+        return examId;
+    }
+
+    public ZonedDateTime getReleaseDate() {
+        return releaseDate;
+    }
+
+    public ZonedDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public ZonedDateTime getAssessmentDueDate() {
+        return assessmentDueDate;
+    }
+
+    public boolean isExamExercise() {
+        return exerciseGroupId != null;
+    }
+
+    /**
+     * Same as {@link de.tum.in.www1.artemis.domain.Exercise#isVisibleToStudents()}
+     *
+     * @return true if the exercise has no release date or has been released
+     */
+    public boolean isVisibleToStudents() {
+        return releaseDate == null || releaseDate.isBefore(ZonedDateTime.now());
+    }
+
+    @Override
+    public String toString() {
+        return "ExerciseMetadata{" + "id=" + id + ", title='" + title + '\'' + ", courseId=" + courseId + ", examId=" + examId + '}';
+    }
+}
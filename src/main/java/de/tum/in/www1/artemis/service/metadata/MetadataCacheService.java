@@ -0,0 +1,274 @@
+package de.tum.in.www1.artemis.service.metadata;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Caches immutable snapshots of the read-mostly metadata of courses and exercises (e.g. the group names and dates needed for authorization checks),
+ * so that these checks do not have to load the entities from the database for every request or websocket subscription.
+ * <p>
+ * Each node caches the snapshots locally. When one of the entities is updated or deleted, the snapshot is removed after the transaction has been committed and the other
+ * nodes are notified via a Hazelcast topic. As a safety net for lost notifications (e.g. while a node rejoins the cluster) and bulk updates that bypass the entity
+ * listeners, snapshots are reloaded after at most maxAge. The hit rates, the number of invalidations and the delay until invalidations reach the other nodes are published
+ * as metrics.
+ */
+@Service
+public class MetadataCacheService {
+
+    private final Logger log = LoggerFactory.getLogger(MetadataCacheService.class);
+
+    public static final String REQUESTS_METRIC = "artemis.metadata.cache.requests";
+
+    public static final String SIZE_METRIC = "artemis.metadata.cache.size";
+
+    public static final String INVALIDATIONS_METRIC = "artemis.metadata.cache.invalidations";
+
+    public static final String INVALIDATION_DELAY_METRIC = "artemis.metadata.cache.invalidation.delay";
+
+    public static final String MAX_AGE_METRIC = "artemis.metadata.cache.max.age";
+
+    private static final String TOPIC_PREFIX = "metadata-cache-invalidation-";
+
+    private final SnapshotCache<CourseMetadata> courses;
+
+    private final SnapshotCache<ExerciseMetadata> exercises;
+
+    public MetadataCacheService(CourseRepository courseRepository, ExerciseRepository exerciseRepository, HazelcastInstance hazelcastInstance,
+            EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry, @Value("${artemis.metadata-cache.max-age-in-seconds:300}") long maxAgeInSeconds) {
+        final long maxAgeInNanos = TimeUnit.SECONDS.toNanos(maxAgeInSeconds);
+        courses = new SnapshotCache<>("course", courseRepository::findMetadataById, maxAgeInNanos, hazelcastInstance, meterRegistry);
+        exercises = new SnapshotCache<>("exercise", exerciseRepository::findMetadataById, maxAgeInNanos, hazelcastInstance, meterRegistry);
+        Gauge.builder(MAX_AGE_METRIC, () -> maxAgeInSeconds).baseUnit("seconds").description("Upper bound for the age of cached metadata snapshots").register(meterRegistry);
+
+        // notify the cache about committed changes of the cached entities, regardless of the service or repository that changed them
+        final var invalidationListener = new InvalidationListener();
+        final var eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, invalidationListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, invalidationListener);
+    }
+
+    /**
+     * Returns the snapshot of the course
+     *
+     * @param courseId the id of the course
+     * @return the cached or newly loaded snapshot
+     * @throws EntityNotFoundException if the course does not exist
+     */
+    public CourseMetadata getCourse(Long courseId) {
+        return courses.get(courseId);
+    }
+
+    /**
+     * Returns the snapshot of the exercise
+     *
+     * @param exerciseId the id of the exercise
+     * @return the cached or newly loaded snapshot
+     * @throws EntityNotFoundException if the exercise does not exist
+     */
+    public ExerciseMetadata getExercise(Long exerciseId) {
+        return exercises.get(exerciseId);
+    }
+
+    /**
+     * Returns the snapshot of the course of the exercise, for exam exercises the course of the exam
+     *
+     * @param exerciseId the id of the exercise
+     * @return the cached or newly loaded snapshot of the course
+     * @throws EntityNotFoundException if the exercise does not exist
+     */
+    public CourseMetadata getCourseOfExercise(Long exerciseId) {
+        return getCourse(getExercise(exerciseId).getCourseId());
+    }
+
+    /**
+     * Removes all snapshots cached on this node, e.g. after the database has been changed without the entity listeners
+     */
+    public void clear() {
+        List.of(courses, exercises).forEach(SnapshotCache::clear);
+    }
+
+    /**
+     * Invalidates the snapshot of the changed entity on this node and publishes the invalidation to the other nodes
+     */
+    private void onEntityChanged(Object entity) {
+        if (entity instanceof Course) {
+            courses.invalidateInCluster(((Course) entity).getId());
+        }
+        else if (entity instanceof Exercise) {
+            exercises.invalidateInCluster(((Exercise) entity).getId());
+        }
+    }
+
+    private static boolean isCachedEntity(Class<?> entityClass) {
+        return Course.class.isAssignableFrom(entityClass) || Exercise.class.isAssignableFrom(entityClass);
+    }
+
+    private class InvalidationListener implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            onEntityChanged(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // nothing has changed
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            onEntityChanged(event.getEntity());
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // nothing has changed
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return isCachedEntity(persister.getMappedClass());
+        }
+    }
+
+    /**
+     * The local cache of the snapshots of one entity type
+     */
+    private final class SnapshotCache<T> {
+
+        private final String name;
+
+        private final Function<Long, Optional<T>> loader;
+
+        private final long maxAgeInNanos;
+
+        private final Map<Long, CacheEntry<T>> entries = new ConcurrentHashMap<>();
+
+        /**
+         * Incremented by every invalidation, a snapshot loaded while an invalidation happened might be outdated and is not cached
+         */
+        private final AtomicLong invalidationCount = new AtomicLong();
+
+        private final ITopic<Long> invalidationTopic;
+
+        private final Counter hits;
+
+        private final Counter misses;
+
+        private final Counter localInvalidations;
+
+        private final Counter remoteInvalidations;
+
+        private final Timer invalidationDelay;
+
+        SnapshotCache(String name, Function<Long, Optional<T>> loader, long maxAgeInNanos, HazelcastInstance hazelcastInstance, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.loader = loader;
+            this.maxAgeInNanos = maxAgeInNanos;
+            this.hits = Counter.builder(REQUESTS_METRIC).tag("cache", name).tag("result", "hit").description("Number of metadata lookups").register(meterRegistry);
+            this.misses = Counter.builder(REQUESTS_METRIC).tag("cache", name).tag("result", "miss").description("Number of metadata lookups").register(meterRegistry);
+            this.localInvalidations = Counter.builder(INVALIDATIONS_METRIC).tag("cache", name).tag("origin", "local").description("Number of invalidated metadata snapshots")
+                    .register(meterRegistry);
+            this.remoteInvalidations = Counter.builder(INVALIDATIONS_METRIC).tag("cache", name).tag("origin", "remote").description("Number of invalidated metadata snapshots")
+                    .register(meterRegistry);
+            this.invalidationDelay = Timer.builder(INVALIDATION_DELAY_METRIC).tag("cache", name).description("Delay until an invalidation reaches the other nodes")
+                    .register(meterRegistry);
+            Gauge.builder(SIZE_METRIC, entries, Map::size).tag("cache", name).description("Number of cached metadata snapshots").register(meterRegistry);
+            this.invalidationTopic = hazelcastInstance.getTopic(TOPIC_PREFIX + name);
+            this.invalidationTopic.addMessageListener(this::onInvalidationMessage);
+        }
+
+        T get(Long id) {
+            final CacheEntry<T> entry = entries.get(id);
+            if (entry != null && System.nanoTime() - entry.loadedAt < maxAgeInNanos) {
+                hits.increment();
+                return entry.snapshot;
+            }
+            misses.increment();
+            final long invalidationCountBeforeLoad = invalidationCount.get();
+            final long loadedAt = System.nanoTime();
+            final T snapshot = loader.apply(id).orElseThrow(() -> new EntityNotFoundException("The " + name + " with id " + id + " does not exist"));
+            if (invalidationCount.get() == invalidationCountBeforeLoad) {
+                final CacheEntry<T> loadedEntry = new CacheEntry<>(snapshot, loadedAt);
+                entries.put(id, loadedEntry);
+                // an invalidation between the check and the put has not removed the loaded entry, which might therefore be outdated
+                if (invalidationCount.get() != invalidationCountBeforeLoad) {
+                    entries.remove(id, loadedEntry);
+                }
+            }
+            return snapshot;
+        }
+
+        void invalidateInCluster(Long id) {
+            invalidate(id);
+            localInvalidations.increment();
+            invalidationTopic.publish(id);
+        }
+
+        void clear() {
+            invalidationCount.incrementAndGet();
+            entries.clear();
+        }
+
+        private void invalidate(Long id) {
+            invalidationCount.incrementAndGet();
+            entries.remove(id);
+        }
+
+        private void onInvalidationMessage(Message<Long> message) {
+            if (message.getPublishingMember() != null && message.getPublishingMember().localMember()) {
+                // already invalidated when the change was committed on this node
+                return;
+            }
+            invalidate(message.getMessageObject());
+            remoteInvalidations.increment();
+            invalidationDelay.record(Math.max(System.currentTimeMillis() - message.getPublishTime(), 0), TimeUnit.MILLISECONDS);
+            log.debug("Invalidated the {} metadata {} after a change on another node", name, message.getMessageObject());
+        }
+    }
+
+    private static final class CacheEntry<T> {
+
+        private final T snapshot;
+
+        /**
+         * The value of System.nanoTime() when the snapshot was loaded
+         */
+        private final long loadedAt;
+
+        private CacheEntry(T snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
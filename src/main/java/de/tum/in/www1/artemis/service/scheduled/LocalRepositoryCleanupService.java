@@ -0,0 +1,29 @@
+package de.tum.in.www1.artemis.service.scheduled;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.tum.in.www1.artemis.service.connectors.GitService;
+
+/**
+ * Keeps the heap and disk usage of the local repositories bounded. In contrast to other scheduled services, this service runs on every instance,
+ * because each instance has its own repository cache and (potentially) its own clone folder.
+ */
+@Service
+public class LocalRepositoryCleanupService {
+
+    private final GitService gitService;
+
+    public LocalRepositoryCleanupService(GitService gitService) {
+        this.gitService = gitService;
+    }
+
+    /**
+     * Closes idle repositories and deletes the least recently used local repositories if the disk quota is exceeded
+     */
+    @Scheduled(initialDelay = 10 * 60 * 1000, fixedDelay = 10 * 60 * 1000) // execute this every 10 minutes
+    public void cleanupLocalRepositories() {
+        gitService.evictIdleRepositories();
+        gitService.deleteLeastRecentlyUsedRepositoriesExceedingDiskQuota();
+    }
+}
@@ -52,6 +52,16 @@ final class EmptyQuizExerciseCache extends QuizExerciseCache {
         return Map.of();
     }
 
+    @Override
+    Map<String, Boolean> getSubmittedUsers() {
+        return Map.of();
+    }
+
+    @Override
+    Map<Class<?>, QuizStudentView> getStudentViews() {
+        return Map.of();
+    }
+
     @Override
     List<ScheduledTaskHandler> getQuizStart() {
         return List.of();
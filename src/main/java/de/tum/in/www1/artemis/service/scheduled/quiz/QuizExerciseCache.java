@@ -48,6 +48,17 @@ abstract class QuizExerciseCache {
      */
     abstract Map<String, StudentParticipation> getParticipations();
 
+    /**
+     * Index of the users who have submitted the quiz (user name -> true), so that further submissions can be rejected without loading participations or submissions
+     */
+    abstract Map<String, Boolean> getSubmittedUsers();
+
+    /**
+     * Precomputed student views of the quiz exercise by the {@link de.tum.in.www1.artemis.domain.view.QuizView} of the quiz state they were created for, only cached locally and
+     * discarded whenever the exercise is set
+     */
+    abstract Map<Class<?>, QuizStudentView> getStudentViews();
+
     /**
      * The scheduled start tasks of the QuizExercise
      */
@@ -3,6 +3,7 @@ package de.tum.in.www1.artemis.service.scheduled.quiz;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
@@ -41,6 +42,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
 
     private static final String HAZELCAST_CACHE_RESULTS = "-results";
 
+    private static final String HAZELCAST_CACHE_SUBMITTED_USERS = "-submitted-users";
+
     /**
      * All {@link List} classes that are supported by Hazelcast {@link SerializationServiceV1}
      */
@@ -56,8 +59,13 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
      */
     private transient QuizExercise exercise;
 
+    /**
+     * The student views created from the {@link QuizExercise}, only cached locally like the exercise itself.
+     */
+    private final transient Map<Class<?>, QuizStudentView> studentViews = new ConcurrentHashMap<>();
+
     /*
-     * All three IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
+     * All four IMaps are distributed Hazelcast objects and must not be (de-)serialized, they are all set in the setHazelcastInstance method.
      */
 
     private transient IMap<String, StudentParticipation> participations;
@@ -69,6 +77,11 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
      */
     private transient IMap<Long, Result> results;
 
+    /**
+     * Only contains the user names as keys, so that checking whether a user has submitted does not need to deserialize any entity
+     */
+    private transient IMap<String, Boolean> submittedUsers;
+
     QuizExerciseDistributedCache(Long exerciseId, List<ScheduledTaskHandler> quizStart, QuizExercise exercise) {
         super(Objects.requireNonNull(exerciseId, "exerciseId must not be null"));
         setQuizStart(quizStart);
@@ -99,6 +112,16 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         return participations;
     }
 
+    @Override
+    Map<String, Boolean> getSubmittedUsers() {
+        return submittedUsers;
+    }
+
+    @Override
+    Map<Class<?>, QuizStudentView> getStudentViews() {
+        return studentViews;
+    }
+
     @Override
     List<ScheduledTaskHandler> getQuizStart() {
         return quizStart;
@@ -112,6 +135,8 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
     @Override
     void setExercise(QuizExercise newExercise) {
         this.exercise = newExercise;
+        // the student views might show outdated information of the exercise
+        studentViews.clear();
     }
 
     @Override
@@ -142,7 +167,9 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations.destroy();
         submissions.destroy();
         results.destroy();
+        submittedUsers.destroy();
         exercise = null;
+        studentViews.clear();
     }
 
     @Override
@@ -154,6 +181,7 @@ final class QuizExerciseDistributedCache extends QuizExerciseCache implements Ha
         participations = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_PARTICIPATIONS);
         submissions = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_SUBMISSIONS);
         results = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_RESULTS);
+        submittedUsers = hazelcastInstance.getMap(Constants.HAZELCAST_QUIZ_PREFIX + getExerciseId() + HAZELCAST_CACHE_SUBMITTED_USERS);
     }
 
     /**
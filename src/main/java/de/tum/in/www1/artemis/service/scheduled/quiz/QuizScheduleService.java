@@ -1,7 +1,5 @@
 package de.tum.in.www1.artemis.service.scheduled.quiz;
 
-import static de.tum.in.www1.artemis.service.util.TimeLogUtil.formatDurationFrom;
-
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
@@ -33,6 +31,7 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.domain.quiz.SubmittedAnswer;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
 import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
@@ -147,6 +146,28 @@ public class QuizScheduleService {
         }
     }
 
+    /**
+     * mark the user as submitted in the index of submitted users of the quiz, which is checked before each live submission
+     *
+     * @param quizExerciseId the quizExerciseId of the quiz the user submitted
+     * @param username       the username of the user, who submitted the quiz
+     * @return true if the user was marked as submitted, false if the user had already been marked before (e.g. by a concurrent request)
+     */
+    public boolean markUserAsSubmitted(Long quizExerciseId, String username) {
+        return quizCache.getTransientWriteCacheFor(quizExerciseId).getSubmittedUsers().putIfAbsent(username, Boolean.TRUE) == null;
+    }
+
+    /**
+     * check if the user has already submitted the quiz, this does not load any participation or submission from the cache
+     *
+     * @param quizExerciseId the quizExerciseId of the quiz
+     * @param username       the username of the user
+     * @return true if the user has already submitted the quiz
+     */
+    public boolean hasUserSubmitted(Long quizExerciseId, String username) {
+        return quizCache.getReadCacheFor(quizExerciseId).getSubmittedUsers().containsKey(username);
+    }
+
     /**
      * get a cached quizSubmission by quizExerciseId and username
      *
@@ -201,6 +222,42 @@ public class QuizScheduleService {
         return quizExercise;
     }
 
+    /**
+     * get the quiz exercise for its student view: in contrast to {@link #getQuizExercise(Long)}, quiz exercises which are not cached yet are only added to the cache while
+     * students can submit, so that requests for quizzes which did not start yet or already ended do not fill the cache
+     *
+     * @param quizExerciseId the id of the quiz exercise
+     * @return the cached quiz exercise, the quiz exercise from the database if it is not active, or null if it does not exist
+     */
+    public QuizExercise getQuizExerciseForStudentView(Long quizExerciseId) {
+        QuizExercise quizExercise = quizCache.getReadCacheFor(quizExerciseId).getExercise();
+        if (quizExercise != null) {
+            return quizExercise;
+        }
+        quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExerciseId);
+        if (quizExercise != null && quizExercise.isSubmissionAllowed()) {
+            updateQuizExercise(quizExercise);
+        }
+        return quizExercise;
+    }
+
+    /**
+     * get the student view of the given quiz exercise for its current state. While students can submit, the view is only created once per state and instance until the quiz
+     * exercise is updated, otherwise it is created for each request and not cached.
+     *
+     * @param quizExercise the quiz exercise, see {@link #getQuizExerciseForStudentView(Long)}
+     * @return the student view of the quiz exercise, or null if the quiz exercise does not exist anymore
+     */
+    public QuizStudentView getStudentView(QuizExercise quizExercise) {
+        if (!quizExercise.isSubmissionAllowed()) {
+            return quizExerciseService.createStudentView(quizExercise.getId());
+        }
+        Class<?> view = quizExerciseService.viewForStudentsInQuizExercise(quizExercise);
+        // concurrent requests for the same state wait for the student view to be created once
+        return quizCache.getTransientWriteCacheFor(quizExercise.getId()).getStudentViews().computeIfAbsent(view,
+                key -> quizExerciseService.createStudentView(quizExercise.getId()));
+    }
+
     /**
      * cache the quiz exercise for faster retrieval during the quiz
      *
@@ -418,8 +475,6 @@ public class QuizScheduleService {
                 quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizExerciseId);
 
                 // Save cached Submissions (this will also generate results and participations and place them in the cache)
-                long start = System.nanoTime();
-
                 // TODO avoid some distribution?
 
                 if (hasNewSubmissions) {
@@ -433,13 +488,11 @@ public class QuizScheduleService {
                         hasNewParticipations = true;
                         hasNewResults = true;
 
-                        log.info("Saved {} submissions to database in {} in quiz {}", numberOfSubmittedSubmissions, formatDurationFrom(start), quizExercise.getTitle());
+                        log.info("Saved {} submissions to database in quiz {}", numberOfSubmittedSubmissions, quizExercise.getTitle());
                     }
                 }
 
                 // Send out Participations from ParticipationHashMap to each user if the quiz has ended
-                start = System.nanoTime();
-
                 if (hasNewParticipations && hasEnded) {
                     // Send the participation with containing result and quiz back to the users via websocket and remove the participation from the ParticipationHashMap
                     Collection<Entry<String, StudentParticipation>> finishedParticipations = cachedQuiz.getParticipations().entrySet();
@@ -455,13 +508,11 @@ public class QuizScheduleService {
                         }
                     });
                     if (finishedParticipations.size() > 0) {
-                        log.info("Sent out {} participations in {} for quiz {}", finishedParticipations.size(), formatDurationFrom(start), quizExercise.getTitle());
+                        log.info("Sent out {} participations for quiz {}", finishedParticipations.size(), quizExercise.getTitle());
                     }
                 }
 
                 // Update Statistics with Results (DB Read and DB Write) and remove the results from the cache
-                start = System.nanoTime();
-
                 if (hasNewResults) {
                     // Fetch a new quiz exercise here including deeper attribute paths (this is relatively expensive, so we only do that if necessary)
                     try {
@@ -469,7 +520,7 @@ public class QuizScheduleService {
                         Set<Result> newResultsForQuiz = Set.copyOf(cachedQuiz.getResults().values());
                         // Update the statistics
                         quizStatisticService.updateStatistics(newResultsForQuiz, quizExercise);
-                        log.info("Updated statistics with {} new results in {} for quiz {}", newResultsForQuiz.size(), formatDurationFrom(start), quizExercise.getTitle());
+                        log.info("Updated statistics with {} new results for quiz {}", newResultsForQuiz.size(), quizExercise.getTitle());
                         // Remove only processed results
                         for (Result result : newResultsForQuiz) {
                             cachedQuiz.getResults().remove(result.getId());
@@ -488,6 +539,8 @@ public class QuizScheduleService {
 
     private void removeCachedQuiz(QuizExerciseCache cachedQuiz) {
         cancelScheduledQuizStart(cachedQuiz.getExerciseId());
+        // the quiz has ended, so no further submissions are accepted and the index of submitted users is not needed anymore
+        cachedQuiz.getSubmittedUsers().clear();
         quizCache.remove(cachedQuiz.getExerciseId());
     }
 
@@ -535,6 +588,8 @@ public class QuizScheduleService {
     private int saveQuizSubmissionWithParticipationAndResultToDatabase(@NotNull QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap) {
 
         int count = 0;
+        // compile the scoring plan only once for all submissions
+        QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
 
         for (String username : userSubmissionMap.keySet()) {
             try {
@@ -576,8 +631,8 @@ public class QuizScheduleService {
                 result.setSubmission(quizSubmission);
 
                 // calculate scores and update result and submission accordingly
-                quizSubmission.calculateAndUpdateScores(quizExercise);
-                result.evaluateSubmission();
+                quizSubmission.calculateAndUpdateScores(scoringPlan);
+                result.evaluateSubmission(scoringPlan);
 
                 // add result to participation
                 participation.addResult(result);
@@ -0,0 +1,80 @@
+package de.tum.in.www1.artemis.service.scheduled.quiz;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.util.DigestUtils;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+
+/**
+ * The precomputed JSON of a quiz exercise filtered for students, as it is returned to students in one state of the quiz (before start, active or ended).
+ * <p>
+ * The time dependent properties {@link QuizExercise#getRemainingTime()} and {@link QuizExercise#getTimeUntilPlannedStart()} change every second and are therefore not
+ * part of the precomputed JSON and the ETag, they are appended for each response.
+ */
+public final class QuizStudentView {
+
+    /**
+     * The JSON properties of the quiz exercise that are not part of the precomputed JSON
+     */
+    public static final List<String> TIME_DEPENDENT_PROPERTIES = List.of("remainingTime", "timeUntilPlannedStart");
+
+    private final byte[] json;
+
+    private final String eTag;
+
+    /**
+     * @param json the JSON object of the filtered quiz exercise without the {@link #TIME_DEPENDENT_PROPERTIES}
+     */
+    public QuizStudentView(byte[] json) {
+        if (json.length < 2 || json[json.length - 1] != '}') {
+            throw new IllegalArgumentException("The student view of a quiz exercise must be a JSON object");
+        }
+        this.json = json;
+        this.eTag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    /**
+     * The strong ETag of the student view, which only changes if the quiz exercise is changed or enters another state
+     *
+     * @return the quoted ETag
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Appends the current values of the time dependent properties of the given quiz exercise to the precomputed JSON
+     *
+     * @param quizExercise the quiz exercise the student view was created for
+     * @return the JSON of the student view as it would be serialized from the filtered quiz exercise now
+     */
+    public byte[] toJson(QuizExercise quizExercise) {
+        StringBuilder timeDependentProperties = new StringBuilder();
+        appendProperty(timeDependentProperties, TIME_DEPENDENT_PROPERTIES.get(0), quizExercise.getRemainingTime());
+        appendProperty(timeDependentProperties, TIME_DEPENDENT_PROPERTIES.get(1), quizExercise.getTimeUntilPlannedStart());
+        if (timeDependentProperties.length() == 0) {
+            return json;
+        }
+        timeDependentProperties.append('}');
+        byte[] suffix = timeDependentProperties.toString().getBytes(StandardCharsets.UTF_8);
+        // replace the closing brace of the precomputed JSON object with the time dependent properties
+        int start = json.length - 1;
+        byte[] result = new byte[start + suffix.length];
+        System.arraycopy(json, 0, result, 0, start);
+        System.arraycopy(suffix, 0, result, start, suffix.length);
+        return result;
+    }
+
+    private void appendProperty(StringBuilder properties, String name, Long value) {
+        // null values are not included, like for all properties of the quiz exercise
+        if (value == null) {
+            return;
+        }
+        if (properties.length() > 0 || json.length > 2) {
+            properties.append(',');
+        }
+        properties.append('"').append(name).append("\":").append(value);
+    }
+}
@@ -2,6 +2,11 @@ package de.tum.in.www1.artemis.web.rest;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +15,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.service.connectors.AtheneService;
@@ -30,20 +41,25 @@ public class AtheneResource {
 
     private final AtheneService atheneService;
 
-    public AtheneResource(AtheneService atheneService) {
+    private final ObjectMapper objectMapper;
+
+    public AtheneResource(AtheneService atheneService, ObjectMapper objectMapper) {
         this.atheneService = atheneService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Saves automatic textAssessments of Athene
      *
      * @param exerciseId The exerciseId of the exercise which will be saved
-     * @param requestBody The calculation results containing blocks and clusters
+     * @param request The request whose body contains the calculation results with blocks and clusters
      * @param auth The secret for authorization
-     * @return 200 Ok if successful or 401 unauthorized if secret is wrong
+     * @return 200 Ok if successful, 400 bad request if the results cannot be read or 401 unauthorized if secret is wrong
+     * @throws IOException if the request body cannot be read
      */
     @PostMapping(value = "/{exerciseId}", consumes = APPLICATION_JSON_VALUE)
-    public ResponseEntity<Result> saveAtheneResult(@PathVariable Long exerciseId, @RequestBody AtheneDTO requestBody, @RequestHeader("Authorization") String auth) {
+    public ResponseEntity<Result> saveAtheneResult(@PathVariable Long exerciseId, HttpServletRequest request, @RequestHeader("Authorization") String auth)
+            throws IOException {
         log.debug("REST call to inform about new Athene results for exercise: {}", exerciseId);
 
         // Check Authorization header
@@ -56,12 +72,61 @@ public class AtheneResource {
             return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
 
+        final AtheneDTO results;
+        try {
+            results = readResults(request.getInputStream());
+        }
+        catch (JsonProcessingException | NumberFormatException ex) {
+            log.warn("Could not read Athene results for exercise {}: {}", exerciseId, ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
         // The atheneService will manage the processing and database saving
-        atheneService.processResult(requestBody.getClusters(), requestBody.getBlocks(), exerciseId);
+        atheneService.processResult(results.getClusters(), results.getBlocks(), exerciseId);
 
         log.debug("REST call for new Athene results for exercise {} finished", exerciseId);
 
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Reads the results as stream and only binds single blocks and clusters, so that the request body is not held in memory as a whole
+     *
+     * @param inputStream the request body
+     * @return the blocks and clusters of the results, without the cluster containing the blocks that belong to no cluster
+     */
+    private AtheneDTO readResults(InputStream inputStream) throws IOException {
+        final AtheneDTO results = new AtheneDTO();
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The results must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("blocks".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        results.getBlocks().add(objectMapper.readValue(parser, AtheneDTO.TextBlockDTO.class));
+                    }
+                }
+                else if ("clusters".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final int clusterKey = Integer.parseInt(parser.getCurrentName());
+                        parser.nextToken();
+                        if (clusterKey == -1) {
+                            parser.skipChildren();
+                        }
+                        else {
+                            results.getClusters().put(clusterKey, objectMapper.readValue(parser, AtheneDTO.TextClusterDTO.class));
+                        }
+                    }
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return results;
+    }
+
 }
@@ -105,12 +105,14 @@ public class CourseResource {
 
     private final Environment env;
 
+    private final NotificationService notificationService;
+
     public CourseResource(UserService userService, CourseService courseService, ParticipationService participationService, CourseRepository courseRepository,
             ExerciseService exerciseService, AuthorizationCheckService authCheckService, TutorParticipationService tutorParticipationService, Environment env,
             ArtemisAuthenticationProvider artemisAuthenticationProvider, ComplaintRepository complaintRepository, ComplaintResponseRepository complaintResponseRepository,
             SubmissionService submissionService, ResultService resultService, ComplaintService complaintService, TutorLeaderboardService tutorLeaderboardService,
             ProgrammingExerciseService programmingExerciseService, AuditEventRepository auditEventRepository, Optional<VcsUserManagementService> vcsUserManagementService,
-            AssessmentDashboardService assessmentDashboardService) {
+            AssessmentDashboardService assessmentDashboardService, NotificationService notificationService) {
         this.userService = userService;
         this.courseService = courseService;
         this.participationService = participationService;
@@ -128,6 +130,7 @@ public class CourseResource {
         this.programmingExerciseService = programmingExerciseService;
         this.vcsUserManagementService = vcsUserManagementService;
         this.auditEventRepository = auditEventRepository;
+        this.notificationService = notificationService;
         this.env = env;
         this.assessmentDashboardService = assessmentDashboardService;
     }
@@ -279,7 +282,13 @@ public class CourseResource {
         // users no longer have TA or instructor rights in the related exercise repositories.
         final var oldInstructorGroup = existingCourse.get().getInstructorGroupName();
         final var oldTeachingAssistantGroup = existingCourse.get().getTeachingAssistantGroupName();
+        final boolean groupsChanged = !Objects.equals(existingCourse.get().getStudentGroupName(), updatedCourse.getStudentGroupName())
+                || !Objects.equals(oldTeachingAssistantGroup, updatedCourse.getTeachingAssistantGroupName())
+                || !Objects.equals(oldInstructorGroup, updatedCourse.getInstructorGroupName());
         Course result = courseService.save(updatedCourse);
+        if (groupsChanged) {
+            notificationService.updateRecipientGroups(result);
+        }
         vcsUserManagementService.ifPresent(userManagementService -> userManagementService.updateCoursePermissions(result, oldInstructorGroup, oldTeachingAssistantGroup));
         return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, updatedCourse.getTitle())).body(result);
     }
@@ -414,15 +423,12 @@ public class CourseResource {
     @PreAuthorize("hasAnyRole('TA', 'INSTRUCTOR', 'ADMIN')")
     public List<Course> getAllCoursesWithUserStats(@RequestParam(defaultValue = "false") boolean onlyActive) {
         log.debug("get courses with user stats, only active: " + onlyActive);
-        long start = System.currentTimeMillis();
         List<Course> courses = getAllCourses(onlyActive);
         for (Course course : courses) {
             course.setNumberOfInstructors(userService.countUserInGroup(course.getInstructorGroupName()));
             course.setNumberOfTeachingAssistants(userService.countUserInGroup(course.getTeachingAssistantGroupName()));
             course.setNumberOfStudents(userService.countUserInGroup(course.getStudentGroupName()));
         }
-        long end = System.currentTimeMillis();
-        log.debug("getAllCoursesWithUserStats took " + (end - start) + "ms for " + courses.size() + " courses");
         return courses;
     }
 
@@ -446,11 +452,10 @@ public class CourseResource {
     @GetMapping("/courses/{courseId}/for-dashboard")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
     public Course getCourseForDashboard(@PathVariable long courseId) {
-        long start = System.currentTimeMillis();
         User user = userService.getUserWithGroupsAndAuthorities();
 
         Course course = courseService.findOneWithExercisesAndLecturesForUser(courseId, user);
-        fetchParticipationsWithSubmissionsAndResultsForCourses(List.of(course), user, start);
+        fetchParticipationsWithSubmissionsAndResultsForCourses(List.of(course), user);
         return course;
     }
 
@@ -458,9 +463,8 @@ public class CourseResource {
      * Note: The number of courses should not change
      * @param courses the courses for which the participations should be fetched
      * @param user  the user for which the participations should be fetched
-     * @param startTimeInMillis start time for logging purposes
      */
-    public void fetchParticipationsWithSubmissionsAndResultsForCourses(List<Course> courses, User user, long startTimeInMillis) {
+    public void fetchParticipationsWithSubmissionsAndResultsForCourses(List<Course> courses, User user) {
         Map<ExerciseMode, List<Exercise>> activeExercises = courses.stream().flatMap(course -> course.getExercises().stream()).collect(Collectors.groupingBy(Exercise::getMode));
         List<Exercise> activeIndividualExercises = Optional.ofNullable(activeExercises.get(ExerciseMode.INDIVIDUAL)).orElse(List.of());
         List<Exercise> activeTeamExercises = Optional.ofNullable(activeExercises.get(ExerciseMode.TEAM)).orElse(List.of());
@@ -493,8 +497,8 @@ public class CourseResource {
                 }
             }
         }
-        log.info("/courses/for-dashboard.done in " + (System.currentTimeMillis() - startTimeInMillis) + "ms for " + courses.size() + " courses with "
-                + activeIndividualExercises.size() + " individual exercises and " + activeTeamExercises.size() + " team exercises for user " + user.getLogin());
+        log.debug("/courses/for-dashboard.done for {} courses with {} individual exercises and {} team exercises for user {}", courses.size(), activeIndividualExercises.size(),
+                activeTeamExercises.size(), user.getLogin());
     }
 
     /**
@@ -505,13 +509,12 @@ public class CourseResource {
     @GetMapping("/courses/for-dashboard")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
     public List<Course> getAllCoursesForDashboard() {
-        long start = System.currentTimeMillis();
         log.debug("REST request to get all Courses the user has access to with exercises, participations and results");
         User user = userService.getUserWithGroupsAndAuthorities();
 
         // get all courses with exercises for this user
         List<Course> courses = courseService.findAllActiveWithExercisesAndLecturesForUser(user);
-        fetchParticipationsWithSubmissionsAndResultsForCourses(courses, user, start);
+        fetchParticipationsWithSubmissionsAndResultsForCourses(courses, user);
         return courses;
     }
 
@@ -645,7 +648,6 @@ public class CourseResource {
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     public ResponseEntity<Course> getCourseWithExercisesAndRelevantParticipations(@PathVariable Long courseId) throws AccessForbiddenException {
         log.debug("REST request to get Course with exercises and relevant participations : {}", courseId);
-        long start = System.currentTimeMillis();
         Course course = courseService.findOneWithExercises(courseId);
         User user = userService.getUserWithGroupsAndAuthorities();
         if (!authCheckService.isAtLeastInstructorInCourse(course, user)) {
@@ -678,8 +680,6 @@ public class CourseResource {
             exercise.setNumberOfComplaints(numberOfComplaints);
             exercise.setNumberOfMoreFeedbackRequests(numberOfMoreFeedbackRequests);
         }
-        long end = System.currentTimeMillis();
-        log.info("Finished /courses/" + courseId + "/with-exercises-and-relevant-participations call in " + (end - start) + "ms");
         return ResponseUtil.wrapOrNotFound(Optional.of(course));
     }
 
@@ -694,7 +694,6 @@ public class CourseResource {
     @PreAuthorize("hasAnyRole('TA', 'INSTRUCTOR', 'ADMIN')")
     public ResponseEntity<List<Submission>> getLockedSubmissionsForCourse(@PathVariable Long courseId) throws AccessForbiddenException {
         log.debug("REST request to get all locked submissions for course : {}", courseId);
-        long start = System.currentTimeMillis();
         Course course = courseService.findOneWithExercises(courseId);
         User user = userService.getUserWithGroupsAndAuthorities();
         if (!authCheckService.isAtLeastTeachingAssistantInCourse(course, user)) {
@@ -707,8 +706,6 @@ public class CourseResource {
             submissionService.hideDetails(submission, user);
         }
 
-        long end = System.currentTimeMillis();
-        log.debug("Finished /courses/" + courseId + "/submissions call in " + (end - start) + "ms");
         return ResponseEntity.ok(submissions);
     }
 
@@ -726,7 +723,6 @@ public class CourseResource {
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     public ResponseEntity<StatsForInstructorDashboardDTO> getStatsForInstructorDashboard(@PathVariable Long courseId) throws AccessForbiddenException {
         log.debug("REST request /courses/{courseId}/stats-for-instructor-dashboard");
-        final long start = System.currentTimeMillis();
         final Course course = courseService.findOne(courseId);
         final User user = userService.getUserWithGroupsAndAuthorities();
         if (!authCheckService.isAtLeastTeachingAssistantInCourse(course, user)) {
@@ -759,13 +755,9 @@ public class CourseResource {
         final long numberOfAssessmentLocks = submissionService.countSubmissionLocks(courseId);
         stats.setNumberOfAssessmentLocks(numberOfAssessmentLocks);
 
-        final long startT = System.currentTimeMillis();
         List<TutorLeaderboardDTO> leaderboardEntries = tutorLeaderboardService.getCourseLeaderboard(course);
         stats.setTutorLeaderboardEntries(leaderboardEntries);
 
-        log.info("Finished TutorLeaderboard in " + (System.currentTimeMillis() - startT) + "ms");
-
-        log.info("Finished /courses/" + courseId + "/stats-for-instructor-dashboard call in " + (System.currentTimeMillis() - start) + "ms");
         return ResponseEntity.ok(stats);
     }
 
@@ -916,6 +908,41 @@ public class CourseResource {
         return addUserToCourseGroup(instructorLogin, userService.getUserWithGroupsAndAuthorities(), course, course.getInstructorGroupName());
     }
 
+    /**
+     * Post /courses/:courseId/:courseGroup : Add all given users to the students, tutors or instructors of the course at once, e.g. to enroll all students of a large
+     * course. The users are saved in one transaction, the external user management and the version control system are synchronized in the background.
+     *
+     * @param courseId    the id of the course
+     * @param courseGroup the group of the course to which the users should be added, i.e. students, tutors or instructors
+     * @param userLogins  the logins of the users who should be added
+     * @return the ResponseEntity with status 200 (OK) and with body the logins of the users that could not be found, or with status 403 (Forbidden)
+     */
+    @PostMapping(value = "/courses/{courseId}/{courseGroup:students|tutors|instructors}")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<Set<String>> addUsersToCourseGroup(@PathVariable Long courseId, @PathVariable String courseGroup, @RequestBody Set<String> userLogins) {
+        log.debug("REST request to add {} users as {} to course : {}", userLogins.size(), courseGroup, courseId);
+        var course = courseService.findOne(courseId);
+        if (!authCheckService.isAtLeastInstructorInCourse(course, userService.getUserWithGroupsAndAuthorities())) {
+            return forbidden();
+        }
+        String group;
+        if ("students".equals(courseGroup)) {
+            group = course.getStudentGroupName();
+        }
+        else if ("tutors".equals(courseGroup)) {
+            group = course.getTeachingAssistantGroupName();
+        }
+        else {
+            group = course.getInstructorGroupName();
+        }
+        List<User> usersToAddToGroup = userService.findAllWithGroupsAndAuthoritiesByLogins(userLogins);
+        userService.addUsersToGroup(usersToAddToGroup, group);
+
+        Set<String> notFoundLogins = new HashSet<>(userLogins);
+        usersToAddToGroup.forEach(user -> notFoundLogins.remove(user.getLogin()));
+        return ResponseEntity.ok().body(notFoundLogins);
+    }
+
     /**
      * adds the userLogin to the group (student, tutors or instructors) of the given course
      *
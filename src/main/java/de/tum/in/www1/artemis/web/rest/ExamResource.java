@@ -31,6 +31,7 @@ import de.tum.in.www1.artemis.domain.participation.TutorParticipation;
 import de.tum.in.www1.artemis.repository.ExamRepository;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
+import de.tum.in.www1.artemis.service.dto.StudentRegistrationReportDTO;
 import de.tum.in.www1.artemis.service.messaging.InstanceMessageSendService;
 import de.tum.in.www1.artemis.web.rest.dto.ExamInformationDTO;
 import de.tum.in.www1.artemis.web.rest.dto.ExamScoresDTO;
@@ -599,6 +600,31 @@ public class ExamResource {
         return ResponseEntity.ok().body(notFoundStudentsDtos);
     }
 
+    /**
+     * POST /courses/:courseId/exams/:examId/students-bulk : Add multiple users to the students of the exam so that they can access the exam
+     * In contrast to {@link #addStudentsToExam(Long, Long, List)}, this endpoint reports the outcome of the registration for each passed student.
+     * The passed list of UserDTOs must include the registration number (the other entries are currently ignored and can be left out)
+     *
+     * @param courseId      the id of the course
+     * @param examId        the id of the exam
+     * @param studentDtos   the list of students (with at least registration number) who should get access to the exam
+     * @return one registration report for each passed student in the same order
+     */
+    @PostMapping(value = "/courses/{courseId}/exams/{examId}/students-bulk")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<List<StudentRegistrationReportDTO>> addStudentsToExamInBulk(@PathVariable Long courseId, @PathVariable Long examId,
+            @RequestBody List<StudentDTO> studentDtos) {
+        log.debug("REST request to add {} students in bulk to exam {}", studentDtos.size(), examId);
+
+        Optional<ResponseEntity<List<StudentRegistrationReportDTO>>> courseAndExamAccessFailure = examAccessService.checkCourseAndExamAccessForInstructor(courseId, examId);
+        if (courseAndExamAccessFailure.isPresent()) {
+            return courseAndExamAccessFailure.get();
+        }
+
+        List<StudentRegistrationReportDTO> reports = examService.registerStudentsForExamInBulk(courseId, examId, studentDtos);
+        return ResponseEntity.ok().body(reports);
+    }
+
     /**
      * DELETE /courses/:courseId/exams/:examId/students/:studentLogin :
      * Remove one single given user (based on the login) from the students of the exam so that the student cannot access the exam any more.
@@ -18,6 +18,7 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -111,7 +112,7 @@ public class FileResource {
      */
     @GetMapping("/files/temp/{filename:.+}")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR', 'TA')")
-    public ResponseEntity<byte[]> getTempFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getTempFile(@PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getTempFilepath() + filename);
     }
@@ -140,7 +141,7 @@ public class FileResource {
      */
     @GetMapping("/files/markdown/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getMarkdownFile(@PathVariable String filename) {
+    public ResponseEntity<Resource> getMarkdownFile(@PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getMarkdownFilepath() + filename);
     }
@@ -189,7 +190,7 @@ public class FileResource {
      */
     @GetMapping("/files/drag-and-drop/backgrounds/{questionId}/{filename:.+}")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<byte[]> getDragAndDropBackgroundFile(@PathVariable Long questionId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getDragAndDropBackgroundFile(@PathVariable Long questionId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getDragAndDropBackgroundFilepath() + filename);
     }
@@ -203,7 +204,7 @@ public class FileResource {
      */
     @GetMapping("/files/drag-and-drop/drag-items/{dragItemId}/{filename:.+}")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<byte[]> getDragItemFile(@PathVariable Long dragItemId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getDragItemFile(@PathVariable Long dragItemId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getDragItemFilepath() + filename);
     }
@@ -219,7 +220,7 @@ public class FileResource {
      */
     @GetMapping("/files/file-upload-exercises/{exerciseId}/submissions/{submissionId}/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getFileUploadSubmission(@PathVariable Long exerciseId, @PathVariable Long submissionId, @PathVariable String filename,
+    public ResponseEntity<Resource> getFileUploadSubmission(@PathVariable Long exerciseId, @PathVariable Long submissionId, @PathVariable String filename,
             @RequestParam("access_token") String temporaryAccessToken) {
         log.debug("REST request to get file : {}", filename);
         Optional<FileUploadSubmission> optionalSubmission = fileUploadSubmissionRepository.findById(submissionId);
@@ -230,7 +231,7 @@ public class FileResource {
         if (!validateTemporaryAccessToken(temporaryAccessToken, filename)) {
             // NOTE: this is a special case, because we like to show this error message directly in the browser (without the angular client being active)
             String errorMessage = "You don't have the access rights for this file! Please login to Artemis and download the file in the corresponding exercise";
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorMessage.getBytes());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ByteArrayResource(errorMessage.getBytes()));
         }
         return buildFileResponse(FileUploadSubmission.buildFilePath(optionalFileUploadExercise.get().getId(), optionalSubmission.get().getId()), filename);
     }
@@ -244,7 +245,7 @@ public class FileResource {
      */
     @GetMapping("/files/course/icons/{courseId}/{filename:.+}")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<byte[]> getCourseIcon(@PathVariable Long courseId, @PathVariable String filename) {
+    public ResponseEntity<Resource> getCourseIcon(@PathVariable Long courseId, @PathVariable String filename) {
         log.debug("REST request to get file : {}", filename);
         return responseEntityForFilePath(FilePathService.getCourseIconFilepath() + filename);
     }
@@ -276,7 +277,7 @@ public class FileResource {
      */
     @GetMapping("files/attachments/lecture/{lectureId}/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getLectureAttachment(@PathVariable Long lectureId, @PathVariable String filename, @RequestParam("access_token") String temporaryAccessToken) {
+    public ResponseEntity<Resource> getLectureAttachment(@PathVariable Long lectureId, @PathVariable String filename, @RequestParam("access_token") String temporaryAccessToken) {
         log.debug("REST request to get file : {}", filename);
         Optional<Lecture> optionalLecture = lectureRepository.findById(lectureId);
         if (optionalLecture.isEmpty()) {
@@ -285,7 +286,7 @@ public class FileResource {
         if (!validateTemporaryAccessToken(temporaryAccessToken, filename)) {
             // NOTE: this is a special case, because we like to show this error message directly in the browser (without the angular client being active)
             String errorMessage = "You don't have the access rights for this file! Please login to Artemis and download the attachment in the corresponding lecture";
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorMessage.getBytes());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ByteArrayResource(errorMessage.getBytes()));
         }
         return buildFileResponse(FilePathService.getLectureAttachmentFilepath() + optionalLecture.get().getId(), filename);
     }
@@ -300,7 +301,7 @@ public class FileResource {
      */
     @GetMapping("files/attachments/attachment-unit/{attachmentUnitId}/{filename:.+}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<byte[]> getAttachmentUnitAttachment(@PathVariable Long attachmentUnitId, @PathVariable String filename,
+    public ResponseEntity<Resource> getAttachmentUnitAttachment(@PathVariable Long attachmentUnitId, @PathVariable String filename,
             @RequestParam("access_token") String temporaryAccessToken) {
         log.debug("REST request to get file : {}", filename);
         Optional<AttachmentUnit> optionalAttachmentUnit = attachmentUnitRepository.findById(attachmentUnitId);
@@ -310,7 +311,7 @@ public class FileResource {
         if (!validateTemporaryAccessToken(temporaryAccessToken, filename)) {
             // NOTE: this is a special case, because we like to show this error message directly in the browser (without the angular client being active)
             String errorMessage = "You don't have the access rights for this file! Please login to Artemis and download the attachment in the corresponding attachmentUnit";
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorMessage.getBytes());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ByteArrayResource(errorMessage.getBytes()));
         }
         return buildFileResponse(FilePathService.getAttachmentUnitFilePath() + optionalAttachmentUnit.get().getId(), filename);
     }
@@ -419,9 +420,9 @@ public class FileResource {
      * @param filename the name of the file
      * @return response entity
      */
-    private ResponseEntity<byte[]> buildFileResponse(String path, String filename) {
+    private ResponseEntity<Resource> buildFileResponse(String path, String filename) {
         try {
-            var file = fileService.getFileForPath(path + '/' + filename);
+            var file = fileService.getResourceForPath(path + '/' + filename);
             if (file == null) {
                 return ResponseEntity.notFound().build();
             }
@@ -438,7 +439,7 @@ public class FileResource {
                 MimetypesFileTypeMap fileTypeMap = new MimetypesFileTypeMap();
                 mimeType = fileTypeMap.getContentType(filename);
             }
-            return ResponseEntity.ok().headers(headers).contentType(MediaType.parseMediaType(mimeType)).header("filename", filename).body(file);
+            return okWithValidators(file).headers(headers).contentType(MediaType.parseMediaType(mimeType)).header("filename", filename).body(file);
         }
         catch (IOException ex) {
             log.error("Download of file: " + filename + "on path: " + path + " let to the following exception", ex);
@@ -452,13 +453,13 @@ public class FileResource {
      * @param path the path for the file to read
      * @return ResponseEntity with status 200 and the file as byte stream, status 404 if the file doesn't exist, or status 500 if there is an error while reading the file
      */
-    private ResponseEntity<byte[]> responseEntityForFilePath(String path) {
+    private ResponseEntity<Resource> responseEntityForFilePath(String path) {
         try {
-            var file = fileService.getFileForPath(path);
+            var file = fileService.getResourceForPath(path);
             if (file == null) {
                 return ResponseEntity.notFound().build();
             }
-            return ResponseEntity.ok(file);
+            return okWithValidators(file).body(file);
         }
         catch (IOException e) {
             e.printStackTrace();
@@ -466,4 +467,20 @@ public class FileResource {
         }
     }
 
+    /**
+     * Creates a response builder with status 200 and the ETag and Last-Modified headers of the given file. Based on these headers, Spring answers conditional requests with
+     * status 304 (Not Modified) and range requests with status 206 (Partial Content) containing only the requested byte ranges of the file. The file is streamed to the client
+     * and never loaded completely into memory, unless it is small enough to be cached.
+     *
+     * @param file the file which is returned
+     * @return the response builder with the validators
+     * @throws IOException if the size or modification date of the file can't be read
+     */
+    private ResponseEntity.BodyBuilder okWithValidators(Resource file) throws IOException {
+        long lastModified = file.lastModified();
+        // the client has to revalidate the file, because access to it might have been revoked
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(Long.toHexString(lastModified) + "-" + Long.toHexString(file.contentLength()))
+                .lastModified(lastModified);
+    }
+
 }
@@ -12,6 +12,8 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,7 +29,9 @@ import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.repository.FileUploadExerciseRepository;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.web.rest.dto.SubmissionExportOptionsDTO;
+import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 
 /** REST controller for managing FileUploadExercise. */
@@ -333,4 +337,29 @@ public class FileUploadExerciseResource {
                     "There was an error on the server and the zip file could not be created.")).body(null);
         }
     }
+
+    /**
+     * POST /file-upload-exercises/:exerciseId/export-submissions/stream : writes the latest submissions of the requested participants as one zip file to the response.
+     * In contrast to {@link #exportSubmissions}, the submissions are neither stored in a temporary folder nor zipped into a temporary file, so the download starts immediately.
+     *
+     * @param exerciseId the id of the exercise to get the submissions from
+     * @param submissionExportOptions the options that should be used for the export
+     * @param response the response to which the zip file is written
+     * @throws IOException if the zip file could not be written to the response
+     */
+    @PostMapping("/file-upload-exercises/{exerciseId}/export-submissions/stream")
+    @PreAuthorize("hasAnyRole('TA', 'INSTRUCTOR', 'ADMIN')")
+    public void streamSubmissions(@PathVariable long exerciseId, @RequestBody SubmissionExportOptionsDTO submissionExportOptions, HttpServletResponse response)
+            throws IOException {
+        FileUploadExercise fileUploadExercise = fileUploadExerciseRepository.findById(exerciseId)
+                .orElseThrow(() -> new EntityNotFoundException("File upload exercise with id " + exerciseId + " does not exist"));
+
+        // TAs are not allowed to download all participations
+        if (!authCheckService.isAtLeastTeachingAssistantForExercise(fileUploadExercise) || submissionExportOptions.isExportAllParticipants()
+                && !authCheckService.isAtLeastInstructorInCourse(fileUploadExercise.getCourseViaExerciseGroupOrCourseMember(), null)) {
+            throw new AccessForbiddenException("You are not allowed to export these submissions");
+        }
+
+        fileUploadSubmissionExportService.streamStudentSubmissions(exerciseId, submissionExportOptions, response, ENTITY_NAME);
+    }
 }
@@ -6,8 +6,6 @@ import java.security.Principal;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
-import java.util.stream.Collectors;
 
 import javax.validation.constraints.NotNull;
 
@@ -69,9 +67,12 @@ public class ModelingSubmissionResource {
 
     private final ExamSubmissionService examSubmissionService;
 
+    private final AssessmentQueueService assessmentQueueService;
+
     public ModelingSubmissionResource(ModelingSubmissionService modelingSubmissionService, ModelingExerciseService modelingExerciseService,
             ParticipationService participationService, CourseService courseService, AuthorizationCheckService authCheckService, CompassService compassService,
-            ExerciseService exerciseService, UserService userService, GradingCriterionService gradingCriterionService, ExamSubmissionService examSubmissionService) {
+            ExerciseService exerciseService, UserService userService, GradingCriterionService gradingCriterionService, ExamSubmissionService examSubmissionService,
+            AssessmentQueueService assessmentQueueService) {
         this.modelingSubmissionService = modelingSubmissionService;
         this.modelingExerciseService = modelingExerciseService;
         this.participationService = participationService;
@@ -82,6 +83,7 @@ public class ModelingSubmissionResource {
         this.userService = userService;
         this.gradingCriterionService = gradingCriterionService;
         this.examSubmissionService = examSubmissionService;
+        this.assessmentQueueService = assessmentQueueService;
     }
 
     /**
@@ -275,7 +277,7 @@ public class ModelingSubmissionResource {
         }
         else {
             final Optional<ModelingSubmission> optionalModelingSubmission = modelingSubmissionService
-                    .getRandomModelingSubmissionEligibleForNewAssessment((ModelingExercise) exercise, exercise.hasExerciseGroup());
+                    .getNextModelingSubmissionEligibleForNewAssessment((ModelingExercise) exercise, exercise.hasExerciseGroup());
             if (optionalModelingSubmission.isEmpty()) {
                 return notFound();
             }
@@ -293,7 +295,7 @@ public class ModelingSubmissionResource {
     /**
      * Given an exerciseId, find a modeling submission for that exercise which still doesn't have a manual result. If the diagram type is supported by Compass we get an array of
      * ids of the next optimal submissions from Compass, i.e. the submissions for which an assessment means the most knowledge gain for the automatic assessment mechanism. If it's
-     * not supported by Compass we just get an array with the id of a random submission without manual assessment.
+     * not supported by Compass we just get an array with the id of the next submission without manual assessment from the assessment queue.
      *
      * @param exerciseId the id of the modeling exercise for which we want to get a submission without manual result
      * @return an array of modeling submission id(s) without a manual result
@@ -321,17 +323,9 @@ public class ModelingSubmissionResource {
             return ResponseEntity.ok(optimalModelSubmissions.toArray(new Long[] {}));
         }
         else {
-            // otherwise get a random (non-optimal) submission that is not assessed
-            var participations = participationService.findByExerciseIdWithLatestSubmissionWithoutManualResults(modelingExercise.getId());
-            var submissionsWithoutResult = participations.stream().map(StudentParticipation::findLatestSubmission).filter(Optional::isPresent).map(Optional::get)
-                    .collect(Collectors.toList());
-
-            if (submissionsWithoutResult.isEmpty()) {
-                return ResponseEntity.ok(new Long[] {}); // empty
-            }
-
-            Random random = new Random();
-            return ResponseEntity.ok(new Long[] { submissionsWithoutResult.get(random.nextInt(submissionsWithoutResult.size())).getId() });
+            // otherwise return the next (non-optimal) submission that is not assessed from the assessment queue, it is claimed when the tutor locks it
+            Optional<Long> submissionId = assessmentQueueService.findNextSubmissionId(modelingExercise, modelingExercise.hasExerciseGroup(), user);
+            return ResponseEntity.ok(submissionId.map(id -> new Long[] { id }).orElseGet(() -> new Long[] {}));
         }
     }
 
@@ -18,8 +18,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.notification.GroupNotification;
 import de.tum.in.www1.artemis.domain.notification.Notification;
 import de.tum.in.www1.artemis.repository.NotificationRepository;
+import de.tum.in.www1.artemis.service.GroupNotificationService;
 import de.tum.in.www1.artemis.service.NotificationService;
 import de.tum.in.www1.artemis.service.UserService;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
@@ -39,6 +41,8 @@ public class NotificationResource {
 
     private static final String ENTITY_NAME = "notification";
 
+    private static final int MAX_FEED_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -46,11 +50,15 @@ public class NotificationResource {
 
     private final NotificationService notificationService;
 
+    private final GroupNotificationService groupNotificationService;
+
     private final UserService userService;
 
-    public NotificationResource(NotificationRepository notificationRepository, NotificationService notificationService, UserService userService) {
+    public NotificationResource(NotificationRepository notificationRepository, NotificationService notificationService, GroupNotificationService groupNotificationService,
+            UserService userService) {
         this.notificationRepository = notificationRepository;
         this.notificationService = notificationService;
+        this.groupNotificationService = groupNotificationService;
         this.userService = userService;
     }
 
@@ -68,7 +76,7 @@ public class NotificationResource {
         if (notification.getId() != null) {
             throw new BadRequestAlertException("A new notification cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Notification result = notificationRepository.save(notification);
+        Notification result = save(notification);
         return ResponseEntity.created(new URI("/api/notifications/" + result.getId()))
                 .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString())).body(result);
     }
@@ -88,6 +96,36 @@ public class NotificationResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET /notifications/feed : Get the notifications of the current user by keyset pagination, newest first.
+     *
+     * @param beforeId the id of the last notification of the previous page, or none for the first page
+     * @param size     the maximum number of notifications, between 1 and 100
+     * @return the ResponseEntity with status 200 (OK) and with body the notifications, or with status 400 (Bad Request) if the size is invalid
+     */
+    @GetMapping("/notifications/feed")
+    @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<List<Notification>> getNotificationFeedForCurrentUser(@RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_FEED_SIZE) {
+            throw new BadRequestAlertException("The size must be between 1 and " + MAX_FEED_SIZE, ENTITY_NAME, "invalidSize");
+        }
+        User currentUser = userService.getUserWithGroupsAndAuthorities();
+        return ResponseEntity.ok(notificationService.findNotificationFeed(currentUser, beforeId, size));
+    }
+
+    /**
+     * GET /notifications/unread-count : Get the number of notifications the current user received since they read their notifications the last time.
+     *
+     * @return the ResponseEntity with status 200 (OK) and with body the number of unread notifications
+     */
+    @GetMapping("/notifications/unread-count")
+    @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<Long> getNumberOfUnreadNotificationsForCurrentUser() {
+        User currentUser = userService.getUserWithGroupsAndAuthorities();
+        return ResponseEntity.ok(notificationService.getNumberOfUnreadNotifications(currentUser));
+    }
+
     /**
      * PUT /notifications : Updates an existing notification.
      *
@@ -103,7 +141,7 @@ public class NotificationResource {
         if (notification.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        Notification result = notificationRepository.save(notification);
+        Notification result = save(notification);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, notification.getId().toString())).body(result);
     }
 
@@ -134,4 +172,14 @@ public class NotificationResource {
         notificationRepository.deleteById(id);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString())).build();
     }
+
+    /**
+     * Group notifications are saved by the GroupNotificationService, which determines their recipient group from the stored course.
+     */
+    private Notification save(Notification notification) {
+        if (notification instanceof GroupNotification) {
+            return groupNotificationService.save((GroupNotification) notification);
+        }
+        return notificationRepository.save(notification);
+    }
 }
@@ -3,6 +3,7 @@ package de.tum.in.www1.artemis.web.rest;
 import static de.tum.in.www1.artemis.web.rest.util.ResponseUtil.forbidden;
 import static java.time.ZonedDateTime.now;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.Principal;
@@ -10,12 +11,16 @@ import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -81,10 +86,13 @@ public class ParticipationResource {
 
     private final FeatureToggleService featureToggleService;
 
+    private final CourseScoreExportService courseScoreExportService;
+
     public ParticipationResource(ParticipationService participationService, ProgrammingExerciseParticipationService programmingExerciseParticipationService,
             CourseService courseService, QuizExerciseService quizExerciseService, ExerciseService exerciseService, AuthorizationCheckService authCheckService,
             Optional<ContinuousIntegrationService> continuousIntegrationService, AuthorizationCheckService authorizationCheckService, UserService userService,
-            AuditEventRepository auditEventRepository, GuidedTourConfiguration guidedTourConfiguration, TeamService teamService, FeatureToggleService featureToggleService) {
+            AuditEventRepository auditEventRepository, GuidedTourConfiguration guidedTourConfiguration, TeamService teamService, FeatureToggleService featureToggleService,
+            CourseScoreExportService courseScoreExportService) {
         this.participationService = participationService;
         this.programmingExerciseParticipationService = programmingExerciseParticipationService;
         this.quizExerciseService = quizExerciseService;
@@ -98,6 +106,7 @@ public class ParticipationResource {
         this.guidedTourConfiguration = guidedTourConfiguration;
         this.teamService = teamService;
         this.featureToggleService = featureToggleService;
+        this.courseScoreExportService = courseScoreExportService;
     }
 
     /**
@@ -293,6 +302,40 @@ public class ParticipationResource {
         return ResponseEntity.ok(participations);
     }
 
+    /**
+     * GET /courses/:courseId/scores/export : export the latest rated score of every participant in every exercise of the course.
+     * The scores are written to the response while they are read from the database, so that also large courses can be exported with constant memory.
+     *
+     * @param courseId the id of the course
+     * @param format the format of the export, either csv (default) or json
+     * @param response the response to which the scores are written
+     * @throws IOException if the scores could not be written to the response
+     */
+    @GetMapping(value = "/courses/{courseId}/scores/export")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public void exportCourseScores(@PathVariable Long courseId, @RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export the scores of Course {} as {}", courseId, format);
+        Course course = courseService.findOne(courseId);
+        User user = userService.getUserWithGroupsAndAuthorities();
+        if (!authorizationCheckService.isAtLeastInstructorInCourse(course, user)) {
+            throw new AccessForbiddenException("You are not allowed to access this resource");
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv");
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"course-" + courseId + "-scores.csv\"");
+            courseScoreExportService.writeScoresAsCsv(courseId, response.getWriter());
+        }
+        else if ("json".equalsIgnoreCase(format)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"course-" + courseId + "-scores.json\"");
+            courseScoreExportService.writeScoresAsJson(courseId, response.getOutputStream());
+        }
+        else {
+            throw new BadRequestAlertException("The export format " + format + " is not supported", ENTITY_NAME, "unsupportedExportFormat");
+        }
+    }
+
     /**
      * GET /courses/:courseId/participations : get all the participations for a course
      *
@@ -16,6 +16,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
 
 import jplag.ExitException;
@@ -54,6 +55,7 @@ import de.tum.in.www1.artemis.service.programming.ProgrammingLanguageFeatureServ
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 import de.tum.in.www1.artemis.web.rest.dto.RepositoryExportOptionsDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SearchResultPageDTO;
+import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
@@ -882,6 +884,65 @@ public class ProgrammingExerciseResource {
             }
         }
 
+        List<ProgrammingExerciseStudentParticipation> exportedStudentParticipations = selectParticipationsByParticipantIdentifiers(programmingExercise, participantIdentifiers,
+                repositoryExportOptions);
+        return provideZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions);
+    }
+
+    /**
+     * POST /programming-exercises/:exerciseId/export-repos-by-participant-identifiers/:participantIdentifiers/stream : streams the files of all submissions from
+     * participantIdentifiers as one zip file. The files are written to the response while they are read from the repositories, so that no temporary zip files are needed and
+     * the download starts immediately. The zip file does not contain the git history of the repositories, therefore the options to combine the student commits, to add the
+     * participant name and to normalize the code style are rejected.
+     *
+     * @param exerciseId the id of the exercise to get the repos from
+     * @param participantIdentifiers the identifiers of the participants (student logins or team short names) for whom to zip the submissions, separated by commas
+     * @param repositoryExportOptions the options that should be used for the export
+     * @param response the response to which the zip file is written
+     * @throws IOException if the zip file could not be written to the response
+     */
+    @PostMapping(Endpoints.STREAM_SUBMISSIONS_BY_PARTICIPANTS)
+    @PreAuthorize("hasAnyRole('TA', 'INSTRUCTOR', 'ADMIN')")
+    @FeatureToggle(Feature.PROGRAMMING_EXERCISES)
+    public void streamSubmissionsByStudentLogins(@PathVariable long exerciseId, @PathVariable String participantIdentifiers,
+            @RequestBody RepositoryExportOptionsDTO repositoryExportOptions, HttpServletResponse response) throws IOException {
+        ProgrammingExercise programmingExercise = programmingExerciseService.findByIdWithEagerStudentParticipationsAndSubmissions(exerciseId);
+        User user = userService.getUserWithGroupsAndAuthorities();
+
+        if (!authCheckService.isAtLeastTeachingAssistantForExercise(programmingExercise, user)
+                || repositoryExportOptions.isExportAllParticipants() && !authCheckService.isAtLeastInstructorForExercise(programmingExercise, user)) {
+            // only instructors are allowed to download all repos
+            throw new AccessForbiddenException("You are not allowed to export these repositories");
+        }
+        if (repositoryExportOptions.isCombineStudentCommits() || repositoryExportOptions.isAddParticipantName() || repositoryExportOptions.isNormalizeCodeStyle()) {
+            throw new BadRequestAlertException("Combining the student commits, adding the participant name and normalizing the code style are not supported when streaming",
+                    ENTITY_NAME, "unsupportedExportOptions");
+        }
+
+        List<ProgrammingExerciseStudentParticipation> exportedStudentParticipations = selectParticipationsByParticipantIdentifiers(programmingExercise, participantIdentifiers,
+                repositoryExportOptions);
+        if (exportedStudentParticipations.isEmpty()) {
+            throw new BadRequestAlertException("No existing user was specified or no submission exists.", ENTITY_NAME, "noparticipations");
+        }
+
+        long start = System.nanoTime();
+        String filename = programmingExercise.getCourseViaExerciseGroupOrCourseMember().getShortName() + "-" + programmingExercise.getShortName() + "-"
+                + System.currentTimeMillis() + ".zip";
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("filename", filename);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        int numberOfExportedRepositories = programmingExerciseExportService.streamStudentRepositories(programmingExercise, exportedStudentParticipations,
+                repositoryExportOptions, response.getOutputStream());
+
+        log.info("Streaming {} of {} student repositories of programming exercise {} with title '{}' was successful in {}.", numberOfExportedRepositories,
+                exportedStudentParticipations.size(), programmingExercise.getId(), programmingExercise.getTitle(), formatDurationFrom(start));
+    }
+
+    /**
+     * Selects the participations that should be exported and sets the due date of the exercise as default date to filter late submissions
+     */
+    private List<ProgrammingExerciseStudentParticipation> selectParticipationsByParticipantIdentifiers(ProgrammingExercise programmingExercise, String participantIdentifiers,
+            RepositoryExportOptionsDTO repositoryExportOptions) {
         if (repositoryExportOptions.getFilterLateSubmissionsDate() == null) {
             repositoryExportOptions.setFilterLateSubmissionsDate(programmingExercise.getDueDate());
         }
@@ -901,7 +962,7 @@ public class ProgrammingExerciseResource {
                 exportedStudentParticipations.add(programmingStudentParticipation);
             }
         }
-        return provideZipForParticipations(exportedStudentParticipations, programmingExercise, repositoryExportOptions);
+        return exportedStudentParticipations;
     }
 
     /**
@@ -1125,6 +1186,8 @@ public class ProgrammingExerciseResource {
 
         public static final String EXPORT_SUBMISSIONS_BY_PARTICIPANTS = PROGRAMMING_EXERCISE + "/export-repos-by-participant-identifiers/{participantIdentifiers}";
 
+        public static final String STREAM_SUBMISSIONS_BY_PARTICIPANTS = EXPORT_SUBMISSIONS_BY_PARTICIPANTS + "/stream";
+
         public static final String EXPORT_SUBMISSIONS_BY_PARTICIPATIONS = PROGRAMMING_EXERCISE + "/export-repos-by-participation-ids/{participationIds}";
 
         public static final String GENERATE_TESTS = PROGRAMMING_EXERCISE + "/generate-tests";
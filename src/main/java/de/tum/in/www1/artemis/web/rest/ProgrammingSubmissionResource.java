@@ -371,7 +371,7 @@ public class ProgrammingSubmissionResource {
 
         // TODO: Handle lock limit.
 
-        Optional<ProgrammingSubmission> optionalProgrammingSubmission = programmingSubmissionService.getRandomProgrammingSubmissionEligibleForNewAssessment(programmingExercise,
+        Optional<ProgrammingSubmission> optionalProgrammingSubmission = programmingSubmissionService.getNextProgrammingSubmissionEligibleForNewAssessment(programmingExercise,
                 programmingExercise.hasExerciseGroup());
         if (optionalProgrammingSubmission.isEmpty()) {
             return notFound();
@@ -13,7 +13,10 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +27,7 @@ import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.repository.QuizExerciseRepository;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
+import de.tum.in.www1.artemis.service.scheduled.quiz.QuizStudentView;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 
@@ -36,6 +40,10 @@ public class QuizExerciseResource {
 
     private static final String ENTITY_NAME = "quizExercise";
 
+    public static final String REMAINING_TIME_HEADER = "X-Artemis-Quiz-Remaining-Time";
+
+    public static final String TIME_UNTIL_PLANNED_START_HEADER = "X-Artemis-Quiz-Time-Until-Planned-Start";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -258,27 +266,40 @@ public class QuizExerciseResource {
 
     /**
      * GET /quiz-exercises/:quizExerciseId/for-student : get the "id" quizExercise. (information filtered for students)
+     * <p>
+     * While the quiz is active, the filtered quiz exercise is only serialized once per quiz state and cached until the quiz exercise is updated. The response carries a strong
+     * ETag, so that clients can revalidate it and get 304 (Not Modified). As the body of a revalidated response is reused, the current remaining time and time until the
+     * planned start are also sent in the headers {@value #REMAINING_TIME_HEADER} and {@value #TIME_UNTIL_PLANNED_START_HEADER}.
      *
      * @param quizExerciseId the id of the quizExercise to retrieve
      * @return the ResponseEntity with status 200 (OK) and with body the quizExercise, or with status 404 (Not Found)
      */
     @GetMapping("/quiz-exercises/{quizExerciseId}/for-student")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
-    public ResponseEntity<QuizExercise> getQuizExerciseForStudent(@PathVariable Long quizExerciseId) {
+    public ResponseEntity<byte[]> getQuizExerciseForStudent(@PathVariable Long quizExerciseId) {
         log.debug("REST request to get QuizExercise : {}", quizExerciseId);
 
-        QuizExercise quizExercise = quizExerciseService.findOneWithQuestions(quizExerciseId);
+        QuizExercise quizExercise = quizScheduleService.getQuizExerciseForStudentView(quizExerciseId);
         if (quizExercise == null) {
             return notFound();
         }
         if (!authCheckService.isAllowedToSeeExercise(quizExercise, null)) {
             return forbidden();
         }
-        quizExercise.applyAppropriateFilterForStudents();
-
-        // filter out information depending on quiz state
-        quizExercise.filterForStudentsDuringQuiz();
-        return ResponseEntity.ok(quizExercise);
+        QuizStudentView studentView = quizScheduleService.getStudentView(quizExercise);
+        if (studentView == null) {
+            return notFound();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (quizExercise.getRemainingTime() != null) {
+            headers.set(REMAINING_TIME_HEADER, quizExercise.getRemainingTime().toString());
+        }
+        if (quizExercise.getTimeUntilPlannedStart() != null) {
+            headers.set(TIME_UNTIL_PLANNED_START_HEADER, quizExercise.getTimeUntilPlannedStart().toString());
+        }
+        // Spring answers requests with a matching If-None-Match header with 304 (Not Modified) based on the ETag
+        return ResponseEntity.ok().headers(headers).cacheControl(CacheControl.noCache().cachePrivate()).eTag(studentView.getETag()).contentType(MediaType.APPLICATION_JSON)
+                .body(studentView.toJson(quizExercise));
     }
 
     /**
@@ -10,6 +10,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -148,13 +149,14 @@ public class StudentQuestionResource {
     }
 
     /**
-     * PUT /courses/{courseId}/student-questions/{questionId}/votes : Updates votes for a studentQuestion.
+     * PUT /courses/{courseId}/student-questions/{questionId}/votes : Updates the vote of the current user for a studentQuestion. The changed votes are sent to the
+     * subscribers of the course in batches, see {@link StudentQuestionService#sendChangedVotes()}.
      *
      * @param courseId course the question belongs to
      * @param questionId the ID of the question to update
      * @param voteChange value by which votes are increased / decreased
      * @return the ResponseEntity with status 200 (OK) and with body the updated studentQuestion, or with status 400 (Bad Request) if the studentQuestion is not valid, or with
-     *         status 500 (Internal Server Error) if the studentQuestion couldn't be updated
+     *         status 409 (Conflict) if the user has voted for the studentQuestion concurrently
      */
     @PutMapping("courses/{courseId}/student-questions/{questionId}/votes")
     @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
@@ -176,10 +178,14 @@ public class StudentQuestionResource {
         }
         if (mayUpdateStudentQuestionVotes(optionalStudentQuestion.get(), user)) {
             StudentQuestion updatedStudentQuestion = optionalStudentQuestion.get();
-            Integer newVotes = updatedStudentQuestion.getVotes() + voteChange;
-            updatedStudentQuestion.setVotes(newVotes);
-            StudentQuestion result = studentQuestionRepository.save(updatedStudentQuestion);
-            return ResponseEntity.ok().body(result);
+            try {
+                updatedStudentQuestion.setVotes(studentQuestionService.updateVotes(updatedStudentQuestion, user, voteChange));
+            }
+            catch (DataIntegrityViolationException ex) {
+                // another vote of the user for this question has been stored in the meantime
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.ok().body(updatedStudentQuestion);
         }
         else {
             return forbidden();
@@ -15,6 +15,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import javax.servlet.http.HttpServletResponse;
+
 import jplag.ExitException;
 
 import org.slf4j.Logger;
@@ -43,7 +45,9 @@ import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SearchResultPageDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SubmissionComparisonDTO;
 import de.tum.in.www1.artemis.web.rest.dto.SubmissionExportOptionsDTO;
+import de.tum.in.www1.artemis.web.rest.errors.AccessForbiddenException;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 
 /** REST controller for managing TextExercise. */
@@ -556,6 +560,31 @@ public class TextExerciseResource {
         }
     }
 
+    /**
+     * POST /text-exercises/:exerciseId/export-submissions/stream : writes the latest submissions of the requested participants as one zip file to the response.
+     * In contrast to {@link #exportSubmissions}, the submissions are neither stored in a temporary folder nor zipped into a temporary file, so the download starts immediately.
+     *
+     * @param exerciseId the id of the exercise to get the submissions from
+     * @param submissionExportOptions the options that should be used for the export
+     * @param response the response to which the zip file is written
+     * @throws IOException if the zip file could not be written to the response
+     */
+    @PostMapping("/text-exercises/{exerciseId}/export-submissions/stream")
+    @PreAuthorize("hasAnyRole('TA', 'INSTRUCTOR', 'ADMIN')")
+    public void streamSubmissions(@PathVariable long exerciseId, @RequestBody SubmissionExportOptionsDTO submissionExportOptions, HttpServletResponse response)
+            throws IOException {
+        TextExercise textExercise = textExerciseRepository.findById(exerciseId)
+                .orElseThrow(() -> new EntityNotFoundException("Text exercise with id " + exerciseId + " does not exist"));
+
+        // TAs are not allowed to download all participations
+        if (!authCheckService.isAtLeastTeachingAssistantForExercise(textExercise) || submissionExportOptions.isExportAllParticipants()
+                && !authCheckService.isAtLeastInstructorInCourse(textExercise.getCourseViaExerciseGroupOrCourseMember(), null)) {
+            throw new AccessForbiddenException("You are not allowed to export these submissions");
+        }
+
+        textSubmissionExportService.streamStudentSubmissions(exerciseId, submissionExportOptions, response, ENTITY_NAME);
+    }
+
     /**
      * GET /check-plagiarism : Run comparison metrics pair-wise against all submissions of a given exercises.
      * This can be used with human intelligence to identify suspicious similar submissions which might be a sign for plagiarism.
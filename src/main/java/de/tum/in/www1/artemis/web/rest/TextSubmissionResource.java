@@ -266,10 +266,10 @@ public class TextSubmissionResource {
         else {
             Optional<TextSubmission> optionalTextSubmission;
             if (skipAssessmentOrderOptimization) {
-                optionalTextSubmission = textSubmissionService.getRandomTextSubmissionEligibleForNewAssessment((TextExercise) exercise, true, exercise.hasExerciseGroup());
+                optionalTextSubmission = textSubmissionService.getNextTextSubmissionEligibleForNewAssessment((TextExercise) exercise, true, exercise.hasExerciseGroup());
             }
             else {
-                optionalTextSubmission = this.textSubmissionService.getRandomTextSubmissionEligibleForNewAssessment((TextExercise) exercise, exercise.hasExerciseGroup());
+                optionalTextSubmission = this.textSubmissionService.getNextTextSubmissionEligibleForNewAssessment((TextExercise) exercise, exercise.hasExerciseGroup());
             }
             if (optionalTextSubmission.isEmpty()) {
                 return notFound();
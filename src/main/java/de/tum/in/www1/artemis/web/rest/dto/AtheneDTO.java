@@ -5,14 +5,16 @@ import java.util.*;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import de.tum.in.www1.artemis.domain.TextBlockType;
-import de.tum.in.www1.artemis.domain.TextCluster;
 
+/**
+ * The results of Athene for an exercise. The AtheneResource reads the results as stream and only binds single blocks and clusters to the inner DTOs.
+ */
 @JsonInclude(JsonInclude.Include.NON_EMPTY)
 public class AtheneDTO {
 
     private List<TextBlockDTO> blocks = new ArrayList<>();
 
-    private Map<Integer, TextCluster> clusters = new LinkedHashMap<>();
+    private Map<Integer, TextClusterDTO> clusters = new LinkedHashMap<>();
 
     public List<TextBlockDTO> getBlocks() {
         return blocks;
@@ -22,11 +24,11 @@ public class AtheneDTO {
         this.blocks = blocks;
     }
 
-    public Map<Integer, TextCluster> getClusters() {
+    public Map<Integer, TextClusterDTO> getClusters() {
         return clusters;
     }
 
-    public void setClusters(Map<Integer, TextCluster> clusters) {
+    public void setClusters(Map<Integer, TextClusterDTO> clusters) {
         this.clusters = clusters;
     }
 
@@ -95,4 +97,41 @@ public class AtheneDTO {
 
     }
 
+    /**
+     * A cluster of text blocks, the rows and columns of the distance matrix are in the order of the blocks. Only the ids of the blocks are used.
+     */
+    public static class TextClusterDTO {
+
+        private double[] probabilities;
+
+        private double[][] distanceMatrix;
+
+        private List<TextBlockDTO> blocks = new ArrayList<>();
+
+        public double[] getProbabilities() {
+            return probabilities;
+        }
+
+        public void setProbabilities(double[] probabilities) {
+            this.probabilities = probabilities;
+        }
+
+        public double[][] getDistanceMatrix() {
+            return distanceMatrix;
+        }
+
+        public void setDistanceMatrix(double[][] distanceMatrix) {
+            this.distanceMatrix = distanceMatrix;
+        }
+
+        public List<TextBlockDTO> getBlocks() {
+            return blocks;
+        }
+
+        public void setBlocks(List<TextBlockDTO> blocks) {
+            this.blocks = blocks;
+        }
+
+    }
+
 }
@@ -14,12 +14,17 @@ import javax.servlet.http.HttpServletRequest;
 import org.eclipse.jgit.api.errors.CheckoutConflictException;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.WrongRepositoryStateException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.participation.Participation;
@@ -32,7 +37,9 @@ import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggle;
 import de.tum.in.www1.artemis.web.rest.dto.FileMove;
 import de.tum.in.www1.artemis.web.rest.dto.RepositoryStatusDTO;
+import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.github.jhipster.web.util.PaginationUtil;
 
 /**
  * Executes repository actions on repositories related to the participation id transmitted. Available to the owner of the participation, TAs/Instructors of the exercise and Admins.
@@ -46,12 +53,16 @@ public class RepositoryProgrammingExerciseParticipationResource extends Reposito
 
     private final ExamSubmissionService examSubmissionService;
 
+    private final BuildLogService buildLogService;
+
     public RepositoryProgrammingExerciseParticipationResource(UserService userService, AuthorizationCheckService authCheckService, GitService gitService,
             Optional<ContinuousIntegrationService> continuousIntegrationService, Optional<VersionControlService> versionControlService, RepositoryService repositoryService,
-            ProgrammingExerciseParticipationService participationService, ProgrammingExerciseService programmingExerciseService, ExamSubmissionService examSubmissionService) {
+            ProgrammingExerciseParticipationService participationService, ProgrammingExerciseService programmingExerciseService, ExamSubmissionService examSubmissionService,
+            BuildLogService buildLogService) {
         super(userService, authCheckService, gitService, continuousIntegrationService, repositoryService, versionControlService, programmingExerciseService);
         this.participationService = participationService;
         this.examSubmissionService = examSubmissionService;
+        this.buildLogService = buildLogService;
     }
 
     @Override
@@ -242,12 +253,17 @@ public class RepositoryProgrammingExerciseParticipationResource extends Reposito
 
     /**
      * GET /repository/:participationId/buildlogs : get the build log from Bamboo for the "participationId" repository.
+     * The build log is retrieved from the continuous integration server once and then read from the database.
      *
      * @param participationId to identify the repository with.
+     * @param page            the optional page of the log, all lines are returned if it is not given
+     * @param size            the number of lines per page
+     * @param filter          the optional text that the returned lines contain (ignoring the case)
      * @return the ResponseEntity with status 200 (OK) and with body the result, or with status 404 (Not Found)
      */
     @GetMapping(value = "/repository/{participationId}/buildlogs", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<BuildLogEntry>> getBuildLogs(@PathVariable Long participationId) {
+    public ResponseEntity<List<BuildLogEntry>> getBuildLogs(@PathVariable Long participationId, @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "100") int size, @RequestParam(required = false) String filter) {
         log.debug("REST request to get build log : {}", participationId);
 
         ProgrammingExerciseParticipation participation = participationService.findProgrammingExerciseParticipationWithLatestSubmissionAndResult(participationId);
@@ -274,9 +290,17 @@ public class RepositoryProgrammingExerciseParticipationResource extends Reposito
             // Don't throw an error here, just return an empty list.
             return ResponseEntity.ok(new ArrayList<>());
         }
+        if (page != null && (page < 0 || size < 1)) {
+            throw new BadRequestAlertException("The page must not be negative and the size must be positive", "buildLog", "invalidPage");
+        }
 
-        List<BuildLogEntry> logs = continuousIntegrationService.get().getLatestBuildLogs(latestSubmission);
+        // Retrieve the logs from the continuous integration server if they have not been stored yet
+        CompressedBuildLog buildLog = buildLogService.findBuildLog(latestSubmission)
+                .orElseGet(() -> buildLogService.saveBuildLogs(latestSubmission, continuousIntegrationService.get().getLatestBuildLogs(latestSubmission)));
 
-        return new ResponseEntity<>(logs, HttpStatus.OK);
+        Page<BuildLogEntry> logs = buildLogService.readBuildLogs(buildLog, page != null ? PageRequest.of(page, size) : Pageable.unpaged(), filter);
+        HttpHeaders headers = logs.getPageable().isPaged() ? PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), logs)
+                : new HttpHeaders();
+        return new ResponseEntity<>(logs.getContent(), headers, HttpStatus.OK);
     }
 }
@@ -82,7 +82,22 @@ export class QuizExerciseService {
     findForStudent(quizExerciseId: number): Observable<EntityResponseType> {
         return this.http
             .get<QuizExercise>(`${this.resourceUrl}/${quizExerciseId}/for-student`, { observe: 'response' })
-            .pipe(map((res: EntityResponseType) => this.exerciseService.convertDateFromServer(res)));
+            .pipe(map((res: EntityResponseType) => this.exerciseService.convertDateFromServer(this.applyTimesFromHeaders(res))));
+    }
+
+    /**
+     * The body of the student view might be reused from the browser cache after the server answered with 304 (Not Modified),
+     * so the current remaining time and time until the planned start are taken from the response headers if present
+     * @param res the response of the student view of the quiz exercise
+     */
+    private applyTimesFromHeaders(res: EntityResponseType): EntityResponseType {
+        if (res.body) {
+            const remainingTime = res.headers.get('X-Artemis-Quiz-Remaining-Time');
+            const timeUntilPlannedStart = res.headers.get('X-Artemis-Quiz-Time-Until-Planned-Start');
+            res.body.remainingTime = remainingTime !== null ? Number(remainingTime) : undefined;
+            res.body.timeUntilPlannedStart = timeUntilPlannedStart !== null ? Number(timeUntilPlannedStart) : undefined;
+        }
+        return res;
     }
 
     /**
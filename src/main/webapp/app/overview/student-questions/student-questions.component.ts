@@ -1,4 +1,4 @@
-import { AfterViewInit, Component, Input, OnInit } from '@angular/core';
+import { AfterViewInit, Component, Input, OnDestroy, OnInit } from '@angular/core';
 import { User } from 'app/core/user/user.model';
 import * as moment from 'moment';
 import { HttpResponse } from '@angular/common/http';
@@ -13,13 +13,23 @@ import { EditorMode } from 'app/shared/markdown-editor/markdown-editor.component
 import { KatexCommand } from 'app/shared/markdown-editor/commands/katex.command';
 import interact from 'interactjs';
 import { ActivatedRoute } from '@angular/router';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
+
+/**
+ * The current votes of a student question, sent by the server in batches when the votes have changed
+ */
+interface StudentQuestionVotes {
+    questionId: number;
+    courseId: number;
+    votes: number;
+}
 
 @Component({
     selector: 'jhi-student-questions',
     templateUrl: './student-questions.component.html',
     styleUrls: ['./student-questions.scss'],
 })
-export class StudentQuestionsComponent implements OnInit, AfterViewInit {
+export class StudentQuestionsComponent implements OnInit, AfterViewInit, OnDestroy {
     @Input() exercise: Exercise;
     @Input() lecture: Lecture;
 
@@ -33,12 +43,14 @@ export class StudentQuestionsComponent implements OnInit, AfterViewInit {
     EditorMode = EditorMode;
     domainCommands = [new KatexCommand()];
     courseId: number;
+    votesChannel?: string;
 
     constructor(
         private route: ActivatedRoute,
         private accountService: AccountService,
         private studentQuestionService: StudentQuestionService,
         private exerciseService: ExerciseService,
+        private jhiWebsocketService: JhiWebsocketService,
     ) {}
 
     /**
@@ -63,6 +75,39 @@ export class StudentQuestionsComponent implements OnInit, AfterViewInit {
             this.isAtLeastTutorInCourse = this.accountService.isAtLeastTutorInCourse(this.lecture.course!);
             this.courseId = this.lecture.course!.id!;
         }
+        this.subscribeForVoteChanges();
+    }
+
+    /**
+     * unsubscribe from the vote changes
+     */
+    ngOnDestroy(): void {
+        if (this.votesChannel) {
+            this.jhiWebsocketService.unsubscribe(this.votesChannel);
+        }
+    }
+
+    /**
+     * subscribe to the votes of the student questions of the course, which the server sends in batches when they have changed
+     */
+    private subscribeForVoteChanges(): void {
+        if (this.votesChannel || !this.courseId) {
+            return;
+        }
+        this.votesChannel = `/topic/courses/${this.courseId}/student-question-votes`;
+        this.jhiWebsocketService.subscribe(this.votesChannel);
+        this.jhiWebsocketService.receive(this.votesChannel).subscribe((changedVotes: StudentQuestionVotes[]) => {
+            if (!this.studentQuestions) {
+                return;
+            }
+            changedVotes.forEach((changedVote) => {
+                const studentQuestion = this.studentQuestions.find((question) => question.id === changedVote.questionId);
+                if (studentQuestion) {
+                    studentQuestion.votes = changedVote.votes;
+                }
+            });
+            this.studentQuestions = StudentQuestionsComponent.sortStudentQuestionsByVote(this.studentQuestions);
+        });
     }
 
     /**
@@ -1,5 +1,5 @@
 import { Component, OnInit } from '@angular/core';
-import { HttpErrorResponse, HttpHeaders, HttpResponse } from '@angular/common/http';
+import { HttpErrorResponse, HttpResponse } from '@angular/common/http';
 import { User } from 'app/core/user/user.model';
 import { UserService } from 'app/core/user/user.service';
 import * as moment from 'moment';
@@ -20,9 +20,8 @@ export class NotificationSidebarComponent implements OnInit {
     notifications: Notification[] = [];
     sortedNotifications: Notification[] = [];
     recentNotificationCount = 0;
-    totalNotifications = 0;
+    allNotificationsLoaded = false;
     lastNotificationRead?: Moment;
-    page = 0;
     notificationsPerPage = 25;
     error?: string;
 
@@ -38,6 +37,7 @@ export class NotificationSidebarComponent implements OnInit {
                     this.lastNotificationRead = user.lastNotificationRead;
                 }
                 this.loadNotifications();
+                this.loadRecentNotificationCount();
                 this.subscribeToNotificationUpdates();
             }
         });
@@ -70,7 +70,7 @@ export class NotificationSidebarComponent implements OnInit {
             const lastNotificationReadNow = moment();
             setTimeout(() => {
                 this.lastNotificationRead = lastNotificationReadNow;
-                this.updateRecentNotificationCount();
+                this.recentNotificationCount = 0;
             }, 2000);
         });
     }
@@ -89,34 +89,37 @@ export class NotificationSidebarComponent implements OnInit {
         }
     }
 
+    /**
+     * Load the next notifications older than the oldest loaded notification. The notifications created on the client, e.g. for started quizzes, have no id and are skipped.
+     */
     private loadNotifications(): void {
-        if (!this.loading && (this.totalNotifications === 0 || this.notifications.length < this.totalNotifications)) {
+        if (!this.loading && !this.allNotificationsLoaded) {
             this.loading = true;
-            this.notificationService
-                .query({
-                    page: this.page,
-                    size: this.notificationsPerPage,
-                    sort: ['notificationDate,desc'],
-                })
-                .subscribe(
-                    (res: HttpResponse<Notification[]>) => this.loadNotificationsSuccess(res.body!, res.headers),
-                    (res: HttpErrorResponse) => (this.error = res.message),
-                );
+            const ids = this.notifications.filter(({ id }) => id !== undefined).map(({ id }) => id!);
+            const beforeId = ids.length > 0 ? Math.min(...ids) : undefined;
+            this.notificationService.queryFeed(beforeId, this.notificationsPerPage).subscribe(
+                (res: HttpResponse<Notification[]>) => this.loadNotificationsSuccess(res.body!),
+                (res: HttpErrorResponse) => (this.error = res.message),
+            );
         }
     }
 
-    private loadNotificationsSuccess(notifications: Notification[], headers: HttpHeaders): void {
-        this.totalNotifications = Number(headers.get('X-Total-Count')!);
+    private loadNotificationsSuccess(notifications: Notification[]): void {
+        this.allNotificationsLoaded = !notifications || notifications.length < this.notificationsPerPage;
         this.addNotifications(notifications);
-        this.page += 1;
         this.loading = false;
     }
 
+    private loadRecentNotificationCount(): void {
+        this.notificationService.getUnreadCount().subscribe((count: number) => (this.recentNotificationCount = count));
+    }
+
     private subscribeToNotificationUpdates(): void {
         this.notificationService.subscribeToNotificationUpdates().subscribe((notification: Notification) => {
-            // Increase total notifications count if the notification does not already exist.
-            if (!this.notifications.some(({ id }) => id === notification.id)) {
-                this.totalNotifications += 1;
+            // Increase the recent notification count if the notification does not already exist and was not read yet.
+            const isNew = !this.notifications.some(({ id }) => id === notification.id);
+            if (isNew && notification.notificationDate && (!this.lastNotificationRead || notification.notificationDate.isAfter(this.lastNotificationRead))) {
+                this.recentNotificationCount += 1;
             }
             this.addNotifications([notification]);
         });
@@ -137,18 +140,5 @@ export class NotificationSidebarComponent implements OnInit {
         this.sortedNotifications = this.notifications.sort((a: Notification, b: Notification) => {
             return moment(b.notificationDate!).valueOf() - moment(a.notificationDate!).valueOf();
         });
-        this.updateRecentNotificationCount();
-    }
-
-    private updateRecentNotificationCount(): void {
-        if (!this.notifications) {
-            this.recentNotificationCount = 0;
-        } else if (this.lastNotificationRead) {
-            this.recentNotificationCount = this.notifications.filter((notification) => {
-                return notification.notificationDate && notification.notificationDate.isAfter(this.lastNotificationRead!);
-            }).length;
-        } else {
-            this.recentNotificationCount = this.notifications.length;
-        }
     }
 }
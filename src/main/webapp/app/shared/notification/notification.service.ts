@@ -45,6 +45,27 @@ export class NotificationService {
             .pipe(map((res: HttpResponse<Notification[]>) => this.convertDateArrayFromServer(res)));
     }
 
+    /**
+     * Query the notifications of the current user that are older than the given notification, newest first.
+     * @param beforeId the id of the oldest notification that was already loaded, or undefined for the newest notifications
+     * @param size the maximum number of notifications
+     * @return Observable<HttpResponse<Notification[]>>
+     */
+    queryFeed(beforeId: number | undefined, size: number): Observable<HttpResponse<Notification[]>> {
+        const options = createRequestOption(beforeId ? { beforeId, size } : { size });
+        return this.http
+            .get<Notification[]>(`${this.resourceUrl}/feed`, { params: options, observe: 'response' })
+            .pipe(map((res: HttpResponse<Notification[]>) => this.convertDateArrayFromServer(res)));
+    }
+
+    /**
+     * Get the number of notifications the current user received since they read their notifications the last time.
+     * @return Observable<number>
+     */
+    getUnreadCount(): Observable<number> {
+        return this.http.get<number>(`${this.resourceUrl}/unread-count`);
+    }
+
     /**
      * Delete notification by id.
      * @param {number} id
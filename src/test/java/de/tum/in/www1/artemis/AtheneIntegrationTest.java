@@ -6,10 +6,9 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterEach;
@@ -23,6 +22,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import de.tum.in.www1.artemis.domain.TextBlock;
 import de.tum.in.www1.artemis.domain.TextCluster;
 import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.repository.TextBlockRepository;
 import de.tum.in.www1.artemis.repository.TextClusterRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.TextBlockService;
@@ -48,6 +48,9 @@ public class AtheneIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
     @Autowired
     TextClusterRepository textClusterRepository;
 
+    @Autowired
+    TextBlockRepository textBlockRepository;
+
     @AfterEach
     public void tearDown() {
         database.resetDatabase();
@@ -86,29 +89,21 @@ public class AtheneIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
         }).collect(Collectors.toList());
         requestBody.setBlocks(textBlockDTOs);
 
-        final var clusterDTOs = List.of(0, 1, 2).stream().map(cid -> {
-            final var blocksInCluster = textBlockDTOs.subList(cid * 3, (cid + 1) * 3).stream().map(dto -> {
-                var block = new TextBlock();
-                block.setId(dto.getId());
-                return block;
-            }).collect(Collectors.toList());
+        final var clusterDTOs = List.of(0, 1, 2).stream().collect(Collectors.toMap(cid -> cid, cid -> {
             final double[][] matrix = { { 0.0, 0.1, 0.2 }, { 0.1, 0.0, 0.2 }, { 0.2, 0.1, 0.0 } };
             final double[] probabilities = { 0.9, 0.8, 0.7 };
 
-            final TextCluster cluster = new TextCluster();
-            cluster.setId(Long.valueOf(cid));
-            cluster.setBlocks(blocksInCluster);
+            final var cluster = new AtheneDTO.TextClusterDTO();
+            cluster.setBlocks(textBlockDTOs.subList(cid * 3, (cid + 1) * 3));
             cluster.setDistanceMatrix(matrix);
             cluster.setProbabilities(probabilities);
             return cluster;
-        }).collect(Collectors.toMap(c -> c.getId().intValue(), c -> c));
-        clusterDTOs.forEach((key, value) -> value.setId(null));
+        }));
 
         requestBody.setClusters(clusterDTOs);
 
-        List<Long> runningAtheneTasks = new ArrayList<>();
-        runningAtheneTasks.add(exercise.getId());
-        ReflectionTestUtils.setField(atheneService, "runningAtheneTasks", runningAtheneTasks);
+        // the service is proxied because of its transactional methods, so the task is registered by calling the service
+        atheneService.startTask(exercise.getId());
 
         final HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.set("Authorization", atheneApiSecret);
@@ -125,7 +120,7 @@ public class AtheneIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
             for (int blockIndex = 0; blockIndex < blocks.size(); blockIndex++) {
                 TextBlock block = blocks.get(blockIndex);
                 assertThat(block.getAddedDistance(), greaterThan(1.65));
-                final TextBlock textBlockFromRequest = clusterDTOs.get(clusterIndex).getBlocks().get(blockIndex);
+                final var textBlockFromRequest = clusterDTOs.get(clusterIndex).getBlocks().get(blockIndex);
                 assertThat(block.getId(), is(equalTo(textBlockFromRequest.getId())));
                 var positionInCluster = ReflectionTestUtils.getField(block, "positionInCluster");
                 assertThat(positionInCluster, is(equalTo(blockIndex)));
@@ -133,4 +128,71 @@ public class AtheneIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
         }
 
     }
+
+    /**
+     * Test that receiving the same results again keeps the stored clusters and that changed results only replace the changed clusters.
+     *
+     * @throws Exception might be thrown from Network Call to Artemis API
+     */
+    @Test
+    public void testProcessingSameResultsAgain() throws Exception {
+        SecurityUtils.setAuthorizationObject();
+        database.addUsers(10, 0, 0);
+        final var course = database.addCourseWithOneFinishedTextExercise();
+        final var exercise = (TextExercise) course.getExercises().iterator().next();
+        final var textSubmissions = ModelFactory.generateTextSubmissions(10);
+        for (int i = 0; i < textSubmissions.size(); i++) {
+            final var submission = textSubmissions.get(i);
+            submission.setId(null);
+            submission.submitted(true);
+            database.addSubmission(exercise, submission, String.format("student%d", i + 1));
+        }
+
+        final var textBlockDTOs = textSubmissions.stream().map(textBlockService::splitSubmissionIntoBlocks).flatMap(Collection::stream).map(block -> {
+            final var dto = new AtheneDTO.TextBlockDTO();
+            dto.setId(block.getId());
+            dto.setSubmissionId(block.getSubmission().getId());
+            dto.setText(block.getText());
+            dto.setStartIndex(block.getStartIndex());
+            dto.setEndIndex(block.getEndIndex());
+            return dto;
+        }).collect(Collectors.toList());
+        final var requestBody = new AtheneDTO();
+        requestBody.setBlocks(textBlockDTOs);
+        requestBody.setClusters(new HashMap<>(Map.of(0, generateCluster(textBlockDTOs.subList(0, 3)), 1, generateCluster(textBlockDTOs.subList(3, 6)))));
+
+        postResults(exercise, requestBody);
+        final Set<Long> clusterIds = textClusterRepository.findAllByExercise(exercise).stream().map(TextCluster::getId).collect(Collectors.toSet());
+        assertThat(clusterIds, hasSize(2));
+
+        // The same results keep the stored clusters
+        postResults(exercise, requestBody);
+        assertThat(textClusterRepository.findAllByExercise(exercise).stream().map(TextCluster::getId).collect(Collectors.toSet()), equalTo(clusterIds));
+
+        // The second cluster is replaced, the blocks of the first cluster stay in their cluster
+        requestBody.setClusters(new HashMap<>(Map.of(0, generateCluster(textBlockDTOs.subList(0, 3)), 1, generateCluster(textBlockDTOs.subList(4, 7)))));
+        postResults(exercise, requestBody);
+        final List<TextCluster> clusters = textClusterRepository.findAllByExercise(exercise);
+        assertThat(clusters, hasSize(2));
+        assertThat(clusters.stream().filter(cluster -> clusterIds.contains(cluster.getId())).count(), equalTo(1L));
+        final var firstBlock = textBlockRepository.findById(textBlockDTOs.get(0).getId()).get();
+        assertThat(clusterIds.contains(firstBlock.getCluster().getId()), is(true));
+        assertThat(textBlockRepository.findById(textBlockDTOs.get(3).getId()).get().getCluster(), is(nullValue()));
+    }
+
+    private AtheneDTO.TextClusterDTO generateCluster(List<AtheneDTO.TextBlockDTO> blocks) {
+        final var cluster = new AtheneDTO.TextClusterDTO();
+        cluster.setBlocks(blocks);
+        cluster.setDistanceMatrix(new double[][] { { 0.0, 0.1, 0.2 }, { 0.1, 0.0, 0.2 }, { 0.2, 0.1, 0.0 } });
+        cluster.setProbabilities(new double[] { 0.9, 0.8, 0.7 });
+        return cluster;
+    }
+
+    private void postResults(TextExercise exercise, AtheneDTO requestBody) throws Exception {
+        atheneService.startTask(exercise.getId());
+
+        final HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.set("Authorization", atheneApiSecret);
+        request.postWithoutLocation(ATHENE_RESULT_API_PATH + exercise.getId(), requestBody, HttpStatus.OK, httpHeaders);
+    }
 }
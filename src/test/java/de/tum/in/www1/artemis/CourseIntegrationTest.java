@@ -905,6 +905,22 @@ public class CourseIntegrationTest extends AbstractSpringIntegrationBambooBitbuc
         request.postWithoutLocation("/api/courses/" + course.getId() + "/instructors/maxMustermann", null, HttpStatus.NOT_FOUND, null);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testAddUsersToCourseGroup() throws Exception {
+        Course course = ModelFactory.generateCourse(null, null, null, new HashSet<>(), "bulkstudents", "tutor", "instructor");
+        course = courseRepo.save(course);
+        jiraRequestMockProvider.enableMockingOfRequests();
+        jiraRequestMockProvider.mockAddUserToGroup(course.getStudentGroupName());
+        jiraRequestMockProvider.mockAddUserToGroup(course.getStudentGroupName());
+
+        var notFoundLogins = request.postListWithResponseBody("/api/courses/" + course.getId() + "/students", Set.of("student1", "student2", "maxMustermann"), String.class,
+                HttpStatus.OK);
+
+        assertThat(notFoundLogins).containsExactly("maxMustermann");
+        assertThat(userRepo.findAllInGroup(course.getStudentGroupName())).extracting(User::getLogin).containsExactlyInAnyOrder("student1", "student2");
+    }
+
     private void testAddStudentOrTutorOrInstructorToCourse(Course course, HttpStatus httpStatus) throws Exception {
         jiraRequestMockProvider.enableMockingOfRequests();
         jiraRequestMockProvider.mockAddUserToGroupForMultipleGroups(Set.of(course.getStudentGroupName()));
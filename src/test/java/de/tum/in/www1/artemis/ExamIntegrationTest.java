@@ -21,6 +21,7 @@ import de.tum.in.www1.artemis.connector.jira.JiraRequestMockProvider;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.DiagramType;
 import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExamSession;
 import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
 import de.tum.in.www1.artemis.domain.exam.StudentExam;
 import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
@@ -31,6 +32,7 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.repository.ParticipationTestRepository;
 import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.dto.StudentDTO;
+import de.tum.in.www1.artemis.service.dto.StudentRegistrationReportDTO;
 import de.tum.in.www1.artemis.service.ldap.LdapUserDto;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.rest.dto.ExamInformationDTO;
@@ -77,6 +79,9 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
     @Autowired
     ParticipationTestRepository participationTestRepository;
 
+    @Autowired
+    ExamSessionRepository examSessionRepository;
+
     // Tolerated absolute difference for floating-point number comparisons
     private final Double EPSILON = 0000.1;
 
@@ -147,11 +152,10 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
         student2 = userRepo.save(student2);
         userRepo.save(student3);
 
-        // mock the ldap service
-        doReturn(Optional.empty()).when(ldapUserService).findByRegistrationNumber(registrationNumber3WithTypo);
+        // mock the ldap service, registration numbers which are not found in the Artemis database are searched together
         var ldapUser100Dto = new LdapUserDto().registrationNumber(registrationNumber100).firstName("Student100").lastName("Student100").username("student100")
                 .email("student100@tum.de");
-        doReturn(Optional.of(ldapUser100Dto)).when(ldapUserService).findByRegistrationNumber(registrationNumber100);
+        doReturn(List.of(ldapUser100Dto)).when(ldapUserService).findAllByRegistrationNumbers(Set.of(registrationNumber3WithTypo, registrationNumber100));
 
         // first mocked call expected to add student 99 to course student
         jiraRequestMockProvider.mockAddUserToGroup(course1.getStudentGroupName());  // expect once for student 99
@@ -208,6 +212,43 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
         request.delete("/api/courses/" + course1.getId() + "/exams/" + savedExam.getId(), HttpStatus.OK);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testRegisterUsersInExamInBulk() throws Exception {
+        jiraRequestMockProvider.enableMockingOfRequests();
+
+        var exam = ModelFactory.generateExam(course1);
+        var savedExam = examRepository.save(exam);
+        var student1 = database.getUserByLogin("student1");
+        var student2 = database.getUserByLogin("student2");
+        var registrationNumber1 = "1111121";
+        var registrationNumber2 = "1111122";
+        var registrationNumberUnknown = "1111123";
+        student1.setRegistrationNumber(registrationNumber1);
+        student2.setRegistrationNumber(registrationNumber2);
+        student1 = userRepo.save(student1);
+        student2 = userRepo.save(student2);
+        savedExam.addRegisteredUser(student2);
+        savedExam = examRepository.save(savedExam);
+
+        doReturn(List.of()).when(ldapUserService).findAllByRegistrationNumbers(Set.of(registrationNumberUnknown));
+
+        var studentDto1 = new StudentDTO().registrationNumber(registrationNumber1);
+        var studentDto2 = new StudentDTO().registrationNumber(registrationNumber2);
+        var studentDtoUnknown = new StudentDTO().registrationNumber(registrationNumberUnknown);
+
+        List<StudentRegistrationReportDTO> reports = request.postListWithResponseBody("/api/courses/" + course1.getId() + "/exams/" + savedExam.getId() + "/students-bulk",
+                List.of(studentDto1, studentDto2, studentDtoUnknown), StudentRegistrationReportDTO.class, HttpStatus.OK);
+
+        assertThat(reports).extracting(StudentRegistrationReportDTO::getStatus).containsExactly(StudentRegistrationReportDTO.RegistrationStatus.REGISTERED,
+                StudentRegistrationReportDTO.RegistrationStatus.ALREADY_REGISTERED, StudentRegistrationReportDTO.RegistrationStatus.NOT_FOUND);
+        assertThat(reports).extracting(StudentRegistrationReportDTO::getLogin).containsExactly("student1", "student2", null);
+        verify(ldapUserService, times(1)).findAllByRegistrationNumbers(Set.of(registrationNumberUnknown));
+
+        Exam storedExam = examRepository.findWithRegisteredUsersById(savedExam.getId()).get();
+        assertThat(storedExam.getRegisteredUsers()).containsExactlyInAnyOrder(student1, student2);
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     public void testStartExercisesWithTextExercise() throws Exception {
@@ -348,6 +389,33 @@ public class ExamIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
         request.delete("/api/courses/" + course1.getId() + "/exams/" + exam.getId(), HttpStatus.OK);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testGenerateStudentExamsAgainReplacesStudentExams() throws Exception {
+        Exam exam = database.setupExamWithExerciseGroupsExercisesRegisteredStudents(course1);
+        List<StudentExam> studentExams = request.postListWithResponseBody("/api/courses/" + course1.getId() + "/exams/" + exam.getId() + "/generate-student-exams",
+                Optional.empty(), StudentExam.class, HttpStatus.OK);
+
+        // A student exam with an exam session is replaced as well
+        ExamSession examSession = new ExamSession();
+        examSession.setStudentExam(studentExams.get(0));
+        examSessionRepository.save(examSession);
+
+        List<StudentExam> regeneratedStudentExams = request.postListWithResponseBody("/api/courses/" + course1.getId() + "/exams/" + exam.getId() + "/generate-student-exams",
+                Optional.empty(), StudentExam.class, HttpStatus.OK);
+        assertThat(regeneratedStudentExams).hasSize(exam.getRegisteredUsers().size());
+        assertThat(studentExamRepository.findByExamId(exam.getId())).extracting(StudentExam::getId)
+                .containsExactlyInAnyOrderElementsOf(regeneratedStudentExams.stream().map(StudentExam::getId).collect(Collectors.toList()))
+                .doesNotContainAnyElementsOf(studentExams.stream().map(StudentExam::getId).collect(Collectors.toList()));
+        assertThat(examSessionRepository.findById(examSession.getId())).isEmpty();
+
+        // The exercises are stored in the drawn order
+        for (StudentExam studentExam : regeneratedStudentExams) {
+            StudentExam studentExamInDatabase = studentExamRepository.findWithExercisesByUserIdAndExamId(studentExam.getUser().getId(), exam.getId()).get();
+            assertThat(studentExamInDatabase.getExercises()).containsExactlyElementsOf(studentExam.getExercises());
+        }
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     public void testGenerateMissingStudentExams() throws Exception {
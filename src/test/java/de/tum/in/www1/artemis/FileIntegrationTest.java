@@ -3,11 +3,14 @@ package de.tum.in.www1.artemis;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -104,6 +107,23 @@ public class FileIntegrationTest extends AbstractSpringIntegrationBambooBitbucke
         assertThat(receivedIcon).isEqualTo("some data");
     }
 
+    @Test
+    @WithMockUser(value = "instructor1", roles = "INSTRUCTOR")
+    public void testGetCourseIcon_rangeAndConditionalRequests() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "icon.png", "application/json", "some data".getBytes());
+        JsonNode response = request.postWithMultipartFile("/api/fileUpload?keepFileName=false", file.getOriginalFilename(), "file", file, JsonNode.class, HttpStatus.CREATED);
+        String iconPath = fileService.manageFilesForUpdatedFilePath(null, response.get("path").asText(), FilePathService.getCourseIconFilepath(), 1L);
+
+        HttpHeaders rangeHeaders = new HttpHeaders();
+        rangeHeaders.setRange(List.of(HttpRange.createByteRange(5, 8)));
+        String receivedRange = request.get(iconPath, HttpStatus.PARTIAL_CONTENT, String.class, rangeHeaders);
+        assertThat(receivedRange).isEqualTo("data");
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfModifiedSince(ZonedDateTime.now().plusMinutes(1));
+        request.get(iconPath, HttpStatus.NOT_MODIFIED, String.class, conditionalHeaders);
+    }
+
     @Test
     @WithMockUser(value = "instructor1", roles = "INSTRUCTOR")
     public void testGetDragAndDropBackgroundFile() throws Exception {
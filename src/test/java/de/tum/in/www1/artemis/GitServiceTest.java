@@ -1,13 +1,22 @@
 package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.Arrays;
-import java.util.Collection;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.StreamSupport;
 
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ReflogEntry;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -15,14 +24,27 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import de.tum.in.www1.artemis.domain.Repository;
+import de.tum.in.www1.artemis.exception.GitException;
 import de.tum.in.www1.artemis.util.GitUtilService;
+import io.micrometer.core.instrument.MeterRegistry;
 
 public class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
 
     @Autowired
     GitUtilService gitUtilService;
 
+    @Autowired
+    HazelcastInstance hazelcastInstance;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
     @BeforeEach
     public void beforeEach() {
         gitUtilService.initRepo();
@@ -123,4 +145,212 @@ public class GitServiceTest extends AbstractSpringIntegrationBambooBitbucketJira
             assertThat(fileContent3).isEqualTo(oldFileContent3);
         });
     }
+
+    @Test
+    public void evictIdleRepositoriesFromCache() {
+        Path localPath = gitUtilService.getCompleteRepoPathByType(GitUtilService.REPOS.LOCAL);
+        Repository cachedRepository = gitService.getRepositoryByLocalPath(localPath);
+        assertThat(gitService.getRepositoryByLocalPath(localPath)).isSameAs(cachedRepository);
+
+        // every repository is idle if the maximum idle time lies in the future
+        ReflectionTestUtils.setField(gitService, "maxIdleTimeInMinutes", -1L);
+        try {
+            gitService.evictIdleRepositories();
+        }
+        finally {
+            ReflectionTestUtils.setField(gitService, "maxIdleTimeInMinutes", 60L);
+        }
+
+        Repository reopenedRepository = gitService.getRepositoryByLocalPath(localPath);
+        assertThat(reopenedRepository).isNotNull().isNotSameAs(cachedRepository);
+    }
+
+    @Test
+    public void closeLeastRecentlyUsedRepositoryOnlyWhenIdle() {
+        Path localPath = gitUtilService.getCompleteRepoPathByType(GitUtilService.REPOS.LOCAL);
+        Collection<?> evictedRepositories = (Collection<?>) ReflectionTestUtils.getField(gitService, "evictedRepositories");
+        try {
+            // start without cached or evicted repositories
+            ReflectionTestUtils.setField(gitService, "maxIdleTimeInMinutes", -1L);
+            gitService.evictIdleRepositories();
+            ReflectionTestUtils.setField(gitService, "maxIdleTimeInMinutes", 60L);
+            ReflectionTestUtils.setField(gitService, "maxCachedRepositories", 0);
+
+            // the repository is evicted right away, but kept open as the caller might still use it
+            Repository evictedRepository = gitService.getRepositoryByLocalPath(localPath);
+            assertThat(evictedRepositories).containsExactly(evictedRepository);
+            gitService.evictIdleRepositories();
+            assertThat(evictedRepositories).containsExactly(evictedRepository);
+
+            ReflectionTestUtils.setField(gitService, "maxIdleTimeInMinutes", -1L);
+            gitService.evictIdleRepositories();
+            assertThat(evictedRepositories).isEmpty();
+        }
+        finally {
+            ReflectionTestUtils.setField(gitService, "maxCachedRepositories", 500);
+            ReflectionTestUtils.setField(gitService, "maxIdleTimeInMinutes", 60L);
+        }
+    }
+
+    @Test
+    public void checkoutRepositoryWithSharedObjects() throws Exception {
+        URL remoteUrl = gitUtilService.getLocalRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        String targetPath = "./repos-shared-objects/";
+        try {
+            Repository repository = gitService.getOrCheckoutRepository(remoteUrl, false, targetPath, remoteUrl);
+            Path alternates = repository.getLocalPath().resolve(".git").resolve("objects").resolve("info").resolve("alternates");
+            assertThat(alternates).exists();
+            assertThat(gitService.listFiles(repository)).isNotEmpty();
+
+            gitService.dissociateFromSharedObjects(repository);
+            assertThat(alternates).doesNotExist();
+            // the shared object store is deleted, because no repository references it anymore, but all objects are still available in the repository
+            assertThat(sharedObjectStore(targetPath, remoteUrl)).doesNotExist();
+            try (Git git = Git.open(repository.getLocalPath().toFile())) {
+                assertThat(git.log().call()).isNotEmpty();
+            }
+            gitService.deleteLocalRepository(repository);
+        }
+        finally {
+            FileUtils.deleteDirectory(Path.of(targetPath).toFile());
+        }
+    }
+
+    @Test
+    public void sharedObjectStoreIsDeletedWithTheLastReferencingRepository() throws Exception {
+        URL remoteUrl = gitUtilService.getLocalRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        URL localUrl = gitUtilService.getLocalRepoUrlByType(GitUtilService.REPOS.LOCAL);
+        String targetPath = "./repos-shared-objects-cleanup/";
+        try {
+            Repository firstRepository = gitService.getOrCheckoutRepository(remoteUrl, false, targetPath, remoteUrl);
+            Repository secondRepository = gitService.getOrCheckoutRepository(localUrl, false, targetPath, remoteUrl);
+            Path sharedObjectStore = sharedObjectStore(targetPath, remoteUrl);
+            assertThat(sharedObjectStore.resolve("referenced-by").toFile().list()).hasSize(2);
+
+            gitService.deleteLocalRepository(firstRepository);
+            assertThat(sharedObjectStore.resolve("referenced-by").toFile().list()).hasSize(1);
+            assertThat(gitService.listFiles(secondRepository)).isNotEmpty();
+
+            gitService.deleteLocalRepository(secondRepository);
+            assertThat(sharedObjectStore).doesNotExist();
+        }
+        finally {
+            FileUtils.deleteDirectory(Path.of(targetPath).toFile());
+        }
+    }
+
+    @Test
+    public void concurrentCheckoutsWaitForTheSameClone() throws Exception {
+        URL remoteUrl = gitUtilService.getLocalRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        String targetPath = "./repos-concurrent-clone/";
+        double completedClones = completedClones();
+        try {
+            List<Future<Repository>> checkouts = checkoutWhileCloneIsLocked(remoteUrl, targetPath, 3);
+            Repository repository = checkouts.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<Repository> checkout : checkouts) {
+                assertThat(checkout.get(30, TimeUnit.SECONDS)).isSameAs(repository);
+            }
+            assertThat(gitService.listFiles(repository)).isNotEmpty();
+            // the completed task count is only updated after the future of the clone has been completed
+            await().atMost(Duration.ofSeconds(10)).until(() -> completedClones() > completedClones);
+            assertThat(completedClones()).isEqualTo(completedClones + 1);
+            assertThat(clonesInProgress()).isEmpty();
+        }
+        finally {
+            FileUtils.deleteDirectory(Path.of(targetPath).toFile());
+        }
+    }
+
+    @Test
+    public void failedCloneIsPropagatedToAllWaitingCheckouts() throws Exception {
+        URL missingRemoteUrl = new URL("file://" + System.getProperty("user.dir") + "/repos-missing-remote/TEST/test-missing.git");
+        String targetPath = "./repos-failed-clone/";
+        try {
+            List<Future<Repository>> checkouts = checkoutWhileCloneIsLocked(missingRemoteUrl, targetPath, 3);
+            Set<Throwable> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Repository> checkout : checkouts) {
+                assertThatThrownBy(() -> checkout.get(30, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(GitException.class)
+                        .satisfies(ex -> failures.add(ex.getCause()));
+            }
+            // all callers receive the error of the one clone
+            assertThat(failures).hasSize(1);
+            assertThat(clonesInProgress()).isEmpty();
+            assertThat(Path.of(targetPath, gitService.folderNameForRepositoryUrl(missingRemoteUrl))).doesNotExist();
+        }
+        finally {
+            FileUtils.deleteDirectory(Path.of(targetPath).toFile());
+        }
+    }
+
+    @Test
+    public void checkoutStopsWaitingForCloneAfterTimeout() throws Exception {
+        URL remoteUrl = gitUtilService.getLocalRepoUrlByType(GitUtilService.REPOS.REMOTE);
+        String targetPath = "./repos-timed-out-clone/";
+        IMap<String, String> cloneLocks = hazelcastInstance.getMap("git-clone-locks");
+        String lockKey = cloneLockKey(remoteUrl, targetPath);
+        double completedClones = completedClones();
+        ReflectionTestUtils.setField(gitService, "cloneTimeoutInSeconds", 1L);
+        cloneLocks.lock(lockKey);
+        try {
+            assertThatThrownBy(() -> gitService.getOrCheckoutRepository(remoteUrl, false, targetPath, null)).isInstanceOf(GitException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+            // the next caller does not wait for the clone which timed out
+            assertThat(clonesInProgress()).doesNotContainKey(Path.of(targetPath + gitService.folderNameForRepositoryUrl(remoteUrl)));
+        }
+        finally {
+            cloneLocks.unlock(lockKey);
+            ReflectionTestUtils.setField(gitService, "cloneTimeoutInSeconds", 900L);
+        }
+        try {
+            // the clone which timed out still finishes in the background
+            await().atMost(Duration.ofSeconds(30)).until(() -> completedClones() > completedClones);
+            Repository repository = gitService.getOrCheckoutRepository(remoteUrl, false, targetPath, null);
+            assertThat(gitService.listFiles(repository)).isNotEmpty();
+        }
+        finally {
+            FileUtils.deleteDirectory(Path.of(targetPath).toFile());
+        }
+    }
+
+    /**
+     * Starts the given number of concurrent checkouts of the repository while the lock of its local path is held, so that the clone cannot finish before all checkouts
+     * have been started. The lock is released before the futures of the checkouts are returned.
+     */
+    private List<Future<Repository>> checkoutWhileCloneIsLocked(URL repoUrl, String targetPath, int numberOfCheckouts) throws Exception {
+        IMap<String, String> cloneLocks = hazelcastInstance.getMap("git-clone-locks");
+        String lockKey = cloneLockKey(repoUrl, targetPath);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfCheckouts);
+        List<Future<Repository>> checkouts = new ArrayList<>();
+        cloneLocks.lock(lockKey);
+        try {
+            for (int i = 0; i < numberOfCheckouts; i++) {
+                checkouts.add(executor.submit(() -> gitService.getOrCheckoutRepository(repoUrl, false, targetPath, null)));
+            }
+            verify(gitService, timeout(10000).times(numberOfCheckouts)).getOrCheckoutRepository(eq(repoUrl), eq(false), eq(targetPath), isNull());
+            await().atMost(Duration.ofSeconds(10)).until(() -> clonesInProgress().size() == 1);
+            assertThat(checkouts).noneMatch(Future::isDone);
+        }
+        finally {
+            cloneLocks.unlock(lockKey);
+            executor.shutdown();
+        }
+        return checkouts;
+    }
+
+    private Path sharedObjectStore(String targetPath, URL repoUrl) {
+        return Path.of(targetPath, "shared-objects", gitService.folderNameForRepositoryUrl(repoUrl) + ".git");
+    }
+
+    private String cloneLockKey(URL repoUrl, String targetPath) {
+        return Path.of(targetPath + gitService.folderNameForRepositoryUrl(repoUrl)).toAbsolutePath().normalize().toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Path, CompletableFuture<Repository>> clonesInProgress() {
+        return (Map<Path, CompletableFuture<Repository>>) ReflectionTestUtils.getField(gitService, "cloneInProgressOperations");
+    }
+
+    private double completedClones() {
+        return meterRegistry.get("executor.completed").tag("name", "git-clone").functionCounter().count();
+    }
 }
@@ -1,11 +1,14 @@
 package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
@@ -150,6 +153,74 @@ public class LtiIntegrationTest extends AbstractSpringIntegrationBambooBitbucket
         request.putWithResponseBody("/api/lti-outcome-urls", returnedLtiOutcomeUrl, LtiOutcomeUrl.class, HttpStatus.OK);
     }
 
+    @Test
+    void reportScoreSendsOnlyLatestScoreAndRemovesIt() throws Exception {
+        doNothing().when(ltiOutcomeReportingService).sendScore(any(), any());
+        LtiOutcomeUrl ltiOutcomeUrl = createLtiOutcomeUrl();
+
+        // the scores are reported in the background, only the latest one is pending
+        ltiOutcomeReportingService.reportScore(ltiOutcomeUrl, "0.50");
+        ltiOutcomeReportingService.reportScore(ltiOutcomeUrl, "0.75");
+        assertThat(ltiOutcomeUrlRepository.findById(ltiOutcomeUrl.getId()).get().getPendingScore()).isEqualTo("0.75");
+
+        awaitPendingScoreRemoved(ltiOutcomeUrl);
+        verify(ltiOutcomeReportingService).sendScore(any(), eq("0.75"));
+        verify(ltiOutcomeReportingService, never()).sendScore(any(), eq("0.50"));
+    }
+
+    @Test
+    void reportScoreRetriesFailedReports() throws Exception {
+        doThrow(new IOException("not reachable")).doThrow(new IOException("not reachable")).doNothing().when(ltiOutcomeReportingService).sendScore(any(), any());
+        LtiOutcomeUrl ltiOutcomeUrl = createLtiOutcomeUrl();
+
+        ltiOutcomeReportingService.reportScore(ltiOutcomeUrl, "0.75");
+
+        awaitPendingScoreRemoved(ltiOutcomeUrl);
+        verify(ltiOutcomeReportingService, times(3)).sendScore(any(), eq("0.75"));
+    }
+
+    @Test
+    void reportScoreKeepsScorePendingAfterAllAttemptsFailed() throws Exception {
+        doThrow(new IOException("not reachable")).when(ltiOutcomeReportingService).sendScore(any(), any());
+        LtiOutcomeUrl ltiOutcomeUrl = createLtiOutcomeUrl();
+
+        ltiOutcomeReportingService.reportScore(ltiOutcomeUrl, "0.75");
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> ltiOutcomeReportingService.getNumberOfScheduledReports() == 0);
+        // the configured maximum number of attempts in the tests is 3, the score is reported again after the next start
+        verify(ltiOutcomeReportingService, times(3)).sendScore(any(), eq("0.75"));
+        assertThat(ltiOutcomeUrlRepository.findAllIdsWithPendingScore()).containsExactly(ltiOutcomeUrl.getId());
+    }
+
+    @Test
+    void savingOutcomeUrlKeepsPendingScore() {
+        LtiOutcomeUrl ltiOutcomeUrl = createLtiOutcomeUrl();
+        ltiOutcomeUrlRepository.updatePendingScore(ltiOutcomeUrl.getId(), "0.75");
+
+        ltiOutcomeUrl = ltiOutcomeUrlRepository.findById(ltiOutcomeUrl.getId()).get();
+        ltiOutcomeUrl.setSourcedId("otherSourcedId");
+        ltiOutcomeUrlRepository.save(ltiOutcomeUrl);
+        ltiOutcomeUrlRepository.updatePendingScore(ltiOutcomeUrl.getId(), "1.00");
+        // saving the entity loaded before the new score must not overwrite it
+        ltiOutcomeUrl.setSourcedId("sourcedId");
+        ltiOutcomeUrlRepository.save(ltiOutcomeUrl);
+
+        assertThat(ltiOutcomeUrlRepository.findById(ltiOutcomeUrl.getId()).get().getPendingScore()).isEqualTo("1.00");
+    }
+
+    private LtiOutcomeUrl createLtiOutcomeUrl() {
+        LtiOutcomeUrl ltiOutcomeUrl = new LtiOutcomeUrl();
+        ltiOutcomeUrl.setUser(database.getUserByLogin("student1"));
+        ltiOutcomeUrl.setExercise(programmingExercise);
+        ltiOutcomeUrl.setUrl("https://lti.consumer.example/outcome_service_handler");
+        ltiOutcomeUrl.setSourcedId("sourcedId");
+        return ltiOutcomeUrlRepository.save(ltiOutcomeUrl);
+    }
+
+    private void awaitPendingScoreRemoved(LtiOutcomeUrl ltiOutcomeUrl) {
+        await().atMost(Duration.ofSeconds(10)).until(() -> ltiOutcomeUrlRepository.findById(ltiOutcomeUrl.getId()).get().getPendingScore() == null);
+    }
+
     @Test
     @WithMockUser(value = "student1", roles = "USER")
     void getAllLtiOutcomeUrls() throws Exception {
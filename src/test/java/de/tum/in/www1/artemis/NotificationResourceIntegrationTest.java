@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
@@ -20,6 +21,7 @@ import de.tum.in.www1.artemis.domain.notification.Notification;
 import de.tum.in.www1.artemis.domain.notification.SingleUserNotification;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.*;
+import de.tum.in.www1.artemis.service.dto.UserDTO;
 import de.tum.in.www1.artemis.util.ModelFactory;
 
 public class NotificationResourceIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -54,6 +56,9 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
     @Autowired
     SystemNotificationService systemNotificationService;
 
+    @Autowired
+    GroupNotificationService groupNotificationService;
+
     private Exercise exercise;
 
     private Course course1;
@@ -102,6 +107,18 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
         assertThat(response.getTarget()).as("response same target").isEqualTo(groupNotification.getTarget());
     }
 
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    public void testCreateNotification_recipientGroupOfStoredCourse() throws Exception {
+        Course course = new Course();
+        course.setId(course1.getId());
+        course.setStudentGroupName("some-group");
+        GroupNotification groupNotification = new GroupNotification(course, "Title", "Notification Text", null, GroupNotificationType.STUDENT);
+        GroupNotification response = request.postWithResponseBody("/api/notifications", groupNotification, GroupNotification.class, HttpStatus.CREATED);
+        GroupNotification savedNotification = (GroupNotification) groupNotificationRepository.findById(response.getId()).get();
+        assertThat(savedNotification.getRecipientGroup()).as("The group of the stored course is used").isEqualTo(course1.getStudentGroupName());
+    }
+
     @Test
     @WithMockUser(roles = "INSTRUCTOR")
     public void testCreateNotification_asInstructor_BAD_REQUEST() throws Exception {
@@ -132,11 +149,11 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
         // student1 is member of `testgroup` and `tumuser` per default
         // the studentGroupName of course1 is `tumuser` per default
         GroupNotification notification1 = ModelFactory.generateGroupNotification(ZonedDateTime.now(), course1, GroupNotificationType.STUDENT);
-        notificationRepository.save(notification1);
+        groupNotificationService.save(notification1);
         course2.setStudentGroupName("some-group");
         courseService.save(course2);
         GroupNotification notification2 = ModelFactory.generateGroupNotification(ZonedDateTime.now(), course2, GroupNotificationType.STUDENT);
-        notificationRepository.save(notification2);
+        groupNotificationService.save(notification2);
 
         List<Notification> notifications = request.getList("/api/notifications", HttpStatus.OK, Notification.class);
         assertThat(notifications).as("Notification with course the current user belongs to is returned").contains(notification1);
@@ -147,11 +164,11 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
     @WithMockUser(username = "student1", roles = "USER")
     public void testGetNotifications_groupNotificationTypeEvaluation_asStudent() throws Exception {
         GroupNotification notificationStudent = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.STUDENT);
-        notificationRepository.save(notificationStudent);
+        groupNotificationService.save(notificationStudent);
         GroupNotification notificationTutor = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.TA);
-        notificationRepository.save(notificationTutor);
+        groupNotificationService.save(notificationTutor);
         GroupNotification notificationInstructor = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.INSTRUCTOR);
-        notificationRepository.save(notificationInstructor);
+        groupNotificationService.save(notificationInstructor);
 
         List<Notification> notifications = request.getList("/api/notifications", HttpStatus.OK, Notification.class);
         assertThat(notifications).as("Notification with type student is returned").contains(notificationStudent);
@@ -163,11 +180,11 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
     @WithMockUser(username = "tutor1", roles = "TA")
     public void testGetNotifications_groupNotificationTypeEvaluation_asTutor() throws Exception {
         GroupNotification notificationStudent = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.STUDENT);
-        notificationRepository.save(notificationStudent);
+        groupNotificationService.save(notificationStudent);
         GroupNotification notificationTutor = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.TA);
-        notificationRepository.save(notificationTutor);
+        groupNotificationService.save(notificationTutor);
         GroupNotification notificationInstructor = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.INSTRUCTOR);
-        notificationRepository.save(notificationInstructor);
+        groupNotificationService.save(notificationInstructor);
 
         List<Notification> notifications = request.getList("/api/notifications", HttpStatus.OK, Notification.class);
         assertThat(notifications).as("Notification with type student is not returned").doesNotContain(notificationStudent);
@@ -179,11 +196,11 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     public void testGetNotifications_groupNotificationTypeEvaluation_asInstructor() throws Exception {
         GroupNotification notificationStudent = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.STUDENT);
-        notificationRepository.save(notificationStudent);
+        groupNotificationService.save(notificationStudent);
         GroupNotification notificationTutor = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.TA);
-        notificationRepository.save(notificationTutor);
+        groupNotificationService.save(notificationTutor);
         GroupNotification notificationInstructor = ModelFactory.generateGroupNotification(ZonedDateTime.now(), courseRepository.findAll().get(0), GroupNotificationType.INSTRUCTOR);
-        notificationRepository.save(notificationInstructor);
+        groupNotificationService.save(notificationInstructor);
 
         List<Notification> notifications = request.getList("/api/notifications", HttpStatus.OK, Notification.class);
         assertThat(notifications).as("Notification with type student is not returned").doesNotContain(notificationStudent);
@@ -191,6 +208,52 @@ public class NotificationResourceIntegrationTest extends AbstractSpringIntegrati
         assertThat(notifications).as("Notification with type instructor is returned").contains(notificationInstructor);
     }
 
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testGetNotificationFeed_keysetPagination() throws Exception {
+        User student1 = userService.getUser();
+        List<Notification> expectedNotifications = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            expectedNotifications.add(groupNotificationService.save(ModelFactory.generateGroupNotification(ZonedDateTime.now(), course1, GroupNotificationType.STUDENT)));
+            expectedNotifications.add(notificationRepository.save(ModelFactory.generateSingleUserNotification(ZonedDateTime.now(), student1)));
+        }
+        Notification tutorNotification = groupNotificationService.save(ModelFactory.generateGroupNotification(ZonedDateTime.now(), course1, GroupNotificationType.TA));
+        Notification otherUserNotification = notificationRepository.save(ModelFactory.generateSingleUserNotification(ZonedDateTime.now(), users.get(1)));
+        Collections.reverse(expectedNotifications);
+
+        List<Notification> firstPage = request.getList("/api/notifications/feed?size=4", HttpStatus.OK, Notification.class);
+        assertThat(firstPage).as("First page contains the newest notifications").containsExactlyElementsOf(expectedNotifications.subList(0, 4));
+
+        Long beforeId = firstPage.get(firstPage.size() - 1).getId();
+        List<Notification> secondPage = request.getList("/api/notifications/feed?size=4&beforeId=" + beforeId, HttpStatus.OK, Notification.class);
+        assertThat(secondPage).as("Second page contains the remaining notifications").containsExactlyElementsOf(expectedNotifications.subList(4, 6));
+        assertThat(secondPage).doesNotContain(tutorNotification, otherUserNotification);
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testGetNotificationFeed_invalidSize() throws Exception {
+        request.getList("/api/notifications/feed?size=0", HttpStatus.BAD_REQUEST, Notification.class);
+        request.getList("/api/notifications/feed?size=101", HttpStatus.BAD_REQUEST, Notification.class);
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testGetNumberOfUnreadNotifications() throws Exception {
+        assertThat(request.get("/api/notifications/unread-count", HttpStatus.OK, Long.class)).isEqualTo(0);
+
+        groupNotificationService.notifyStudentGroupAboutExercisePractice(exercise);
+        groupNotificationService.notifyStudentGroupAboutExercisePractice(exercise);
+        groupNotificationService.notifyTutorGroupAboutExerciseCreated(exercise);
+        notificationRepository.save(ModelFactory.generateSingleUserNotification(ZonedDateTime.now(), users.get(0)));
+        notificationRepository.save(ModelFactory.generateSingleUserNotification(ZonedDateTime.now().minusDays(2), users.get(0)));
+        assertThat(request.get("/api/notifications/unread-count", HttpStatus.OK, Long.class)).as("Only the notifications of the student since they were read are counted")
+                .isEqualTo(3);
+
+        request.putWithResponseBody("/api/users/notification-date", null, UserDTO.class, HttpStatus.OK);
+        assertThat(request.get("/api/notifications/unread-count", HttpStatus.OK, Long.class)).as("Reading the notifications resets the count").isEqualTo(0);
+    }
+
     @Test
     @WithMockUser(roles = "INSTRUCTOR")
     public void testUpdateNotification_asInstructor_OK() throws Exception {
@@ -17,6 +17,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.util.LinkedMultiValueMap;
 
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.ExerciseMode;
 import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
 import de.tum.in.www1.artemis.domain.enumeration.Language;
@@ -28,6 +29,7 @@ import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
 import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
 import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
 import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.dto.CourseScoreDTO;
 import de.tum.in.www1.artemis.service.feature.Feature;
 import de.tum.in.www1.artemis.service.feature.FeatureToggleService;
 import de.tum.in.www1.artemis.util.ModelFactory;
@@ -393,6 +395,40 @@ public class ParticipationIntegrationTest extends AbstractSpringIntegrationBambo
         request.getList("/api/courses/" + course.getId() + "/participations", HttpStatus.FORBIDDEN, StudentParticipation.class);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void exportCourseScores() throws Exception {
+        var participation1 = database.createAndSaveParticipationForExercise(textExercise, "student1");
+        database.addResultToParticipation(AssessmentType.MANUAL, ZonedDateTime.now().minusHours(2), participation1);
+        var latestResult = database.addResultToParticipation(AssessmentType.MANUAL, ZonedDateTime.now().minusHours(1), participation1);
+        latestResult.setScore(42L);
+        resultRepository.save(latestResult);
+        var participation2 = database.createAndSaveParticipationForExercise(modelingExercise, "student2");
+        database.addResultToParticipation(AssessmentType.MANUAL, ZonedDateTime.now().minusHours(1), participation2);
+        // participations without a rated result are not exported
+        database.createAndSaveParticipationForExercise(modelingExercise, "student1");
+
+        var csv = request.get("/api/courses/" + course.getId() + "/scores/export", HttpStatus.OK, String.class);
+        var lines = csv.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("ParticipationId,ExerciseId");
+        assertThat(lines[1]).startsWith(participation1.getId() + "," + textExercise.getId() + ",").contains(",student1,").contains(",42,");
+        assertThat(lines[2]).startsWith(participation2.getId() + "," + modelingExercise.getId() + ",").contains(",student2,").contains(",100,");
+
+        var json = request.getList("/api/courses/" + course.getId() + "/scores/export?format=json", HttpStatus.OK, CourseScoreDTO.class);
+        assertThat(json).hasSize(2);
+        assertThat(json.get(0).getParticipantIdentifier()).isEqualTo("student1");
+        assertThat(json.get(0).getScore()).isEqualTo(42L);
+
+        request.get("/api/courses/" + course.getId() + "/scores/export?format=xml", HttpStatus.BAD_REQUEST, String.class);
+    }
+
+    @Test
+    @WithMockUser(username = "instructor3", roles = "INSTRUCTOR")
+    public void exportCourseScores_noInstructorInCourse() throws Exception {
+        request.get("/api/courses/" + course.getId() + "/scores/export", HttpStatus.FORBIDDEN, String.class);
+    }
+
     @Test
     @WithMockUser(username = "tutor1", roles = "TA")
     public void updateParticipation() throws Exception {
@@ -2,7 +2,10 @@ package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.byLessThan;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.net.URI;
 import java.security.Principal;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
@@ -13,8 +16,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
@@ -26,6 +35,7 @@ import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.QuizExerciseService;
 import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
 import de.tum.in.www1.artemis.util.ModelFactory;
+import de.tum.in.www1.artemis.web.rest.QuizExerciseResource;
 import de.tum.in.www1.artemis.web.websocket.QuizSubmissionWebsocketService;
 
 public class QuizExerciseIntegrationTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
@@ -54,6 +64,12 @@ public class QuizExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
     @Autowired
     SubmittedAnswerRepository submittedAnswerRepository;
 
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ObjectMapper mapper;
+
     private QuizExercise quizExercise;
 
     // helper attributes for shorter code in assert statements
@@ -638,6 +654,56 @@ public class QuizExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
         checkQuizExerciseForStudent(quizExerciseForStudent_Finished);
     }
 
+    @Test
+    @WithMockUser(value = "student1", roles = "USER")
+    public void testGetQuizExercise_asStudent_notModified() throws Exception {
+        Course course = database.createCourse();
+        QuizExercise quizExercise = database.createQuiz(course, ZonedDateTime.now().minusMinutes(1), null);
+        quizExercise.setDuration(360);
+        quizExercise = quizExerciseService.save(quizExercise);
+        String path = "/api/quiz-exercises/" + quizExercise.getId() + "/for-student";
+
+        MockHttpServletResponse response = mvc.perform(MockMvcRequestBuilders.get(new URI(path)).with(csrf())).andExpect(status().isOk()).andReturn().getResponse();
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).as("Student view has a strong ETag").startsWith("\"");
+        assertThat(response.getHeader(QuizExerciseResource.REMAINING_TIME_HEADER)).isNotNull();
+        long remainingTime = mapper.readTree(response.getContentAsString()).get("remainingTime").asLong();
+        assertThat(remainingTime).as("Remaining time is added to the cached student view").isCloseTo(300L, byLessThan(5L));
+        checkQuizExerciseForStudent(mapper.readValue(response.getContentAsString(), QuizExercise.class));
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(eTag);
+        request.get(path, HttpStatus.NOT_MODIFIED, String.class, conditionalHeaders);
+
+        // updating the quiz exercise discards the cached student view
+        quizExercise.setTitle("Updated title");
+        quizExerciseService.save(quizExercise);
+        response = mvc.perform(MockMvcRequestBuilders.get(new URI(path)).headers(conditionalHeaders).with(csrf())).andExpect(status().isOk()).andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(mapper.readValue(response.getContentAsString(), QuizExercise.class).getTitle()).isEqualTo("Updated title");
+    }
+
+    @Test
+    @WithMockUser(value = "student1", roles = "USER")
+    public void testGetQuizExercise_asStudent_endedQuizIsNotCached() throws Exception {
+        Course course = database.createCourse();
+        QuizExercise quizExercise = database.createQuiz(course, ZonedDateTime.now().minusMinutes(5), null);
+        quizExercise.setDuration(60);
+        quizExercise = quizExerciseService.save(quizExercise);
+        assertThat(quizExercise.isEnded()).isTrue();
+        String path = "/api/quiz-exercises/" + quizExercise.getId() + "/for-student";
+
+        MockHttpServletResponse response = mvc.perform(MockMvcRequestBuilders.get(new URI(path)).with(csrf())).andExpect(status().isOk()).andReturn().getResponse();
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+
+        // a change which bypasses the cache invalidation is visible immediately, as the view of the ended quiz is created for each request
+        quizExercise.setTitle("Updated title");
+        quizExerciseRepository.save(quizExercise);
+        response = mvc.perform(MockMvcRequestBuilders.get(new URI(path)).with(csrf())).andExpect(status().isOk()).andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(mapper.readValue(response.getContentAsString(), QuizExercise.class).getTitle()).isEqualTo("Updated title");
+    }
+
     @Test
     @WithMockUser(value = "instructor1", roles = "INSTRUCTOR")
     public void testGetExamQuizExercise() throws Exception {
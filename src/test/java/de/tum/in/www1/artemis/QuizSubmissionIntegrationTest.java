@@ -179,6 +179,30 @@ public class QuizSubmissionIntegrationTest extends AbstractSpringIntegrationBamb
         assertThat(quizSubmissionRepository.count()).isEqualTo(numberOfParticipants);
     }
 
+    @Test
+    @WithMockUser(value = "student1", roles = "USER")
+    public void testQuizSubmitLive_secondSubmitRejected() throws Exception {
+        List<Course> courses = database.createCoursesWithExercisesAndLectures(false);
+        Course course = courses.get(0);
+        QuizExercise quizExercise = database.createQuiz(course, ZonedDateTime.now(), null);
+        quizExercise.duration(60);
+        quizExercise.setIsPlannedToStart(true);
+        quizExercise.setIsVisibleBeforeStart(true);
+        quizExercise = quizExerciseService.save(quizExercise);
+
+        QuizSubmission quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, 1, true, null);
+        request.postWithResponseBody("/api/exercises/" + quizExercise.getId() + "/submissions/live", quizSubmission, QuizSubmission.class, HttpStatus.OK);
+        assertThat(quizScheduleService.hasUserSubmitted(quizExercise.getId(), "student1")).isTrue();
+        assertThat(quizScheduleService.hasUserSubmitted(quizExercise.getId(), "student2")).isFalse();
+
+        // neither a second submit nor a later save of the same student is accepted
+        quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, 2, true, null);
+        request.postWithResponseBody("/api/exercises/" + quizExercise.getId() + "/submissions/live", quizSubmission, QuizSubmission.class, HttpStatus.BAD_REQUEST);
+        quizSubmission = database.generateSubmissionForThreeQuestions(quizExercise, 2, false, null);
+        quizSubmissionWebsocketService.saveSubmission(quizExercise.getId(), quizSubmission, () -> "student1");
+        assertThat(quizScheduleService.getQuizSubmission(quizExercise.getId(), "student1").isSubmitted()).isTrue();
+    }
+
     @Test
     @WithMockUser(value = "student1", roles = "USER")
     public void testQuizSubmitPractice() throws Exception {
@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
@@ -9,9 +10,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.Principal;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.ListBranchCommand;
@@ -24,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.util.LinkedMultiValueMap;
@@ -37,8 +41,10 @@ import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
 import de.tum.in.www1.artemis.domain.enumeration.InitializationState;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.domain.participation.*;
+import de.tum.in.www1.artemis.repository.BuildLogEntryRepository;
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
 import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.service.BuildLogService;
 import de.tum.in.www1.artemis.service.ProgrammingExerciseParticipationService;
 import de.tum.in.www1.artemis.service.ProgrammingExerciseService;
 import de.tum.in.www1.artemis.util.*;
@@ -62,6 +68,12 @@ public class RepositoryProgrammingExerciseParticipationResourceIntegrationTest e
     @Autowired
     ProgrammingExerciseService programmingExerciseService;
 
+    @Autowired
+    BuildLogService buildLogService;
+
+    @Autowired
+    BuildLogEntryRepository buildLogEntryRepository;
+
     private ProgrammingExercise programmingExercise;
 
     private String currentLocalFileName = "currentFileName";
@@ -432,7 +444,58 @@ public class RepositoryProgrammingExerciseParticipationResourceIntegrationTest e
         var receivedLogs = request.getList(studentRepoBaseUrl + participation.getId() + "/buildlogs", HttpStatus.OK, BuildLogEntry.class);
         assertThat(receivedLogs).isNotNull();
         assertThat(receivedLogs).hasSize(3);
-        assertThat(receivedLogs).isEqualTo(buildLogEntries);
+        // the migrated lines keep their text and time, the JSON only contains the time in UTC
+        assertThat(receivedLogs).extracting(BuildLogEntry::getLog, entry -> entry.getTime().toInstant())
+                .containsExactlyElementsOf(buildLogEntries.stream().map(entry -> tuple(entry.getLog(), entry.getTime().toInstant())).collect(Collectors.toList()));
+
+        // the build log entries have been migrated to a compressed build log
+        assertThat(buildLogEntryRepository.findAll()).isEmpty();
+        assertThat(buildLogService.findBuildLog(submission).orElseThrow().getNumberOfLines()).isEqualTo(3);
+        verify(continuousIntegrationService, never()).getLatestBuildLogs(any());
+    }
+
+    @Test
+    public void testBuildLogTimesKeepTheirOffset() {
+        var submission = database.createProgrammingSubmission(participation, true);
+        var time = ZonedDateTime.of(2020, 11, 23, 12, 30, 15, 123456789, ZoneOffset.ofHoursMinutes(5, 30));
+        List<BuildLogEntry> buildLogEntries = List.of(new BuildLogEntry(time, "line 1"), new BuildLogEntry(time.withZoneSameInstant(ZoneOffset.UTC), "line 2"),
+                new BuildLogEntry(null, "line 3"));
+        buildLogService.saveBuildLogs(submission, buildLogEntries);
+
+        var storedLines = buildLogService.readBuildLogs(buildLogService.findBuildLog(submission).orElseThrow(), Pageable.unpaged(), null).getContent();
+        assertThat(storedLines).extracting(BuildLogEntry::getTime).containsExactly(time, time.withZoneSameInstant(ZoneOffset.UTC), null);
+        assertThat(storedLines).extracting(BuildLogEntry::getLog).containsExactly("line 1", "line 2", "line 3");
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void testBuildLogsPaginatedAndFiltered() throws Exception {
+        var submission = database.createProgrammingSubmission(participation, true);
+        List<BuildLogEntry> buildLogEntries = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            buildLogEntries.add(new BuildLogEntry(ZonedDateTime.now(), (i % 10 == 0 ? "[ERROR] line " : "line ") + i));
+        }
+        buildLogService.saveBuildLogs(submission, buildLogEntries);
+
+        // the page spans two compressed chunks
+        var params = new LinkedMultiValueMap<String, String>();
+        params.add("page", "1");
+        params.add("size", "150");
+        var receivedLogs = request.getList(studentRepoBaseUrl + participation.getId() + "/buildlogs", HttpStatus.OK, BuildLogEntry.class, params);
+        assertThat(receivedLogs).extracting(BuildLogEntry::getLog).containsExactlyElementsOf(
+                buildLogEntries.subList(150, 300).stream().map(BuildLogEntry::getLog).collect(Collectors.toList()));
+
+        params.set("page", "2");
+        params.add("filter", "error");
+        receivedLogs = request.getList(studentRepoBaseUrl + participation.getId() + "/buildlogs", HttpStatus.OK, BuildLogEntry.class, params);
+        assertThat(receivedLogs).isEmpty();
+
+        params.set("page", "0");
+        params.set("size", "20");
+        receivedLogs = request.getList(studentRepoBaseUrl + participation.getId() + "/buildlogs", HttpStatus.OK, BuildLogEntry.class, params);
+        assertThat(receivedLogs).hasSize(20).allMatch(entry -> entry.getLog().startsWith("[ERROR]"));
+        assertThat(receivedLogs.get(19).getLog()).isEqualTo("[ERROR] line 190");
+        verify(continuousIntegrationService, never()).getLatestBuildLogs(any());
     }
 
     @Test
@@ -223,7 +223,7 @@ public class StudentQuestionIntegrationTest extends AbstractSpringIntegrationBam
 
         StudentQuestion updatedStudentQuestion = request.putWithResponseBody(
                 "/api/courses/" + studentQuestion.getCourse().getId() + "/student-questions/" + studentQuestion.getId() + "/votes", 1, StudentQuestion.class, HttpStatus.OK);
-        assertThat(updatedStudentQuestion.getVotes().equals(1));
+        assertThat(updatedStudentQuestion.getVotes()).isEqualTo(1);
     }
 
     @Test
@@ -233,7 +233,7 @@ public class StudentQuestionIntegrationTest extends AbstractSpringIntegrationBam
 
         StudentQuestion updatedStudentQuestion = request.putWithResponseBody(
                 "/api/courses/" + studentQuestion.getCourse().getId() + "/student-questions/" + studentQuestion.getId() + "/votes", -1, StudentQuestion.class, HttpStatus.OK);
-        assertThat(updatedStudentQuestion.getVotes().equals(-1));
+        assertThat(updatedStudentQuestion.getVotes()).isEqualTo(-1);
     }
 
     @Test
@@ -244,7 +244,37 @@ public class StudentQuestionIntegrationTest extends AbstractSpringIntegrationBam
 
         StudentQuestion updatedStudentQuestion = request.putWithResponseBody(
                 "/api/courses/" + studentQuestion.getCourse().getId() + "/student-questions/" + studentQuestion.getId() + "/votes", 2, StudentQuestion.class, HttpStatus.OK);
-        assertThat(updatedStudentQuestion.getVotes().equals(2));
+        // a user can only change the votes by one
+        assertThat(updatedStudentQuestion.getVotes()).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = "student1", roles = "USER")
+    public void editStudentQuestionVotes_voteOfUserIsLimited() throws Exception {
+        StudentQuestion studentQuestion = database.createCourseWithExerciseAndStudentQuestions().get(0);
+        String votesUrl = "/api/courses/" + studentQuestion.getCourse().getId() + "/student-questions/" + studentQuestion.getId() + "/votes";
+
+        assertThat(request.putWithResponseBody(votesUrl, 1, StudentQuestion.class, HttpStatus.OK).getVotes()).isEqualTo(1);
+        assertThat(request.putWithResponseBody(votesUrl, 1, StudentQuestion.class, HttpStatus.OK).getVotes()).as("a user can only vote once").isEqualTo(1);
+        assertThat(request.putWithResponseBody(votesUrl, -2, StudentQuestion.class, HttpStatus.OK).getVotes()).as("the upvote is changed to a downvote").isEqualTo(-1);
+
+        database.changeUser("student2");
+        assertThat(request.putWithResponseBody(votesUrl, -1, StudentQuestion.class, HttpStatus.OK).getVotes()).isEqualTo(-2);
+        assertThat(studentQuestionRepository.findVotesById(studentQuestion.getId())).isEqualTo(-2);
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void editStudentQuestion_votesAreNotOverwritten() throws Exception {
+        StudentQuestion studentQuestion = database.createCourseWithExerciseAndStudentQuestions().get(0);
+        request.putWithResponseBody("/api/courses/" + studentQuestion.getCourse().getId() + "/student-questions/" + studentQuestion.getId() + "/votes", 1,
+                StudentQuestion.class, HttpStatus.OK);
+
+        // the question still has the votes it had before the vote
+        studentQuestion.setQuestionText("New Test Student Question");
+        request.putWithResponseBody("/api/courses/" + studentQuestion.getCourse().getId() + "/student-questions", studentQuestion, StudentQuestion.class, HttpStatus.OK);
+
+        assertThat(studentQuestionRepository.findVotesById(studentQuestion.getId())).isEqualTo(1);
     }
 
     @Test
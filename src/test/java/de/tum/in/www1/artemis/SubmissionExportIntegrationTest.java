@@ -5,9 +5,12 @@ import static org.assertj.core.api.Assertions.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.junit.jupiter.api.AfterEach;
@@ -115,9 +118,7 @@ public class SubmissionExportIntegrationTest extends AbstractSpringIntegrationBa
 
     private void saveEmptySubmissionFile(Exercise exercise, FileUploadSubmission submission) throws IOException {
 
-        String[] parts = submission.getFilePath().split("/");
-        String fileName = parts[parts.length - 1];
-        File file = Path.of(FileUploadSubmission.buildFilePath(exercise.getId(), submission.getId()), fileName).toFile();
+        File file = getSubmissionFile(exercise, submission);
 
         File parent = file.getParentFile();
         if (!parent.exists() && !parent.mkdirs()) {
@@ -129,6 +130,12 @@ public class SubmissionExportIntegrationTest extends AbstractSpringIntegrationBa
         }
     }
 
+    private File getSubmissionFile(Exercise exercise, FileUploadSubmission submission) {
+        String[] parts = submission.getFilePath().split("/");
+        String fileName = parts[parts.length - 1];
+        return Path.of(FileUploadSubmission.buildFilePath(exercise.getId(), submission.getId()), fileName).toFile();
+    }
+
     @AfterEach
     public void resetDatabase() throws Exception {
         // change back to instructor user
@@ -168,6 +175,16 @@ public class SubmissionExportIntegrationTest extends AbstractSpringIntegrationBa
         request.post("/api/file-upload-exercises/" + fileUploadExercise.getId() + "/export-submissions", baseExportOptions, HttpStatus.BAD_REQUEST);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testNoSubmissionFiles_asInstructor() throws Exception {
+        for (FileUploadSubmission submission : List.of(fileUploadSubmission1, fileUploadSubmission2, fileUploadSubmission3)) {
+            Files.delete(getSubmissionFile(fileUploadExercise, submission).toPath());
+        }
+        // none of the selected submissions can be exported
+        request.post("/api/file-upload-exercises/" + fileUploadExercise.getId() + "/export-submissions", baseExportOptions, HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     public void testExportAll() throws Exception {
@@ -181,6 +198,46 @@ public class SubmissionExportIntegrationTest extends AbstractSpringIntegrationBa
         assertZipContains(fileUploadUip, fileUploadSubmission1, fileUploadSubmission2, fileUploadSubmission3);
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testStreamAll() throws Exception {
+        File textZip = request.postWithResponseBodyFile("/api/text-exercises/" + textExercise.getId() + "/export-submissions/stream", baseExportOptions, HttpStatus.OK);
+        assertZipContains(textZip, textSubmission1, textSubmission2, textSubmission3);
+        try (ZipFile zip = new ZipFile(textZip)) {
+            ZipEntry entry = zip.getEntry(getSubmissionFileName(textSubmission1));
+            assertThat(entry.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+            assertThat(new String(zip.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("example text");
+        }
+
+        File modelingZip = request.postWithResponseBodyFile("/api/modeling-exercises/" + modelingExercise.getId() + "/export-submissions/stream", baseExportOptions,
+                HttpStatus.OK);
+        assertZipContains(modelingZip, modelingSubmission1, modelingSubmission2, modelingSubmission3);
+
+        File fileUploadZip = request.postWithResponseBodyFile("/api/file-upload-exercises/" + fileUploadExercise.getId() + "/export-submissions/stream", baseExportOptions,
+                HttpStatus.OK);
+        assertZipContains(fileUploadZip, fileUploadSubmission1, fileUploadSubmission2, fileUploadSubmission3);
+        // uploaded pdf files are already compressed
+        try (ZipFile zip = new ZipFile(fileUploadZip)) {
+            assertThat(zip.stream()).hasSize(3).allMatch(entry -> entry.getMethod() == ZipEntry.STORED);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void testStreamNoSubmissionsForStudent_asInstructor() throws Exception {
+        baseExportOptions.setExportAllParticipants(false);
+        baseExportOptions.setParticipantIdentifierList("nonexistentstudent");
+        request.post("/api/text-exercises/" + textExercise.getId() + "/export-submissions/stream", baseExportOptions, HttpStatus.BAD_REQUEST);
+        request.post("/api/modeling-exercises/" + modelingExercise.getId() + "/export-submissions/stream", baseExportOptions, HttpStatus.BAD_REQUEST);
+        request.post("/api/file-upload-exercises/" + fileUploadExercise.getId() + "/export-submissions/stream", baseExportOptions, HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @WithMockUser(username = "tutor1", roles = "TA")
+    public void testStreamAll_asTutor_forbidden() throws Exception {
+        request.post("/api/text-exercises/" + textExercise.getId() + "/export-submissions/stream", baseExportOptions, HttpStatus.FORBIDDEN);
+    }
+
     private void assertZipContains(File file, Submission... submissions) {
         try {
             ZipFile zip = new ZipFile(file);
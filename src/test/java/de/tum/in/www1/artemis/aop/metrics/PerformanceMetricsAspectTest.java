@@ -0,0 +1,123 @@
+package de.tum.in.www1.artemis.aop.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PerformanceMetricsAspectTest {
+
+    private final PerformanceMetricsAspect.SlowOperationThresholds thresholds = new PerformanceMetricsAspect.SlowOperationThresholds(1000, 200, 100, 5000);
+
+    private final AtomicInteger registrations = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PerformanceMetricsAspect aspect;
+
+    @BeforeEach
+    public void initTestCase() {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(PerformanceMetricsAspect.distributionFilter(List.of(PerformanceMetricsAspect.SCHEDULED_JOB_DURATION_METRIC), thresholds));
+        aspect = new PerformanceMetricsAspect(meterRegistry, thresholds);
+        // the id of a meter is mapped for every registration attempt, also if the meter already exists in the registry
+        meterRegistry.config().meterFilter(new MeterFilter() {
+
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                registrations.incrementAndGet();
+                return id;
+            }
+        });
+    }
+
+    @Test
+    public void measuresScheduledJobsWithClassMethodAndOutcomeTags() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint(QuizScheduleService.class, "processCachedQuizSubmissions", null);
+        when(joinPoint.proceed()).thenReturn(null).thenReturn(null).thenThrow(new IllegalStateException("failed"));
+
+        aspect.measureScheduledJob(joinPoint);
+        aspect.measureScheduledJob(joinPoint);
+        assertThatThrownBy(() -> aspect.measureScheduledJob(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        Timer success = meterRegistry.get(PerformanceMetricsAspect.SCHEDULED_JOB_DURATION_METRIC).tag("class", "QuizScheduleService")
+                .tag("method", "processCachedQuizSubmissions").tag("outcome", "success").timer();
+        Timer error = meterRegistry.get(PerformanceMetricsAspect.SCHEDULED_JOB_DURATION_METRIC).tag("outcome", "error").timer();
+        assertThat(success.count()).isEqualTo(2);
+        assertThat(error.count()).isEqualTo(1);
+        // the timer of each outcome is only registered once, further calls reuse it
+        assertThat(registrations).hasValue(2);
+        // scheduled jobs are allow-listed for percentile histograms
+        assertThat(success.takeSnapshot().histogramCounts()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void measuresRepositoryMethodsWithInterfaceNameAndRows() throws Throwable {
+        Object repository = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { UserRepository.class }, (proxy, method, args) -> null);
+        ProceedingJoinPoint joinPoint = joinPoint(Object.class, "findAll", repository);
+        when(joinPoint.proceed()).thenReturn(List.of(1, 2, 3));
+
+        for (int i = 0; i < 3; i++) {
+            aspect.measureRepository(joinPoint);
+        }
+
+        Timer timer = meterRegistry.get(PerformanceMetricsAspect.REPOSITORY_DURATION_METRIC).tag("repository", "UserRepository").tag("method", "findAll")
+                .tag("outcome", "success").timer();
+        assertThat(timer.count()).isEqualTo(3);
+        var rows = meterRegistry.get(PerformanceMetricsAspect.REPOSITORY_ROWS_METRIC).tag("repository", "UserRepository").tag("method", "findAll").summary();
+        assertThat(rows.count()).isEqualTo(3);
+        assertThat(rows.totalAmount()).isEqualTo(9);
+        // one timer and one distribution summary, reused for the following calls
+        assertThat(registrations).hasValue(2);
+        // repository methods are not allow-listed and only get one bucket at the slow operation threshold of 200ms
+        var histogram = timer.takeSnapshot().histogramCounts();
+        assertThat(histogram).hasSize(1);
+        assertThat(histogram[0].bucket(TimeUnit.MILLISECONDS)).isEqualTo(200);
+        assertThat(histogram[0].count()).isEqualTo(3);
+    }
+
+    @Test
+    public void registersSlowOperationCountersUpfront() throws Throwable {
+        assertThat(meterRegistry.get(PerformanceMetricsAspect.SLOW_OPERATIONS_METRIC).counters()).hasSize(4);
+        var slowMeterRegistry = new SimpleMeterRegistry();
+        var slowAspect = new PerformanceMetricsAspect(slowMeterRegistry, new PerformanceMetricsAspect.SlowOperationThresholds(0, 0, 0, 1));
+        ProceedingJoinPoint joinPoint = joinPoint(QuizScheduleService.class, "processCachedQuizSubmissions", null);
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return null;
+        });
+
+        slowAspect.measureScheduledJob(joinPoint);
+        slowAspect.measureScheduledJob(joinPoint);
+
+        assertThat(slowMeterRegistry.get(PerformanceMetricsAspect.SLOW_OPERATIONS_METRIC).tag("category", "scheduled").counter().count()).isEqualTo(2);
+        assertThat(slowMeterRegistry.get(PerformanceMetricsAspect.SLOW_OPERATIONS_METRIC).tag("category", "repository").counter().count()).isEqualTo(0);
+    }
+
+    private static ProceedingJoinPoint joinPoint(Class<?> declaringType, String method, Object target) {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(method);
+        when(signature.getDeclaringType()).thenReturn(declaringType);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getTarget()).thenReturn(target);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+        return joinPoint;
+    }
+}
@@ -0,0 +1,77 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
+import de.tum.in.www1.artemis.util.QuizScoringDataGenerator;
+
+/**
+ * Microbenchmark of scoring all submissions of a quiz at the end of the quiz, once with the scoring strategies of the questions and once with a precompiled scoring plan.
+ * Like the quiz evaluation, each submission is scored and then evaluated for its result.
+ * Run with ./gradlew jmh -PjmhInclude=QuizScoringBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizScoringBenchmark {
+
+    @Param({ "2000" })
+    private int numberOfSubmissions;
+
+    private QuizExercise quizExercise;
+
+    private List<QuizSubmission> quizSubmissions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var generator = new QuizScoringDataGenerator(42);
+        quizExercise = generator.generateQuizExercise();
+        quizSubmissions = new ArrayList<>(numberOfSubmissions);
+        for (int i = 0; i < numberOfSubmissions; i++) {
+            quizSubmissions.add(generator.generateSubmission(quizExercise));
+        }
+    }
+
+    /**
+     * Scores each answer with the scoring strategy of its question, the total score is calculated again for the score and the result string of the result
+     *
+     * @param blackhole consumes the scores
+     */
+    @Benchmark
+    public void scoreWithScoringStrategies(Blackhole blackhole) {
+        for (QuizSubmission quizSubmission : quizSubmissions) {
+            for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+                SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(quizQuestion);
+                if (submittedAnswer != null) {
+                    submittedAnswer.setScoreInPoints(quizQuestion.scoreForAnswer(submittedAnswer));
+                }
+            }
+            quizSubmission.setScoreInPoints(quizExercise.getScoreInPointsForSubmission(quizSubmission));
+            blackhole.consume(quizExercise.getScoreForSubmission(quizSubmission));
+            blackhole.consume(quizExercise.getScoreInPointsForSubmission(quizSubmission));
+        }
+    }
+
+    /**
+     * Compiles the scoring plan once and scores all submissions with it, the total score is calculated again for the result
+     *
+     * @param blackhole consumes the scores
+     */
+    @Benchmark
+    public void scoreWithScoringPlan(Blackhole blackhole) {
+        QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
+        for (QuizSubmission quizSubmission : quizSubmissions) {
+            quizSubmission.calculateAndUpdateScores(scoringPlan);
+            blackhole.consume(scoringPlan.getScoreInPointsForSubmission(quizSubmission));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.domain.quiz.QuizExercise;
+import de.tum.in.www1.artemis.domain.quiz.QuizSubmission;
+import de.tum.in.www1.artemis.exception.QuizSubmissionException;
+import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.repository.StudentParticipationRepository;
+import de.tum.in.www1.artemis.service.*;
+import de.tum.in.www1.artemis.service.scheduled.quiz.QuizScheduleService;
+
+/**
+ * Microbenchmark of saving live quiz submissions with a single, standalone Hazelcast member and mocked repositories, so that only the cache operations are measured.
+ * Run with ./gradlew jmh -PjmhInclude=QuizSubmissionSaveBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizSubmissionSaveBenchmark {
+
+    private static final long QUIZ_EXERCISE_ID = 1L;
+
+    @Param({ "1000" })
+    private int numberOfStudents;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private QuizScheduleService quizScheduleService;
+
+    private QuizSubmissionService quizSubmissionService;
+
+    private int nextStudent;
+
+    /**
+     * Starts the Hazelcast member, caches an active quiz and marks the second half of the students as submitted
+     *
+     * @throws QuizSubmissionException if the initial submissions could not be saved
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws QuizSubmissionException {
+        Config config = new Config();
+        config.setClusterName("quiz-submission-benchmark");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        QuizScheduleService.configureHazelcast(config);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+
+        QuizExercise quizExercise = new QuizExercise().duration(3600);
+        quizExercise.setId(QUIZ_EXERCISE_ID);
+        quizExercise.setReleaseDate(ZonedDateTime.now().minusMinutes(1));
+        quizExercise.setIsPlannedToStart(true);
+
+        QuizExerciseService quizExerciseService = mock(QuizExerciseService.class);
+        when(quizExerciseService.findOneWithQuestionsAndStatistics(anyLong())).thenReturn(quizExercise);
+
+        quizScheduleService = new QuizScheduleService(mock(SimpMessageSendingOperations.class), mock(StudentParticipationRepository.class), mock(ResultRepository.class),
+                mock(UserService.class), mock(QuizSubmissionRepository.class), hazelcastInstance);
+        quizScheduleService.setQuizExerciseService(quizExerciseService);
+        quizSubmissionService = new QuizSubmissionService(mock(QuizSubmissionRepository.class), quizScheduleService, mock(ResultRepository.class),
+                mock(SubmissionVersionService.class));
+        quizSubmissionService.setQuizExerciseService(quizExerciseService);
+        quizSubmissionService.setParticipationService(mock(ParticipationService.class));
+
+        for (int i = numberOfStudents / 2; i < numberOfStudents; i++) {
+            quizSubmissionService.saveSubmissionForLiveMode(QUIZ_EXERCISE_ID, newSubmission(true), "student" + i, true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        quizScheduleService.clearAllQuizData();
+        hazelcastInstance.shutdown();
+    }
+
+    /**
+     * Periodic save of a student who has not submitted yet
+     *
+     * @return the saved submission
+     * @throws QuizSubmissionException if the submission was rejected
+     */
+    @Benchmark
+    public QuizSubmission saveSubmission() throws QuizSubmissionException {
+        return quizSubmissionService.saveSubmissionForLiveMode(QUIZ_EXERCISE_ID, newSubmission(false), "student" + nextStudent(0), false);
+    }
+
+    /**
+     * Save of a student who has already submitted, which has to be rejected
+     *
+     * @return the exception with which the submission was rejected
+     */
+    @Benchmark
+    public QuizSubmissionException rejectSubmissionOfSubmittedStudent() {
+        try {
+            quizSubmissionService.saveSubmissionForLiveMode(QUIZ_EXERCISE_ID, newSubmission(false), "student" + nextStudent(numberOfStudents / 2), false);
+            throw new IllegalStateException("The submission of a student who has already submitted must be rejected");
+        }
+        catch (QuizSubmissionException ex) {
+            return ex;
+        }
+    }
+
+    /**
+     * Rotates over one half of the students, starting at the given offset
+     */
+    private int nextStudent(int offset) {
+        nextStudent = (nextStudent + 1) % (numberOfStudents / 2);
+        return offset + nextStudent;
+    }
+
+    private static QuizSubmission newSubmission(boolean submitted) {
+        QuizSubmission quizSubmission = new QuizSubmission();
+        quizSubmission.setSubmitted(submitted);
+        return quizSubmission;
+    }
+}
@@ -0,0 +1,103 @@
+package de.tum.in.www1.artemis.config.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import de.tum.in.www1.artemis.exception.ConnectorUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ConnectorBulkheadInterceptorTest {
+
+    private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://bitbucket.fake.fake/rest/api"));
+
+    private final ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void initTestCase() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void opensCircuitAfterConsecutiveFailures() throws Exception {
+        var interceptor = new ConnectorBulkheadInterceptor("bitbucket", meterRegistry, 2, 0, 2, 60_000);
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("Read timed out"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(SocketTimeoutException.class);
+        }
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(ConnectorUnavailableException.class);
+
+        verify(execution, times(2)).execute(any(), any());
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.CIRCUIT_OPEN_METRIC).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.REJECTED_REQUESTS_METRIC).tag("reason", "circuit-open").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void closesCircuitAfterSuccessfulTrialRequest() throws Exception {
+        var interceptor = new ConnectorBulkheadInterceptor("bitbucket", meterRegistry, 2, 0, 1, 0);
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("Read timed out")).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(SocketTimeoutException.class);
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.CIRCUIT_OPEN_METRIC).gauge().value()).isEqualTo(1);
+
+        // the open duration has already passed, the next request is the trial request
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.CIRCUIT_OPEN_METRIC).gauge().value()).isEqualTo(0);
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.REQUEST_DURATION_METRIC).tag("outcome", "SUCCESSFUL").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void errorResponsesDoNotOpenCircuit() throws Exception {
+        var interceptor = new ConnectorBulkheadInterceptor("bitbucket", meterRegistry, 2, 0, 1, 60_000);
+        when(execution.execute(any(), any())).thenAnswer(invocation -> new MockClientHttpResponse(new byte[0], HttpStatus.INTERNAL_SERVER_ERROR));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.intercept(request, new byte[0], execution).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.CIRCUIT_OPEN_METRIC).gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    public void rejectsRequestsBeyondConcurrencyLimit() throws Exception {
+        var interceptor = new ConnectorBulkheadInterceptor("bitbucket", meterRegistry, 1, 0, 0, 0);
+        // the nested request is sent while the outer one is still running
+        when(execution.execute(any(), any())).thenAnswer(invocation -> {
+            assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(ConnectorUnavailableException.class);
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        });
+
+        interceptor.intercept(request, new byte[0], execution);
+
+        verify(execution, times(1)).execute(any(), any());
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.REJECTED_REQUESTS_METRIC).tag("reason", "bulkhead").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.ACTIVE_REQUESTS_METRIC).gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    public void rethrowsIOExceptions() throws Exception {
+        var interceptor = new ConnectorBulkheadInterceptor("bitbucket", meterRegistry, 1, 0, 0, 0);
+        when(execution.execute(any(), any())).thenThrow(new IOException("Connection refused"));
+
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(IOException.class).hasMessage("Connection refused");
+        assertThat(meterRegistry.get(ConnectorBulkheadInterceptor.REQUEST_DURATION_METRIC).tag("outcome", "IO_ERROR").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,124 @@
+package de.tum.in.www1.artemis.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.domain.quiz.scoring.QuizScoringPlan;
+import de.tum.in.www1.artemis.util.QuizScoringDataGenerator;
+
+public class QuizScoringPlanTest {
+
+    @Test
+    public void scoresEqualScoringStrategies() {
+        var generator = new QuizScoringDataGenerator(42);
+        for (int i = 0; i < 20; i++) {
+            QuizExercise quizExercise = generator.generateQuizExercise();
+            QuizScoringPlan scoringPlan = QuizScoringPlan.compile(quizExercise);
+            assertThat(scoringPlan.getMaxTotalScore()).isEqualTo(quizExercise.getMaxTotalScore());
+
+            for (int j = 0; j < 100; j++) {
+                QuizSubmission quizSubmission = generator.generateSubmission(quizExercise);
+
+                // score with the scoring strategies of the questions, which also update the correctness of the submitted short answer texts
+                Map<SubmittedAnswer, Double> expectedScores = new HashMap<>();
+                for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+                    expectedScores.put(submittedAnswer, submittedAnswer.getQuizQuestion().scoreForAnswer(submittedAnswer));
+                }
+                Map<ShortAnswerSubmittedText, Boolean> expectedCorrectTexts = correctnessOfSubmittedTexts(quizSubmission);
+                double expectedScoreInPoints = quizExercise.getScoreInPointsForSubmission(quizSubmission);
+
+                scoringPlan.calculateAndUpdateScores(quizSubmission);
+
+                assertThat(quizSubmission.getScoreInPoints()).isEqualTo(expectedScoreInPoints);
+                assertThat(scoringPlan.getScoreForSubmission(quizSubmission)).isEqualTo(quizExercise.getScoreForSubmission(quizSubmission));
+                for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+                    assertThat(submittedAnswer.getScoreInPoints()).as("score of " + submittedAnswer.getQuizQuestion()).isEqualTo(expectedScores.get(submittedAnswer));
+                }
+                assertThat(correctnessOfSubmittedTexts(quizSubmission)).isEqualTo(expectedCorrectTexts);
+            }
+        }
+    }
+
+    @Test
+    public void scoresQuestionsWithoutIds() {
+        var generator = new QuizScoringDataGenerator(7);
+        QuizExercise quizExercise = generator.generateQuizExercise();
+        QuizSubmission quizSubmission = generator.generateSubmission(quizExercise);
+        double expectedScoreInPoints = quizExercise.getScoreInPointsForSubmission(quizSubmission);
+        // unsaved questions can only be matched by identity and are scored with their scoring strategies
+        quizExercise.getQuizQuestions().forEach(question -> question.setId(null));
+
+        QuizScoringPlan.compile(quizExercise).calculateAndUpdateScores(quizSubmission);
+
+        assertThat(quizSubmission.getScoreInPoints()).isEqualTo(expectedScoreInPoints);
+    }
+
+    @Test
+    public void scoresShortAnswerSolutionSharedBySpotsLikeScoringStrategy() {
+        ShortAnswerQuestion question = (ShortAnswerQuestion) new ShortAnswerQuestion().title("SA").score(2).text("Q");
+        question.setId(1L);
+        question.setScoringType(ScoringType.PROPORTIONAL_WITH_PENALTY);
+        ShortAnswerSolution sharedSolution = new ShortAnswerSolution().text("hash map");
+        sharedSolution.setId(2L);
+        ShortAnswerSolution otherSolution = new ShortAnswerSolution().text("hash map");
+        otherSolution.setId(3L);
+        question.addSolution(sharedSolution);
+        question.addSolution(otherSolution);
+        ShortAnswerSpot firstSpot = new ShortAnswerSpot().spotNr(0).width(1);
+        firstSpot.setId(4L);
+        ShortAnswerSpot secondSpot = new ShortAnswerSpot().spotNr(1).width(1);
+        secondSpot.setId(5L);
+        question.getSpots().add(firstSpot);
+        question.getSpots().add(secondSpot);
+        // the correct mappings of the first spot are not ordered by the solution ids and the shared solution is also correct for the second spot
+        question.addCorrectMapping(new ShortAnswerMapping().spot(firstSpot).solution(otherSolution));
+        question.addCorrectMapping(new ShortAnswerMapping().spot(firstSpot).solution(sharedSolution));
+        question.addCorrectMapping(new ShortAnswerMapping().spot(secondSpot).solution(sharedSolution));
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(6L);
+        quizExercise.addQuestions(question);
+
+        QuizSubmission quizSubmission = new QuizSubmission();
+        ShortAnswerSubmittedAnswer submittedAnswer = new ShortAnswerSubmittedAnswer();
+        ShortAnswerSubmittedText firstText = new ShortAnswerSubmittedText();
+        firstText.setId(7L);
+        firstText.setSpot(firstSpot);
+        firstText.setText("hash map");
+        ShortAnswerSubmittedText secondText = new ShortAnswerSubmittedText();
+        secondText.setId(8L);
+        secondText.setSpot(secondSpot);
+        secondText.setText("hash map");
+        submittedAnswer.addSubmittedTexts(firstText);
+        submittedAnswer.addSubmittedTexts(secondText);
+        submittedAnswer.setQuizQuestion(question);
+        quizSubmission.addSubmittedAnswers(submittedAnswer);
+
+        double expectedScore = question.scoreForAnswer(submittedAnswer);
+        Map<ShortAnswerSubmittedText, Boolean> expectedCorrectTexts = correctnessOfSubmittedTexts(quizSubmission);
+        // the first spot uses up the shared solution, because it has the lowest id
+        assertThat(expectedCorrectTexts).containsEntry(firstText, true).containsEntry(secondText, false);
+
+        QuizScoringPlan.compile(quizExercise).calculateAndUpdateScores(quizSubmission);
+
+        assertThat(submittedAnswer.getScoreInPoints()).isEqualTo(expectedScore);
+        assertThat(correctnessOfSubmittedTexts(quizSubmission)).isEqualTo(expectedCorrectTexts);
+    }
+
+    private static Map<ShortAnswerSubmittedText, Boolean> correctnessOfSubmittedTexts(QuizSubmission quizSubmission) {
+        Map<ShortAnswerSubmittedText, Boolean> correctness = new HashMap<>();
+        for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+            if (submittedAnswer instanceof ShortAnswerSubmittedAnswer) {
+                for (ShortAnswerSubmittedText submittedText : ((ShortAnswerSubmittedAnswer) submittedAnswer).getSubmittedTexts()) {
+                    correctness.put(submittedText, submittedText.isIsCorrect());
+                }
+            }
+        }
+        return correctness;
+    }
+}
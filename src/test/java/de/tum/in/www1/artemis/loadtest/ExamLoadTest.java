@@ -0,0 +1,254 @@
+package de.tum.in.www1.artemis.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.exam.Exam;
+import de.tum.in.www1.artemis.domain.exam.ExerciseGroup;
+import de.tum.in.www1.artemis.domain.exam.StudentExam;
+import de.tum.in.www1.artemis.domain.participation.StudentParticipation;
+import de.tum.in.www1.artemis.domain.quiz.*;
+import de.tum.in.www1.artemis.repository.ExamRepository;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.util.ModelFactory;
+
+/**
+ * Load test of the exam conduction against the H2 database with mocked CI, VCS and user management connectors: the instructor starts the exercises of the exam, then each
+ * virtual student fetches the student exam, periodically saves the text and quiz exercise (like the autosave of the client) and finally hands in the student exam.
+ * <p>
+ * The latencies of all operations are written as p50/p95/p99 baseline to a JSON report. If the report of a previous run is passed as baseline, the test fails if the p95
+ * latency of an operation got worse than the baseline allows.
+ * Run with ./gradlew loadTest -PloadTestStudents=200 -PloadTestAutosaveInterval=30000 -PloadTestBaseline=exam-load-test-baseline.json
+ */
+public class ExamLoadTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamLoadTest.class);
+
+    private static final int NUMBER_OF_STUDENTS = Integer.getInteger("artemis.load-test.students", 50);
+
+    private static final int NUMBER_OF_THREADS = Integer.getInteger("artemis.load-test.threads", 10);
+
+    private static final int NUMBER_OF_AUTOSAVES = Integer.getInteger("artemis.load-test.autosaves", 5);
+
+    /**
+     * The client saves every 30 seconds, by default the interval is compressed so that the test runs quickly
+     */
+    private static final long AUTOSAVE_INTERVAL_IN_MILLIS = Long.getLong("artemis.load-test.autosave-interval", 0);
+
+    private static final String REPORT_PATH = System.getProperty("artemis.load-test.report", "build/reports/load/exam-load-test.json");
+
+    private static final String BASELINE_PATH = System.getProperty("artemis.load-test.baseline");
+
+    /**
+     * The relative deterioration of the p95 latency compared to the baseline that is tolerated, load tests on developer machines are noisy
+     */
+    private static final double BASELINE_TOLERANCE = Double.parseDouble(System.getProperty("artemis.load-test.baseline-tolerance", "0.5"));
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private Course course;
+
+    private Exam exam;
+
+    @BeforeEach
+    public void initTestCase() {
+        database.addUsers(NUMBER_OF_STUDENTS, 0, 1);
+        course = database.addEmptyCourse();
+        Duration workingTime = Duration.ofHours(1).plusMillis(2 * NUMBER_OF_AUTOSAVES * AUTOSAVE_INTERVAL_IN_MILLIS);
+        ZonedDateTime startDate = ZonedDateTime.now().plusMinutes(1);
+        exam = database.addExam(course, ZonedDateTime.now().minusHours(1), startDate, startDate.plus(workingTime));
+        ModelFactory.generateExerciseGroup(true, exam); // text
+        ModelFactory.generateExerciseGroup(true, exam); // quiz
+        exam.setNumberOfExercisesInExam(2);
+        exam.setRandomizeExerciseOrder(false);
+        for (int i = 1; i <= NUMBER_OF_STUDENTS; i++) {
+            exam.addRegisteredUser(database.getUserByLogin("student" + i));
+        }
+        exam = examRepository.save(exam);
+        ExerciseGroup textGroup = exam.getExerciseGroups().get(0);
+        TextExercise textExercise = ModelFactory.generateTextExerciseForExam(textGroup);
+        textGroup.setExercises(Set.of(textExercise));
+        exerciseRepository.save(textExercise);
+        ExerciseGroup quizGroup = exam.getExerciseGroups().get(1);
+        QuizExercise quizExercise = database.createQuizForExam(quizGroup);
+        quizGroup.setExercises(Set.of(quizExercise));
+        exerciseRepository.save(quizExercise);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    public void conductExam() throws Exception {
+        final String examUrl = "/api/courses/" + course.getId() + "/exams/" + exam.getId();
+        List<StudentExam> studentExams = recorder.record("generateStudentExams",
+                () -> request.postListWithResponseBody(examUrl + "/generate-student-exams", Optional.empty(), StudentExam.class, HttpStatus.OK));
+        assertThat(studentExams).hasSize(NUMBER_OF_STUDENTS);
+        Integer numberOfParticipations = recorder.record("startExercises",
+                () -> request.postWithResponseBody(examUrl + "/student-exams/start-exercises", Optional.empty(), Integer.class, HttpStatus.OK));
+        assertThat(numberOfParticipations).isEqualTo(NUMBER_OF_STUDENTS * 2);
+
+        // the exam starts now, the individual working time stays the same
+        Duration workingTime = Duration.between(exam.getStartDate(), exam.getEndDate());
+        exam.setStartDate(ZonedDateTime.now().minusSeconds(1));
+        exam.setEndDate(exam.getStartDate().plus(workingTime));
+        exam = examRepository.save(exam);
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<?>> students = new ArrayList<>();
+        long start = System.nanoTime();
+        for (StudentExam studentExam : studentExams) {
+            students.add(executor.submit(() -> {
+                conductStudentExam(examUrl, studentExam.getUser().getLogin());
+                return null;
+            }));
+        }
+        List<Throwable> errors = new ArrayList<>();
+        for (Future<?> student : students) {
+            try {
+                student.get();
+            }
+            catch (ExecutionException ex) {
+                errors.add(ex.getCause());
+            }
+        }
+        executor.shutdown();
+        long durationInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Map<String, Map<String, Object>> summary = writeReport(durationInMillis);
+        errors.forEach(error -> log.error("Virtual student failed", error));
+        assertThat(errors).as("failed virtual students").isEmpty();
+        if (BASELINE_PATH != null) {
+            assertNoRegressionToBaseline(summary);
+        }
+    }
+
+    /**
+     * Simulates a student: fetches the student exam, saves the text and quiz exercise repeatedly and hands in the student exam
+     */
+    private void conductStudentExam(String examUrl, String login) throws Exception {
+        // the security context is thread local, each virtual student acts as its own user
+        database.changeUser(login);
+        StudentExam studentExam = recorder.record("getStudentExamForConduction",
+                () -> request.get(examUrl + "/studentExams/conduction", HttpStatus.OK, StudentExam.class));
+        assertThat(studentExam.getExercises()).hasSize(2);
+
+        for (int round = 0; round < NUMBER_OF_AUTOSAVES; round++) {
+            Thread.sleep(AUTOSAVE_INTERVAL_IN_MILLIS);
+            for (Exercise exercise : studentExam.getExercises()) {
+                StudentParticipation participation = exercise.getStudentParticipations().iterator().next();
+                Submission submission = participation.getSubmissions().iterator().next();
+                Submission savedSubmission;
+                if (exercise instanceof TextExercise) {
+                    ((TextSubmission) submission).setText("Answer of " + login + " in round " + round);
+                    savedSubmission = recorder.record("saveTextSubmission",
+                            () -> request.putWithResponseBody("/api/exercises/" + exercise.getId() + "/text-submissions", submission, TextSubmission.class, HttpStatus.OK));
+                }
+                else {
+                    answerQuiz((QuizExercise) exercise, (QuizSubmission) submission, round);
+                    savedSubmission = recorder.record("saveQuizSubmission",
+                            () -> request.putWithResponseBody("/api/exercises/" + exercise.getId() + "/submissions/exam", submission, QuizSubmission.class, HttpStatus.OK));
+                }
+                // the client continues with the saved submission
+                participation.setSubmissions(Set.of(savedSubmission));
+            }
+        }
+
+        StudentExam submittedStudentExam = recorder.record("submitStudentExam",
+                () -> request.postWithResponseBody(examUrl + "/studentExams/submit", studentExam, StudentExam.class, HttpStatus.OK));
+        assertThat(submittedStudentExam.isSubmitted()).isTrue();
+    }
+
+    /**
+     * Changes the answers of the quiz submission like a student who reconsiders the multiple choice and short answer questions in every round
+     */
+    private void answerQuiz(QuizExercise quizExercise, QuizSubmission quizSubmission, int round) {
+        for (QuizQuestion quizQuestion : quizExercise.getQuizQuestions()) {
+            SubmittedAnswer submittedAnswer = quizSubmission.getSubmittedAnswerForQuestion(quizQuestion);
+            if (quizQuestion instanceof MultipleChoiceQuestion) {
+                var answerOptions = ((MultipleChoiceQuestion) quizQuestion).getAnswerOptions();
+                var multipleChoiceAnswer = submittedAnswer != null ? (MultipleChoiceSubmittedAnswer) submittedAnswer : new MultipleChoiceSubmittedAnswer();
+                multipleChoiceAnswer.setSelectedOptions(new HashSet<>(Set.of(answerOptions.get(round % answerOptions.size()))));
+                addIfNew(quizSubmission, quizQuestion, submittedAnswer, multipleChoiceAnswer);
+            }
+            else if (quizQuestion instanceof ShortAnswerQuestion) {
+                var shortAnswer = submittedAnswer != null ? (ShortAnswerSubmittedAnswer) submittedAnswer : new ShortAnswerSubmittedAnswer();
+                if (shortAnswer.getSubmittedTexts().isEmpty()) {
+                    var submittedText = new ShortAnswerSubmittedText();
+                    submittedText.setSpot(((ShortAnswerQuestion) quizQuestion).getSpots().get(0));
+                    shortAnswer.addSubmittedTexts(submittedText);
+                }
+                shortAnswer.getSubmittedTexts().forEach(submittedText -> submittedText.setText("Short answer in round " + round));
+                addIfNew(quizSubmission, quizQuestion, submittedAnswer, shortAnswer);
+            }
+        }
+    }
+
+    private void addIfNew(QuizSubmission quizSubmission, QuizQuestion quizQuestion, SubmittedAnswer existingAnswer, SubmittedAnswer answer) {
+        if (existingAnswer == null) {
+            answer.setQuizQuestion(quizQuestion);
+            quizSubmission.addSubmittedAnswers(answer);
+        }
+    }
+
+    private Map<String, Map<String, Object>> writeReport(long durationInMillis) throws Exception {
+        Map<String, Map<String, Object>> summary = recorder.summarize();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", "exam-conduction");
+        report.put("timestamp", ZonedDateTime.now().toString());
+        report.put("students", NUMBER_OF_STUDENTS);
+        report.put("threads", NUMBER_OF_THREADS);
+        report.put("autosaves", NUMBER_OF_AUTOSAVES);
+        report.put("autosaveIntervalInMillis", AUTOSAVE_INTERVAL_IN_MILLIS);
+        report.put("durationInMillis", durationInMillis);
+        report.put("latenciesInMillis", summary);
+        File reportFile = new File(REPORT_PATH);
+        reportFile.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+        log.info("Exam load test report written to {}: {}", reportFile.getAbsolutePath(), summary);
+        return summary;
+    }
+
+    private void assertNoRegressionToBaseline(Map<String, Map<String, Object>> summary) throws Exception {
+        JsonNode baseline = objectMapper.readTree(new File(BASELINE_PATH)).get("latenciesInMillis");
+        for (var operation : summary.entrySet()) {
+            JsonNode baselineOperation = baseline.get(operation.getKey());
+            if (baselineOperation == null || !baselineOperation.has("p95") || !operation.getValue().containsKey("p95")) {
+                continue;
+            }
+            double allowedP95 = baselineOperation.get("p95").asDouble() * (1 + BASELINE_TOLERANCE);
+            assertThat((Double) operation.getValue().get("p95")).as("p95 latency of " + operation.getKey() + " in ms").isLessThanOrEqualTo(allowedP95);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.tum.in.www1.artemis.loadtest;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the latencies and failures of the operations of a load test and summarizes them in percentiles
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Queue<Long>> latenciesInNanos = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Executes and times the given operation, failed operations are counted, but their latency is not recorded
+     *
+     * @param operation the name of the operation
+     * @param callable  the operation to execute
+     * @param <T>       the result type of the operation
+     * @return the result of the operation
+     * @throws Exception if the operation failed
+     */
+    public <T> T record(String operation, Callable<T> callable) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = callable.call();
+            latenciesInNanos.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+            return result;
+        }
+        catch (Exception | AssertionError ex) {
+            failures.computeIfAbsent(operation, key -> new AtomicInteger()).incrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * Summarizes the recorded latencies for each operation with the nearest-rank percentiles in milliseconds
+     *
+     * @return the statistics by operation name, sorted by name
+     */
+    public Map<String, Map<String, Object>> summarize() {
+        Set<String> operations = new TreeSet<>(latenciesInNanos.keySet());
+        operations.addAll(failures.keySet());
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        for (String operation : operations) {
+            long[] sortedLatencies = latenciesInNanos.getOrDefault(operation, new ConcurrentLinkedQueue<>()).stream().mapToLong(Long::longValue).sorted().toArray();
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("count", sortedLatencies.length);
+            statistics.put("failures", failures.containsKey(operation) ? failures.get(operation).get() : 0);
+            if (sortedLatencies.length > 0) {
+                statistics.put("p50", toMillis(percentile(sortedLatencies, 50)));
+                statistics.put("p95", toMillis(percentile(sortedLatencies, 95)));
+                statistics.put("p99", toMillis(percentile(sortedLatencies, 99)));
+                statistics.put("max", toMillis(sortedLatencies[sortedLatencies.length - 1]));
+                statistics.put("mean", toMillis((long) Arrays.stream(sortedLatencies).average().orElse(0)));
+            }
+            summary.put(operation, statistics);
+        }
+        return summary;
+    }
+
+    private static long percentile(long[] sortedValues, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(rank, 1) - 1];
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -13,10 +13,13 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.ZonedDateTime;
@@ -24,6 +27,8 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import javax.validation.constraints.NotNull;
 
@@ -228,8 +233,8 @@ class ProgrammingExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
     void textExportSubmissionsByParticipationIds() throws Exception {
         var repository1 = gitService.getRepositoryByLocalPath(localRepoFile.toPath());
         var repository2 = gitService.getRepositoryByLocalPath(localRepoFile2.toPath());
-        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString());
-        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString());
+        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
         var participationIds = programmingExerciseStudentParticipationRepository.findAll().stream().map(participation -> participation.getId().toString())
                 .collect(Collectors.toList());
         final var path = ROOT + EXPORT_SUBMISSIONS_BY_PARTICIPATIONS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participationIds}",
@@ -262,8 +267,8 @@ class ProgrammingExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
     void textExportSubmissionsByStudentLogins() throws Exception {
         var repository1 = gitService.getRepositoryByLocalPath(localRepoFile.toPath());
         var repository2 = gitService.getRepositoryByLocalPath(localRepoFile2.toPath());
-        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString());
-        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString());
+        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
         final var path = ROOT
                 + EXPORT_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "student1,student2");
         downloadedFile = request.postWithResponseBodyFile(path, getOptions(), HttpStatus.OK);
@@ -271,6 +276,98 @@ class ProgrammingExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
         // TODO: unzip the files and add some checks
     }
 
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testStreamSubmissionsByStudentLogins() throws Exception {
+        FileUtils.writeStringToFile(Paths.get(localRepoFile.getPath(), "src", "Main.java").toFile(), "class Main {}", StandardCharsets.UTF_8);
+        localGit.add().addFilepattern(".").call();
+        localGit.commit().setMessage("add main").setAuthor("test", "test@test.com").call();
+        FileUtils.writeStringToFile(Paths.get(localRepoFile2.getPath(), "src", "Main.java").toFile(), "class Main {}", StandardCharsets.UTF_8);
+        localGit2.add().addFilepattern(".").call();
+        localGit2.commit().setMessage("add main").setAuthor("test", "test@test.com").call();
+        var repository1 = gitService.getRepositoryByLocalPath(localRepoFile.toPath());
+        var repository2 = gitService.getRepositoryByLocalPath(localRepoFile2.toPath());
+        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        final var path = ROOT
+                + STREAM_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "student1,student2");
+        downloadedFile = request.postWithResponseBodyFile(path, getStreamOptions(), HttpStatus.OK);
+
+        // the repositories of both students are exported into their own folders
+        try (ZipFile zipFile = new ZipFile(downloadedFile)) {
+            List<String> mainFiles = zipFile.stream().map(ZipEntry::getName).filter(name -> name.endsWith("/src/Main.java")).collect(Collectors.toList());
+            assertThat(mainFiles).containsExactlyInAnyOrder(gitService.getExportName(participation1, false) + "/src/Main.java",
+                    gitService.getExportName(participation2, false) + "/src/Main.java");
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testStreamSubmissionsByStudentLogins_repositoryWithoutCommit_skipped() throws Exception {
+        FileUtils.writeStringToFile(Paths.get(localRepoFile.getPath(), "src", "Main.java").toFile(), "class Main {}", StandardCharsets.UTF_8);
+        localGit.add().addFilepattern(".").call();
+        localGit.commit().setMessage("add main").setAuthor("test", "test@test.com").call();
+        var repository1 = gitService.getRepositoryByLocalPath(localRepoFile.toPath());
+        var repository2 = gitService.getRepositoryByLocalPath(localRepoFile2.toPath());
+        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        final var path = ROOT
+                + STREAM_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "student1,student2");
+        downloadedFile = request.postWithResponseBodyFile(path, getStreamOptions(), HttpStatus.OK);
+
+        // the second repository does not contain any commit and is skipped
+        try (ZipFile zipFile = new ZipFile(downloadedFile)) {
+            List<String> entryNames = zipFile.stream().map(ZipEntry::getName).collect(Collectors.toList());
+            assertThat(entryNames).hasSize(2).allMatch(name -> name.startsWith(gitService.getExportName(participation1, false) + "/"))
+                    .anyMatch(name -> name.endsWith("/src/Main.java")).anyMatch(name -> name.endsWith("/test.json"));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testStreamSubmissionsByStudentLogins_unsupportedOptions_badRequest() throws Exception {
+        final var path = ROOT
+                + STREAM_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "student1,student2");
+        request.post(path, getOptions(), HttpStatus.BAD_REQUEST);
+        verify(gitService, never()).getOrCheckoutRepository(any(), anyBoolean(), anyString(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
+    void testStreamSubmissionsByStudentLogins_hideStudentNames() throws Exception {
+        for (Git git : List.of(localGit, localGit2)) {
+            FileUtils.writeStringToFile(git.getRepository().getWorkTree().toPath().resolve("Main.java").toFile(), "class Main {}", StandardCharsets.UTF_8);
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("add main").setAuthor("test", "test@test.com").call();
+        }
+        var repository1 = gitService.getRepositoryByLocalPath(localRepoFile.toPath());
+        var repository2 = gitService.getRepositoryByLocalPath(localRepoFile2.toPath());
+        doReturn(repository1).when(gitService).getOrCheckoutRepository(eq(participation1.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        doReturn(repository2).when(gitService).getOrCheckoutRepository(eq(participation2.getRepositoryUrlAsUrl()), anyBoolean(), anyString(), any());
+        final var options = getStreamOptions();
+        options.setHideStudentNameInZippedFolder(true);
+        final var path = ROOT
+                + STREAM_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "student1,student2");
+        downloadedFile = request.postWithResponseBodyFile(path, options, HttpStatus.OK);
+
+        // the repositories of both students are exported into different folders without the student names
+        try (ZipFile zipFile = new ZipFile(downloadedFile)) {
+            List<String> mainFiles = zipFile.stream().map(ZipEntry::getName).filter(name -> name.endsWith("/Main.java")).collect(Collectors.toList());
+            assertThat(mainFiles).containsExactlyInAnyOrder(gitService.getExportName(participation1, true) + "/Main.java",
+                    gitService.getExportName(participation2, true) + "/Main.java");
+            assertThat(mainFiles).noneMatch(name -> name.contains("student1") || name.contains("student2"));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "tutor1", roles = "TA")
+    void testStreamSubmissionsByStudentLogins_exportAllAsTutor_forbidden() throws Exception {
+        final var options = getStreamOptions();
+        options.setExportAllParticipants(true);
+        final var path = ROOT + STREAM_SUBMISSIONS_BY_PARTICIPANTS.replace("{exerciseId}", String.valueOf(programmingExercise.getId())).replace("{participantIdentifiers}", "1");
+        request.post(path, options, HttpStatus.FORBIDDEN);
+    }
+
     private RepositoryExportOptionsDTO getOptions() {
         final var repositoryExportOptions = new RepositoryExportOptionsDTO();
         repositoryExportOptions.setFilterLateSubmissions(true);
@@ -280,6 +377,13 @@ class ProgrammingExerciseIntegrationTest extends AbstractSpringIntegrationBamboo
         return repositoryExportOptions;
     }
 
+    private RepositoryExportOptionsDTO getStreamOptions() {
+        // the streamed zip file only contains the files of the exported commits, the other options are not supported
+        final var repositoryExportOptions = new RepositoryExportOptionsDTO();
+        repositoryExportOptions.setFilterLateSubmissions(false);
+        return repositoryExportOptions;
+    }
+
     @Test
     @WithMockUser(username = "instructor1", roles = "INSTRUCTOR")
     void testProgrammingExerciseDelete() throws Exception {
@@ -0,0 +1,119 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ComplaintType;
+import de.tum.in.www1.artemis.domain.enumeration.Language;
+import de.tum.in.www1.artemis.domain.modeling.ModelingExercise;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.util.ModelFactory;
+import de.tum.in.www1.artemis.web.rest.dto.DueDateStat;
+
+public class AssessmentDashboardServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private AssessmentDashboardService assessmentDashboardService;
+
+    @Autowired
+    private ExerciseService exerciseService;
+
+    @Autowired
+    private ProgrammingExerciseService programmingExerciseService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private ResultService resultService;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @BeforeEach
+    public void initTestCase() {
+        database.addUsers(3, 1, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    /**
+     * Tests that the grouped statistics queries return the same numbers as the per exercise queries for course exercises
+     */
+    @Test
+    public void testStatisticsMatchPerExerciseCounts() {
+        Course course = database.addCourseWithModelingAndTextAndFileUploadExercise();
+        database.addCourseWithOneProgrammingExercise();
+        TextExercise textExercise = (TextExercise) course.getExercises().stream().filter(exercise -> exercise instanceof TextExercise).findFirst().get();
+        ModelingExercise modelingExercise = (ModelingExercise) course.getExercises().stream().filter(exercise -> exercise instanceof ModelingExercise).findFirst().get();
+        ProgrammingExercise programmingExercise = (ProgrammingExercise) exerciseRepository.findAll().stream().filter(exercise -> exercise instanceof ProgrammingExercise)
+                .findFirst().get();
+
+        TextSubmission assessedTextSubmission = database.saveTextSubmissionWithResultAndAssessor(textExercise,
+                ModelFactory.generateTextSubmission("assessed", Language.ENGLISH, true), "student1", "tutor1");
+        database.saveTextSubmission(textExercise, ModelFactory.generateTextSubmission("not assessed", Language.ENGLISH, true), "student2");
+        database.addComplaints("student1", assessedTextSubmission.getParticipation(), 2, ComplaintType.COMPLAINT);
+        database.addComplaints("student1", assessedTextSubmission.getParticipation(), 1, ComplaintType.MORE_FEEDBACK);
+        database.addModelingSubmissionWithResultAndAssessor(modelingExercise, ModelFactory.generateModelingSubmission("{}", true), "student1", "tutor1");
+        database.addModelingSubmission(modelingExercise, ModelFactory.generateModelingSubmission("{}", true), "student3");
+        database.addProgrammingSubmissionWithResult(programmingExercise, ModelFactory.generateProgrammingSubmission(true), "student2");
+
+        assertStatisticsMatchPerExerciseCounts(false);
+    }
+
+    /**
+     * Tests that the grouped statistics queries return the same numbers as the per exercise queries for exam exercises
+     */
+    @Test
+    public void testStatisticsMatchPerExerciseCounts_examMode() {
+        TextExercise textExercise = database.addCourseExamExerciseGroupWithOneTextExercise();
+        TextSubmission assessedTextSubmission = database.saveTextSubmissionWithResultAndAssessor(textExercise,
+                ModelFactory.generateTextSubmission("assessed", Language.ENGLISH, true), "student1", "tutor1");
+        database.saveTextSubmission(textExercise, ModelFactory.generateTextSubmission("not assessed", Language.ENGLISH, true), "student2");
+        database.addComplaints("student1", assessedTextSubmission.getParticipation(), 1, ComplaintType.COMPLAINT);
+
+        assertStatisticsMatchPerExerciseCounts(true);
+    }
+
+    private void assertStatisticsMatchPerExerciseCounts(boolean examMode) {
+        Set<Exercise> exercises = new HashSet<>(exerciseRepository.findAll());
+        assessmentDashboardService.prepareExercisesForAssessmentDashboard(exercises, List.of(), examMode);
+
+        for (Exercise exercise : exercises) {
+            DueDateStat expectedSubmissions;
+            DueDateStat expectedAssessments;
+            if (exercise instanceof ProgrammingExercise) {
+                expectedSubmissions = new DueDateStat(programmingExerciseService.countSubmissionsByExerciseIdSubmitted(exercise.getId(), examMode), 0L);
+                expectedAssessments = new DueDateStat(programmingExerciseService.countAssessmentsByExerciseIdSubmitted(exercise.getId(), examMode), 0L);
+            }
+            else {
+                expectedSubmissions = submissionService.countSubmissionsForExercise(exercise.getId(), examMode);
+                expectedAssessments = resultService.countNumberOfFinishedAssessmentsForExercise(exercise.getId(), examMode);
+            }
+            assertThat(exercise.getNumberOfSubmissions()).as("submissions of " + exercise.getTitle()).isEqualToComparingFieldByField(expectedSubmissions);
+            assertThat(exercise.getNumberOfAssessments()).as("assessments of " + exercise.getTitle()).isEqualToComparingFieldByField(expectedAssessments);
+
+            Exercise expectedComplaints = exerciseRepository.findById(exercise.getId()).get();
+            exerciseService.calculateNrOfOpenComplaints(expectedComplaints, examMode);
+            assertThat(exercise.getNumberOfComplaints()).isEqualTo(expectedComplaints.getNumberOfComplaints());
+            assertThat(exercise.getNumberOfOpenComplaints()).isEqualTo(expectedComplaints.getNumberOfOpenComplaints());
+            assertThat(exercise.getNumberOfMoreFeedbackRequests()).isEqualTo(expectedComplaints.getNumberOfMoreFeedbackRequests());
+            assertThat(exercise.getNumberOfOpenMoreFeedbackRequests()).isEqualTo(expectedComplaints.getNumberOfOpenMoreFeedbackRequests());
+        }
+        // the test data must not only consist of zeros
+        assertThat(exercises).anyMatch(exercise -> exercise.getNumberOfSubmissions().getInTime() > 0);
+        assertThat(exercises).anyMatch(exercise -> exercise.getNumberOfAssessments().getInTime() > 0);
+        assertThat(exercises).anyMatch(exercise -> exercise.getNumberOfComplaints() > 0);
+    }
+}
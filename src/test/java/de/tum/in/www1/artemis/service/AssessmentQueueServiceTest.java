@@ -0,0 +1,128 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.Language;
+import de.tum.in.www1.artemis.repository.SubmissionRepository;
+import de.tum.in.www1.artemis.util.ModelFactory;
+
+public class AssessmentQueueServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    private AssessmentQueueService assessmentQueueService;
+
+    private TextExercise textExercise;
+
+    private List<Long> submissionIds;
+
+    private User tutor1;
+
+    private User tutor2;
+
+    /**
+     * Creates a text exercise with three submitted submissions which need an assessment
+     */
+    @BeforeEach
+    public void initTestCase() {
+        database.addUsers(3, 3, 1);
+        assessmentQueueService = new AssessmentQueueService(submissionRepository, hazelcastInstance);
+        ReflectionTestUtils.setField(assessmentQueueService, "claimLeaseInSeconds", 600L);
+        Course course = database.addCourseWithOneFinishedTextExercise();
+        textExercise = (TextExercise) course.getExercises().iterator().next();
+        submissionIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            submissionIds.add(database.saveTextSubmission(textExercise, ModelFactory.generateTextSubmission("text " + i, Language.ENGLISH, true), "student" + i).getId());
+        }
+        submissionIds.sort(Comparator.naturalOrder());
+        tutor1 = database.getUserByLogin("tutor1");
+        tutor2 = database.getUserByLogin("tutor2");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        submissionIds.forEach(assessmentQueueService::releaseClaim);
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testConcurrentClaimsReceiveDifferentSubmissions() throws Exception {
+        List<User> tutors = List.of(tutor1, tutor2, database.getUserByLogin("tutor3"));
+        ExecutorService executor = Executors.newFixedThreadPool(tutors.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Optional<Long>>> claims = new ArrayList<>();
+            for (User tutor : tutors) {
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor);
+                }));
+            }
+            start.countDown();
+            Set<Long> claimedSubmissionIds = new HashSet<>();
+            for (Future<Optional<Long>> claim : claims) {
+                claimedSubmissionIds.add(claim.get(10, TimeUnit.SECONDS).orElseThrow());
+            }
+            assertThat(claimedSubmissionIds).containsExactlyInAnyOrderElementsOf(submissionIds);
+        }
+        finally {
+            executor.shutdown();
+        }
+        // all submissions are claimed by other tutors
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, database.getUserByLogin("instructor1"))).isEmpty();
+    }
+
+    @Test
+    public void testFindNextSubmissionDoesNotClaim() {
+        Optional<Long> nextSubmissionId = assessmentQueueService.findNextSubmissionId(textExercise, false, tutor1);
+        assertThat(nextSubmissionId).contains(submissionIds.get(0));
+        // looking at the next submission again and claiming it by another tutor is still possible
+        assertThat(assessmentQueueService.findNextSubmissionId(textExercise, false, tutor1)).contains(submissionIds.get(0));
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor2)).contains(submissionIds.get(0));
+        // the submission claimed by the other tutor is skipped
+        assertThat(assessmentQueueService.findNextSubmissionId(textExercise, false, tutor1)).contains(submissionIds.get(1));
+    }
+
+    @Test
+    public void testClaimIsRenewedForSameTutor() {
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor1)).contains(submissionIds.get(0));
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor1)).contains(submissionIds.get(0));
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor2)).contains(submissionIds.get(1));
+    }
+
+    @Test
+    public void testReleasedClaimIsAvailableAgain() {
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor1)).contains(submissionIds.get(0));
+        assessmentQueueService.releaseClaim(submissionIds.get(0));
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor2)).contains(submissionIds.get(0));
+    }
+
+    @Test
+    public void testExpiredClaimIsAvailableAgain() {
+        ReflectionTestUtils.setField(assessmentQueueService, "claimLeaseInSeconds", 1L);
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor1)).contains(submissionIds.get(0));
+        assertThat(assessmentQueueService.findNextSubmissionId(textExercise, false, tutor2)).contains(submissionIds.get(1));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> assessmentQueueService.findNextSubmissionId(textExercise, false, tutor2).equals(Optional.of(submissionIds.get(0))));
+        assertThat(assessmentQueueService.claimNextSubmissionId(textExercise, false, tutor2)).contains(submissionIds.get(0));
+    }
+}
@@ -0,0 +1,88 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.FeedbackType;
+import de.tum.in.www1.artemis.repository.TextBlockRepository;
+
+public class AutomaticTextFeedbackServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Mock
+    FeedbackService feedbackService;
+
+    @Mock
+    TextBlockRepository textBlockRepository;
+
+    AutomaticTextFeedbackService automaticTextFeedbackService;
+
+    List<TextBlock> blocks;
+
+    Result result;
+
+    /**
+     * Creates a submission with three blocks in one cluster
+     */
+    @BeforeEach
+    public void init() {
+        automaticTextFeedbackService = new AutomaticTextFeedbackService(feedbackService, textBlockRepository);
+
+        final TextSubmission textSubmission = new TextSubmission(1L);
+        blocks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final TextBlock block = new TextBlock().startIndex(i).endIndex(i + 1).text("Block " + i).submission(textSubmission);
+            block.computeId();
+            blocks.add(block);
+        }
+        final TextCluster cluster = new TextCluster().blocks(blocks).distanceMatrix(new double[][] { { 0.0, 0.5, 0.2 }, { 0.5, 0.0, 0.3 }, { 0.2, 0.3, 0.0 } });
+        blocks.forEach(block -> block.setCluster(cluster));
+
+        result = new Result();
+        result.setSubmission(textSubmission);
+        when(textBlockRepository.findAllWithEagerClusterBySubmissionId(1L)).thenReturn(new HashSet<>(blocks));
+    }
+
+    /**
+     * Tests that the Feedback of the closest Block in the cluster is suggested and that the cluster is only queried once
+     */
+    @Test
+    public void suggestFeedbackOfClosestBlock() {
+        final Feedback closeFeedback = new Feedback().reference(blocks.get(2).getId()).credits(2.0).detailText("close");
+        final Feedback distantFeedback = new Feedback().reference(blocks.get(1).getId()).credits(1.0).detailText("distant");
+        when(feedbackService.getFeedbackForTextExerciseInClusters(anyCollection()))
+                .thenReturn(Map.of(closeFeedback.getReference(), closeFeedback, distantFeedback.getReference(), distantFeedback));
+
+        automaticTextFeedbackService.suggestFeedback(result);
+
+        final Map<String, Feedback> suggestedFeedback = new HashMap<>();
+        result.getFeedbacks().forEach(feedback -> suggestedFeedback.put(feedback.getReference(), feedback));
+        assertThat(suggestedFeedback).hasSize(3);
+        // the first block is closer to the third block than to the second block
+        assertThat(suggestedFeedback.get(blocks.get(0).getId()).getDetailText()).isEqualTo("close");
+        assertThat(suggestedFeedback.get(blocks.get(1).getId()).getDetailText()).isEqualTo("close");
+        assertThat(suggestedFeedback.get(blocks.get(2).getId()).getDetailText()).isEqualTo("distant");
+        assertThat(suggestedFeedback.values()).allMatch(feedback -> feedback.getType() == FeedbackType.AUTOMATIC);
+        verify(feedbackService, times(1)).getFeedbackForTextExerciseInClusters(anyCollection());
+    }
+
+    /**
+     * Tests that no Feedback is suggested without existing Feedback in the cluster
+     */
+    @Test
+    public void suggestNoFeedbackWithoutExistingFeedback() {
+        when(feedbackService.getFeedbackForTextExerciseInClusters(anyCollection())).thenReturn(Map.of());
+
+        automaticTextFeedbackService.suggestFeedback(result);
+
+        assertThat(result.getFeedbacks()).isEmpty();
+    }
+}
@@ -0,0 +1,155 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.exception.ArtemisAuthenticationException;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.security.ArtemisAuthenticationProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GroupMembershipSynchronizationServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final ArtemisAuthenticationProvider artemisAuthenticationProvider = mock(ArtemisAuthenticationProvider.class);
+
+    private final User user = new User();
+
+    private GroupMembershipSynchronizationService deferredService;
+
+    @BeforeEach
+    public void initTestCase() {
+        user.setLogin("student1");
+        when(userRepository.findOneWithGroupsAndAuthoritiesByLogin("student1")).thenReturn(Optional.of(user));
+        deferredService = createService(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        deferredService.shutdownSyncExecutor();
+    }
+
+    @Test
+    public void deferredChangesAreSynchronizedAfterTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("students"));
+            assertThat(deferredService.getNumberOfPendingUsers()).isZero();
+            verifyNoInteractions(artemisAuthenticationProvider);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        awaitSynchronization();
+        verify(artemisAuthenticationProvider).addUserToGroup(user, "students");
+    }
+
+    @Test
+    public void deferredChangesAreDiscardedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("students"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(deferredService.getNumberOfPendingUsers()).isZero();
+        verifyNoInteractions(artemisAuthenticationProvider);
+    }
+
+    @Test
+    public void changesOfTheSameUserAreCoalesced() {
+        deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("students"));
+        deferredService.synchronizeGroupChanges(List.of(user), Set.of("students"), Set.of());
+        deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("tutors"));
+        assertThat(deferredService.getNumberOfPendingUsers()).isEqualTo(1);
+
+        awaitSynchronization();
+        // only the most recent change per group is synchronized
+        verify(artemisAuthenticationProvider).removeUserFromGroup(user, "students");
+        verify(artemisAuthenticationProvider).addUserToGroup(user, "tutors");
+        verify(artemisAuthenticationProvider, never()).addUserToGroup(user, "students");
+    }
+
+    @Test
+    public void failedSynchronizationIsRetried() {
+        doThrow(new IllegalStateException("not reachable")).doThrow(new IllegalStateException("not reachable")).doNothing().when(artemisAuthenticationProvider)
+                .addUserToGroup(user, "students");
+
+        deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("students"));
+
+        awaitSynchronization();
+        verify(artemisAuthenticationProvider, times(3)).addUserToGroup(user, "students");
+    }
+
+    @Test
+    public void retriesAreLimitedAlsoWhenChangesAreMergedDuringAnAttempt() {
+        AtomicBoolean firstAttempt = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (firstAttempt.getAndSet(false)) {
+                // the user is changed while the first synchronization is running, the merged changes must keep the number of failed attempts
+                deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("tutors"));
+            }
+            throw new IllegalStateException("not reachable");
+        }).when(artemisAuthenticationProvider).addUserToGroup(eq(user), anyString());
+
+        deferredService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("students"));
+
+        awaitSynchronization();
+        verify(artemisAuthenticationProvider, times(MAX_ATTEMPTS)).addUserToGroup(eq(user), anyString());
+    }
+
+    @Test
+    public void synchronousRemovalPropagatesErrorsOfTheExternalUserManagement() {
+        var synchronousService = createService(false);
+        try {
+            doThrow(new ArtemisAuthenticationException("group does not exist")).when(artemisAuthenticationProvider).addUserToGroup(user, "students");
+            doThrow(new ArtemisAuthenticationException("user is not in the group")).when(artemisAuthenticationProvider).removeUserFromGroup(user, "tutors");
+
+            // errors when adding a group can be ignored, as before
+            synchronousService.synchronizeGroupChanges(List.of(user), Set.of(), Set.of("students"));
+            assertThatThrownBy(() -> synchronousService.synchronizeGroupChanges(List.of(user), Set.of("tutors"), Set.of()))
+                    .isInstanceOf(ArtemisAuthenticationException.class);
+            assertThat(synchronousService.getNumberOfPendingUsers()).isZero();
+        }
+        finally {
+            synchronousService.shutdownSyncExecutor();
+        }
+    }
+
+    private GroupMembershipSynchronizationService createService(boolean deferred) {
+        var service = new GroupMembershipSynchronizationService(userRepository, new SimpleMeterRegistry(), deferred, 2, MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(service, "initialRetryDelayInMillis", 10L);
+        service.setArtemisAuthenticationProvider(artemisAuthenticationProvider);
+        service.setOptionalVcsUserManagementService(Optional.empty());
+        return service;
+    }
+
+    private void awaitSynchronization() {
+        await().atMost(Duration.ofSeconds(10)).until(() -> deferredService.getNumberOfPendingUsers() == 0);
+    }
+}
@@ -0,0 +1,105 @@
+package de.tum.in.www1.artemis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import de.tum.in.www1.artemis.AbstractSpringIntegrationBambooBitbucketJiraTest;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.TextExercise;
+import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.service.metadata.CourseMetadata;
+import de.tum.in.www1.artemis.service.metadata.ExerciseMetadata;
+import de.tum.in.www1.artemis.service.metadata.MetadataCacheService;
+import de.tum.in.www1.artemis.web.rest.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+public class MetadataCacheServiceTest extends AbstractSpringIntegrationBambooBitbucketJiraTest {
+
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Course course;
+
+    private Exercise exercise;
+
+    @BeforeEach
+    public void initTestCase() {
+        course = database.addCourseWithOneReleasedTextExercise();
+        exercise = exerciseRepository.findAll().get(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.resetDatabase();
+    }
+
+    @Test
+    public void testCourseOfExerciseIsCached() {
+        double hitsBefore = hits("course");
+
+        CourseMetadata courseMetadata = metadataCacheService.getCourseOfExercise(exercise.getId());
+        assertThat(courseMetadata.getId()).isEqualTo(course.getId());
+        assertThat(courseMetadata.getInstructorGroupName()).isEqualTo("instructor");
+        assertThat(courseMetadata.getTeachingAssistantGroupName()).isEqualTo("tutor");
+        assertThat(courseMetadata.getStudentGroupName()).isEqualTo("tumuser");
+
+        assertThat(metadataCacheService.getCourseOfExercise(exercise.getId())).isSameAs(courseMetadata);
+        assertThat(hits("course")).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    public void testSnapshotIsInvalidatedWhenEntityIsUpdated() {
+        assertThat(metadataCacheService.getCourse(course.getId()).getInstructorGroupName()).isEqualTo("instructor");
+
+        course.setInstructorGroupName("new-instructor");
+        courseRepository.save(course);
+
+        assertThat(metadataCacheService.getCourse(course.getId()).getInstructorGroupName()).isEqualTo("new-instructor");
+    }
+
+    @Test
+    public void testSnapshotIsInvalidatedWhenEntityIsDeleted() {
+        metadataCacheService.getExercise(exercise.getId());
+
+        exerciseRepository.deleteById(exercise.getId());
+
+        assertThatThrownBy(() -> metadataCacheService.getExercise(exercise.getId())).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    public void testExamExerciseUsesCourseOfExam() {
+        TextExercise examExercise = database.addCourseExamExerciseGroupWithOneTextExercise();
+
+        ExerciseMetadata exerciseMetadata = metadataCacheService.getExercise(examExercise.getId());
+        assertThat(exerciseMetadata.isExamExercise()).isTrue();
+        assertThat(exerciseMetadata.getExerciseGroupId()).isEqualTo(examExercise.getExerciseGroup().getId());
+        assertThat(exerciseMetadata.getExamId()).isEqualTo(examExercise.getExerciseGroup().getExam().getId());
+        assertThat(exerciseMetadata.getCourseId()).isEqualTo(examExercise.getExerciseGroup().getExam().getCourse().getId());
+        assertThat(metadataCacheService.getCourseOfExercise(examExercise.getId()).getId()).isEqualTo(exerciseMetadata.getCourseId());
+    }
+
+    @Test
+    public void testUnknownEntity() {
+        assertThatThrownBy(() -> metadataCacheService.getCourse(Long.MAX_VALUE)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private double hits(String cache) {
+        return meterRegistry.get(MetadataCacheService.REQUESTS_METRIC).tag("cache", cache).tag("result", "hit").counter().count();
+    }
+}
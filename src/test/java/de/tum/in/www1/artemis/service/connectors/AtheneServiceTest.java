@@ -29,6 +29,7 @@ import de.tum.in.www1.artemis.domain.enumeration.Language;
 import de.tum.in.www1.artemis.repository.*;
 import de.tum.in.www1.artemis.service.TextAssessmentQueueService;
 import de.tum.in.www1.artemis.service.TextSubmissionService;
+import de.tum.in.www1.artemis.service.dto.TextBlockStateDTO;
 import de.tum.in.www1.artemis.util.ModelFactory;
 import de.tum.in.www1.artemis.web.rest.dto.AtheneDTO;
 
@@ -46,6 +47,9 @@ public class AtheneServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
     @Mock
     TextBlockRepository textBlockRepository;
 
+    @Mock
+    TextBlockBatchRepository textBlockBatchRepository;
+
     @Mock
     TextSubmissionService textSubmissionService;
 
@@ -64,7 +68,7 @@ public class AtheneServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
     @BeforeEach
     public void init() {
         // Create atheneService and inject @Value fields
-        atheneService = new AtheneService(textSubmissionService, textBlockRepository, textClusterRepository, textExerciseRepository, textAssessmentQueueService);
+        atheneService = new AtheneService(textSubmissionService, textBlockRepository, textBlockBatchRepository, textClusterRepository, textExerciseRepository, textAssessmentQueueService, restTemplate);
         ReflectionTestUtils.setField(atheneService, "artemisServerUrl", artemisServerUrl);
         ReflectionTestUtils.setField(atheneService, "submitApiEndpoint", SUBMIT_API_ENDPOINT);
         String apiSecret = "YWVuaXF1YWRpNWNlaXJpNmFlbTZkb283dXphaVF1b29oM3J1MWNoYWlyNHRoZWUzb2huZ2FpM211bGVlM0VpcAo=";
@@ -134,8 +138,8 @@ public class AtheneServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
      */
     @Test
     public void parseTextBlocks() {
-        // Let textSubmissionService return 10 generated submissions
-        when(textSubmissionService.getTextSubmissionsWithTextBlocksByExerciseId(exercise1.getId())).thenReturn(ModelFactory.generateTextSubmissions(10));
+        // Let textSubmissionService return the ids of 10 submissions
+        when(textSubmissionService.getSubmittedTextSubmissionIdsByExerciseId(exercise1.getId())).thenReturn(generateSubmissionIds(10));
 
         List<AtheneDTO.TextBlockDTO> blocks = generateTextBlocks(10);
         List<TextBlock> textBlocks = atheneService.parseTextBlocks(blocks, exercise1.getId());
@@ -160,25 +164,12 @@ public class AtheneServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
         // Verify injection
         assertThat(atheneService.isTaskRunning(exercise1.getId()));
 
-        // Let textSubmissionService return 10 generated submissions
-        when(textSubmissionService.getTextSubmissionsWithTextBlocksByExerciseId(exercise1.getId())).thenReturn(ModelFactory.generateTextSubmissions(10));
+        // Let textSubmissionService return the ids of 10 submissions
+        when(textSubmissionService.getSubmittedTextSubmissionIdsByExerciseId(exercise1.getId())).thenReturn(generateSubmissionIds(10));
 
         // generate required parameters
         List<AtheneDTO.TextBlockDTO> blocks = generateTextBlocks(10);
-        Map<Integer, TextCluster> clusters = generateClusters();
-
-        // Catch call of atheneService to the textBlockRepository
-        when(textBlockRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
-            List<TextBlock> set = invocation.getArgument(0);
-            // Check for correct number of textBlocks
-            if (set instanceof LinkedList) {
-                assertThat(set, hasSize(10));
-            }
-            else if (set instanceof ArrayList) {
-                assertThat(set, hasSize(0));
-            }
-            return set;
-        });
+        Map<Integer, AtheneDTO.TextClusterDTO> clusters = generateClusters(blocks);
 
         // Catch call of atheneService to the textClusterRepository
         when(textClusterRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
@@ -191,6 +182,57 @@ public class AtheneServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
         // Call test method
         atheneService.processResult(clusters, blocks, exercise1.getId());
         assertThat(!atheneService.isTaskRunning(exercise1.getId()));
+
+        // All blocks are new and inserted in one call
+        ArgumentCaptor<List<TextBlock>> insertedBlocks = ArgumentCaptor.forClass(List.class);
+        verify(textBlockBatchRepository).insertAll(insertedBlocks.capture());
+        assertThat(insertedBlocks.getValue(), hasSize(10));
+        verify(textBlockBatchRepository).updateAll(argThat(List::isEmpty));
+        verify(textClusterRepository, never()).deleteAllByIdIn(any());
+    }
+
+    /**
+     * Tests that processResult only writes the text blocks that are new or whose clustering has changed
+     */
+    @Test
+    public void processResultOnlyWritesChangedBlocks() {
+        when(textSubmissionService.getSubmittedTextSubmissionIdsByExerciseId(exercise1.getId())).thenReturn(generateSubmissionIds(10));
+        List<AtheneDTO.TextBlockDTO> blocks = generateTextBlocks(10);
+        Map<Integer, AtheneDTO.TextClusterDTO> clusters = generateClusters(blocks);
+
+        // The first two blocks are already stored in the same cluster, the third block is stored in a cluster which is not part of the results anymore
+        TextCluster storedCluster = new TextCluster();
+        storedCluster.setId(1L);
+        storedCluster.setProbabilities(clusters.get(0).getProbabilities());
+        storedCluster.setDistanceMatrix(clusters.get(0).getDistanceMatrix());
+        when(textClusterRepository.findAllById(Set.of(1L))).thenReturn(List.of(storedCluster));
+        when(textBlockRepository.findAllStatesByExerciseId(exercise1.getId())).thenReturn(List.of(new TextBlockStateDTO(blocks.get(0).getId(), 1L, 0, 0.9, TextBlockType.AUTOMATIC),
+                new TextBlockStateDTO(blocks.get(1).getId(), 1L, 1, 0.5, TextBlockType.AUTOMATIC),
+                new TextBlockStateDTO(blocks.get(2).getId(), 2L, 0, 0.0, TextBlockType.AUTOMATIC)));
+
+        atheneService.processResult(clusters, blocks, exercise1.getId());
+
+        // The stored cluster is unchanged, only the added distance of the second block and the cluster of the third block have changed
+        verify(textClusterRepository).saveAll(argThat(savedClusters -> !savedClusters.iterator().hasNext()));
+        ArgumentCaptor<List<TextBlock>> insertedBlocks = ArgumentCaptor.forClass(List.class);
+        verify(textBlockBatchRepository).insertAll(insertedBlocks.capture());
+        assertThat(insertedBlocks.getValue(), hasSize(7));
+        ArgumentCaptor<List<TextBlock>> updatedBlocks = ArgumentCaptor.forClass(List.class);
+        verify(textBlockBatchRepository).updateAll(updatedBlocks.capture());
+        assertThat(updatedBlocks.getValue(), hasSize(2));
+        assertThat(updatedBlocks.getValue().get(0).getId(), equalTo(blocks.get(1).getId()));
+        assertThat(updatedBlocks.getValue().get(0).getCluster(), equalTo(storedCluster));
+        assertThat(updatedBlocks.getValue().get(1).getId(), equalTo(blocks.get(2).getId()));
+        assertThat(updatedBlocks.getValue().get(1).getCluster(), nullValue());
+        verify(textClusterRepository).deleteAllByIdIn(Set.of(2L));
+    }
+
+    private Set<Long> generateSubmissionIds(int count) {
+        Set<Long> submissionIds = new HashSet<>();
+        for (long i = 0; i < count; i++) {
+            submissionIds.add(i);
+        }
+        return submissionIds;
     }
 
     /**
@@ -216,12 +258,16 @@ public class AtheneServiceTest extends AbstractSpringIntegrationBambooBitbucketJ
     }
 
     /**
-     * Generates example TextClusters
-     * @return A Map with the generated TextClusters
+     * Generates an example cluster containing the first two blocks
+     * @param blocks the blocks to cluster
+     * @return A Map with the generated cluster
      */
-    private Map<Integer, TextCluster> generateClusters() {
-        Map<Integer, TextCluster> clusters = new HashMap<>();
-        TextCluster c1 = new TextCluster();
+    private Map<Integer, AtheneDTO.TextClusterDTO> generateClusters(List<AtheneDTO.TextBlockDTO> blocks) {
+        Map<Integer, AtheneDTO.TextClusterDTO> clusters = new HashMap<>();
+        AtheneDTO.TextClusterDTO c1 = new AtheneDTO.TextClusterDTO();
+        c1.setBlocks(new ArrayList<>(blocks.subList(0, 2)));
+        c1.setProbabilities(new double[] { 0.9, 0.8 });
+        c1.setDistanceMatrix(new double[][] { { 0.0, 0.1 }, { 0.1, 0.0 } });
         clusters.put(0, c1);
         return clusters;
     }
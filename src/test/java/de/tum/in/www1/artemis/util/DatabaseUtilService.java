@@ -121,6 +121,7 @@ import de.tum.in.www1.artemis.repository.UserRepository;
 import de.tum.in.www1.artemis.security.AuthoritiesConstants;
 import de.tum.in.www1.artemis.service.ModelingAssessmentService;
 import de.tum.in.www1.artemis.service.ModelingSubmissionService;
+import de.tum.in.www1.artemis.service.metadata.MetadataCacheService;
 import de.tum.in.www1.artemis.web.rest.dto.PageableSearchDTO;
 
 /** Service responsible for initializing the database with specific testdata for a testscenario */
@@ -263,6 +264,9 @@ public class DatabaseUtilService {
     @Autowired
     private DatabaseCleanupService databaseCleanupService;
 
+    @Autowired
+    private MetadataCacheService metadataCacheService;
+
     @Value("${info.guided-tour.course-group-students:#{null}}")
     private Optional<String> tutorialGroupStudents;
 
@@ -274,6 +278,8 @@ public class DatabaseUtilService {
 
     public void resetDatabase() {
         databaseCleanupService.clearDatabase();
+        // the database has been cleared without entity events
+        metadataCacheService.clear();
     }
 
     // TODO: this should probably be moved into another service
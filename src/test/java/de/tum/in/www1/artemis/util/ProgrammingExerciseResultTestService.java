@@ -8,13 +8,13 @@ import java.util.Objects;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.Feedback;
 import de.tum.in.www1.artemis.domain.ProgrammingExercise;
 import de.tum.in.www1.artemis.domain.ProgrammingExerciseTestCase;
-import de.tum.in.www1.artemis.domain.ProgrammingSubmission;
 import de.tum.in.www1.artemis.domain.enumeration.ProgrammingLanguage;
 import de.tum.in.www1.artemis.domain.enumeration.StaticCodeAnalysisTool;
 import de.tum.in.www1.artemis.domain.participation.ProgrammingExerciseStudentParticipation;
@@ -22,6 +22,7 @@ import de.tum.in.www1.artemis.domain.participation.SolutionProgrammingExercisePa
 import de.tum.in.www1.artemis.repository.ProgrammingExerciseRepository;
 import de.tum.in.www1.artemis.repository.ProgrammingSubmissionRepository;
 import de.tum.in.www1.artemis.repository.SolutionProgrammingExerciseParticipationRepository;
+import de.tum.in.www1.artemis.service.BuildLogService;
 import de.tum.in.www1.artemis.service.FeedbackService;
 import de.tum.in.www1.artemis.service.ProgrammingExerciseGradingService;
 import de.tum.in.www1.artemis.service.ProgrammingExerciseTestCaseService;
@@ -64,6 +65,9 @@ public class ProgrammingExerciseResultTestService {
     @Autowired
     private ProgrammingExerciseTestCaseService programmingExerciseTestCaseService;
 
+    @Autowired
+    private BuildLogService buildLogService;
+
     private ProgrammingExercise programmingExercise;
 
     private ProgrammingExercise programmingExerciseWithStaticCodeAnalysis;
@@ -138,10 +142,13 @@ public class ProgrammingExerciseResultTestService {
         final var optionalResult = gradingService.processNewProgrammingExerciseResult(programmingExerciseStudentParticipation, resultNotification);
 
         var submission = programmingSubmissionRepository.findFirstByParticipationIdOrderBySubmissionDateDesc(programmingExerciseStudentParticipation.getId());
-        var submissionWithLogs = programmingSubmissionRepository.findWithEagerBuildLogEntriesById(submission.get().getId());
         var expectedNoOfLogs = getNumberOfBuildLogs(resultNotification);
-        assertThat(((ProgrammingSubmission) optionalResult.get().getSubmission()).getBuildLogEntries()).hasSize(expectedNoOfLogs);
-        assertThat(submissionWithLogs.get().getBuildLogEntries()).hasSize(expectedNoOfLogs);
+        assertThat(optionalResult.get().getSubmission().getId()).isEqualTo(submission.get().getId());
+        var buildLog = buildLogService.findBuildLog(submission.get());
+        assertThat(buildLog).isPresent();
+        assertThat(buildLogService.readBuildLogs(buildLog.get(), Pageable.unpaged(), null).getContent()).hasSize(expectedNoOfLogs);
+        // the complete logs are stored in one compressed build log instead of one row per line
+        assertThat(programmingSubmissionRepository.findWithEagerBuildLogEntriesById(submission.get().getId()).get().getBuildLogEntries()).isEmpty();
     }
 
     private int getNumberOfBuildLogs(Object resultNotification) {
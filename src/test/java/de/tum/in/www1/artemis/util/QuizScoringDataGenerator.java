@@ -0,0 +1,167 @@
+package de.tum.in.www1.artemis.util;
+
+import java.util.List;
+import java.util.Random;
+
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import de.tum.in.www1.artemis.domain.quiz.*;
+
+/**
+ * Generates quiz exercises with ids (as if they were saved) and random submissions for them, so that quiz scoring can be tested and benchmarked without a database
+ */
+public class QuizScoringDataGenerator {
+
+    private static final List<String> SOLUTIONS = List.of("binary search", "hash map", "linked list", "red black tree");
+
+    private final Random random;
+
+    private long nextId = 1;
+
+    public QuizScoringDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a quiz with one multiple choice, drag and drop and short answer question for each scoring type, some questions and question elements are invalid
+     *
+     * @return the generated quiz exercise
+     */
+    public QuizExercise generateQuizExercise() {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(nextId++);
+        for (ScoringType scoringType : List.of(ScoringType.ALL_OR_NOTHING, ScoringType.PROPORTIONAL_WITH_PENALTY)) {
+            quizExercise.addQuestions(generateMultipleChoiceQuestion(scoringType));
+            quizExercise.addQuestions(generateDragAndDropQuestion(scoringType));
+            quizExercise.addQuestions(generateShortAnswerQuestion(scoringType));
+        }
+        quizExercise.getQuizQuestions().get(random.nextInt(quizExercise.getQuizQuestions().size())).setInvalid(true);
+        return quizExercise;
+    }
+
+    /**
+     * Generates a submission with random answers for the questions of the given quiz, some questions are not answered
+     *
+     * @param quizExercise the quiz exercise for which the submission should be generated
+     * @return the generated submission
+     */
+    public QuizSubmission generateSubmission(QuizExercise quizExercise) {
+        QuizSubmission quizSubmission = new QuizSubmission();
+        for (QuizQuestion question : quizExercise.getQuizQuestions()) {
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+            if (question instanceof MultipleChoiceQuestion) {
+                var submittedAnswer = new MultipleChoiceSubmittedAnswer();
+                for (AnswerOption answerOption : ((MultipleChoiceQuestion) question).getAnswerOptions()) {
+                    if (random.nextBoolean()) {
+                        submittedAnswer.addSelectedOptions(answerOption);
+                    }
+                }
+                submittedAnswer.setQuizQuestion(question);
+                quizSubmission.addSubmittedAnswers(submittedAnswer);
+            }
+            else if (question instanceof DragAndDropQuestion) {
+                var dndQuestion = (DragAndDropQuestion) question;
+                var submittedAnswer = new DragAndDropSubmittedAnswer();
+                for (DropLocation dropLocation : dndQuestion.getDropLocations()) {
+                    int dragItemIndex = random.nextInt(dndQuestion.getDragItems().size() + 1);
+                    if (dragItemIndex < dndQuestion.getDragItems().size()) {
+                        submittedAnswer.addMappings(new DragAndDropMapping().dragItem(dndQuestion.getDragItems().get(dragItemIndex)).dropLocation(dropLocation));
+                    }
+                }
+                submittedAnswer.setQuizQuestion(question);
+                quizSubmission.addSubmittedAnswers(submittedAnswer);
+            }
+            else if (question instanceof ShortAnswerQuestion) {
+                var submittedAnswer = new ShortAnswerSubmittedAnswer();
+                for (ShortAnswerSpot spot : ((ShortAnswerQuestion) question).getSpots()) {
+                    if (random.nextInt(5) > 0) {
+                        ShortAnswerSubmittedText submittedText = new ShortAnswerSubmittedText();
+                        submittedText.setId(nextId++);
+                        submittedText.setSpot(spot);
+                        submittedText.setText(generateText());
+                        submittedAnswer.addSubmittedTexts(submittedText);
+                    }
+                }
+                submittedAnswer.setQuizQuestion(question);
+                quizSubmission.addSubmittedAnswers(submittedAnswer);
+            }
+        }
+        return quizSubmission;
+    }
+
+    private MultipleChoiceQuestion generateMultipleChoiceQuestion(ScoringType scoringType) {
+        MultipleChoiceQuestion question = (MultipleChoiceQuestion) new MultipleChoiceQuestion().title("MC").score(4).text("Q1");
+        question.setId(nextId++);
+        question.setScoringType(scoringType);
+        for (int i = 0; i < 5; i++) {
+            AnswerOption answerOption = new AnswerOption().text("Option " + i).isCorrect(random.nextBoolean());
+            answerOption.setId(nextId++);
+            answerOption.setInvalid(random.nextInt(8) == 0);
+            question.getAnswerOptions().add(answerOption);
+        }
+        return question;
+    }
+
+    private DragAndDropQuestion generateDragAndDropQuestion(ScoringType scoringType) {
+        DragAndDropQuestion question = (DragAndDropQuestion) new DragAndDropQuestion().title("DnD").score(3).text("Q2");
+        question.setId(nextId++);
+        question.setScoringType(scoringType);
+        for (int i = 0; i < 4; i++) {
+            DropLocation dropLocation = new DropLocation().posX(10d * i).posY(10d).height(10d).width(10d);
+            dropLocation.setId(nextId++);
+            dropLocation.setInvalid(random.nextInt(8) == 0);
+            question.addDropLocation(dropLocation);
+            DragItem dragItem = new DragItem().text("D" + i);
+            dragItem.setId(nextId++);
+            dragItem.setInvalid(random.nextInt(8) == 0);
+            question.addDragItem(dragItem);
+        }
+        // the last drop location is meant to stay empty, the first one accepts two drag items
+        for (int i = 0; i < 3; i++) {
+            question.addCorrectMapping(new DragAndDropMapping().dragItem(question.getDragItems().get(i)).dropLocation(question.getDropLocations().get(i)));
+        }
+        question.addCorrectMapping(new DragAndDropMapping().dragItem(question.getDragItems().get(3)).dropLocation(question.getDropLocations().get(0)));
+        return question;
+    }
+
+    private ShortAnswerQuestion generateShortAnswerQuestion(ScoringType scoringType) {
+        ShortAnswerQuestion question = (ShortAnswerQuestion) new ShortAnswerQuestion().title("SA").score(2).text("Q3");
+        question.setId(nextId++);
+        question.setScoringType(scoringType);
+        for (int i = 0; i < SOLUTIONS.size(); i++) {
+            ShortAnswerSolution solution = new ShortAnswerSolution().text(SOLUTIONS.get(i));
+            solution.setId(nextId++);
+            question.addSolution(solution);
+        }
+        for (int i = 0; i < 3; i++) {
+            ShortAnswerSpot spot = new ShortAnswerSpot().spotNr(i).width(1);
+            spot.setId(nextId++);
+            spot.setInvalid(random.nextInt(8) == 0);
+            question.getSpots().add(spot);
+            question.addCorrectMapping(new ShortAnswerMapping().spot(spot).solution(question.getSolutions().get(i)));
+        }
+        // the first spot accepts two solutions
+        question.addCorrectMapping(new ShortAnswerMapping().spot(question.getSpots().get(0)).solution(question.getSolutions().get(3)));
+        return question;
+    }
+
+    /**
+     * Generates one of the solutions in different case and with whitespace or a typo, or a wrong text
+     */
+    private String generateText() {
+        String solution = SOLUTIONS.get(random.nextInt(SOLUTIONS.size()));
+        switch (random.nextInt(5)) {
+            case 0:
+                return solution;
+            case 1:
+                return "  " + solution.toUpperCase() + "\n";
+            case 2:
+                return solution.substring(0, solution.length() - 1) + "x";
+            case 3:
+                return solution.substring(0, solution.length() / 2);
+            default:
+                return "wrong short answer";
+        }
+    }
+}
@@ -4,9 +4,8 @@ import * as sinon from 'sinon';
 import * as moment from 'moment';
 import { BehaviorSubject, of } from 'rxjs';
 import { TranslateService } from '@ngx-translate/core';
-import { HttpHeaders, HttpResponse } from '@angular/common/http';
+import { HttpResponse } from '@angular/common/http';
 import { ComponentFixture, fakeAsync, TestBed, tick } from '@angular/core/testing';
-import { By } from '@angular/platform-browser';
 import { LocalStorageService, SessionStorageService } from 'ngx-webstorage';
 import { NotificationSidebarComponent } from 'app/shared/notification/notification-sidebar/notification-sidebar.component';
 import { NotificationService } from 'app/shared/notification/notification.service';
@@ -37,12 +36,7 @@ describe('Notification Sidebar Component', () => {
     const notifications = [notificationNow, notificationPast] as Notification[];
 
     const generateQueryResponse = (ns: Notification[]) => {
-        return {
-            body: ns,
-            headers: new HttpHeaders({
-                'X-Total-Count': ns.length.toString(),
-            }),
-        } as HttpResponse<Notification[]>;
+        return { body: ns } as HttpResponse<Notification[]>;
     };
 
     beforeEach(() => {
@@ -80,9 +74,15 @@ describe('Notification Sidebar Component', () => {
         });
 
         it('should query notifications', () => {
-            sinon.spy(notificationService, 'query');
+            sinon.spy(notificationService, 'queryFeed');
             notificationSidebarComponent.ngOnInit();
-            expect(notificationService.query).to.have.been.calledOnce;
+            expect(notificationService.queryFeed).to.have.been.calledOnceWith(undefined, notificationSidebarComponent.notificationsPerPage);
+        });
+
+        it('should query recent notification count', () => {
+            sinon.spy(notificationService, 'getUnreadCount');
+            notificationSidebarComponent.ngOnInit();
+            expect(notificationService.getUnreadCount).to.have.been.calledOnce;
         });
 
         it('should subscribe to notification updates for user', () => {
@@ -170,70 +170,82 @@ describe('Notification Sidebar Component', () => {
         it('should not add already existing notifications', () => {
             notificationSidebarComponent.notifications = [notificationNow];
             const fake = sinon.fake.returns(of(generateQueryResponse(notifications)));
-            sinon.replace(notificationService, 'query', fake);
+            sinon.replace(notificationService, 'queryFeed', fake);
             notificationSidebarComponent.ngOnInit();
             expect(notificationSidebarComponent.notifications.length).to.be.equal(notifications.length);
         });
 
         it('should update sorted notifications array after new notifications were loaded', () => {
             const fake = sinon.fake.returns(of(generateQueryResponse([notificationPast, notificationNow])));
-            sinon.replace(notificationService, 'query', fake);
+            sinon.replace(notificationService, 'queryFeed', fake);
             notificationSidebarComponent.ngOnInit();
-            expect(notificationService.query).to.have.been.calledOnce;
+            expect(notificationService.queryFeed).to.have.been.calledOnce;
             expect(notificationSidebarComponent.sortedNotifications[0]).to.be.equal(notificationNow);
             expect(notificationSidebarComponent.sortedNotifications[1]).to.be.equal(notificationPast);
         });
 
-        it('should set total notification count to received X-Total-Count header', () => {
+        it('should load notifications older than the oldest loaded notification', () => {
+            notificationSidebarComponent.notifications = [notificationNow, notificationPast];
+            sinon.spy(notificationService, 'queryFeed');
+            notificationSidebarComponent.ngOnInit();
+            expect(notificationService.queryFeed).to.have.been.calledOnceWith(notificationNow.id, notificationSidebarComponent.notificationsPerPage);
+        });
+
+        it('should mark all notifications as loaded if less notifications than requested were received', () => {
             const fake = sinon.fake.returns(of(generateQueryResponse(notifications)));
-            sinon.replace(notificationService, 'query', fake);
+            sinon.replace(notificationService, 'queryFeed', fake);
             notificationSidebarComponent.ngOnInit();
-            expect(notificationService.query).to.have.been.calledOnce;
-            expect(notificationSidebarComponent.totalNotifications).to.be.equal(notifications.length);
+            expect(notificationService.queryFeed).to.have.been.calledOnce;
+            expect(notificationSidebarComponent.allNotificationsLoaded).to.be.true;
         });
 
-        it('should increase total notification count if a new notification is received via websocket', () => {
+        it('should increase recent notification count if a new notification is received via websocket', () => {
             replaceSubscribeToNotificationUpdates();
             notificationSidebarComponent.ngOnInit();
             expect(notificationSidebarComponent.notifications.length).to.be.equal(1);
-            expect(notificationSidebarComponent.totalNotifications).to.be.equal(1);
+            expect(notificationSidebarComponent.recentNotificationCount).to.be.equal(1);
         });
 
         it('should not add already existing notification received via websocket', () => {
             notificationSidebarComponent.notifications = [notificationNow];
-            notificationSidebarComponent.totalNotifications = 1;
             replaceSubscribeToNotificationUpdates();
             notificationSidebarComponent.ngOnInit();
             expect(notificationSidebarComponent.notifications.length).to.be.equal(1);
-            expect(notificationSidebarComponent.totalNotifications).to.be.equal(1);
+            expect(notificationSidebarComponent.recentNotificationCount).to.be.equal(0);
         });
 
         it('should load more notifications only if not all are already loaded', () => {
             notificationSidebarComponent.notifications = notifications;
-            notificationSidebarComponent.totalNotifications = 2;
-            sinon.spy(notificationService, 'query');
+            notificationSidebarComponent.allNotificationsLoaded = true;
+            sinon.spy(notificationService, 'queryFeed');
             notificationSidebarComponent.ngOnInit();
-            expect(notificationService.query).not.to.be.called;
+            expect(notificationService.queryFeed).not.to.be.called;
         });
     });
 
     describe('Recent notifications', () => {
-        it('should evaluate recent notifications correctly', () => {
+        it('should set recent notification count to the number of unread notifications', () => {
+            const fake = sinon.fake.returns(of(3));
+            sinon.replace(notificationService, 'getUnreadCount', fake);
+            notificationSidebarComponent.ngOnInit();
+            expect(notificationService.getUnreadCount).to.have.been.calledOnce;
+            expect(notificationSidebarComponent.recentNotificationCount).to.be.equal(3);
+        });
+
+        it('should not count notifications received via websocket that are older than the last notification read', () => {
             notificationSidebarComponent.lastNotificationRead = moment().subtract(1, 'day');
-            const fake = sinon.fake.returns(of(generateQueryResponse(notifications)));
-            sinon.replace(notificationService, 'query', fake);
+            const fake = sinon.fake.returns(new BehaviorSubject(notificationPast));
+            sinon.replace(notificationService, 'subscribeToNotificationUpdates', fake);
             notificationSidebarComponent.ngOnInit();
-            expect(notificationService.query).to.be.called;
-            expect(notificationSidebarComponent.recentNotificationCount).to.be.equal(1);
+            expect(notificationSidebarComponent.recentNotificationCount).to.be.equal(0);
         });
 
-        it('should show plus sign in recent notification count badge if all loaded notifications are recent notifications', () => {
-            notificationSidebarComponent.notifications = notifications;
+        it('should reset recent notification count two seconds after the user opened the sidebar', fakeAsync(() => {
             notificationSidebarComponent.recentNotificationCount = 2;
-            notificationSidebarComponentFixture.detectChanges();
-            const plus = notificationSidebarComponentFixture.debugElement.query(By.css('.badge-danger > span'));
-            expect(plus).to.be.not.null;
-        });
+            notificationSidebarComponent.updateLastNotificationRead();
+            tick(2000);
+            expect(notificationSidebarComponent.recentNotificationCount).to.be.equal(0);
+        }));
     });
 
     describe('UI', () => {
@@ -253,7 +265,7 @@ describe('Notification Sidebar Component', () => {
 
         it('should show all notifications loaded message when all notifications are loaded', () => {
             notificationSidebarComponent.notifications = notifications;
-            notificationSidebarComponent.totalNotifications = 1;
+            notificationSidebarComponent.allNotificationsLoaded = true;
             notificationSidebarComponentFixture.detectChanges();
             const allLoadedMessage = notificationSidebarComponentFixture.debugElement.nativeElement.querySelector('.all-loaded');
             expect(allLoadedMessage).to.be.not.null;
@@ -13,6 +13,8 @@ import { ArtemisTestModule } from '../../test.module';
 import { ArtemisSharedModule } from 'app/shared/shared.module';
 import { MockActivatedRouteWithSubjects } from '../../helpers/mocks/activated-route/mock-activated-route-with-subjects';
 import { Course } from 'app/entities/course.model';
+import { JhiWebsocketService } from 'app/core/websocket/websocket.service';
+import { MockWebsocketService } from '../../helpers/mocks/service/mock-websocket.service';
 
 chai.use(sinonChai);
 const expect = chai.expect;
@@ -68,6 +70,7 @@ describe('StudentQuestionRowComponent', () => {
             providers: [
                 { provide: AccountService, useClass: MockAccountService },
                 { provide: ActivatedRoute, useClass: MockActivatedRouteWithSubjects },
+                { provide: JhiWebsocketService, useClass: MockWebsocketService },
             ],
             declarations: [StudentQuestionsComponent],
         })
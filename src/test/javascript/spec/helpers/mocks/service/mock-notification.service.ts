@@ -5,6 +5,8 @@ import { GroupNotification } from 'app/entities/group-notification.model';
 
 export class MockNotificationService {
     query = (req?: any): Observable<HttpResponse<Notification[]>> => of();
+    queryFeed = (beforeId: number | undefined, size: number): Observable<HttpResponse<Notification[]>> => of();
+    getUnreadCount = (): Observable<number> => of(0);
     subscribeToNotificationUpdates = (): BehaviorSubject<Notification | null> => new BehaviorSubject(null);
     interpretNotification = (notification: GroupNotification): void => {};
     cleanUp = () => {};